@@ -25,7 +25,9 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 import java.util.UUID;
@@ -76,6 +78,16 @@ import org.apache.qpid.server.util.CachingUUIDFactory;
 
 public abstract class AbstractBDBMessageStore implements MessageStore
 {
+    /** Number of messages following a reloaded message whose meta-data and content are read ahead (0 disables) */
+    public static final String READ_AHEAD_MESSAGE_COUNT = "qpid.bdb.read_ahead.message_count";
+    /** Maximum number of bytes of read ahead meta-data and content held by the store */
+    public static final String READ_AHEAD_CACHE_SIZE = "qpid.bdb.read_ahead.cache_size";
+    /** Messages with content larger than this are not read ahead, only their meta-data is */
+    public static final String READ_AHEAD_MAX_CONTENT_SIZE = "qpid.bdb.read_ahead.max_content_size";
+
+    private static final int DEFAULT_READ_AHEAD_MESSAGE_COUNT = 32;
+    private static final long DEFAULT_READ_AHEAD_CACHE_SIZE = 16 * 1024 * 1024;
+    private static final int DEFAULT_READ_AHEAD_MAX_CONTENT_SIZE = 256 * 1024;
 
     private static final int LOCK_RETRY_ATTEMPTS = 5;
 
@@ -109,8 +121,11 @@ public abstract class AbstractBDBMessageStore implements MessageStore
     private final Random _lockConflictRandom = new Random();
     private final AtomicLong _inMemorySize = new AtomicLong();
     private final AtomicLong _bytesEvacuatedFromMemory = new AtomicLong();
-    private final Set<StoredBDBMessage<?>> _messages = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private final Map<Long, StoredBDBMessage<?>> _messages = new ConcurrentHashMap<>();
     private final Set<MessageDeleteListener> _messageDeleteListeners = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private int _readAheadMessageCount;
+    private int _readAheadMaxContentSize;
+    private volatile MessageReadAheadCache _readAheadCache;
 
     @Override
     public void openMessageStore(final ConfiguredObject<?> parent)
@@ -128,6 +143,16 @@ public abstract class AbstractBDBMessageStore implements MessageStore
                 _persistentSizeLowThreshold = _persistentSizeHighThreshold;
             }
 
+            _readAheadMessageCount = BDBUtils.getContextValue(parent, Integer.class, READ_AHEAD_MESSAGE_COUNT,
+                                                              DEFAULT_READ_AHEAD_MESSAGE_COUNT);
+            _readAheadMaxContentSize = BDBUtils.getContextValue(parent, Integer.class, READ_AHEAD_MAX_CONTENT_SIZE,
+                                                                DEFAULT_READ_AHEAD_MAX_CONTENT_SIZE);
+            final long readAheadCacheSize = BDBUtils.getContextValue(parent, Long.class, READ_AHEAD_CACHE_SIZE,
+                                                                     DEFAULT_READ_AHEAD_CACHE_SIZE);
+            _readAheadCache = _readAheadMessageCount > 0 && readAheadCacheSize > 0
+                    ? new MessageReadAheadCache(_readAheadMessageCount * 2, readAheadCacheSize)
+                    : null;
+
             doOpen(parent);
         }
     }
@@ -139,11 +164,15 @@ public abstract class AbstractBDBMessageStore implements MessageStore
     {
         if (_messageStoreOpen.compareAndSet(true, false))
         {
-            for (StoredBDBMessage<?> message : _messages)
+            for (StoredBDBMessage<?> message : _messages.values())
             {
                 message.clear();
             }
             _messages.clear();
+            if (_readAheadCache != null)
+            {
+                _readAheadCache.clear();
+            }
             _inMemorySize.set(0);
             _bytesEvacuatedFromMemory.set(0);
             doClose();
@@ -213,7 +242,7 @@ public abstract class AbstractBDBMessageStore implements MessageStore
                                                                                            final boolean recovered)
     {
         final StoredBDBMessage<T> message = new StoredBDBMessage<>(newMessageId, metaData, recovered);
-        _messages.add(message);
+        _messages.put(newMessageId, message);
         return message;
     }
 
@@ -241,7 +270,8 @@ public abstract class AbstractBDBMessageStore implements MessageStore
     @Override
     public long getInMemorySize()
     {
-        return _inMemorySize.get();
+        final MessageReadAheadCache readAheadCache = _readAheadCache;
+        return _inMemorySize.get() + (readAheadCache == null ? 0L : readAheadCache.getBytes());
     }
 
     @Override
@@ -250,6 +280,24 @@ public abstract class AbstractBDBMessageStore implements MessageStore
         return _bytesEvacuatedFromMemory.get();
     }
 
+    public long getReadAheadCacheHits()
+    {
+        final MessageReadAheadCache readAheadCache = _readAheadCache;
+        return readAheadCache == null ? 0L : readAheadCache.getHits();
+    }
+
+    public long getReadAheadCacheMisses()
+    {
+        final MessageReadAheadCache readAheadCache = _readAheadCache;
+        return readAheadCache == null ? 0L : readAheadCache.getMisses();
+    }
+
+    public long getReadAheadMessages()
+    {
+        final MessageReadAheadCache readAheadCache = _readAheadCache;
+        return readAheadCache == null ? 0L : readAheadCache.getPrefetched();
+    }
+
     @Override
     public boolean isPersistent()
     {
@@ -289,6 +337,26 @@ public abstract class AbstractBDBMessageStore implements MessageStore
     {
         getLogger().debug("public MessageMetaData getMessageMetaData(Long messageId = {}): called", messageId);
 
+        final MessageReadAheadCache readAheadCache = _readAheadCache;
+        if (readAheadCache != null)
+        {
+            StorableMessageMetaData metaData = readAheadCache.takeMetaData(messageId);
+            if (metaData == null)
+            {
+                readAheadCache.recordMiss();
+                readAhead(readAheadCache, messageId);
+                metaData = readAheadCache.takeMetaData(messageId);
+            }
+            else
+            {
+                readAheadCache.recordHit();
+            }
+            if (metaData != null)
+            {
+                return metaData;
+            }
+        }
+
         DatabaseEntry key = new DatabaseEntry();
         LongBinding.longToEntry(messageId, key);
         DatabaseEntry value = new DatabaseEntry();
@@ -317,6 +385,12 @@ public abstract class AbstractBDBMessageStore implements MessageStore
 
     void removeMessage(long messageId, boolean sync) throws StoreException
     {
+        final MessageReadAheadCache readAheadCache = _readAheadCache;
+        if (readAheadCache != null)
+        {
+            readAheadCache.remove(messageId);
+        }
+
         boolean complete = false;
         Transaction tx = null;
         int attempts = 0;
@@ -415,6 +489,16 @@ public abstract class AbstractBDBMessageStore implements MessageStore
 
     QpidByteBuffer getAllContent(long messageId) throws StoreException
     {
+        final MessageReadAheadCache readAheadCache = _readAheadCache;
+        if (readAheadCache != null)
+        {
+            final QpidByteBuffer content = readAheadCache.takeContent(messageId);
+            if (content != null)
+            {
+                return content;
+            }
+        }
+
         DatabaseEntry contentKeyEntry = new DatabaseEntry();
         LongBinding.longToEntry(messageId, contentKeyEntry);
         DatabaseEntry value = new DatabaseEntry();
@@ -450,6 +534,103 @@ public abstract class AbstractBDBMessageStore implements MessageStore
         }
     }
 
+    /**
+     * Reads the meta-data of the given message and of the messages that follow it in message id order (which is
+     * the order in which they were published, and so normally the order in which a queue will deliver them) using
+     * a cursor, together with their content if it is small enough.  Only messages which have flowed to disk are
+     * read ahead.
+     */
+    private void readAhead(final MessageReadAheadCache readAheadCache, final long messageId)
+    {
+        final MessageMetaDataBinding valueBinding = MessageMetaDataBinding.getInstance();
+        final List<Long> contentToRead = new ArrayList<>();
+        final DatabaseEntry key = new DatabaseEntry();
+        final DatabaseEntry value = new DatabaseEntry();
+        long contentBytes = 0;
+        try
+        {
+            LongBinding.longToEntry(messageId, key);
+            try (Cursor cursor = getMessageMetaDataDb().openCursor(null, null))
+            {
+                OperationStatus status = cursor.getSearchKey(key, value, LockMode.READ_UNCOMMITTED);
+                int count = 0;
+                while (status == OperationStatus.SUCCESS && count < _readAheadMessageCount)
+                {
+                    final long currentId = LongBinding.entryToLong(key);
+                    final StoredBDBMessage<?> message = _messages.get(currentId);
+                    if (currentId == messageId
+                        || (message != null && message.isMetaDataEvacuated() && !readAheadCache.contains(currentId)))
+                    {
+                        final StorableMessageMetaData metaData = valueBinding.entryToObject(value);
+                        readAheadCache.putMetaData(currentId, metaData);
+                        final int contentSize = metaData.getContentSize();
+                        if (contentSize > 0
+                            && contentSize <= _readAheadMaxContentSize
+                            && readAheadCache.hasCapacityFor(contentBytes + contentSize))
+                        {
+                            contentToRead.add(currentId);
+                            contentBytes += contentSize;
+                        }
+                        count++;
+                    }
+                    status = cursor.getNext(key, value, LockMode.READ_UNCOMMITTED);
+                }
+            }
+
+            if (!contentToRead.isEmpty())
+            {
+                readAheadContent(readAheadCache, contentToRead);
+            }
+        }
+        catch (RuntimeException e)
+        {
+            throw getEnvironmentFacade().handleDatabaseException("Error reading ahead message data from message with id "
+                                                                 + messageId
+                                                                 + ": "
+                                                                 + e.getMessage(), e);
+        }
+    }
+
+    private void readAheadContent(final MessageReadAheadCache readAheadCache, final List<Long> messageIds)
+    {
+        final DatabaseEntry key = new DatabaseEntry();
+        final DatabaseEntry value = new DatabaseEntry();
+        final DatabaseEntry keyOnly = new DatabaseEntry();
+        keyOnly.setPartial(0, 0, true);
+
+        final Iterator<Long> iterator = messageIds.iterator();
+        long nextId = iterator.next();
+        LongBinding.longToEntry(nextId, key);
+        try (Cursor cursor = getMessageContentDb().openCursor(null, null))
+        {
+            OperationStatus status = cursor.getSearchKeyRange(key, keyOnly, LockMode.READ_UNCOMMITTED);
+            while (status == OperationStatus.SUCCESS)
+            {
+                final long currentId = LongBinding.entryToLong(key);
+                while (currentId > nextId && iterator.hasNext())
+                {
+                    nextId = iterator.next();
+                }
+                if (currentId > nextId)
+                {
+                    break;
+                }
+                if (currentId == nextId
+                    && cursor.getCurrent(key, value, LockMode.READ_UNCOMMITTED) == OperationStatus.SUCCESS)
+                {
+                    final QpidByteBuffer buf = QpidByteBuffer.allocateDirect(value.getSize());
+                    buf.put(value.getData(), value.getOffset(), value.getSize());
+                    buf.flip();
+                    if (!readAheadCache.putContent(currentId, buf))
+                    {
+                        buf.dispose();
+                    }
+                }
+                status = cursor.getNext(key, keyOnly, LockMode.READ_UNCOMMITTED);
+            }
+        }
+    }
+
     private void visitMessagesInternal(MessageHandler handler, EnvironmentFacade environmentFacade)
     {
         DatabaseEntry key = new DatabaseEntry();
@@ -1018,7 +1199,7 @@ public abstract class AbstractBDBMessageStore implements MessageStore
         private final long _messageId;
         private final int _contentSize;
         private final int _metadataSize;
-        private MessageDataRef<T> _messageDataRef;
+        private volatile MessageDataRef<T> _messageDataRef;
 
         StoredBDBMessage(long messageId, T metaData, boolean isRecovered)
         {
@@ -1170,7 +1351,7 @@ public abstract class AbstractBDBMessageStore implements MessageStore
         public synchronized void remove()
         {
             checkMessageStoreOpen();
-            _messages.remove(this);
+            _messages.remove(_messageId);
             if(stored())
             {
                 removeMessage(_messageId, false);
@@ -1204,6 +1385,15 @@ public abstract class AbstractBDBMessageStore implements MessageStore
             }
         }
 
+        /**
+         * Unsynchronized check used to decide whether read ahead of this message is worthwhile.
+         */
+        boolean isMetaDataEvacuated()
+        {
+            final MessageDataRef<T> messageDataRef = _messageDataRef;
+            return messageDataRef != null && messageDataRef.getMetaData() == null;
+        }
+
         @Override
         public synchronized boolean isInMemory()
         {
@@ -0,0 +1,250 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.store.berkeleydb;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.store.StorableMessageMetaData;
+
+/**
+ * Bounded cache of message meta-data and content read ahead of a reload of a message which has flowed to disk.
+ * <p>
+ * Each cached item is handed out at most once: the caller taking the meta-data or content becomes its owner.
+ * Hits and misses are recorded by the caller, once per meta-data reload.
+ * Items are evicted oldest first once either the entry or the byte limit is exceeded.
+ */
+class MessageReadAheadCache
+{
+    private final int _maximumEntries;
+    private final long _maximumBytes;
+    private final Map<Long, CachedMessage> _entries = new LinkedHashMap<>();
+    private final AtomicLong _hits = new AtomicLong();
+    private final AtomicLong _misses = new AtomicLong();
+    private final AtomicLong _prefetched = new AtomicLong();
+    private long _bytes;
+
+    MessageReadAheadCache(final int maximumEntries, final long maximumBytes)
+    {
+        _maximumEntries = maximumEntries;
+        _maximumBytes = maximumBytes;
+    }
+
+    StorableMessageMetaData takeMetaData(final long messageId)
+    {
+        final StorableMessageMetaData metaData;
+        synchronized (this)
+        {
+            final CachedMessage cachedMessage = _entries.get(messageId);
+            metaData = cachedMessage == null ? null : cachedMessage.takeMetaData();
+            if (metaData != null)
+            {
+                _bytes -= metaData.getStorableSize();
+                removeIfConsumed(messageId, cachedMessage);
+            }
+        }
+        return metaData;
+    }
+
+    QpidByteBuffer takeContent(final long messageId)
+    {
+        final QpidByteBuffer content;
+        synchronized (this)
+        {
+            final CachedMessage cachedMessage = _entries.get(messageId);
+            content = cachedMessage == null ? null : cachedMessage.takeContent();
+            if (content != null)
+            {
+                _bytes -= content.remaining();
+                removeIfConsumed(messageId, cachedMessage);
+            }
+        }
+        return content;
+    }
+
+    synchronized boolean contains(final long messageId)
+    {
+        return _entries.containsKey(messageId);
+    }
+
+    synchronized void putMetaData(final long messageId, final StorableMessageMetaData metaData)
+    {
+        CachedMessage cachedMessage = _entries.get(messageId);
+        if (cachedMessage == null)
+        {
+            cachedMessage = new CachedMessage();
+            _entries.put(messageId, cachedMessage);
+        }
+        if (cachedMessage.getMetaData() == null)
+        {
+            cachedMessage.setMetaData(metaData);
+            _bytes += metaData.getStorableSize();
+            _prefetched.incrementAndGet();
+        }
+        evictIfNecessary();
+    }
+
+    synchronized boolean putContent(final long messageId, final QpidByteBuffer content)
+    {
+        final CachedMessage cachedMessage = _entries.get(messageId);
+        if (cachedMessage == null || cachedMessage.getContent() != null)
+        {
+            return false;
+        }
+        cachedMessage.setContent(content);
+        _bytes += content.remaining();
+        evictIfNecessary();
+        return true;
+    }
+
+    synchronized boolean hasCapacityFor(final long bytes)
+    {
+        return _bytes + bytes <= _maximumBytes;
+    }
+
+    synchronized void remove(final long messageId)
+    {
+        final CachedMessage cachedMessage = _entries.remove(messageId);
+        if (cachedMessage != null)
+        {
+            _bytes -= cachedMessage.dispose();
+        }
+    }
+
+    synchronized void clear()
+    {
+        for (CachedMessage cachedMessage : _entries.values())
+        {
+            cachedMessage.dispose();
+        }
+        _entries.clear();
+        _bytes = 0;
+    }
+
+    long getHits()
+    {
+        return _hits.get();
+    }
+
+    long getMisses()
+    {
+        return _misses.get();
+    }
+
+    long getPrefetched()
+    {
+        return _prefetched.get();
+    }
+
+    synchronized long getBytes()
+    {
+        return _bytes;
+    }
+
+    void recordHit()
+    {
+        _hits.incrementAndGet();
+    }
+
+    void recordMiss()
+    {
+        _misses.incrementAndGet();
+    }
+
+    private void removeIfConsumed(final long messageId, final CachedMessage cachedMessage)
+    {
+        if (cachedMessage.getMetaData() == null && cachedMessage.getContent() == null)
+        {
+            _entries.remove(messageId);
+        }
+    }
+
+    private void evictIfNecessary()
+    {
+        final Iterator<CachedMessage> iterator = _entries.values().iterator();
+        while ((_entries.size() > _maximumEntries || _bytes > _maximumBytes) && iterator.hasNext())
+        {
+            _bytes -= iterator.next().dispose();
+            iterator.remove();
+        }
+    }
+
+    private static final class CachedMessage
+    {
+        private StorableMessageMetaData _metaData;
+        private QpidByteBuffer _content;
+
+        StorableMessageMetaData getMetaData()
+        {
+            return _metaData;
+        }
+
+        void setMetaData(final StorableMessageMetaData metaData)
+        {
+            _metaData = metaData;
+        }
+
+        StorableMessageMetaData takeMetaData()
+        {
+            final StorableMessageMetaData metaData = _metaData;
+            _metaData = null;
+            return metaData;
+        }
+
+        QpidByteBuffer getContent()
+        {
+            return _content;
+        }
+
+        void setContent(final QpidByteBuffer content)
+        {
+            _content = content;
+        }
+
+        QpidByteBuffer takeContent()
+        {
+            final QpidByteBuffer content = _content;
+            _content = null;
+            return content;
+        }
+
+        long dispose()
+        {
+            long bytes = 0;
+            if (_metaData != null)
+            {
+                bytes += _metaData.getStorableSize();
+                _metaData.dispose();
+                _metaData = null;
+            }
+            if (_content != null)
+            {
+                bytes += _content.remaining();
+                _content.dispose();
+                _content = null;
+            }
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,433 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.store.berkeleydb.replication;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.sleepycat.je.DatabaseException;
+import com.sleepycat.je.Durability;
+import com.sleepycat.je.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.qpid.server.store.berkeleydb.Committer;
+import org.apache.qpid.server.store.berkeleydb.EnvironmentFacade;
+
+/**
+ * Commits replicated transactions on a number of commit threads so that several batches of transactions can be
+ * awaiting replica acknowledgement at the same time.
+ * <p>
+ * Each commit thread takes all the transactions queued so far as a batch.  All but the last transaction of the
+ * batch are committed without local sync or replica acknowledgement; the last is committed with the message store
+ * durability.  As replicas apply the replication stream in order, the acknowledgement of the last transaction
+ * covers the whole batch.  Batches complete their futures strictly in the order in which they were formed,
+ * whatever the order in which their acknowledgements arrive.
+ * <p>
+ * Transactions are accepted only until the committer is stopped.  Stopping commits whatever was accepted but not yet
+ * taken by a commit thread, so every future returned by {@link #commitAsync(Transaction, Object)} is completed.
+ */
+public class PipelinedReplicatedCommitter implements Committer
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(PipelinedReplicatedCommitter.class);
+
+    private static final Durability BATCHED_DURABILITY = new Durability(Durability.SyncPolicy.NO_SYNC,
+                                                                        Durability.SyncPolicy.NO_SYNC,
+                                                                        Durability.ReplicaAckPolicy.NONE);
+
+    private final String _name;
+    private final int _pipelineDepth;
+    private final int _maximumBatchSize;
+    private final Durability _durability;
+    private final EnvironmentFacade _environmentFacade;
+    private final Queue<PendingCommit<?>> _pendingCommits = new ConcurrentLinkedQueue<>();
+    private final Queue<CommitBatch> _inFlightBatches = new ConcurrentLinkedQueue<>();
+    private final Object _lock = new Object();
+    private final Object _completionLock = new Object();
+    private final AtomicBoolean _stopped = new AtomicBoolean();
+    private final List<Thread> _commitThreads = new ArrayList<>();
+
+    private final AtomicInteger _inFlightBatchCount = new AtomicInteger();
+    private final AtomicLong _batchCount = new AtomicLong();
+    private final AtomicLong _transactionCount = new AtomicLong();
+    private final AtomicLong _totalBatchLatency = new AtomicLong();
+    private final AtomicLong _maximumBatchLatency = new AtomicLong();
+
+    public PipelinedReplicatedCommitter(final String name,
+                                        final int pipelineDepth,
+                                        final int maximumBatchSize,
+                                        final Durability durability,
+                                        final EnvironmentFacade environmentFacade)
+    {
+        _name = name;
+        _pipelineDepth = pipelineDepth;
+        _maximumBatchSize = maximumBatchSize;
+        _durability = durability;
+        _environmentFacade = environmentFacade;
+    }
+
+    @Override
+    public void start()
+    {
+        for (int i = 0; i < _pipelineDepth; i++)
+        {
+            final Thread thread = new Thread(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    processBatches();
+                }
+            }, "Commit-Pipeline-" + _name + "-" + i);
+            thread.setDaemon(true);
+            _commitThreads.add(thread);
+            thread.start();
+        }
+    }
+
+    @Override
+    public void stop()
+    {
+        final boolean stopping;
+        synchronized (_lock)
+        {
+            // set whilst holding the lock so that no transaction can be accepted once the last batch has been taken
+            stopping = _stopped.compareAndSet(false, true);
+            _lock.notifyAll();
+        }
+        if (stopping)
+        {
+            for (Thread thread : _commitThreads)
+            {
+                if (thread != Thread.currentThread())
+                {
+                    try
+                    {
+                        thread.join();
+                    }
+                    catch (InterruptedException e)
+                    {
+                        Thread.currentThread().interrupt();
+                        throw new RuntimeException("Commit pipeline thread has not shutdown", e);
+                    }
+                }
+            }
+
+            // commit whatever was queued after the commit threads stopped taking work
+            final CommitBatch batch;
+            synchronized (_lock)
+            {
+                batch = takeBatch(Integer.MAX_VALUE);
+            }
+            if (batch != null)
+            {
+                commitBatch(batch);
+            }
+        }
+    }
+
+    @Override
+    public void commit(final Transaction tx, final boolean syncCommit)
+    {
+        if (!syncCommit)
+        {
+            try
+            {
+                tx.commit(BATCHED_DURABILITY);
+            }
+            catch (DatabaseException e)
+            {
+                throw _environmentFacade.handleDatabaseException("Got DatabaseException on commit, closing environment", e);
+            }
+            return;
+        }
+
+        final ListenableFuture<Void> future = commitAsync(tx, null);
+        boolean interrupted = false;
+        try
+        {
+            while (true)
+            {
+                try
+                {
+                    future.get();
+                    return;
+                }
+                catch (InterruptedException e)
+                {
+                    interrupted = true;
+                }
+                catch (ExecutionException e)
+                {
+                    if (e.getCause() instanceof RuntimeException)
+                    {
+                        throw (RuntimeException) e.getCause();
+                    }
+                    throw new RuntimeException(e.getCause());
+                }
+            }
+        }
+        finally
+        {
+            if (interrupted)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public <X> ListenableFuture<X> commitAsync(final Transaction tx, final X val)
+    {
+        final PendingCommit<X> pendingCommit = new PendingCommit<>(tx, val);
+        synchronized (_lock)
+        {
+            if (_stopped.get())
+            {
+                throw new IllegalStateException("Commit pipeline is stopped");
+            }
+            _pendingCommits.add(pendingCommit);
+            _lock.notify();
+        }
+        return pendingCommit.getFuture();
+    }
+
+    public int getInFlightBatchCount()
+    {
+        return _inFlightBatchCount.get();
+    }
+
+    public long getBatchCount()
+    {
+        return _batchCount.get();
+    }
+
+    public long getTransactionCount()
+    {
+        return _transactionCount.get();
+    }
+
+    public long getTotalBatchLatency()
+    {
+        return _totalBatchLatency.get();
+    }
+
+    public long getMaximumBatchLatency()
+    {
+        return _maximumBatchLatency.get();
+    }
+
+    private void processBatches()
+    {
+        while (!_stopped.get())
+        {
+            final CommitBatch batch;
+            synchronized (_lock)
+            {
+                while (!_stopped.get() && _pendingCommits.isEmpty())
+                {
+                    try
+                    {
+                        // Periodically wake up and check, just in case we missed a notification.
+                        _lock.wait(500);
+                    }
+                    catch (InterruptedException e)
+                    {
+                    }
+                }
+                batch = _stopped.get() ? null : takeBatch(_maximumBatchSize);
+            }
+
+            if (batch != null)
+            {
+                commitBatch(batch);
+            }
+        }
+    }
+
+    /**
+     * Must be called holding _lock so that batches are registered in flight in the order in which they were formed.
+     */
+    private CommitBatch takeBatch(final int maximumBatchSize)
+    {
+        final List<PendingCommit<?>> commits = new ArrayList<>();
+        PendingCommit<?> pendingCommit;
+        while (commits.size() < maximumBatchSize && (pendingCommit = _pendingCommits.poll()) != null)
+        {
+            commits.add(pendingCommit);
+        }
+        if (commits.isEmpty())
+        {
+            return null;
+        }
+        final CommitBatch batch = new CommitBatch(commits);
+        _inFlightBatches.add(batch);
+        _inFlightBatchCount.incrementAndGet();
+        return batch;
+    }
+
+    private void commitBatch(final CommitBatch batch)
+    {
+        final List<PendingCommit<?>> commits = batch.getCommits();
+        final long startTime = System.currentTimeMillis();
+        int committed = 0;
+        try
+        {
+            for (; committed < commits.size() - 1; committed++)
+            {
+                commits.get(committed).getTransaction().commit(BATCHED_DURABILITY);
+            }
+            commits.get(committed).getTransaction().commit(_durability);
+            committed++;
+            batch.setOutcome(null);
+        }
+        catch (RuntimeException e)
+        {
+            for (int i = committed + 1; i < commits.size(); i++)
+            {
+                try
+                {
+                    commits.get(i).getTransaction().abort();
+                }
+                catch (RuntimeException abortException)
+                {
+                    LOGGER.debug("Failed to abort transaction after failed pipelined commit", abortException);
+                }
+            }
+            RuntimeException outcome = e;
+            if (e instanceof DatabaseException)
+            {
+                outcome = _environmentFacade.handleDatabaseException("Got DatabaseException on commit, closing environment", e);
+            }
+            batch.setOutcome(outcome);
+        }
+        finally
+        {
+            recordBatch(commits.size(), System.currentTimeMillis() - startTime);
+            completeBatchesInOrder();
+        }
+    }
+
+    private void recordBatch(final int size, final long latency)
+    {
+        _batchCount.incrementAndGet();
+        _transactionCount.addAndGet(size);
+        _totalBatchLatency.addAndGet(latency);
+        long maximum;
+        while ((maximum = _maximumBatchLatency.get()) < latency
+               && !_maximumBatchLatency.compareAndSet(maximum, latency))
+        {
+        }
+    }
+
+    private void completeBatchesInOrder()
+    {
+        synchronized (_completionLock)
+        {
+            CommitBatch batch;
+            while ((batch = _inFlightBatches.peek()) != null && batch.isDone())
+            {
+                _inFlightBatches.poll();
+                _inFlightBatchCount.decrementAndGet();
+                batch.complete();
+            }
+        }
+    }
+
+    private static final class PendingCommit<X>
+    {
+        private final Transaction _transaction;
+        private final X _value;
+        private final SettableFuture<X> _future = SettableFuture.create();
+
+        private PendingCommit(final Transaction transaction, final X value)
+        {
+            _transaction = transaction;
+            _value = value;
+        }
+
+        Transaction getTransaction()
+        {
+            return _transaction;
+        }
+
+        SettableFuture<X> getFuture()
+        {
+            return _future;
+        }
+
+        void complete(final RuntimeException exception)
+        {
+            if (exception == null)
+            {
+                _future.set(_value);
+            }
+            else
+            {
+                _future.setException(exception);
+            }
+        }
+    }
+
+    private static final class CommitBatch
+    {
+        private final List<PendingCommit<?>> _commits;
+        private volatile boolean _done;
+        private volatile RuntimeException _outcome;
+
+        private CommitBatch(final List<PendingCommit<?>> commits)
+        {
+            _commits = commits;
+        }
+
+        List<PendingCommit<?>> getCommits()
+        {
+            return _commits;
+        }
+
+        boolean isDone()
+        {
+            return _done;
+        }
+
+        void setOutcome(final RuntimeException outcome)
+        {
+            _outcome = outcome;
+            _done = true;
+        }
+
+        void complete()
+        {
+            for (PendingCommit<?> commit : _commits)
+            {
+                commit.complete(_outcome);
+            }
+        }
+    }
+}
@@ -92,6 +92,8 @@ public class ReplicatedEnvironmentFacade implements EnvironmentFacade, StateChan
     public static final String REMOTE_NODE_MONITOR_TIMEOUT_PROPERTY_NAME = "qpid.bdb.ha.remote_node_monitor_timeout";
     public static final String ENVIRONMENT_RESTART_RETRY_LIMIT_PROPERTY_NAME = "qpid.bdb.ha.environment_restart_retry_limit";
     public static final String EXECUTOR_SHUTDOWN_TIMEOUT_PROPERTY_NAME = "qpid.bdb.ha.executor_shutdown_timeout";
+    public static final String COMMIT_PIPELINE_DEPTH_PROPERTY_NAME = "qpid.bdb.ha.commit_pipeline_depth";
+    public static final String COMMIT_PIPELINE_MAXIMUM_BATCH_SIZE_PROPERTY_NAME = "qpid.bdb.ha.commit_pipeline_maximum_batch_size";
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ReplicatedEnvironmentFacade.class);
 
@@ -101,6 +103,8 @@ public class ReplicatedEnvironmentFacade implements EnvironmentFacade, StateChan
     private static final int DEFAULT_REMOTE_NODE_MONITOR_TIMEOUT = 1000;
     private static final int DEFAULT_ENVIRONMENT_RESTART_RETRY_LIMIT = 3;
     private static final int DEFAULT_EXECUTOR_SHUTDOWN_TIMEOUT = 5000;
+    private static final int DEFAULT_COMMIT_PIPELINE_DEPTH = 0;
+    private static final int DEFAULT_COMMIT_PIPELINE_MAXIMUM_BATCH_SIZE = 256;
 
     /** Length of time allowed for a master transfer to complete before the operation will timeout */
     private final int _masterTransferTimeout;
@@ -124,6 +128,15 @@ public class ReplicatedEnvironmentFacade implements EnvironmentFacade, StateChan
      */
     private final int _dbPingSocketTimeout;
 
+    /**
+     * Number of batches of asynchronous commits that may await replica acknowledgement at the same time.
+     * Zero disables pipelining, in which case asynchronous commits are coalesced one batch at a time.
+     */
+    private final int _commitPipelineDepth;
+
+    /** Maximum number of transactions committed together as one pipelined batch */
+    private final int _commitPipelineMaximumBatchSize;
+
     /**
      * If the environment creation fails, Qpid will automatically retry.  This controls the number
      * of times recreation will be attempted.
@@ -224,6 +237,7 @@ public class ReplicatedEnvironmentFacade implements EnvironmentFacade, StateChan
     private volatile Durability _realMessageStoreDurability = null;
     private volatile Durability _messageStoreDurability;
     private volatile CoalescingCommiter _coalescingCommiter = null;
+    private volatile PipelinedReplicatedCommitter _pipelinedCommitter = null;
     private volatile long _joinTime;
     private volatile ReplicatedEnvironment.State _lastKnownEnvironmentState;
     private volatile long _envSetupTimeoutMillis;
@@ -268,6 +282,11 @@ public class ReplicatedEnvironmentFacade implements EnvironmentFacade, StateChan
                                                                          ENVIRONMENT_RESTART_RETRY_LIMIT_PROPERTY_NAME, DEFAULT_ENVIRONMENT_RESTART_RETRY_LIMIT);
         _executorShutdownTimeout = configuration.getFacadeParameter(Integer.class,
                                                                     EXECUTOR_SHUTDOWN_TIMEOUT_PROPERTY_NAME, DEFAULT_EXECUTOR_SHUTDOWN_TIMEOUT);
+        _commitPipelineDepth = configuration.getFacadeParameter(Integer.class,
+                                                                COMMIT_PIPELINE_DEPTH_PROPERTY_NAME, DEFAULT_COMMIT_PIPELINE_DEPTH);
+        _commitPipelineMaximumBatchSize = configuration.getFacadeParameter(Integer.class,
+                                                                           COMMIT_PIPELINE_MAXIMUM_BATCH_SIZE_PROPERTY_NAME,
+                                                                           DEFAULT_COMMIT_PIPELINE_MAXIMUM_BATCH_SIZE);
         _logHandlerCleanerProtectedFilesLimit = _configuration.getFacadeParameter(Integer.class,
                                                                                   LOG_HANDLER_CLEANER_PROTECTED_FILES_LIMIT_PROPERTY_NAME,
                                                                                   DEFAULT_LOG_HANDLER_CLEANER_PROTECTED_FILES_LIMIT);
@@ -344,6 +363,12 @@ public class ReplicatedEnvironmentFacade implements EnvironmentFacade, StateChan
     @Override
     public <X> ListenableFuture<X> commitAsync(final Transaction tx, final X val)
     {
+        final PipelinedReplicatedCommitter pipelinedCommitter = _pipelinedCommitter;
+        if (pipelinedCommitter != null)
+        {
+            return pipelinedCommitter.commitAsync(tx, val);
+        }
+
         try
         {
             // Using commit() instead of commitNoSync() for the HA store to allow
@@ -390,6 +415,10 @@ public class ReplicatedEnvironmentFacade implements EnvironmentFacade, StateChan
                     {
                         _coalescingCommiter.stop();
                     }
+                    if (_pipelinedCommitter != null)
+                    {
+                        _pipelinedCommitter.stop();
+                    }
                     closeSequences();
                     closeDatabases();
                 }
@@ -1047,6 +1076,41 @@ public class ReplicatedEnvironmentFacade implements EnvironmentFacade, StateChan
         return _coalescingCommiter != null;
     }
 
+    public boolean isCommitPipelined()
+    {
+        return _pipelinedCommitter != null;
+    }
+
+    public long getCommitBatchCount()
+    {
+        final PipelinedReplicatedCommitter pipelinedCommitter = _pipelinedCommitter;
+        return pipelinedCommitter == null ? 0L : pipelinedCommitter.getBatchCount();
+    }
+
+    public long getCommitBatchTransactionCount()
+    {
+        final PipelinedReplicatedCommitter pipelinedCommitter = _pipelinedCommitter;
+        return pipelinedCommitter == null ? 0L : pipelinedCommitter.getTransactionCount();
+    }
+
+    public long getCommitBatchLatencyTotal()
+    {
+        final PipelinedReplicatedCommitter pipelinedCommitter = _pipelinedCommitter;
+        return pipelinedCommitter == null ? 0L : pipelinedCommitter.getTotalBatchLatency();
+    }
+
+    public long getCommitBatchLatencyMaximum()
+    {
+        final PipelinedReplicatedCommitter pipelinedCommitter = _pipelinedCommitter;
+        return pipelinedCommitter == null ? 0L : pipelinedCommitter.getMaximumBatchLatency();
+    }
+
+    public int getCommitBatchesInFlight()
+    {
+        final PipelinedReplicatedCommitter pipelinedCommitter = _pipelinedCommitter;
+        return pipelinedCommitter == null ? 0 : pipelinedCommitter.getInFlightBatchCount();
+    }
+
     public String getNodeState()
     {
         if (_state.get() != State.OPEN)
@@ -1679,8 +1743,23 @@ public class ReplicatedEnvironmentFacade implements EnvironmentFacade, StateChan
                 _coalescingCommiter.stop();
                 _coalescingCommiter = null;
             }
+            if (_pipelinedCommitter != null)
+            {
+                _pipelinedCommitter.stop();
+                _pipelinedCommitter = null;
+            }
 
-            if (localTransactionSynchronizationPolicy == LOCAL_TRANSACTION_SYNCHRONIZATION_POLICY)
+            if (_commitPipelineDepth > 0)
+            {
+                // the last transaction of each pipelined batch is committed with the full message store durability
+                _pipelinedCommitter = new PipelinedReplicatedCommitter(_prettyGroupNodeName,
+                                                                       _commitPipelineDepth,
+                                                                       _commitPipelineMaximumBatchSize,
+                                                                       _messageStoreDurability,
+                                                                       this);
+                _pipelinedCommitter.start();
+            }
+            else if (localTransactionSynchronizationPolicy == LOCAL_TRANSACTION_SYNCHRONIZATION_POLICY)
             {
                 localTransactionSynchronizationPolicy = SyncPolicy.NO_SYNC;
                 _coalescingCommiter = new CoalescingCommiter(_configuration.getGroupName(), this);
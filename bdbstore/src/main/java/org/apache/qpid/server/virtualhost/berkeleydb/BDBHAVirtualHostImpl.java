@@ -29,6 +29,7 @@ import org.apache.qpid.server.model.ManagedObject;
 import org.apache.qpid.server.model.ManagedObjectFactoryConstructor;
 import org.apache.qpid.server.model.VirtualHostNode;
 import org.apache.qpid.server.store.MessageStore;
+import org.apache.qpid.server.store.berkeleydb.AbstractBDBMessageStore;
 import org.apache.qpid.server.store.berkeleydb.BDBConfigurationStore;
 import org.apache.qpid.server.store.berkeleydb.replication.ReplicatedEnvironmentFacade;
 import org.apache.qpid.server.virtualhost.AbstractVirtualHost;
@@ -168,4 +169,30 @@ public class BDBHAVirtualHostImpl extends AbstractVirtualHost<BDBHAVirtualHostIm
         validateTransactionSynchronizationPolicy(this.getRemoteTransactionSynchronizationPolicy());
     }
 
+    @Override
+    public long getReadAheadCacheHits()
+    {
+        final MessageStore messageStore = getMessageStore();
+        return messageStore instanceof AbstractBDBMessageStore
+                ? ((AbstractBDBMessageStore) messageStore).getReadAheadCacheHits()
+                : 0L;
+    }
+
+    @Override
+    public long getReadAheadCacheMisses()
+    {
+        final MessageStore messageStore = getMessageStore();
+        return messageStore instanceof AbstractBDBMessageStore
+                ? ((AbstractBDBMessageStore) messageStore).getReadAheadCacheMisses()
+                : 0L;
+    }
+
+    @Override
+    public long getReadAheadMessages()
+    {
+        final MessageStore messageStore = getMessageStore();
+        return messageStore instanceof AbstractBDBMessageStore
+                ? ((AbstractBDBMessageStore) messageStore).getReadAheadMessages()
+                : 0L;
+    }
 }
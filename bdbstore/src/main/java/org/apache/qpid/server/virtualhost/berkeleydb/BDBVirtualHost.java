@@ -22,6 +22,9 @@ package org.apache.qpid.server.virtualhost.berkeleydb;
 
 import org.apache.qpid.server.model.ManagedAttribute;
 import org.apache.qpid.server.model.ManagedContextDefault;
+import org.apache.qpid.server.model.ManagedStatistic;
+import org.apache.qpid.server.model.StatisticType;
+import org.apache.qpid.server.model.StatisticUnit;
 import org.apache.qpid.server.store.FileBasedSettings;
 import org.apache.qpid.server.store.SizeMonitoringSettings;
 import org.apache.qpid.server.store.berkeleydb.BDBEnvironmentContainer;
@@ -54,4 +57,19 @@ public interface BDBVirtualHost<X extends BDBVirtualHost<X>> extends QueueManagi
     @ManagedAttribute(mandatory = true, defaultValue = "0")
     Long getStoreOverfullSize();
 
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.COUNT, label = "Read Ahead Hits",
+                      description = "Total number of message meta-data reloads satisfied from read ahead.")
+    long getReadAheadCacheHits();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.COUNT, label = "Read Ahead Misses",
+                      description = "Total number of message meta-data reloads which had to be read from the store.")
+    long getReadAheadCacheMisses();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.MESSAGES, label = "Read Ahead Messages",
+                      description = "Total number of messages whose meta-data was read ahead of a reload.")
+    long getReadAheadMessages();
+
 }
@@ -28,6 +28,7 @@ import org.apache.qpid.server.model.ManagedObject;
 import org.apache.qpid.server.model.ManagedObjectFactoryConstructor;
 import org.apache.qpid.server.model.VirtualHostNode;
 import org.apache.qpid.server.store.MessageStore;
+import org.apache.qpid.server.store.berkeleydb.AbstractBDBMessageStore;
 import org.apache.qpid.server.store.berkeleydb.BDBMessageStore;
 import org.apache.qpid.server.store.berkeleydb.EnvironmentFacade;
 import org.apache.qpid.server.store.berkeleydb.BDBCacheSizeSetter;
@@ -193,4 +194,31 @@ public class BDBVirtualHostImpl extends AbstractVirtualHost<BDBVirtualHostImpl>
         }
         return null;
     }
+
+    @Override
+    public long getReadAheadCacheHits()
+    {
+        final MessageStore messageStore = getMessageStore();
+        return messageStore instanceof AbstractBDBMessageStore
+                ? ((AbstractBDBMessageStore) messageStore).getReadAheadCacheHits()
+                : 0L;
+    }
+
+    @Override
+    public long getReadAheadCacheMisses()
+    {
+        final MessageStore messageStore = getMessageStore();
+        return messageStore instanceof AbstractBDBMessageStore
+                ? ((AbstractBDBMessageStore) messageStore).getReadAheadCacheMisses()
+                : 0L;
+    }
+
+    @Override
+    public long getReadAheadMessages()
+    {
+        final MessageStore messageStore = getMessageStore();
+        return messageStore instanceof AbstractBDBMessageStore
+                ? ((AbstractBDBMessageStore) messageStore).getReadAheadMessages()
+                : 0L;
+    }
 }
@@ -24,6 +24,9 @@ import java.util.List;
 
 import org.apache.qpid.server.model.DerivedAttribute;
 import org.apache.qpid.server.model.ManagedAttribute;
+import org.apache.qpid.server.model.ManagedStatistic;
+import org.apache.qpid.server.model.StatisticType;
+import org.apache.qpid.server.model.StatisticUnit;
 import org.apache.qpid.server.store.berkeleydb.HASettings;
 import org.apache.qpid.server.store.preferences.PreferenceStoreProvider;
 
@@ -83,4 +86,29 @@ public interface BDBHAVirtualHostNode<X extends BDBHAVirtualHostNode<X>> extends
 
     @ManagedAttribute(persist = true)
     List<String> getPermittedNodes();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.COUNT, label = "Pipelined Commit Batches",
+                      description = "Total number of batches of transactions committed by the commit pipeline.")
+    long getPipelinedCommitBatches();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.COUNT, label = "Pipelined Commit Transactions",
+                      description = "Total number of transactions committed by the commit pipeline.")
+    long getPipelinedCommitTransactions();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.TIME_DURATION, label = "Pipelined Commit Batch Latency Total",
+                      description = "Total time in milliseconds spent committing and replicating pipelined commit batches.")
+    long getPipelinedCommitBatchLatencyTotal();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.TIME_DURATION, label = "Pipelined Commit Batch Latency Maximum",
+                      description = "Longest time in milliseconds taken to commit and replicate a pipelined commit batch.")
+    long getPipelinedCommitBatchLatencyMaximum();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.COUNT, label = "Pipelined Commit Batches In Flight",
+                      description = "Current number of pipelined commit batches awaiting completion.")
+    int getPipelinedCommitBatchesInFlight();
 }
@@ -258,6 +258,41 @@ public class BDBHAVirtualHostNodeImpl extends AbstractVirtualHostNode<BDBHAVirtu
         return -1L;
     }
 
+    @Override
+    public long getPipelinedCommitBatches()
+    {
+        ReplicatedEnvironmentFacade environmentFacade = getReplicatedEnvironmentFacade();
+        return environmentFacade == null ? 0L : environmentFacade.getCommitBatchCount();
+    }
+
+    @Override
+    public long getPipelinedCommitTransactions()
+    {
+        ReplicatedEnvironmentFacade environmentFacade = getReplicatedEnvironmentFacade();
+        return environmentFacade == null ? 0L : environmentFacade.getCommitBatchTransactionCount();
+    }
+
+    @Override
+    public long getPipelinedCommitBatchLatencyTotal()
+    {
+        ReplicatedEnvironmentFacade environmentFacade = getReplicatedEnvironmentFacade();
+        return environmentFacade == null ? 0L : environmentFacade.getCommitBatchLatencyTotal();
+    }
+
+    @Override
+    public long getPipelinedCommitBatchLatencyMaximum()
+    {
+        ReplicatedEnvironmentFacade environmentFacade = getReplicatedEnvironmentFacade();
+        return environmentFacade == null ? 0L : environmentFacade.getCommitBatchLatencyMaximum();
+    }
+
+    @Override
+    public int getPipelinedCommitBatchesInFlight()
+    {
+        ReplicatedEnvironmentFacade environmentFacade = getReplicatedEnvironmentFacade();
+        return environmentFacade == null ? 0 : environmentFacade.getCommitBatchesInFlight();
+    }
+
     @Override
     public String getHelperNodeName()
     {
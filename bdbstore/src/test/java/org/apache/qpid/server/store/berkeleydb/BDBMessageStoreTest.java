@@ -22,6 +22,8 @@ package org.apache.qpid.server.store.berkeleydb;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -30,6 +32,8 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.Test;
 
@@ -139,6 +143,42 @@ public class BDBMessageStoreTest extends MessageStoreTestCase
         }
     }
 
+    @Test
+    public void testReloadOfFlowedMessagesUsesReadAhead() throws Exception
+    {
+        BDBMessageStore bdbStore = (BDBMessageStore) getStore();
+        final int numberOfMessages = 5;
+        List<StoredMessage<MessageMetaData>> messages = new ArrayList<>();
+        for (int i = 0; i < numberOfMessages; i++)
+        {
+            StoredMessage<MessageMetaData> message = createAndStoreSingleChunkMessage_0_8(bdbStore);
+            assertTrue("Message was not flowed to disk", message.flowToDisk());
+            assertFalse("Message is still in memory", message.isInMemory());
+            messages.add(message);
+        }
+
+        for (StoredMessage<MessageMetaData> message : messages)
+        {
+            assertEquals("Unexpected content size",
+                         (long) CONTENT_BYTES.length,
+                         (long) message.getMetaData().getContentSize());
+            try (QpidByteBuffer content = message.getContent(0, Integer.MAX_VALUE))
+            {
+                byte[] bytes = new byte[content.remaining()];
+                content.get(bytes);
+                assertArrayEquals("Unexpected content", CONTENT_BYTES, bytes);
+            }
+        }
+
+        assertEquals("Unexpected number of messages read ahead",
+                     (long) numberOfMessages,
+                     bdbStore.getReadAheadMessages());
+        assertEquals("Unexpected number of read ahead hits",
+                     (long) numberOfMessages - 1,
+                     bdbStore.getReadAheadCacheHits());
+        assertEquals("Unexpected number of read ahead misses", 1L, bdbStore.getReadAheadCacheMisses());
+    }
+
     private StoredMessage<MessageMetaData> createAndStoreSingleChunkMessage_0_8(MessageStore store)
     {
         QpidByteBuffer chunk1 = QpidByteBuffer.wrap(CONTENT_BYTES);
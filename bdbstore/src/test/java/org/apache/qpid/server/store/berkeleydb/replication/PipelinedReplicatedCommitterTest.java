@@ -0,0 +1,252 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.store.berkeleydb.replication;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.sleepycat.je.DatabaseException;
+import com.sleepycat.je.Durability;
+import com.sleepycat.je.Transaction;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import org.apache.qpid.server.store.berkeleydb.EnvironmentFacade;
+import org.apache.qpid.test.utils.UnitTestBase;
+import org.apache.qpid.test.utils.VirtualHostNodeStoreType;
+
+public class PipelinedReplicatedCommitterTest extends UnitTestBase
+{
+    private static final int TIMEOUT = 5000;
+
+    private final Durability _durability = new Durability(Durability.SyncPolicy.SYNC,
+                                                          Durability.SyncPolicy.NO_SYNC,
+                                                          Durability.ReplicaAckPolicy.SIMPLE_MAJORITY);
+    private EnvironmentFacade _environmentFacade;
+    private PipelinedReplicatedCommitter _committer;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        assumeThat(getVirtualHostNodeStoreType(), is(equalTo(VirtualHostNodeStoreType.BDB)));
+
+        _environmentFacade = mock(EnvironmentFacade.class);
+    }
+
+    @After
+    public void tearDown()
+    {
+        if (_committer != null)
+        {
+            _committer.stop();
+        }
+    }
+
+    @Test
+    public void testBatchesCompleteInOrder() throws Exception
+    {
+        _committer = new PipelinedReplicatedCommitter("Test", 2, 16, _durability, _environmentFacade);
+        _committer.start();
+
+        final CountDownLatch firstCommitStarted = new CountDownLatch(1);
+        final CountDownLatch releaseFirstCommit = new CountDownLatch(1);
+        final Transaction first = mock(Transaction.class);
+        doAnswer(new Answer<Void>()
+        {
+            @Override
+            public Void answer(final InvocationOnMock invocation) throws Throwable
+            {
+                firstCommitStarted.countDown();
+                assertTrue("First commit was not released",
+                           releaseFirstCommit.await(TIMEOUT, TimeUnit.MILLISECONDS));
+                return null;
+            }
+        }).when(first).commit(_durability);
+        final Transaction second = mock(Transaction.class);
+
+        final ListenableFuture<String> firstFuture = _committer.commitAsync(first, "first");
+        assertTrue("First commit did not start", firstCommitStarted.await(TIMEOUT, TimeUnit.MILLISECONDS));
+
+        final ListenableFuture<String> secondFuture = _committer.commitAsync(second, "second");
+        verify(second, timeout(TIMEOUT)).commit(_durability);
+
+        assertFalse("Second batch completed before the first", secondFuture.isDone());
+        assertEquals("Unexpected batches in flight", 2, _committer.getInFlightBatchCount());
+
+        releaseFirstCommit.countDown();
+
+        assertEquals("first", firstFuture.get(TIMEOUT, TimeUnit.MILLISECONDS));
+        assertEquals("second", secondFuture.get(TIMEOUT, TimeUnit.MILLISECONDS));
+        assertEquals("Unexpected batches in flight", 0, _committer.getInFlightBatchCount());
+        assertEquals("Unexpected batch count", 2, _committer.getBatchCount());
+        assertEquals("Unexpected transaction count", 2, _committer.getTransactionCount());
+    }
+
+    @Test
+    public void testOnlyLastTransactionOfBatchAwaitsDurability() throws Exception
+    {
+        _committer = new PipelinedReplicatedCommitter("Test", 1, 16, _durability, _environmentFacade);
+        _committer.start();
+
+        final CountDownLatch firstCommitStarted = new CountDownLatch(1);
+        final CountDownLatch releaseFirstCommit = new CountDownLatch(1);
+        final Transaction first = mock(Transaction.class);
+        doAnswer(new Answer<Void>()
+        {
+            @Override
+            public Void answer(final InvocationOnMock invocation) throws Throwable
+            {
+                firstCommitStarted.countDown();
+                assertTrue("First commit was not released",
+                           releaseFirstCommit.await(TIMEOUT, TimeUnit.MILLISECONDS));
+                return null;
+            }
+        }).when(first).commit(_durability);
+        final Transaction second = mock(Transaction.class);
+        final Transaction third = mock(Transaction.class);
+
+        final ListenableFuture<Void> firstFuture = _committer.commitAsync(first, null);
+        assertTrue("First commit did not start", firstCommitStarted.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        final ListenableFuture<Void> secondFuture = _committer.commitAsync(second, null);
+        final ListenableFuture<Void> thirdFuture = _committer.commitAsync(third, null);
+        releaseFirstCommit.countDown();
+
+        firstFuture.get(TIMEOUT, TimeUnit.MILLISECONDS);
+        secondFuture.get(TIMEOUT, TimeUnit.MILLISECONDS);
+        thirdFuture.get(TIMEOUT, TimeUnit.MILLISECONDS);
+
+        verify(second, never()).commit(_durability);
+        verify(third).commit(_durability);
+        assertEquals("Unexpected batch count", 2, _committer.getBatchCount());
+        assertEquals("Unexpected transaction count", 3, _committer.getTransactionCount());
+    }
+
+    @Test
+    public void testCommitFailureFailsBatch() throws Exception
+    {
+        _committer = new PipelinedReplicatedCommitter("Test", 1, 16, _durability, _environmentFacade);
+        _committer.start();
+
+        final DatabaseException databaseException = mock(DatabaseException.class);
+        final RuntimeException handledException = new RuntimeException("Test");
+        when(_environmentFacade.handleDatabaseException(anyString(), eq(databaseException))).thenReturn(handledException);
+
+        final Transaction tx = mock(Transaction.class);
+        doThrow(databaseException).when(tx).commit(_durability);
+
+        final ListenableFuture<Void> future = _committer.commitAsync(tx, null);
+        try
+        {
+            future.get(TIMEOUT, TimeUnit.MILLISECONDS);
+            fail("Commit should fail");
+        }
+        catch (ExecutionException e)
+        {
+            assertSame("Unexpected failure", handledException, e.getCause());
+        }
+        assertEquals("Unexpected batches in flight", 0, _committer.getInFlightBatchCount());
+    }
+
+    @Test
+    public void testStopCommitsOutstandingTransactions() throws Exception
+    {
+        _committer = new PipelinedReplicatedCommitter("Test", 1, 16, _durability, _environmentFacade);
+        _committer.start();
+
+        final Transaction tx = mock(Transaction.class);
+        final ListenableFuture<Void> future = _committer.commitAsync(tx, null);
+        _committer.stop();
+
+        assertTrue("Commit should be complete after stop", future.isDone());
+        verify(tx).commit(_durability);
+    }
+
+    @Test
+    public void testCommitAsyncRejectedAfterStop() throws Exception
+    {
+        _committer = new PipelinedReplicatedCommitter("Test", 1, 16, _durability, _environmentFacade);
+        _committer.start();
+        _committer.stop();
+
+        final Transaction tx = mock(Transaction.class);
+        try
+        {
+            _committer.commitAsync(tx, null);
+            fail("Commit should be rejected after stop");
+        }
+        catch (IllegalStateException e)
+        {
+            // pass
+        }
+        verify(tx, never()).commit(any(Durability.class));
+    }
+
+    @Test
+    public void testNonSyncCommitDoesNotAwaitDurability() throws Exception
+    {
+        _committer = new PipelinedReplicatedCommitter("Test", 1, 16, _durability, _environmentFacade);
+        _committer.start();
+
+        final Transaction tx = mock(Transaction.class);
+        _committer.commit(tx, false);
+
+        verify(tx, never()).commit(_durability);
+        verify(tx).commit(any(Durability.class));
+        assertEquals("Unexpected batch count", 0, _committer.getBatchCount());
+    }
+
+    @Test
+    public void testSyncCommitAwaitsDurability() throws Exception
+    {
+        _committer = new PipelinedReplicatedCommitter("Test", 1, 16, _durability, _environmentFacade);
+        _committer.start();
+
+        final Transaction tx = mock(Transaction.class);
+        _committer.commit(tx, true);
+
+        verify(tx).commit(_durability);
+        assertEquals("Unexpected batch count", 1, _committer.getBatchCount());
+    }
+}
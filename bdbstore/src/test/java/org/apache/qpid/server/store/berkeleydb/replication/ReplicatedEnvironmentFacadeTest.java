@@ -23,6 +23,10 @@ package org.apache.qpid.server.store.berkeleydb.replication;
 import static org.apache.qpid.server.store.berkeleydb.EnvironmentFacade.JUL_LOGGER_LEVEL_OVERRIDE;
 import static org.apache.qpid.server.store.berkeleydb.EnvironmentFacade
         .LOG_HANDLER_CLEANER_PROTECTED_FILES_LIMIT_PROPERTY_NAME;
+import static org.apache.qpid.server.store.berkeleydb.replication.ReplicatedEnvironmentFacade
+        .COMMIT_PIPELINE_DEPTH_PROPERTY_NAME;
+import static org.apache.qpid.server.store.berkeleydb.replication.ReplicatedEnvironmentFacade
+        .COMMIT_PIPELINE_MAXIMUM_BATCH_SIZE_PROPERTY_NAME;
 import static org.apache.qpid.server.store.berkeleydb.replication.ReplicatedEnvironmentFacade
         .DB_PING_SOCKET_TIMEOUT_PROPERTY_NAME;
 import static org.apache.qpid.server.store.berkeleydb.replication.ReplicatedEnvironmentFacade
@@ -284,6 +288,32 @@ public class ReplicatedEnvironmentFacadeTest extends UnitTestBase
         assertFalse("Coalescing sync committer is still running", master.isCoalescingSync());
     }
 
+    @Test
+    public void testPipelinedCommit() throws Exception
+    {
+        final TestStateChangeListener masterListener = new TestStateChangeListener();
+        ReplicatedEnvironmentConfiguration masterConfig = createReplicatedEnvironmentConfiguration(TEST_NODE_NAME, TEST_NODE_HOST_PORT, TEST_DESIGNATED_PRIMARY);
+        when(masterConfig.getFacadeParameter(eq(Integer.class),
+                                             eq(COMMIT_PIPELINE_DEPTH_PROPERTY_NAME),
+                                             anyInt())).thenReturn(2);
+        ReplicatedEnvironmentFacade master = createReplicatedEnvironmentFacade(TEST_NODE_NAME, masterListener, new NoopReplicationGroupListener(), masterConfig);
+        assertTrue("Master was not created", masterListener.awaitForStateChange(State.MASTER,
+                                                                                _timeout, TimeUnit.SECONDS));
+
+        assertTrue("Unexpected commit pipelining", master.isCommitPipelined());
+        assertFalse("Unexpected coalescing sync", master.isCoalescingSync());
+        assertEquals("Unexpected message store durability", TEST_DURABILITY, master.getRealMessageStoreDurability());
+
+        Database db = master.openDatabase("mydb", new DatabaseConfig().setAllowCreate(true).setTransactional(true));
+        Transaction txn = master.beginTransaction(null);
+        db.put(txn, new DatabaseEntry(new byte[] {1}), new DatabaseEntry(new byte[] {2}));
+
+        assertEquals("Unexpected commit result", "value", master.commitAsync(txn, "value").get(_timeout, TimeUnit.SECONDS));
+        assertEquals("Unexpected commit batch count", 1L, master.getCommitBatchCount());
+        assertEquals("Unexpected commit batch transaction count", 1L, master.getCommitBatchTransactionCount());
+        assertEquals("Unexpected commit batches in flight", 0, master.getCommitBatchesInFlight());
+    }
+
     @Test
     public void testGetNodeState() throws Exception
     {
@@ -1320,6 +1350,12 @@ public class ReplicatedEnvironmentFacadeTest extends UnitTestBase
         when(node.getFacadeParameter(eq(Integer.class),
                                      eq(LOG_HANDLER_CLEANER_PROTECTED_FILES_LIMIT_PROPERTY_NAME),
                                      anyInt())).thenReturn(0);
+        when(node.getFacadeParameter(eq(Integer.class),
+                                     eq(COMMIT_PIPELINE_DEPTH_PROPERTY_NAME),
+                                     anyInt())).thenReturn(0);
+        when(node.getFacadeParameter(eq(Integer.class),
+                                     eq(COMMIT_PIPELINE_MAXIMUM_BATCH_SIZE_PROPERTY_NAME),
+                                     anyInt())).thenReturn(256);
         when(node.getFacadeParameter(eq(Map.class), any(), eq(JUL_LOGGER_LEVEL_OVERRIDE), any())).thenReturn(Collections.emptyMap());
 
         Map<String, String> repConfig = new HashMap<>();
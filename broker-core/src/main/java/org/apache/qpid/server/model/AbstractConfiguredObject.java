@@ -57,6 +57,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 import java.util.regex.Pattern;
@@ -88,6 +89,7 @@ import org.apache.qpid.server.security.access.Operation;
 import org.apache.qpid.server.security.auth.AuthenticatedPrincipal;
 import org.apache.qpid.server.security.auth.TaskPrincipal;
 import org.apache.qpid.server.security.encryption.ConfigurationSecretEncrypter;
+import org.apache.qpid.server.stats.StatisticsTimeSeries;
 import org.apache.qpid.server.store.ConfiguredObjectRecord;
 import org.apache.qpid.server.store.preferences.UserPreferencesCreator;
 import org.apache.qpid.server.util.Action;
@@ -209,6 +211,18 @@ public abstract class AbstractConfiguredObject<X extends ConfiguredObject<X>> im
     @ManagedAttributeField
     private LifetimePolicy _lifetimePolicy;
 
+    /**
+     * Incremented whenever an attribute of any configured object changes, which invalidates the context values
+     * cached by every object, as a context value may be inherited from, or refer to attributes of, any ancestor.
+     * A cached value is also discarded if the system property of the same name has changed since it was cached;
+     * changes to system properties referred to indirectly by a context value are not detected.
+     */
+    private static final AtomicLong CONTEXT_GENERATION = new AtomicLong();
+
+    private final ConcurrentMap<String, CachedContextValue> _contextValueCache = new ConcurrentHashMap<>();
+
+    private volatile StatisticsTimeSeries _statisticsTimeSeries;
+
     private final Map<String, ConfiguredObjectAttribute<?,?>> _attributeTypes;
 
     private final Map<String, ConfiguredObjectTypeRegistry.AutomatedField> _automatedFields;
@@ -484,30 +498,20 @@ public abstract class AbstractConfiguredObject<X extends ConfiguredObject<X>> im
             }
             ConfiguredObjectTypeRegistry.AutomatedField field = _automatedFields.get(name);
 
-            if(field.getPreSettingAction() != null)
-            {
-                field.getPreSettingAction().invoke(this);
-            }
+            field.preSet(this);
 
             Object desiredValue = attribute.convert(value, this);
-            field.getField().set(this, desiredValue);
+            field.set(this, desiredValue);
 
-            if(field.getPostSettingAction() != null)
-            {
-                field.getPostSettingAction().invoke(this);
-            }
+            field.postSet(this);
         }
-        catch (IllegalAccessException e)
+        catch (RuntimeException | Error e)
         {
-            throw new ServerScopedRuntimeException("Unable to set the automated attribute " + name + " on the configure object type " + getClass().getName(),e);
+            throw e;
         }
-        catch (InvocationTargetException e)
+        catch (Throwable t)
         {
-            if(e.getCause() instanceof RuntimeException)
-            {
-                throw (RuntimeException) e.getCause();
-            }
-            throw new ServerScopedRuntimeException("Unable to set the automated attribute " + name + " on the configure object type " + getClass().getName(),e);
+            throw new ServerScopedRuntimeException("Unable to set the automated attribute " + name + " on the configure object type " + getClass().getName(),t);
         }
     }
 
@@ -1211,6 +1215,7 @@ public abstract class AbstractConfiguredObject<X extends ConfiguredObject<X>> im
         if(skipCheck || _dynamicState.get().getDynamicState() != DynamicState.OPENED)
         {
             onResolve();
+            _contextValueCache.clear();
             postResolve();
             applyToChildren(new Action()
             {
@@ -1917,6 +1922,7 @@ public abstract class AbstractConfiguredObject<X extends ConfiguredObject<X>> im
                 {
                     automatedSetValue(name, desired);
                 }
+                CONTEXT_GENERATION.incrementAndGet();
                 return true;
             }
             else
@@ -3439,6 +3445,69 @@ public abstract class AbstractConfiguredObject<X extends ConfiguredObject<X>> im
         return map;
     }
 
+    @Override
+    public Map<String, Object> getStatisticsHistory(final List<String> statistics, final Date from, final Date to)
+    {
+        final StatisticsTimeSeries timeSeries = _statisticsTimeSeries;
+        if (timeSeries == null)
+        {
+            return Collections.emptyMap();
+        }
+        return timeSeries.getHistory(statistics,
+                                     from == null ? null : from.getTime(),
+                                     to == null ? null : to.getTime());
+    }
+
+    /**
+     * Samples the statistics selected by the qpid.&lt;category&gt;.statisticsTimeSeries context variable into the
+     * statistics history of this object.  The history is discarded when the selection or the configuration of the
+     * history changes.
+     *
+     * @param samplingPeriod the period in milliseconds at which this method is called
+     */
+    public void sampleStatistics(final long timestamp, final long samplingPeriod)
+    {
+        final String selectionContextKey = String.format("qpid.%s.statisticsTimeSeries",
+                                                         getCategoryClass().getSimpleName().toLowerCase());
+        if (!getContextKeys(false).contains(selectionContextKey))
+        {
+            _statisticsTimeSeries = null;
+            return;
+        }
+
+        final String selection = getContextValue(String.class, selectionContextKey);
+        final Set<String> selectedNames = new HashSet<>();
+        for (String name : selection.split(","))
+        {
+            selectedNames.add(name.trim());
+        }
+        final List<ConfiguredObjectStatistic<?, ?>> selectedStatistics = new ArrayList<>();
+        for (ConfiguredObjectStatistic<?, ?> statistic : getTypeRegistry().getStatistics(getClass()))
+        {
+            if (selectedNames.contains(statistic.getName()))
+            {
+                selectedStatistics.add(statistic);
+            }
+        }
+
+        final int capacity = getContextValue(Integer.class, Broker.STATISTICS_TIME_SERIES_CAPACITY);
+        final int numberOfTiers = getContextValue(Integer.class, Broker.STATISTICS_TIME_SERIES_TIERS);
+        final int downsamplingFactor = getContextValue(Integer.class, Broker.STATISTICS_TIME_SERIES_DOWNSAMPLING_FACTOR);
+
+        StatisticsTimeSeries timeSeries = _statisticsTimeSeries;
+        if (timeSeries == null
+            || !timeSeries.isConfiguredAs(selectedStatistics, samplingPeriod, capacity, numberOfTiers, downsamplingFactor))
+        {
+            timeSeries = new StatisticsTimeSeries(selectedStatistics,
+                                                  samplingPeriod,
+                                                  capacity,
+                                                  numberOfTiers,
+                                                  downsamplingFactor);
+            _statisticsTimeSeries = timeSeries;
+        }
+        timeSeries.sample(this, timestamp);
+    }
+
     @Override
     public String setContextVariable(final String name, final String value)
     {
@@ -3490,8 +3559,45 @@ public abstract class AbstractConfiguredObject<X extends ConfiguredObject<X>> im
     @Override
     public <T> T getContextValue(final Class<T> clazz, final Type type, final String propertyName)
     {
+        final boolean cacheable = type == clazz && isCacheableContextValueType(clazz);
+        final long generation = CONTEXT_GENERATION.get();
+        final String systemPropertyValue = cacheable ? System.getProperty(propertyName) : null;
+        if (cacheable)
+        {
+            final CachedContextValue cached = _contextValueCache.get(propertyName);
+            if (cached != null
+                && cached.getType() == clazz
+                && cached.getGeneration() == generation
+                && Objects.equals(cached.getSystemPropertyValue(), systemPropertyValue))
+            {
+                return clazz.cast(cached.getValue());
+            }
+        }
+
         AttributeValueConverter<T> converter = AttributeValueConverter.getConverter(clazz, type);
-        return converter.convert("${" + propertyName + "}", this);
+        final T value = converter.convert("${" + propertyName + "}", this);
+
+        if (cacheable)
+        {
+            _contextValueCache.put(propertyName,
+                                   new CachedContextValue(clazz, generation, systemPropertyValue, value));
+        }
+        return value;
+    }
+
+    /**
+     * Only immutable values are cached, as callers are free to modify the collections returned for other types.
+     */
+    private static boolean isCacheableContextValueType(final Class<?> clazz)
+    {
+        return clazz == String.class
+               || clazz == Integer.class
+               || clazz == Long.class
+               || clazz == Boolean.class
+               || clazz == Double.class
+               || clazz == Float.class
+               || clazz == Short.class
+               || clazz.isEnum();
     }
 
     @Override
@@ -4030,4 +4136,43 @@ public abstract class AbstractConfiguredObject<X extends ConfiguredObject<X>> im
 
         ListenableFuture<Void> deleteNoChecks();
     }
+
+    private static final class CachedContextValue
+    {
+        private final Class<?> _type;
+        private final long _generation;
+        private final String _systemPropertyValue;
+        private final Object _value;
+
+        private CachedContextValue(final Class<?> type,
+                                   final long generation,
+                                   final String systemPropertyValue,
+                                   final Object value)
+        {
+            _type = type;
+            _generation = generation;
+            _systemPropertyValue = systemPropertyValue;
+            _value = value;
+        }
+
+        Class<?> getType()
+        {
+            return _type;
+        }
+
+        long getGeneration()
+        {
+            return _generation;
+        }
+
+        String getSystemPropertyValue()
+        {
+            return _systemPropertyValue;
+        }
+
+        Object getValue()
+        {
+            return _value;
+        }
+    }
 }
@@ -124,6 +124,27 @@ public interface Broker<X extends Broker<X>> extends ConfiguredObject<X>, EventL
     @ManagedContextDefault(name = BROKER_STATISTICS_REPORING_PERIOD)
     int DEFAULT_STATISTICS_REPORTING_PERIOD = 0;
 
+    String STATISTICS_TIME_SERIES_SAMPLING_PERIOD = "qpid.statistics.timeSeries.samplingPeriod";
+    @ManagedContextDefault(name = STATISTICS_TIME_SERIES_SAMPLING_PERIOD,
+            description = "Period (in seconds) at which the statistics selected by the qpid.<category>.statisticsTimeSeries"
+                          + " context variable of an object are sampled into its statistics history (zero disables sampling)")
+    int DEFAULT_STATISTICS_TIME_SERIES_SAMPLING_PERIOD = 0;
+
+    String STATISTICS_TIME_SERIES_CAPACITY = "qpid.statistics.timeSeries.capacity";
+    @ManagedContextDefault(name = STATISTICS_TIME_SERIES_CAPACITY,
+            description = "Number of samples retained by each tier of the statistics history of an object")
+    int DEFAULT_STATISTICS_TIME_SERIES_CAPACITY = 360;
+
+    String STATISTICS_TIME_SERIES_TIERS = "qpid.statistics.timeSeries.tiers";
+    @ManagedContextDefault(name = STATISTICS_TIME_SERIES_TIERS,
+            description = "Number of tiers of the statistics history of an object")
+    int DEFAULT_STATISTICS_TIME_SERIES_TIERS = 3;
+
+    String STATISTICS_TIME_SERIES_DOWNSAMPLING_FACTOR = "qpid.statistics.timeSeries.downsamplingFactor";
+    @ManagedContextDefault(name = STATISTICS_TIME_SERIES_DOWNSAMPLING_FACTOR,
+            description = "Number of samples of a tier of the statistics history combined into one sample of the next tier")
+    int DEFAULT_STATISTICS_TIME_SERIES_DOWNSAMPLING_FACTOR = 10;
+
     String PROPERTY_DISABLED_FEATURES = "qpid.broker_disabled_features";
 
     @DerivedAttribute
@@ -20,6 +20,8 @@
  */
 package org.apache.qpid.server.model;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.security.AccessControlException;
 import java.security.AccessController;
 import java.security.Principal;
@@ -80,6 +82,7 @@ import org.apache.qpid.server.security.auth.UsernamePrincipal;
 import org.apache.qpid.server.security.auth.manager.SimpleAuthenticationManager;
 import org.apache.qpid.server.security.group.GroupPrincipal;
 import org.apache.qpid.server.stats.StatisticsReportingTask;
+import org.apache.qpid.server.stats.StatisticsSamplingTask;
 import org.apache.qpid.server.store.FileBasedSettings;
 import org.apache.qpid.server.store.preferences.PreferenceRecord;
 import org.apache.qpid.server.store.preferences.PreferenceStore;
@@ -144,6 +147,7 @@ public class BrokerImpl extends AbstractContainer<BrokerImpl> implements Broker<
     private long _lastDisposalCounter;
     private ScheduledFuture<?> _assignTargetSizeSchedulingFuture;
     private volatile ScheduledFuture<?> _statisticsReportingFuture;
+    private volatile ScheduledFuture<?> _statisticsSamplingFuture;
     private long _housekeepingCheckPeriod;
 
     @ManagedObjectFactoryConstructor
@@ -306,6 +310,10 @@ public class BrokerImpl extends AbstractContainer<BrokerImpl> implements Broker<
         {
             initialiseStatisticsReporting();
         }
+        if (attributes.containsKey(CONTEXT) && getState() == State.ACTIVE)
+        {
+            initialiseStatisticsSampling();
+        }
     }
 
     @Override
@@ -418,6 +426,7 @@ public class BrokerImpl extends AbstractContainer<BrokerImpl> implements Broker<
                                                              getHousekeepingThreadCount(),
                                                              getSystemTaskSubject("Housekeeping", _principal));
         initialiseStatisticsReporting();
+        initialiseStatisticsSampling();
 
         scheduleDirectMemoryCheck();
         _assignTargetSizeSchedulingFuture = scheduleHouseKeepingTask(getHousekeepingCheckPeriod(),
@@ -514,6 +523,26 @@ public class BrokerImpl extends AbstractContainer<BrokerImpl> implements Broker<
         }
     }
 
+    private void initialiseStatisticsSampling()
+    {
+        long period = getContextValue(Integer.class, Broker.STATISTICS_TIME_SERIES_SAMPLING_PERIOD) * 1000L;
+
+        ScheduledFuture<?> previousStatisticsSamplingFuture = _statisticsSamplingFuture;
+        if (previousStatisticsSamplingFuture != null)
+        {
+            previousStatisticsSamplingFuture.cancel(false);
+        }
+        if (period > 0L)
+        {
+            _statisticsSamplingFuture = _houseKeepingTaskExecutor.scheduleAtFixedRate(new StatisticsSamplingTask(this,
+                                                                                                                 getSystemTaskSubject("Statistics"),
+                                                                                                                 period),
+                                                                                      period,
+                                                                                      period,
+                                                                                      TimeUnit.MILLISECONDS);
+        }
+    }
+
     private void initialiseStatisticsReporting()
     {
         long report = getStatisticsReportingPeriod() * 1000L;
@@ -717,6 +746,7 @@ public class BrokerImpl extends AbstractContainer<BrokerImpl> implements Broker<
 
         stopPreferenceTaskExecutor();
         closePreferenceStore();
+        _addressSpaceRegistry.closeAddressSpaces();
 
         _eventLogger.message(BrokerMessages.STOPPED());
 
@@ -1220,6 +1250,24 @@ public class BrokerImpl extends AbstractContainer<BrokerImpl> implements Broker<
         {
             return BrokerImpl.this;
         }
+
+        private void closeAddressSpaces()
+        {
+            for(NamedAddressSpace addressSpace : _systemAddressSpaces.values())
+            {
+                if(addressSpace instanceof Closeable)
+                {
+                    try
+                    {
+                        ((Closeable) addressSpace).close();
+                    }
+                    catch (IOException e)
+                    {
+                        LOGGER.warn("Failed to close address space '{}'", addressSpace.getName(), e);
+                    }
+                }
+            }
+        }
     }
 
 
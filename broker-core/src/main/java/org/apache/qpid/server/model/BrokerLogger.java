@@ -33,4 +33,14 @@ public interface BrokerLogger<X extends BrokerLogger<X>> extends ConfiguredObjec
 
     @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.COUNT, label = "Warnings")
     long getWarnCount();
+
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.COUNT,
+            label = "Queued Log Events",
+            description = "Current number of log events awaiting the writer thread of an asynchronous logger.")
+    int getAsyncQueueDepth();
+
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.COUNT,
+            label = "Dropped Log Events",
+            description = "Number of log events discarded because the queue of an asynchronous logger was full.")
+    long getDroppedLogEventCount();
 }
@@ -176,6 +176,17 @@ public interface ConfiguredObject<X extends ConfiguredObject<X>> extends Context
     Map<String, Object> getStatistics(@Param(name = "statistics", defaultValue = "[]",
             description = "Optional list of statistic values to retrieve") List<String> statistics);
 
+    @ManagedOperation(description = "Return the sampled history of the (selected) statistic values, with rates of change"
+                                    + " for cumulative statistics. Statistics are sampled only when selected by the"
+                                    + " qpid.<category>.statisticsTimeSeries context variable.",
+            nonModifying = true, changesConfiguredObjectState = false, skipAclCheck = true)
+    Map<String, Object> getStatisticsHistory(@Param(name = "statistics", defaultValue = "[]",
+            description = "Optional list of statistic values to retrieve") List<String> statistics,
+                                             @Param(name = "from",
+            description = "Optional start of the time range") Date from,
+                                             @Param(name = "to",
+            description = "Optional end of the time range") Date to);
+
     @ManagedOperation(description = "Set context variable with given name to given value."
                                     + " Previous value is returned or null if not set directly on configured object.",
             changesConfiguredObjectState = true,
@@ -20,6 +20,9 @@
  */
 package org.apache.qpid.server.model;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -45,6 +48,7 @@ import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -68,6 +72,8 @@ public class ConfiguredObjectTypeRegistry
     private static final ConcurrentMap<Class<?>, Class<? extends ConfiguredObject>> CATEGORY_CACHE =
             new ConcurrentHashMap<>();
 
+    private static final ConcurrentMap<Class<?>, String> TYPE_CACHE = new ConcurrentHashMap<>();
+
     static
     {
         int i = 0;
@@ -183,6 +189,8 @@ public class ConfiguredObjectTypeRegistry
     private final Map<Class<? extends ConfiguredObject>, Map<String, AutomatedField>> _allAutomatedFields =
             Collections.synchronizedMap(new HashMap<Class<? extends ConfiguredObject>, Map<String, AutomatedField>>());
 
+    private final Map<Class<?>, Map<String, AutomatedField>> _declaredAutomatedFields = new ConcurrentHashMap<>();
+
     private final Map<String, String> _defaultContext =
             Collections.synchronizedMap(new HashMap<String, String>());
 
@@ -223,6 +231,7 @@ public class ConfiguredObjectTypeRegistry
                                         Collection<Class<? extends ConfiguredObject>> categoriesRestriction,
                                         final ConfiguredObjectFactory objectFactory)
     {
+        final long startTime = System.nanoTime();
         _objectFactory = objectFactory;
         _attributeInjectors = attributeInjectors;
         Set<Class<? extends ConfiguredObject>> categories = new HashSet<>();
@@ -360,6 +369,12 @@ public class ConfiguredObjectTypeRegistry
 
         validateContextDependencies();
 
+        if (LOGGER.isDebugEnabled())
+        {
+            LOGGER.debug("Processed {} configured object classes in {} ms",
+                         _allAttributes.size(),
+                         TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        }
     }
 
     public static boolean returnsCollectionOfConfiguredObjects(ConfiguredObjectOperation operation)
@@ -619,6 +634,17 @@ public class ConfiguredObjectTypeRegistry
     }
 
     public static String getType(final Class<? extends ConfiguredObject> clazz)
+    {
+        String type = TYPE_CACHE.get(clazz);
+        if (type == null)
+        {
+            type = calculateType(clazz);
+            TYPE_CACHE.putIfAbsent(clazz, type);
+        }
+        return type;
+    }
+
+    private static String calculateType(final Class<? extends ConfiguredObject> clazz)
     {
         String type = getActualType(clazz);
 
@@ -689,15 +715,38 @@ public class ConfiguredObjectTypeRegistry
 
     static class AutomatedField
     {
+        private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+        private static final MethodType ACTION_TYPE = MethodType.methodType(void.class, Object.class);
+        private static final Method FIELD_SET_METHOD;
+
+        static
+        {
+            try
+            {
+                FIELD_SET_METHOD = Field.class.getMethod("set", Object.class, Object.class);
+            }
+            catch (NoSuchMethodException e)
+            {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
         private final Field _field;
-        private final Method _preSettingAction;
-        private final Method _postSettingAction;
+        private final MethodHandle _setter;
+        private final MethodHandle _preSettingAction;
+        private final MethodHandle _postSettingAction;
 
         private AutomatedField(final Field field, final Method preSettingAction, final Method postSettingAction)
+                throws IllegalAccessException
         {
+            final MethodHandles.Lookup lookup = MethodHandles.lookup();
             _field = field;
-            _preSettingAction = preSettingAction;
-            _postSettingAction = postSettingAction;
+            // final fields are written through Field.set as method handles do not allow it on all supported JVMs
+            _setter = Modifier.isFinal(field.getModifiers())
+                    ? lookup.unreflect(FIELD_SET_METHOD).bindTo(field)
+                    : lookup.unreflectSetter(field).asType(SETTER_TYPE);
+            _preSettingAction = preSettingAction == null ? null : lookup.unreflect(preSettingAction).asType(ACTION_TYPE);
+            _postSettingAction = postSettingAction == null ? null : lookup.unreflect(postSettingAction).asType(ACTION_TYPE);
         }
 
         public Field getField()
@@ -705,14 +754,25 @@ public class ConfiguredObjectTypeRegistry
             return _field;
         }
 
-        public Method getPreSettingAction()
+        public void preSet(final Object object) throws Throwable
         {
-            return _preSettingAction;
+            if (_preSettingAction != null)
+            {
+                _preSettingAction.invokeExact(object);
+            }
         }
 
-        public Method getPostSettingAction()
+        public void set(final Object object, final Object value) throws Throwable
         {
-            return _postSettingAction;
+            _setter.invokeExact(object, value);
+        }
+
+        public void postSet(final Object object) throws Throwable
+        {
+            if (_postSettingAction != null)
+            {
+                _postSettingAction.invokeExact(object);
+            }
         }
     }
 
@@ -1179,48 +1239,14 @@ public class ConfiguredObjectTypeRegistry
 
     private AutomatedField findField(final ConfiguredObjectAttribute<?, ?> attr, Class<?> objClass)
     {
+        final String fieldName = "_" + attr.getName().replace('.', '_');
         Class<?> clazz = objClass;
         while (clazz != null)
         {
-            for (Field field : clazz.getDeclaredFields())
+            final AutomatedField field = getDeclaredAutomatedFields(clazz).get(fieldName);
+            if (field != null)
             {
-                if (field.isAnnotationPresent(ManagedAttributeField.class) && field.getName()
-                        .equals("_" + attr.getName().replace('.', '_')))
-                {
-                    try
-                    {
-                        ManagedAttributeField annotation = field.getAnnotation(ManagedAttributeField.class);
-                        field.setAccessible(true);
-                        Method beforeSet;
-                        if (!"".equals(annotation.beforeSet()))
-                        {
-                            beforeSet = clazz.getDeclaredMethod(annotation.beforeSet());
-                            beforeSet.setAccessible(true);
-                        }
-                        else
-                        {
-                            beforeSet = null;
-                        }
-                        Method afterSet;
-                        if (!"".equals(annotation.afterSet()))
-                        {
-                            afterSet = clazz.getDeclaredMethod(annotation.afterSet());
-                            afterSet.setAccessible(true);
-                        }
-                        else
-                        {
-                            afterSet = null;
-                        }
-                        return new AutomatedField(field, beforeSet, afterSet);
-                    }
-                    catch (NoSuchMethodException e)
-                    {
-                        throw new ServerScopedRuntimeException(
-                                "Cannot find method referenced by annotation for pre/post setting action",
-                                e);
-                    }
-
-                }
+                return field;
             }
             clazz = clazz.getSuperclass();
         }
@@ -1234,6 +1260,65 @@ public class ConfiguredObjectTypeRegistry
                                                + objClass.getName());
     }
 
+    private Map<String, AutomatedField> getDeclaredAutomatedFields(final Class<?> clazz)
+    {
+        return _declaredAutomatedFields.computeIfAbsent(clazz, declaringClass ->
+        {
+            final Map<String, AutomatedField> fields = new HashMap<>();
+            for (Field field : declaringClass.getDeclaredFields())
+            {
+                final ManagedAttributeField annotation = field.getAnnotation(ManagedAttributeField.class);
+                if (annotation != null)
+                {
+                    fields.put(field.getName(), createAutomatedField(declaringClass, field, annotation));
+                }
+            }
+            return fields;
+        });
+    }
+
+    static AutomatedField createAutomatedField(final Class<?> clazz,
+                                               final Field field,
+                                               final ManagedAttributeField annotation)
+    {
+        try
+        {
+            field.setAccessible(true);
+            Method beforeSet;
+            if (!"".equals(annotation.beforeSet()))
+            {
+                beforeSet = clazz.getDeclaredMethod(annotation.beforeSet());
+                beforeSet.setAccessible(true);
+            }
+            else
+            {
+                beforeSet = null;
+            }
+            Method afterSet;
+            if (!"".equals(annotation.afterSet()))
+            {
+                afterSet = clazz.getDeclaredMethod(annotation.afterSet());
+                afterSet.setAccessible(true);
+            }
+            else
+            {
+                afterSet = null;
+            }
+            return new AutomatedField(field, beforeSet, afterSet);
+        }
+        catch (NoSuchMethodException e)
+        {
+            throw new ServerScopedRuntimeException(
+                    "Cannot find method referenced by annotation for pre/post setting action",
+                    e);
+        }
+        catch (IllegalAccessException e)
+        {
+            throw new ServerScopedRuntimeException("Cannot access automated field " + field.getName()
+                                                   + " in class " + clazz.getName(), e);
+        }
+    }
+
     public <X extends ConfiguredObject> Collection<String> getAttributeNames(Class<X> clazz)
     {
         final Collection<ConfiguredObjectAttribute<? super X, ?>> attrs = getAttributes(clazz);
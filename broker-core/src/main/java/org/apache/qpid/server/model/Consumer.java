@@ -82,6 +82,30 @@ public interface Consumer<X extends Consumer<X,T>, T extends ConsumerTarget> ext
     @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.MESSAGES, label = "Prefetch")
     long getUnacknowledgedMessages();
 
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.TIME_DURATION,
+                      label = "Enqueue To Deliver Median",
+                      description = "Median of the time between a sampled message being enqueued and its delivery to"
+                                    + " this consumer, over the last one to two minutes.")
+    long getEnqueueToDeliver50thPercentile();
+
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.TIME_DURATION,
+                      label = "Enqueue To Deliver 99th Percentile",
+                      description = "99th percentile of the time between a sampled message being enqueued and its"
+                                    + " delivery to this consumer, over the last one to two minutes.")
+    long getEnqueueToDeliver99thPercentile();
+
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.TIME_DURATION,
+                      label = "Deliver To Settle Median",
+                      description = "Median of the time between a sampled message being delivered to this consumer and"
+                                    + " its acknowledgement, over the last one to two minutes.")
+    long getDeliverToSettle50thPercentile();
+
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.TIME_DURATION,
+                      label = "Deliver To Settle 99th Percentile",
+                      description = "99th percentile of the time between a sampled message being delivered to"
+                                    + " this consumer and its acknowledgement, over the last one to two minutes.")
+    long getDeliverToSettle99thPercentile();
+
     long getConsumerNumber();
 
     boolean isSuspended();
@@ -187,6 +187,47 @@ public interface Queue<X extends Queue<X>> extends ConfiguredObject<X>,
                           + " 'maximumQueueDepthBytes' and 'maximumQueueDepthMessages'.")
     double DEFAULT_FLOW_CONTROL_RESUME_LIMIT = 80.0;
 
+    String QUEUE_FLOW_THROTTLE_LIMIT = "queue.queueFlowThrottleLimit";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault( name = QUEUE_FLOW_THROTTLE_LIMIT,
+            description = "Percentage of the values of attributes 'maximumQueueDepthBytes' and"
+                          + " 'maximumQueueDepthMessages' above which producer flow control throttles producing"
+                          + " sessions before blocking them.  Only sessions alone on their connection are throttled."
+                          + "  A value of 100 or more disables throttling.")
+    double DEFAULT_FLOW_CONTROL_THROTTLE_LIMIT = 100.0;
+
+    String QUEUE_FLOW_THROTTLE_PERIOD = "queue.queueFlowThrottlePeriod";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault( name = QUEUE_FLOW_THROTTLE_PERIOD,
+            description = "Period, in milliseconds, over which the messages published by a throttled session are"
+                          + " counted against its credit.")
+    long DEFAULT_FLOW_CONTROL_THROTTLE_PERIOD = 100L;
+
+    String QUEUE_FLOW_THROTTLE_CREDIT = "queue.queueFlowThrottleCredit";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault( name = QUEUE_FLOW_THROTTLE_CREDIT,
+            description = "Number of messages each session may publish per throttle period when the queue depth"
+                          + " reaches the throttle limit.  The credit falls linearly to a single message as the"
+                          + " queue depth approaches its maximum.")
+    int DEFAULT_FLOW_CONTROL_THROTTLE_CREDIT = 1000;
+
+    String QUEUE_DIRECT_DISPATCH = "queue.directDispatch";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault( name = QUEUE_DIRECT_DISPATCH,
+            description = "If true, when the queue has a single consumer which is idle, the IO thread enqueuing a"
+                          + " message goes on to process the consumer's connection itself, provided that the"
+                          + " connection is served by the same IO pool, instead of handing it over to another IO"
+                          + " thread.")
+    boolean DEFAULT_QUEUE_DIRECT_DISPATCH = false;
+
+    String QUEUE_LATENCY_SAMPLING_INTERVAL = "queue.latencySamplingInterval";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault( name = QUEUE_LATENCY_SAMPLING_INTERVAL,
+            description = "One in how many enqueued messages is timed for the enqueue to deliver and deliver to"
+                          + " settle latency statistics of the queue and its consumers.  Zero disables the"
+                          + " latency statistics.")
+    int DEFAULT_QUEUE_LATENCY_SAMPLING_INTERVAL = 100;
+
     @SuppressWarnings("unused")
     @DerivedAttribute
     boolean isQueueFlowStopped();
@@ -313,6 +354,8 @@ public interface Queue<X extends Queue<X>> extends ConfiguredObject<X>,
                           + " and/or maximumQueueDepthMessage are breached."
                           + " ProducerFlowControl - the producing sessions are blocked until queue size"
                           + " falls beneath resume threshold (see context variable queue.queueFlowResumeLimit)."
+                          + " Optionally, producing sessions are progressively throttled as the queue approaches"
+                          + " its limits (see context variable queue.queueFlowThrottleLimit)."
                           + " Ring - oldest messages are discarded."
                           + " Reject - incoming messages are rejected."
                           + " FlowToDisk - new incoming messages are written to disk and immediately evicted from memory."
@@ -414,6 +457,16 @@ public interface Queue<X extends Queue<X>> extends ConfiguredObject<X>,
             description = "Total number of messages expired by message time-to-live on this queue.")
     long getTotalExpiredMessages();
 
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.BYTES, label = "Evicted",
+            description = "Total size of all messages discarded from this queue by the ring overflow policy.")
+    long getTotalEvictedBytes();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.MESSAGES, label = "Evicted",
+            description = "Total number of messages discarded from this queue by the ring overflow policy.")
+    long getTotalEvictedMessages();
+
 
     @SuppressWarnings("unused")
     @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.BYTES, label = "Prefetched",
@@ -460,6 +513,34 @@ public interface Queue<X extends Queue<X>> extends ConfiguredObject<X>,
                       description = "Current age of oldest message on the queue.")
     long getOldestMessageAge();
 
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.TIME_DURATION,
+                      label = "Enqueue To Deliver Median",
+                      description = "Median of the time between a sampled message being enqueued and its delivery to"
+                                    + " an acquiring consumer, over the last one to two minutes.")
+    long getEnqueueToDeliver50thPercentile();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.TIME_DURATION,
+                      label = "Enqueue To Deliver 99th Percentile",
+                      description = "99th percentile of the time between a sampled message being enqueued and its"
+                                    + " delivery to an acquiring consumer, over the last one to two minutes.")
+    long getEnqueueToDeliver99thPercentile();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.TIME_DURATION,
+                      label = "Deliver To Settle Median",
+                      description = "Median of the time between a sampled message being delivered to a consumer and"
+                                    + " its acknowledgement, over the last one to two minutes.")
+    long getDeliverToSettle50thPercentile();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.TIME_DURATION,
+                      label = "Deliver To Settle 99th Percentile",
+                      description = "99th percentile of the time between a sampled message being delivered to"
+                                    + " a consumer and its acknowledgement, over the last one to two minutes.")
+    long getDeliverToSettle99thPercentile();
+
     @ManagedOperation(description = "move messages from this queue to another", changesConfiguredObjectState = false)
     List<Long> moveMessages(@Param(name = "destination", description = "The queue to which the messages should be moved", mandatory = true) Queue<?> destination,
                             @Param(name = "messageIds", description = "If provided, only messages in the queue whose (internal) message-id is supplied will be considered for moving") List<Long> messageIds,
@@ -552,5 +633,12 @@ public interface Queue<X extends Queue<X>> extends ConfiguredObject<X>,
 
     QueueEntry getLeastSignificantOldestEntry();
 
+    QueueEntry getLeastSignificantNextEntry(QueueEntry entry);
+
+    /**
+     * Deletes the entry to relieve overflow, counting it as evicted once it has been dequeued.
+     */
+    void evictEntry(QueueEntry entry);
+
     QueueEntryIterator queueEntryIterator();
 }
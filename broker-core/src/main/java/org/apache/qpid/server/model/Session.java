@@ -58,4 +58,10 @@ public interface Session<X extends Session<X>> extends ConfiguredObject<X>
 
     @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.MESSAGES, label = "Prefetched")
     long getUnacknowledgedMessages();
+
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.TIME_DURATION,
+                      label = "Producer Flow Throttle Time",
+                      description = "Total time, in milliseconds, for which publication on this session has been"
+                                    + " throttled by producer flow control.")
+    long getProducerFlowThrottleTime();
 }
@@ -37,6 +37,7 @@ import org.apache.qpid.server.model.StatisticType;
 import org.apache.qpid.server.model.StatisticUnit;
 import org.apache.qpid.server.model.Transport;
 import org.apache.qpid.server.plugin.ConnectionPropertyEnricher;
+import org.apache.qpid.server.security.auth.sasl.SaslAuthenticationExecutor;
 
 @ManagedObject( category = false, type = "AMQP", amqpName = "org.apache.qpid.AmqpPort")
 public interface AmqpPort<X extends AmqpPort<X>> extends Port<X>
@@ -132,6 +133,20 @@ public interface AmqpPort<X extends AmqpPort<X>> extends Port<X>
             description = "The connection property enrichers to apply to connections created on this port.")
     String DEFAULT_CONNECTION_PROTOCOL_ENRICHERS = "[ \"STANDARD\" ] ";
 
+    String PORT_AMQP_AUTHENTICATION_THREAD_POOL_SIZE = "qpid.port.amqp.authentication.threadPool.size";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault(name = PORT_AMQP_AUTHENTICATION_THREAD_POOL_SIZE,
+            description = "Number of threads evaluating the SASL responses of connections made through this port."
+                          + " A value of 0 evaluates SASL responses on the IO threads of the connections.")
+    int DEFAULT_PORT_AMQP_AUTHENTICATION_THREAD_POOL_SIZE = 4;
+
+    String PORT_AMQP_AUTHENTICATION_MAXIMUM_QUEUED = "qpid.port.amqp.authentication.maximumQueued";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault(name = PORT_AMQP_AUTHENTICATION_MAXIMUM_QUEUED,
+            description = "Maximum number of SASL responses waiting for an authentication thread.  Connections"
+                          + " whose responses exceed this limit fail authentication.")
+    int DEFAULT_PORT_AMQP_AUTHENTICATION_MAXIMUM_QUEUED = 1024;
+
     SSLContext getSSLContext();
 
     @ManagedAttribute( defaultValue = AmqpPort.DEFAULT_AMQP_TCP_NO_DELAY )
@@ -167,6 +182,34 @@ public interface AmqpPort<X extends AmqpPort<X>> extends Port<X>
                       description = "Current number of connections made through this port")
     int getConnectionCount();
 
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.COUNT,
+                      label = "Authentications In Progress",
+                      description = "Current number of SASL responses being evaluated on authentication threads.")
+    int getAuthenticationsInProgress();
+
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.COUNT,
+                      label = "Queued Authentications",
+                      description = "Current number of SASL responses waiting for an authentication thread.")
+    int getQueuedAuthentications();
+
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.COUNT,
+                      label = "Rejected Authentications",
+                      description = "Total number of SASL responses rejected as too many were waiting for an"
+                                    + " authentication thread.")
+    long getRejectedAuthentications();
+
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.TIME_DURATION,
+                      label = "Authentication Median",
+                      description = "Median of the time between a SASL response being received and its evaluation"
+                                    + " completing, over the last one to two minutes.")
+    long getAuthentication50thPercentile();
+
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.TIME_DURATION,
+                      label = "Authentication 99th Percentile",
+                      description = "99th percentile of the time between a SASL response being received and its"
+                                    + " evaluation completing, over the last one to two minutes.")
+    long getAuthentication99thPercentile();
+
     @DerivedAttribute(description = "Maximum time allowed for a new connection to send a protocol header."
                                     + " If the connection does not send a protocol header within this time,"
                                     + " the connection will be aborted.")
@@ -200,4 +243,10 @@ public interface AmqpPort<X extends AmqpPort<X>> extends Port<X>
     int getNetworkBufferSize();
 
     List<ConnectionPropertyEnricher> getConnectionPropertyEnrichers();
+
+    /**
+     * @return the executor evaluating the SASL responses of connections made through this port, or null if they
+     * are evaluated on the IO threads of the connections
+     */
+    SaslAuthenticationExecutor getSaslAuthenticationExecutor();
 }
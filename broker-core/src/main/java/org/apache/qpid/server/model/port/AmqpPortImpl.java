@@ -66,6 +66,7 @@ import org.apache.qpid.server.plugin.ConnectionPropertyEnricher;
 import org.apache.qpid.server.plugin.ProtocolEngineCreator;
 import org.apache.qpid.server.plugin.QpidServiceLoader;
 import org.apache.qpid.server.plugin.TransportProviderFactory;
+import org.apache.qpid.server.security.auth.sasl.SaslAuthenticationExecutor;
 import org.apache.qpid.server.transport.AcceptingTransport;
 import org.apache.qpid.server.transport.PortBindFailureException;
 import org.apache.qpid.server.transport.TransportProvider;
@@ -107,6 +108,7 @@ public class AmqpPortImpl extends AbstractPort<AmqpPortImpl> implements AmqpPort
     private volatile int _tlsSessionTimeout;
     private volatile int _tlsSessionCacheSize;
     private volatile List<ConnectionPropertyEnricher> _connectionPropertyEnrichers;
+    private volatile SaslAuthenticationExecutor _saslAuthenticationExecutor;
 
     @ManagedObjectFactoryConstructor
     public AmqpPortImpl(Map<String, Object> attributes, Container<?> container)
@@ -246,6 +248,7 @@ public class AmqpPortImpl extends AbstractPort<AmqpPortImpl> implements AmqpPort
                 _sslContext = createSslContext();
             }
             Protocol defaultSupportedProtocolReply = getDefaultAmqpSupportedReply();
+            _saslAuthenticationExecutor = createSaslAuthenticationExecutor();
             try
             {
                 _transport = transportProvider.createTransport(transportSet,
@@ -311,6 +314,65 @@ public class AmqpPortImpl extends AbstractPort<AmqpPortImpl> implements AmqpPort
 
             _transport.close();
         }
+
+        if (_saslAuthenticationExecutor != null)
+        {
+            _saslAuthenticationExecutor.shutdown();
+        }
+    }
+
+    private SaslAuthenticationExecutor createSaslAuthenticationExecutor()
+    {
+        final int threadPoolSize = getContextValue(Integer.class, PORT_AMQP_AUTHENTICATION_THREAD_POOL_SIZE);
+        if (threadPoolSize <= 0)
+        {
+            return null;
+        }
+        return new SaslAuthenticationExecutor(getName(),
+                                              threadPoolSize,
+                                              getContextValue(Integer.class, PORT_AMQP_AUTHENTICATION_MAXIMUM_QUEUED),
+                                              getContextValue(Long.class, PORT_AMQP_THREAD_POOL_KEEP_ALIVE_TIMEOUT));
+    }
+
+    @Override
+    public SaslAuthenticationExecutor getSaslAuthenticationExecutor()
+    {
+        return _saslAuthenticationExecutor;
+    }
+
+    @Override
+    public int getAuthenticationsInProgress()
+    {
+        final SaslAuthenticationExecutor executor = _saslAuthenticationExecutor;
+        return executor == null ? 0 : executor.getAuthenticationsInProgress();
+    }
+
+    @Override
+    public int getQueuedAuthentications()
+    {
+        final SaslAuthenticationExecutor executor = _saslAuthenticationExecutor;
+        return executor == null ? 0 : executor.getQueuedAuthentications();
+    }
+
+    @Override
+    public long getRejectedAuthentications()
+    {
+        final SaslAuthenticationExecutor executor = _saslAuthenticationExecutor;
+        return executor == null ? 0L : executor.getRejectedAuthenticationCount();
+    }
+
+    @Override
+    public long getAuthentication50thPercentile()
+    {
+        final SaslAuthenticationExecutor executor = _saslAuthenticationExecutor;
+        return executor == null ? 0L : executor.getAuthenticationLatencyAtPercentile(50.0);
+    }
+
+    @Override
+    public long getAuthentication99thPercentile()
+    {
+        final SaslAuthenticationExecutor executor = _saslAuthenticationExecutor;
+        return executor == null ? 0L : executor.getAuthenticationLatencyAtPercentile(99.0);
     }
 
     @Override
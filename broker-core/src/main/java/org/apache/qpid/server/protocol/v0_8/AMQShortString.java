@@ -24,6 +24,7 @@ package org.apache.qpid.server.protocol.v0_8;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -47,6 +48,17 @@ public final class AMQShortString implements Comparable<AMQShortString>
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AMQShortString.class);
 
+    /**
+     * System property controlling the number of entries in the cache used by
+     * {@link #readInternedAMQShortString(QpidByteBuffer)}.  Rounded up to a power of two; zero disables the cache.
+     */
+    public static final String INTERN_CACHE_SIZE = "qpid.amqp_0_8.short_string_intern_cache_size";
+    private static final int DEFAULT_INTERN_CACHE_SIZE = 4096;
+    /** Longer strings are unlikely to repeat and are never interned */
+    static final int MAX_INTERNED_LENGTH = 128;
+
+    private static final AtomicReferenceArray<AMQShortString> INTERN_CACHE = createInternCache();
+
     private final byte[] _data;
     private final int _offset;
     private int _hashCode;
@@ -151,6 +163,80 @@ public final class AMQShortString implements Comparable<AMQShortString>
     }
 
 
+    /**
+     * Reads a short string in the same way as {@link #readAMQShortString(QpidByteBuffer)}, but returns a previously
+     * read instance with the same content if one is held in the intern cache.  The content is hashed and compared in
+     * place, so no allocation takes place when the cache holds the string.
+     * <p>
+     * The cache is direct mapped: each hash selects a single slot, and a miss replaces whatever the slot held.  It
+     * is intended for strings which repeat from frame to frame, such as exchange names, routing keys and header keys.
+     */
+    public static AMQShortString readInternedAMQShortString(QpidByteBuffer buffer)
+    {
+        final AtomicReferenceArray<AMQShortString> cache = INTERN_CACHE;
+        if (cache == null || !buffer.hasRemaining())
+        {
+            return readAMQShortString(buffer);
+        }
+
+        final int position = buffer.position();
+        final int length = buffer.get(position) & 0xff;
+        if (length == 0 || length > MAX_INTERNED_LENGTH || length >= buffer.remaining())
+        {
+            return readAMQShortString(buffer);
+        }
+
+        final int dataPosition = position + 1;
+        int hash = 0;
+        for (int i = 0; i < length; i++)
+        {
+            hash = (31 * hash) + buffer.get(dataPosition + i);
+        }
+
+        final int index = (hash ^ (hash >>> 16)) & (cache.length() - 1);
+        final AMQShortString cached = cache.get(index);
+        if (cached != null && cached.hashCode() == hash && cached.contentEquals(buffer, dataPosition, length))
+        {
+            buffer.position(dataPosition + length);
+            return cached;
+        }
+
+        final byte[] data = new byte[length];
+        buffer.position(dataPosition);
+        buffer.get(data);
+        final AMQShortString shortString = new AMQShortString(data, 0, length);
+        shortString._hashCode = hash;
+        cache.lazySet(index, shortString);
+        return shortString;
+    }
+
+    private static AtomicReferenceArray<AMQShortString> createInternCache()
+    {
+        final int size = Integer.getInteger(INTERN_CACHE_SIZE, DEFAULT_INTERN_CACHE_SIZE);
+        if (size <= 0)
+        {
+            return null;
+        }
+        final int capacity = Integer.highestOneBit(Math.min(size, 1 << 30));
+        return new AtomicReferenceArray<>(capacity < size ? capacity << 1 : capacity);
+    }
+
+    private boolean contentEquals(final QpidByteBuffer buffer, final int position, final int length)
+    {
+        if (_length != length)
+        {
+            return false;
+        }
+        for (int i = 0; i < length; i++)
+        {
+            if (_data[_offset + i] != buffer.get(position + i))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public AMQShortString(byte[] data, final int offset, final int length)
     {
         if (length > MAX_LENGTH)
@@ -1163,7 +1163,7 @@ public class FieldTable
 
                 do
                 {
-                    final AMQShortString key = AMQShortString.readAMQShortString(slice);
+                    final AMQShortString key = AMQShortString.readInternedAMQShortString(slice);
                     AMQTypedValue value = AMQTypedValue.readFromBuffer(slice);
                     _properties.put(key, value);
                 }
@@ -47,6 +47,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.zip.GZIPInputStream;
@@ -109,6 +110,7 @@ import org.apache.qpid.server.store.MessageEnqueueRecord;
 import org.apache.qpid.server.store.StorableMessageMetaData;
 import org.apache.qpid.server.store.StoredMessage;
 import org.apache.qpid.server.transport.AMQPConnection;
+import org.apache.qpid.server.transport.DirectDispatch;
 import org.apache.qpid.server.txn.AutoCommitTransaction;
 import org.apache.qpid.server.txn.LocalTransaction;
 import org.apache.qpid.server.txn.ServerTransaction;
@@ -268,6 +270,7 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
     private long _flowToDiskThreshold;
     private volatile MessageDestination _alternateBindingDestination;
     private volatile MessageConversionExceptionHandlingPolicy _messageConversionExceptionHandlingPolicy;
+    private volatile boolean _directDispatch;
 
     private interface HoldMethod
     {
@@ -502,6 +505,8 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
 
         _mimeTypeToFileExtension = getContextValue(Map.class, MAP_OF_STRING_STRING, MIME_TYPE_TO_FILE_EXTENSION);
         _messageConversionExceptionHandlingPolicy = getContextValue(MessageConversionExceptionHandlingPolicy.class, MESSAGE_CONVERSION_EXCEPTION_HANDLING_POLICY);
+        _directDispatch = getContextValue(Boolean.class, QUEUE_DIRECT_DISPATCH);
+        _queueStatistics.setLatencySamplingInterval(getContextValue(Integer.class, QUEUE_LATENCY_SAMPLING_INTERVAL));
 
         _flowToDiskThreshold = getAncestor(Broker.class).getFlowToDiskThreshold();
 
@@ -1253,6 +1258,10 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
     protected void doEnqueue(final ServerMessage message, final Action<? super MessageInstance> action, MessageEnqueueRecord enqueueRecord)
     {
         final QueueEntry entry = getEntries().add(message, enqueueRecord);
+        if(_messageGroupManager != null)
+        {
+            _messageGroupManager.entryAdded(entry);
+        }
         updateExpiration(entry);
 
         try
@@ -1393,6 +1402,17 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
         resetSubPointers(entry, true);
     }
 
+    void entryStateChanged(final QueueEntry entry,
+                           final QueueEntry.EntryState oldState,
+                           final QueueEntry.EntryState newState)
+    {
+        final MessageGroupManager messageGroupManager = _messageGroupManager;
+        if(messageGroupManager != null)
+        {
+            messageGroupManager.entryStateChanged(entry, oldState, newState);
+        }
+    }
+
     @Override
     public void requeue(QueueEntry entry)
     {
@@ -1527,6 +1547,30 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
         return oldestMessageArrivalTime == 0 ? 0 : System.currentTimeMillis() - oldestMessageArrivalTime;
     }
 
+    @Override
+    public long getEnqueueToDeliver50thPercentile()
+    {
+        return TimeUnit.NANOSECONDS.toMillis(_queueStatistics.getEnqueueToDeliverLatency().getValueAtPercentile(50.0));
+    }
+
+    @Override
+    public long getEnqueueToDeliver99thPercentile()
+    {
+        return TimeUnit.NANOSECONDS.toMillis(_queueStatistics.getEnqueueToDeliverLatency().getValueAtPercentile(99.0));
+    }
+
+    @Override
+    public long getDeliverToSettle50thPercentile()
+    {
+        return TimeUnit.NANOSECONDS.toMillis(_queueStatistics.getDeliverToSettleLatency().getValueAtPercentile(50.0));
+    }
+
+    @Override
+    public long getDeliverToSettle99thPercentile()
+    {
+        return TimeUnit.NANOSECONDS.toMillis(_queueStatistics.getDeliverToSettleLatency().getValueAtPercentile(99.0));
+    }
+
     @Override
     public boolean isDeleted()
     {
@@ -1743,6 +1787,12 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
         deleteEntry(entry, null);
     }
 
+    @Override
+    public void evictEntry(final QueueEntry entry)
+    {
+        deleteEntry(entry, () -> _queueStatistics.addToEvicted(entry.getSizeWithHeader()));
+    }
+
     private void deleteEntry(final QueueEntry entry, final Runnable postDequeueTask)
     {
         boolean acquiredForDequeueing = entry.acquireOrSteal(() ->
@@ -2032,6 +2082,10 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
                     else
                     {
                         setLastSeenEntry(sub, node);
+                        if (messageReference == null && node instanceof QueueEntryImpl)
+                        {
+                            recordDelivery(sub, (QueueEntryImpl) node);
+                        }
                         return new MessageContainer(node, messageReference);
                     }
                 }
@@ -2045,6 +2099,19 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
         return NO_MESSAGES;
     }
 
+    private void recordDelivery(final QueueConsumer<?,?> sub, final QueueEntryImpl entry)
+    {
+        final QueueEntryImpl.LatencySample latencySample = entry.getLatencySample();
+        if (latencySample != null)
+        {
+            final long now = System.nanoTime();
+            latencySample.setDeliveryTime(now);
+            final long latency = now - latencySample.getEnqueueTime();
+            _queueStatistics.getEnqueueToDeliverLatency().record(latency);
+            sub.recordEnqueueToDeliverLatency(latency);
+        }
+    }
+
     private boolean noHigherPriorityWithCredit(final QueueConsumer<?,?> sub, final QueueEntry queueEntry)
     {
         Iterator<QueueConsumer<?,?>> consumerIterator = _queueConsumerManager.getAllIterator();
@@ -2083,8 +2150,9 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
                     .next(lastSeen);
 
             boolean expired = false;
+            boolean unassignable = false;
             while (node != null && (!node.isAvailable() || (expired = node.expired()) || !sub.hasInterest(node) ||
-                                    !mightAssign(sub,node)))
+                                    (unassignable = !mightAssign(sub,node))))
             {
                 if (expired)
                 {
@@ -2103,8 +2171,21 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
 
                 lastSeen = context.getLastSeenEntry();
                 releasedNode = context.getReleasedEntry();
-                node = (releasedNode != null && lastSeen.compareTo(releasedNode)>=0) ? releasedNode : getEntries().next(
-                        lastSeen);
+                if (releasedNode != null && lastSeen.compareTo(releasedNode)>=0)
+                {
+                    node = releasedNode;
+                }
+                else if (unassignable)
+                {
+                    // rather than visiting the entries of the groups assigned to other consumers one by one, go
+                    // straight to the next entry which might be assigned to this one
+                    node = _messageGroupManager.findNextAssignableEntry(sub, lastSeen, getEntries());
+                }
+                else
+                {
+                    node = getEntries().next(lastSeen);
+                }
+                unassignable = false;
             }
             return node;
         }
@@ -2267,7 +2348,14 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
     {
         if(consumerHasAvailableMessages(consumer) && _queueConsumerManager.setNotified(consumer, true))
         {
-            consumer.notifyWork();
+            if (_directDispatch && !consumer.isSuspended() && _queueConsumerManager.getAllSize() == 1)
+            {
+                DirectDispatch.notifyDirect(consumer::notifyWork);
+            }
+            else
+            {
+                consumer.notifyWork();
+            }
             return true;
         }
         else
@@ -2622,6 +2710,18 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
         return _queueStatistics.getExpiredCount();
     }
 
+    @Override
+    public long getTotalEvictedBytes()
+    {
+        return _queueStatistics.getEvictedSize();
+    }
+
+    @Override
+    public long getTotalEvictedMessages()
+    {
+        return _queueStatistics.getEvictedCount();
+    }
+
     private void checkForNotification(final ServerMessage<?> msg,
                                       final QueueNotificationListener listener,
                                       final long currentTime,
@@ -3305,6 +3405,12 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
         return getEntries().getLeastSignificantOldestEntry();
     }
 
+    @Override
+    public QueueEntry getLeastSignificantNextEntry(final QueueEntry entry)
+    {
+        return getEntries().getLeastSignificantNextEntry(entry);
+    }
+
     @Override
     public void removeReference(DestinationReferrer destinationReferrer)
     {
@@ -21,6 +21,7 @@
 package org.apache.qpid.server.queue;
 
 import org.apache.qpid.server.message.MessageInstance;
+import org.apache.qpid.server.message.MessageInstanceConsumer;
 import org.apache.qpid.server.model.Queue;
 import org.apache.qpid.server.store.MessageDurability;
 
@@ -43,13 +44,17 @@ abstract class AbstractQueueEntryList implements QueueEntryList
     }
 
 
-    void updateStatsOnEnqueue(QueueEntry entry)
+    void updateStatsOnEnqueue(QueueEntryImpl entry)
     {
         final long sizeWithHeader = entry.getSizeWithHeader();
         final QueueStatistics queueStatistics = _queueStatistics;
         queueStatistics.addToAvailable(sizeWithHeader);
         queueStatistics.addToQueue(sizeWithHeader);
         queueStatistics.addToEnqueued(sizeWithHeader);
+        if (queueStatistics.isLatencySampled())
+        {
+            entry.setLatencySample(new QueueEntryImpl.LatencySample(System.nanoTime()));
+        }
         if(_forcePersistent || (_respectPersistent && entry.getMessage().isPersistent()))
         {
             queueStatistics.addToPersistentEnqueued(sizeWithHeader);
@@ -74,6 +79,12 @@ abstract class AbstractQueueEntryList implements QueueEntryList
                 if(wasConsumerAcquired && !isConsumerAcquired)
                 {
                     queueStatistics.removeFromUnacknowledged(sizeWithHeader);
+                    if (entry instanceof QueueEntryImpl)
+                    {
+                        recordSettlement((QueueEntryImpl) entry,
+                                         ((MessageInstance.ConsumerAcquiredState<?>) fromState).getConsumer(),
+                                         toState.getState() == MessageInstance.State.DEQUEUED);
+                    }
                 }
                 break;
         }
@@ -98,6 +109,32 @@ abstract class AbstractQueueEntryList implements QueueEntryList
                 _queue.checkCapacity();
 
         }
+
+        if(_queue instanceof AbstractQueue)
+        {
+            ((AbstractQueue<?>) _queue).entryStateChanged(entry, fromState, toState);
+        }
+    }
+
+    private void recordSettlement(final QueueEntryImpl entry,
+                                  final MessageInstanceConsumer<?> consumer,
+                                  final boolean dequeued)
+    {
+        final QueueEntryImpl.LatencySample latencySample = entry.getLatencySample();
+        final long deliveryTime = latencySample == null ? 0L : latencySample.getDeliveryTime();
+        if (deliveryTime != 0L)
+        {
+            latencySample.setDeliveryTime(0L);
+            if (dequeued)
+            {
+                final long latency = System.nanoTime() - deliveryTime;
+                _queueStatistics.getDeliverToSettleLatency().record(latency);
+                if (consumer instanceof QueueConsumer)
+                {
+                    ((QueueConsumer<?, ?>) consumer).recordDeliverToSettleLatency(latency);
+                }
+            }
+        }
     }
 
 }
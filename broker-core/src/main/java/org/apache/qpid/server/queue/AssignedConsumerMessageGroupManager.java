@@ -55,6 +55,18 @@ public class AssignedConsumerMessageGroupManager implements MessageGroupManager
         return val;
     }
 
+    @Override
+    public void entryAdded(final QueueEntry entry)
+    {
+    }
+
+    @Override
+    public void entryStateChanged(final QueueEntry entry,
+                                  final QueueEntry.EntryState oldState,
+                                  final QueueEntry.EntryState newState)
+    {
+    }
+
     @Override
     public boolean mightAssign(final QueueEntry entry, QueueConsumer sub)
     {
@@ -77,6 +89,14 @@ public class AssignedConsumerMessageGroupManager implements MessageGroupManager
         return assignMessage(sub, entry) && entry.acquire(sub);
     }
 
+    @Override
+    public QueueEntry findNextAssignableEntry(final QueueConsumer<?,?> sub,
+                                              final QueueEntry entry,
+                                              final QueueEntryList entries)
+    {
+        return entries.next(entry);
+    }
+
     private Object getGroupValue(final QueueEntry entry)
     {
         final AMQMessageHeader messageHeader = entry.getMessage().getMessageHeader();
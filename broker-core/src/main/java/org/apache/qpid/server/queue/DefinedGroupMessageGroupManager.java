@@ -22,8 +22,7 @@ package org.apache.qpid.server.queue;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.SortedSet;
-import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,11 +41,12 @@ public class DefinedGroupMessageGroupManager implements MessageGroupManager
     private final String _defaultGroup;
     private final Map<Object, Group> _groupMap = new HashMap<>();
     private final ConsumerResetHelper _resetHelper;
+    private final MessageGroupIndex _index = new MessageGroupIndex();
+    private final AtomicLong _highestAddedEntryId = new AtomicLong(Long.MIN_VALUE);
 
     private final class Group
     {
         private final Object _group;
-        private final SortedSet<QueueEntry> _skippedEntries = new TreeSet<>();
         private QueueConsumer<?,?> _consumer;
         private int _activeCount;
 
@@ -69,19 +69,17 @@ public class DefinedGroupMessageGroupManager implements MessageGroupManager
             }
         }
         
-        void subtract(final QueueEntry entry, final boolean released)
+        void subtract()
         {
-            if(!released)
-            {
-                _skippedEntries.remove(entry);
-            }
             if(--_activeCount == 0)
             {
                 _groupMap.remove(_group);
-                if(!_skippedEntries.isEmpty())
+                _index.assign(_group, null);
+                // consumers may have moved past entries of the group while it was assigned
+                final QueueEntry firstEntry = _index.getFirstEntry(_group);
+                if(firstEntry != null)
                 {
-                    _resetHelper.resetSubPointersForGroups(_skippedEntries.first());
-                    _skippedEntries.clear();
+                    _resetHelper.resetSubPointersForGroups(firstEntry);
                 }
                 _consumer = null;
             }
@@ -129,11 +127,6 @@ public class DefinedGroupMessageGroupManager implements MessageGroupManager
                     ", _activeCount=" + _activeCount +
                     '}';
         }
-
-        void addSkippedEntry(final QueueEntry entry)
-        {
-            _skippedEntries.add(entry);
-        }
     }
 
     DefinedGroupMessageGroupManager(final String groupId, String defaultGroup, ConsumerResetHelper resetHelper)
@@ -143,18 +136,56 @@ public class DefinedGroupMessageGroupManager implements MessageGroupManager
         _resetHelper = resetHelper;
     }
     
+    @Override
+    public void entryAdded(final QueueEntry entry)
+    {
+        if(entry instanceof QueueEntryImpl)
+        {
+            // the highest entry id is raised before indexing, so that an enqueue indexing its entry after a later
+            // one was indexed always sees the later id; the id is kept rather than the entry so that no deleted
+            // entry stays reachable.  Priority lists number each priority separately, which at worst moves the
+            // consumers back needlessly.
+            final long entryId = ((QueueEntryImpl) entry).getEntryId();
+            _highestAddedEntryId.accumulateAndGet(entryId, Math::max);
+            _index.update(getKey(entry), entry);
+            if(_highestAddedEntryId.get() > entryId)
+            {
+                // a later entry may have been indexed first by a concurrent enqueue, so consumers may have been moved
+                // past this one
+                _resetHelper.resetSubPointersForGroups(entry);
+            }
+        }
+        else
+        {
+            _index.update(getKey(entry), entry);
+        }
+    }
+
+    @Override
+    public void entryStateChanged(final QueueEntry entry, final EntryState oldState, final EntryState newState)
+    {
+        if(oldState.getState() == MessageInstance.State.AVAILABLE
+           || newState.getState() == MessageInstance.State.AVAILABLE)
+        {
+            _index.update(getKey(entry), entry);
+        }
+    }
+
     @Override
     public synchronized boolean mightAssign(final QueueEntry entry, final QueueConsumer sub)
     {
         Object groupId = getKey(entry);
 
         Group group = _groupMap.get(groupId);
-        final boolean possibleAssignment = group == null || !group.isValid() || group.getConsumer() == sub;
-        if(!possibleAssignment)
-        {
-            group.addSkippedEntry(entry);
-        }
-        return possibleAssignment;
+        return group == null || !group.isValid() || group.getConsumer() == sub;
+    }
+
+    @Override
+    public QueueEntry findNextAssignableEntry(final QueueConsumer<?,?> sub,
+                                              final QueueEntry entry,
+                                              final QueueEntryList entries)
+    {
+        return _index.getNextAssignableEntry(sub, entry);
     }
 
     @Override
@@ -173,6 +204,7 @@ public class DefinedGroupMessageGroupManager implements MessageGroupManager
             group = new Group(groupId, sub);
 
             _groupMap.put(groupId, group);
+            _index.assign(groupId, sub);
 
             // there's a small chance that the group became empty between the point at which getNextAvailable() was
             // called on the consumer, and when accept message is called... in that case we want to avoid delivering
@@ -192,63 +224,22 @@ public class DefinedGroupMessageGroupManager implements MessageGroupManager
         }
         else
         {
-            group.addSkippedEntry(entry);
-            return false;            
+            return false;
         }
     }
 
     @Override
     public synchronized QueueEntry findEarliestAssignedAvailableEntry(final QueueConsumer<?,?> sub)
     {
-        EntryFinder visitor = new EntryFinder(sub);
-        sub.getQueue().visit(visitor);
-        return visitor.getEntry();
+        return _index.getFirstAssignedEntry(sub);
     }
 
-    private class EntryFinder implements QueueEntryVisitor
-    {
-        private QueueEntry _entry;
-        private QueueConsumer<?,?> _sub;
-
-        EntryFinder(final QueueConsumer<?, ?> sub)
-        {
-            _sub = sub;
-        }
-
-        @Override
-        public boolean visit(final QueueEntry entry)
-        {
-            if(!entry.isAvailable())
-            {
-                return false;
-            }
-
-            Object groupId = getKey(entry);
-
-            Group group = _groupMap.get(groupId);
-            if(group != null && group.getConsumer() == _sub)
-            {
-                _entry = entry;
-                return true;
-            }
-            else
-            {
-                return false;
-            }
-        }
-
-        public QueueEntry getEntry()
-        {
-            return _entry;
-        }
-    }
-
-    
     @Override
-    public void clearAssignments(final QueueConsumer<?,?> sub)
+    public synchronized void clearAssignments(final QueueConsumer<?,?> sub)
     {
+        _index.unassign(sub);
     }
-    
+
     private Object getKey(QueueEntry entry)
     {
         ServerMessage message = entry.getMessage();
@@ -287,7 +278,7 @@ public class DefinedGroupMessageGroupManager implements MessageGroupManager
                     }
                     else if (isConsumerAcquiredStateForThisGroup(oldState) && !isConsumerAcquiredStateForThisGroup(newState))
                     {
-                        _group.subtract((QueueEntry) entry, newState.getState() == MessageInstance.State.AVAILABLE);
+                        _group.subtract();
                     }
                 }
                 else
@@ -0,0 +1,302 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.queue;
+
+import java.util.Iterator;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Index of the available entries of a queue with shared message groups, by group and by the consumer to which each
+ * group is assigned.
+ * <p>
+ * The index lets a consumer move from an entry belonging to a group assigned to another consumer straight to the
+ * next entry which might be assigned to it, rather than visiting each of the entries in between.  The index must never
+ * hold an entry as assigned to one consumer when it might be assigned to another, as the other consumer would then
+ * miss it; holding an entry of an assigned group as unassigned merely costs the consumers an extra visit.  Group
+ * managers therefore unassign groups whenever in doubt.  For the same reason, entries moving between consumers are
+ * added to the entries of their new consumer before being removed from those of the old one.
+ * <p>
+ * Entries are indexed and removed under the lock of their group alone, so enqueues and deliveries of different groups
+ * do not contend.  Changes of assignment are serialised on the index itself.
+ * <p>
+ * Entries become visible to consumers when they are added to the queue, slightly before they are indexed.  Should
+ * concurrent enqueues index a later entry ahead of an earlier one, the group manager moves the consumers back to the
+ * earlier entry, just as it does for entries skipped while their group was assigned elsewhere.
+ */
+final class MessageGroupIndex
+{
+    private static final Object NO_GROUP = new Object();
+
+    private final ConcurrentMap<Object, Group> _groups = new ConcurrentHashMap<>();
+    private final ConcurrentMap<QueueConsumer<?,?>, Assignment> _assignments = new ConcurrentHashMap<>();
+    private final NavigableSet<QueueEntry> _unassignedEntries = new ConcurrentSkipListSet<>();
+
+    /**
+     * Brings the index up to date with the state of the entry, indexing it if it is available and removing it
+     * otherwise.  Called after each change in the availability of the entry, so that whichever call comes last sees
+     * the latest state.
+     */
+    void update(final Object groupKey, final QueueEntry entry)
+    {
+        final Object key = groupKey == null ? NO_GROUP : groupKey;
+        while (true)
+        {
+            final Group group = entry.isAvailable() ? _groups.computeIfAbsent(key, Group::new) : _groups.get(key);
+            if (group == null)
+            {
+                return;
+            }
+            synchronized (group)
+            {
+                if (!group.isRemoved())
+                {
+                    if (entry.isAvailable())
+                    {
+                        if (group.getEntries().add(entry))
+                        {
+                            entriesOf(group.getAssignment()).add(entry);
+                        }
+                    }
+                    else if (group.getEntries().remove(entry))
+                    {
+                        entriesOf(group.getAssignment()).remove(entry);
+                        removeIfUnused(group);
+                    }
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Records the assignment of a group to a consumer, or, if the consumer is null, that the group is unassigned.
+     */
+    synchronized void assign(final Object groupKey, final QueueConsumer<?,?> consumer)
+    {
+        if (groupKey == null)
+        {
+            return;
+        }
+        final Assignment assignment = consumer == null ? null : _assignments.computeIfAbsent(consumer, Assignment::new);
+        while (true)
+        {
+            final Group group = consumer == null ? _groups.get(groupKey) : _groups.computeIfAbsent(groupKey, Group::new);
+            if (group == null)
+            {
+                return;
+            }
+            synchronized (group)
+            {
+                if (!group.isRemoved())
+                {
+                    final Assignment previous = group.getAssignment();
+                    if (previous != assignment)
+                    {
+                        move(group, assignment);
+                        if (previous != null)
+                        {
+                            previous.getGroups().remove(group);
+                            if (previous.getGroups().isEmpty())
+                            {
+                                _assignments.remove(previous.getConsumer(), previous);
+                            }
+                        }
+                        removeIfUnused(group);
+                    }
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Records that none of the groups assigned to the consumer are assigned any longer.
+     */
+    synchronized void unassign(final QueueConsumer<?,?> consumer)
+    {
+        final Assignment assignment = _assignments.remove(consumer);
+        if (assignment != null)
+        {
+            for (final Group group : assignment.getGroups())
+            {
+                synchronized (group)
+                {
+                    if (group.getAssignment() == assignment)
+                    {
+                        move(group, null);
+                        removeIfUnused(group);
+                    }
+                }
+            }
+        }
+    }
+
+    QueueEntry getFirstEntry(final Object groupKey)
+    {
+        final Group group = _groups.get(groupKey == null ? NO_GROUP : groupKey);
+        if (group == null)
+        {
+            return null;
+        }
+        synchronized (group)
+        {
+            return group.getEntries().isEmpty() ? null : group.getEntries().first();
+        }
+    }
+
+    QueueEntry getFirstAssignedEntry(final QueueConsumer<?,?> consumer)
+    {
+        final Assignment assignment = _assignments.get(consumer);
+        if (assignment == null)
+        {
+            return null;
+        }
+        final Iterator<QueueEntry> iterator = assignment.getEntries().iterator();
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    /**
+     * Returns the first available entry after the given entry which is either unassigned or belongs to a group
+     * assigned to the consumer, or null if there is none.
+     */
+    QueueEntry getNextAssignableEntry(final QueueConsumer<?,?> consumer, final QueueEntry entry)
+    {
+        final QueueEntry unassigned = _unassignedEntries.higher(entry);
+        final Assignment assignment = _assignments.get(consumer);
+        final QueueEntry assigned = assignment == null ? null : assignment.getEntries().higher(entry);
+        if (unassigned == null)
+        {
+            return assigned;
+        }
+        else if (assigned == null)
+        {
+            return unassigned;
+        }
+        else
+        {
+            return unassigned.compareTo(assigned) < 0 ? unassigned : assigned;
+        }
+    }
+
+    private void move(final Group group, final Assignment assignment)
+    {
+        final NavigableSet<QueueEntry> entries = group.getEntries();
+        if (!entries.isEmpty())
+        {
+            entriesOf(assignment).addAll(entries);
+            entriesOf(group.getAssignment()).removeAll(entries);
+        }
+        group.setAssignment(assignment);
+        if (assignment != null)
+        {
+            assignment.getGroups().add(group);
+        }
+    }
+
+    private void removeIfUnused(final Group group)
+    {
+        if (group.getEntries().isEmpty() && group.getAssignment() == null)
+        {
+            group.setRemoved();
+            _groups.remove(group.getKey(), group);
+        }
+    }
+
+    private NavigableSet<QueueEntry> entriesOf(final Assignment assignment)
+    {
+        return assignment == null ? _unassignedEntries : assignment.getEntries();
+    }
+
+    private static final class Assignment
+    {
+        private final QueueConsumer<?,?> _consumer;
+        private final Set<Group> _groups = ConcurrentHashMap.newKeySet();
+        private final NavigableSet<QueueEntry> _entries = new ConcurrentSkipListSet<>();
+
+        private Assignment(final QueueConsumer<?,?> consumer)
+        {
+            _consumer = consumer;
+        }
+
+        Set<Group> getGroups()
+        {
+            return _groups;
+        }
+
+        NavigableSet<QueueEntry> getEntries()
+        {
+            return _entries;
+        }
+
+        QueueConsumer<?,?> getConsumer()
+        {
+            return _consumer;
+        }
+    }
+
+    private static final class Group
+    {
+        private final Object _key;
+        private final NavigableSet<QueueEntry> _entries = new TreeSet<>();
+        private Assignment _assignment;
+        private boolean _removed;
+
+        private Group(final Object key)
+        {
+            _key = key;
+        }
+
+        Object getKey()
+        {
+            return _key;
+        }
+
+        NavigableSet<QueueEntry> getEntries()
+        {
+            return _entries;
+        }
+
+        Assignment getAssignment()
+        {
+            return _assignment;
+        }
+
+        void setAssignment(final Assignment assignment)
+        {
+            _assignment = assignment;
+        }
+
+        boolean isRemoved()
+        {
+            return _removed;
+        }
+
+        void setRemoved()
+        {
+            _removed = true;
+        }
+    }
+}
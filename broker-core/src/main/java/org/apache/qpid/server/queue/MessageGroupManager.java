@@ -29,8 +29,25 @@ public interface MessageGroupManager
         boolean isEntryAheadOfConsumer(QueueEntry entry, QueueConsumer<?,?> sub);
     }
 
+    /**
+     * Called once a new entry has been added to the queue, and before consumers are notified of it.
+     */
+    void entryAdded(QueueEntry entry);
+
+    /**
+     * Called after each change in the state of an entry of the queue.
+     */
+    void entryStateChanged(QueueEntry entry, QueueEntry.EntryState oldState, QueueEntry.EntryState newState);
+
     boolean mightAssign(QueueEntry entry, final QueueConsumer sub);
 
+    /**
+     * Returns the entry after the given entry at which the consumer should resume looking for an entry which might be
+     * assigned to it, or null if there is none.  Managers which do not index the entries of the queue return the next
+     * entry of the list.
+     */
+    QueueEntry findNextAssignableEntry(QueueConsumer<?,?> sub, QueueEntry entry, QueueEntryList entries);
+
     boolean acceptMessage(QueueConsumer<?,?> sub, QueueEntry entry);
 
     QueueEntry findEarliestAssignedAvailableEntry(QueueConsumer<?,?> sub);
@@ -124,6 +124,12 @@ public abstract class OrderedQueueEntryList extends AbstractQueueEntryList
         return node.getNextValidEntry();
     }
 
+    @Override
+    public QueueEntry getLeastSignificantNextEntry(final QueueEntry entry)
+    {
+        return next(entry);
+    }
+
     public static interface HeadCreator
     {
         OrderedQueueEntry createHead(QueueEntryList list);
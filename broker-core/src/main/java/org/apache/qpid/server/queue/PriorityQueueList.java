@@ -20,6 +20,8 @@
 */
 package org.apache.qpid.server.queue;
 
+import java.util.concurrent.atomic.AtomicLongArray;
+
 import org.apache.qpid.server.message.ServerMessage;
 import org.apache.qpid.server.store.MessageEnqueueRecord;
 
@@ -54,6 +56,13 @@ abstract public class PriorityQueueList extends OrderedQueueEntryList
         private final int _priorities;
         private final int _priorityOffset;
 
+        /**
+         * One bit per priority level, set while the sub-list of that level may hold undeleted entries.  A clear bit
+         * means the sub-list is empty, so that finding the next non-empty level below a given one is a bit scan
+         * rather than a probe of every sub-list.
+         */
+        private final AtomicLongArray _occupancy;
+
         public PriorityQueueMasterList(PriorityQueueImpl queue, int priorities)
         {
             super(queue, DUMMY_HEAD_CREATOR);
@@ -61,9 +70,10 @@ abstract public class PriorityQueueList extends OrderedQueueEntryList
             _priorityLists = new PriorityQueueEntrySubList[priorities];
             _priorities = priorities;
             _priorityOffset = 5-((priorities + 1)/2);
+            _occupancy = new AtomicLongArray((priorities + 63) >>> 6);
             for(int i = 0; i < priorities; i++)
             {
-                _priorityLists[i] = new PriorityQueueEntrySubList(queue, i);
+                _priorityLists[i] = new PriorityQueueEntrySubList(queue, i, this);
             }
         }
 
@@ -91,8 +101,72 @@ abstract public class PriorityQueueList extends OrderedQueueEntryList
             {
                 index = 0;
             }
-            return (PriorityQueueEntry) _priorityLists[index].add(message, enqueueRecord);
+            final PriorityQueueEntry entry = (PriorityQueueEntry) _priorityLists[index].add(message, enqueueRecord);
+            markOccupied(index);
+            return entry;
+        }
 
+        private void markOccupied(final int index)
+        {
+            final int word = index >>> 6;
+            final long bit = 1L << index;
+            long bits;
+            while (((bits = _occupancy.get(word)) & bit) == 0L
+                   && !_occupancy.compareAndSet(word, bits, bits | bit))
+            {
+            }
+        }
+
+        /**
+         * Clears the occupancy bit of the given level if its sub-list has no undeleted entries.  The sub-list is
+         * checked again after the bit is cleared so that an entry added concurrently is never left unmarked: such
+         * an add either becomes visible to the re-check, or sets the bit itself after it has been cleared.
+         */
+        void markEmptyIfNoEntries(final int index)
+        {
+            final PriorityQueueEntrySubList subList = _priorityLists[index];
+            if (subList.getHead().getNextValidEntry() == null)
+            {
+                final int word = index >>> 6;
+                final long bit = 1L << index;
+                long bits;
+                while (((bits = _occupancy.get(word)) & bit) != 0L
+                       && !_occupancy.compareAndSet(word, bits, bits & ~bit))
+                {
+                }
+                if (subList.getHead().getNextValidEntry() != null)
+                {
+                    markOccupied(index);
+                }
+            }
+        }
+
+        boolean isOccupied(final int index)
+        {
+            return (_occupancy.get(index >>> 6) & (1L << index)) != 0L;
+        }
+
+        /**
+         * @return the highest level below the given one whose occupancy bit is set, or -1 if there is none
+         */
+        int nextOccupiedBelow(final int index)
+        {
+            if (index <= 0)
+            {
+                return -1;
+            }
+            final int below = index - 1;
+            int word = below >>> 6;
+            long bits = _occupancy.get(word) & (-1L >>> (63 - (below & 63)));
+            while (bits == 0L)
+            {
+                if (word == 0)
+                {
+                    return -1;
+                }
+                bits = _occupancy.get(--word);
+            }
+            return (word << 6) + 63 - Long.numberOfLeadingZeros(bits);
         }
 
         @Override
@@ -109,17 +183,17 @@ abstract public class PriorityQueueList extends OrderedQueueEntryList
 
             if(next == null)
             {
-                final PriorityQueueList nodeEntryList = (PriorityQueueList) ((PriorityQueueEntry)node).getQueueEntryList();
-                int index;
-                for(index = _priorityLists.length-1; _priorityLists[index] != nodeEntryList; index--)
-                {
-                    // do nothing loop is just to find the index
-                }
+                final PriorityQueueEntrySubList nodeEntryList =
+                        (PriorityQueueEntrySubList) ((PriorityQueueEntry)node).getQueueEntryList();
+                int index = nodeEntryList.getListPriority();
 
-                while(next == null && index != 0)
+                while(next == null && (index = nextOccupiedBelow(index)) >= 0)
                 {
-                    index--;
                     next = (PriorityQueueEntry) _priorityLists[index].getHead().getNextValidEntry();
+                    if(next == null)
+                    {
+                        markEmptyIfNoEntries(index);
+                    }
                 }
 
             }
@@ -143,7 +217,7 @@ abstract public class PriorityQueueList extends OrderedQueueEntryList
             @Override
             public boolean atTail()
             {
-                for(int i = 0; i < _iterators.length; i++)
+                for(int i = nextOccupiedBelow(_iterators.length); i >= 0; i = nextOccupiedBelow(i))
                 {
                     if(!_iterators[i].atTail())
                     {
@@ -162,7 +236,7 @@ abstract public class PriorityQueueList extends OrderedQueueEntryList
             @Override
             public boolean advance()
             {
-                for(int i = _iterators.length-1; i >= 0; i--)
+                for(int i = nextOccupiedBelow(_iterators.length); i >= 0; i = nextOccupiedBelow(i))
                 {
                     if(_iterators[i].advance())
                     {
@@ -229,6 +303,30 @@ abstract public class PriorityQueueList extends OrderedQueueEntryList
             }
             return null;
         }
+
+        @Override
+        public QueueEntry getLeastSignificantNextEntry(final QueueEntry entry)
+        {
+            final PriorityQueueEntrySubList entryList =
+                    (PriorityQueueEntrySubList) ((PriorityQueueEntry) entry).getQueueEntryList();
+            final QueueEntry next = entryList.getLeastSignificantNextEntry(entry);
+            if (next != null)
+            {
+                return next;
+            }
+            for (int index = entryList.getListPriority() + 1; index < _priorities; index++)
+            {
+                if (isOccupied(index))
+                {
+                    final QueueEntry subListOldest = _priorityLists[index].getLeastSignificantOldestEntry();
+                    if (subListOldest != null)
+                    {
+                        return subListOldest;
+                    }
+                }
+            }
+            return null;
+        }
     }
 
     static class PriorityQueueEntrySubList extends PriorityQueueList
@@ -241,12 +339,23 @@ abstract public class PriorityQueueList extends OrderedQueueEntryList
                 return new PriorityQueueEntry((PriorityQueueList) list);
             }
         };
-        private int _listPriority;
+        private final int _listPriority;
+        private final PriorityQueueMasterList _masterList;
 
-        public PriorityQueueEntrySubList(PriorityQueueImpl queue, int listPriority)
+        public PriorityQueueEntrySubList(PriorityQueueImpl queue,
+                                         int listPriority,
+                                         final PriorityQueueMasterList masterList)
         {
             super(queue, HEAD_CREATOR);
             _listPriority = listPriority;
+            _masterList = masterList;
+        }
+
+        @Override
+        public void entryDeleted(final QueueEntry queueEntry)
+        {
+            super.entryDeleted(queueEntry);
+            _masterList.markEmptyIfNoEntries(_listPriority);
         }
 
         @Override
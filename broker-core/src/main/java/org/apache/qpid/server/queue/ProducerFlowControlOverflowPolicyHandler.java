@@ -23,6 +23,7 @@ import java.security.AccessController;
 import java.util.Collections;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.security.auth.Subject;
@@ -35,7 +36,25 @@ import org.apache.qpid.server.model.ConfiguredObject;
 import org.apache.qpid.server.model.OverflowPolicy;
 import org.apache.qpid.server.model.Queue;
 import org.apache.qpid.server.session.AMQPSession;
+import org.apache.qpid.server.util.Action;
+import org.apache.qpid.server.util.Deletable;
 
+/**
+ * Blocks producing sessions while the queue exceeds its limits, resuming them once the queue falls beneath the
+ * resume limit.
+ * <p>
+ * If a throttle limit beneath 100% is set, sessions publishing whilst the queue depth is between the throttle limit
+ * and the maximum are throttled rather than left to publish freely until blocked outright.  Each session may publish
+ * a number of messages (its credit) per throttle period, after which reading from its connection is suspended for
+ * the remainder of the period.  Messages already read when the suspension starts are charged to the following period.
+ * Throttling relies on back-pressure on the network connection rather than on blocking the session, so it neither
+ * logs flow control messages nor sends flow control frames to the client.  The credit is the same for every session
+ * and falls linearly from the configured value at the throttle limit to a single message at the maximum.
+ * <p>
+ * Suspending reads stalls every session on the connection, so only sessions that are alone on their connection are
+ * throttled.  A session sharing its connection (for instance with a consuming session whose acknowledgements must
+ * still be read) publishes freely until the queue is overfull and the session is blocked.
+ */
 public class ProducerFlowControlOverflowPolicyHandler implements OverflowPolicyHandler
 {
     private final Handler _handler;
@@ -64,7 +83,11 @@ public class ProducerFlowControlOverflowPolicyHandler implements OverflowPolicyH
         private final AtomicBoolean _overfullReported = new AtomicBoolean(false);
         private final Set<AMQPSession<?, ?>> _blockedSessions =
                 Collections.newSetFromMap(new ConcurrentHashMap<AMQPSession<?, ?>, Boolean>());
+        private final ConcurrentMap<AMQPSession<?, ?>, SessionThrottle> _sessionThrottles = new ConcurrentHashMap<>();
         private volatile double _queueFlowResumeLimit;
+        private volatile double _queueFlowThrottleLimit;
+        private volatile long _queueFlowThrottlePeriod;
+        private volatile int _queueFlowThrottleCredit;
         private boolean _checkCapacity;
 
         private Handler(final Queue<?> queue, final EventLogger eventLogger)
@@ -76,6 +99,21 @@ public class ProducerFlowControlOverflowPolicyHandler implements OverflowPolicyH
             {
                 _queueFlowResumeLimit = value;
             }
+            updateThrottleSettings();
+        }
+
+        private void updateThrottleSettings()
+        {
+            final Double throttleLimit = _queue.getContextValue(Double.class, Queue.QUEUE_FLOW_THROTTLE_LIMIT);
+            _queueFlowThrottleLimit = throttleLimit == null ? Queue.DEFAULT_FLOW_CONTROL_THROTTLE_LIMIT : throttleLimit;
+            final Long throttlePeriod = _queue.getContextValue(Long.class, Queue.QUEUE_FLOW_THROTTLE_PERIOD);
+            _queueFlowThrottlePeriod = throttlePeriod == null
+                    ? Queue.DEFAULT_FLOW_CONTROL_THROTTLE_PERIOD
+                    : Math.max(1L, throttlePeriod);
+            final Integer throttleCredit = _queue.getContextValue(Integer.class, Queue.QUEUE_FLOW_THROTTLE_CREDIT);
+            _queueFlowThrottleCredit = throttleCredit == null
+                    ? Queue.DEFAULT_FLOW_CONTROL_THROTTLE_CREDIT
+                    : Math.max(1, throttleCredit);
         }
 
         private void checkOverflow(final QueueEntry newlyEnqueued)
@@ -84,7 +122,10 @@ public class ProducerFlowControlOverflowPolicyHandler implements OverflowPolicyH
             long maximumQueueDepthMessages = _queue.getMaximumQueueDepthMessages();
             if (maximumQueueDepthBytes >= 0L || maximumQueueDepthMessages >= 0L)
             {
-                checkOverfull(maximumQueueDepthBytes, maximumQueueDepthMessages);
+                if (!checkOverfull(maximumQueueDepthBytes, maximumQueueDepthMessages))
+                {
+                    checkThrottle(maximumQueueDepthBytes, maximumQueueDepthMessages);
+                }
             }
 
             checkUnderfull(maximumQueueDepthBytes, maximumQueueDepthMessages);
@@ -106,6 +147,7 @@ public class ProducerFlowControlOverflowPolicyHandler implements OverflowPolicyH
                     _queueFlowResumeLimit = queueFlowResumePercentage;
                     _checkCapacity = true;
                 }
+                updateThrottleSettings();
             }
             if (Queue.MAXIMUM_QUEUE_DEPTH_BYTES.equals(attributeName)
                 || Queue.MAXIMUM_QUEUE_DEPTH_MESSAGES.equals(attributeName))
@@ -163,7 +205,7 @@ public class ProducerFlowControlOverflowPolicyHandler implements OverflowPolicyH
             }
         }
 
-        private void checkOverfull(final long maximumQueueDepthBytes, final long maximumQueueDepthMessages)
+        private boolean checkOverfull(final long maximumQueueDepthBytes, final long maximumQueueDepthMessages)
         {
             final long queueDepthBytes = _queue.getQueueDepthBytes();
             final long queueDepthMessages = _queue.getQueueDepthMessages();
@@ -171,29 +213,115 @@ public class ProducerFlowControlOverflowPolicyHandler implements OverflowPolicyH
             if ((maximumQueueDepthBytes >= 0L && queueDepthBytes > maximumQueueDepthBytes) ||
                 (maximumQueueDepthMessages >= 0L && queueDepthMessages > maximumQueueDepthMessages))
             {
-                Subject subject = Subject.getSubject(AccessController.getContext());
+                final AMQPSession<?, ?> session = getProducingSession();
+                if (session != null)
+                {
+                    if (_overfullReported.compareAndSet(false, true))
+                    {
+                        _eventLogger.message(_queue.getLogSubject(),
+                                             QueueMessages.OVERFULL(queueDepthBytes,
+                                                                    maximumQueueDepthBytes,
+                                                                    queueDepthMessages,
+                                                                    maximumQueueDepthMessages));
+                    }
+
+                    _blockedSessions.add(session);
+                    session.block(_queue);
+                }
+                return true;
+            }
+            return false;
+        }
+
+        private void checkThrottle(final long maximumQueueDepthBytes, final long maximumQueueDepthMessages)
+        {
+            final double throttleLimit = Math.max(0.0, _queueFlowThrottleLimit / 100.0);
+            if (throttleLimit >= 1.0)
+            {
+                return;
+            }
+
+            final double depth = Math.max(getDepthRatio(_queue.getQueueDepthBytes(), maximumQueueDepthBytes),
+                                          getDepthRatio(_queue.getQueueDepthMessages(), maximumQueueDepthMessages));
+            if (depth < throttleLimit)
+            {
+                if (!_sessionThrottles.isEmpty())
+                {
+                    removeIdleThrottles();
+                }
+                return;
+            }
+
+            final AMQPSession<?, ?> session = getProducingSession();
+            if (session != null && session.getAMQPConnection().getSessionCount() == 1)
+            {
+                final double severity = Math.min(1.0, (depth - throttleLimit) / (1.0 - throttleLimit));
+                final int credit = Math.max(1, (int) Math.ceil(_queueFlowThrottleCredit * (1.0 - severity)));
+
+                SessionThrottle throttle = _sessionThrottles.get(session);
+                if (throttle == null)
+                {
+                    final SessionThrottle newThrottle = new SessionThrottle(session);
+                    throttle = _sessionThrottles.putIfAbsent(session, newThrottle);
+                    if (throttle == null)
+                    {
+                        throttle = newThrottle;
+                        session.addDeleteTask(throttle);
+                    }
+                }
+                throttle.messagePublished(credit);
+            }
+        }
+
+        private void removeIdleThrottles()
+        {
+            final long now = System.currentTimeMillis();
+            for (SessionThrottle throttle : _sessionThrottles.values())
+            {
+                if (throttle.isIdle(now))
+                {
+                    removeThrottle(throttle);
+                }
+            }
+        }
+
+        private void removeThrottle(final SessionThrottle throttle)
+        {
+            if (_sessionThrottles.remove(throttle.getSession(), throttle))
+            {
+                throttle.getSession().removeDeleteTask(throttle);
+            }
+        }
+
+        private double getDepthRatio(final long queueDepth, final long maximumQueueDepth)
+        {
+            if (maximumQueueDepth < 0)
+            {
+                return 0.0;
+            }
+            else if (maximumQueueDepth == 0)
+            {
+                return queueDepth > 0 ? 1.0 : 0.0;
+            }
+            return (double) queueDepth / (double) maximumQueueDepth;
+        }
+
+        private AMQPSession<?, ?> getProducingSession()
+        {
+            Subject subject = Subject.getSubject(AccessController.getContext());
+            if (subject != null)
+            {
                 Set<SessionPrincipal> sessionPrincipals = subject.getPrincipals(SessionPrincipal.class);
                 if (!sessionPrincipals.isEmpty())
                 {
                     SessionPrincipal sessionPrincipal = sessionPrincipals.iterator().next();
                     if (sessionPrincipal != null)
                     {
-
-                        if (_overfullReported.compareAndSet(false, true))
-                        {
-                            _eventLogger.message(_queue.getLogSubject(),
-                                                 QueueMessages.OVERFULL(queueDepthBytes,
-                                                                        maximumQueueDepthBytes,
-                                                                        queueDepthMessages,
-                                                                        maximumQueueDepthMessages));
-                        }
-
-                        final AMQPSession<?, ?> session = sessionPrincipal.getSession();
-                        _blockedSessions.add(session);
-                        session.block(_queue);
+                        return sessionPrincipal.getSession();
                     }
                 }
             }
+            return null;
         }
 
         private boolean isUnderfull(final long queueDepth,
@@ -210,6 +338,65 @@ public class ProducerFlowControlOverflowPolicyHandler implements OverflowPolicyH
             }
             return -1;
         }
+
+        private final class SessionThrottle implements Action<Deletable>
+        {
+            private final AMQPSession<?, ?> _session;
+            private long _periodStart;
+            private int _published;
+            private long _suspendedUntil;
+
+            private SessionThrottle(final AMQPSession<?, ?> session)
+            {
+                _session = session;
+                _periodStart = System.currentTimeMillis();
+            }
+
+            AMQPSession<?, ?> getSession()
+            {
+                return _session;
+            }
+
+            synchronized boolean isIdle(final long now)
+            {
+                return now >= _suspendedUntil && now - _periodStart >= _queueFlowThrottlePeriod;
+            }
+
+            void messagePublished(final int credit)
+            {
+                final long delay;
+                final long throttleTime;
+                synchronized (this)
+                {
+                    final long now = System.currentTimeMillis();
+                    final long throttlePeriod = _queueFlowThrottlePeriod;
+                    if (now - _periodStart >= throttlePeriod)
+                    {
+                        _periodStart = now;
+                        _published = 0;
+                    }
+                    if (++_published < credit)
+                    {
+                        return;
+                    }
+                    delay = Math.max(1L, _periodStart + throttlePeriod - now);
+                    throttleTime = now + delay - Math.max(now, _suspendedUntil);
+                    _suspendedUntil = now + delay;
+                    // messages read before the suspension takes effect count against the following period
+                    _periodStart = _suspendedUntil;
+                    _published = 0;
+                }
+
+                _session.getAMQPConnection().suspendReading(delay);
+                _session.addProducerFlowThrottleTime(throttleTime);
+            }
+
+            @Override
+            public void performAction(final Deletable session)
+            {
+                _sessionThrottles.remove(_session, this);
+            }
+        }
     }
 
 }
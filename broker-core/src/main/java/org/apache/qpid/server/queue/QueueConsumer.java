@@ -59,6 +59,10 @@ public interface QueueConsumer<X extends QueueConsumer<X,T>, T extends ConsumerT
 
     void setQueueConsumerNode(QueueConsumerNode node);
 
+    void recordEnqueueToDeliverLatency(long latency);
+
+    void recordDeliverToSettleLatency(long latency);
+
     @Override
     AMQPSession<?,?> getSession();
 }
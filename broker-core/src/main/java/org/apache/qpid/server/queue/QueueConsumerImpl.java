@@ -28,6 +28,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
@@ -59,6 +60,7 @@ import org.apache.qpid.server.model.Queue;
 import org.apache.qpid.server.protocol.MessageConverterRegistry;
 import org.apache.qpid.server.security.access.Operation;
 import org.apache.qpid.server.session.AMQPSession;
+import org.apache.qpid.server.stats.WindowedLatencyHistogram;
 import org.apache.qpid.server.util.StateChangeListener;
 
 class QueueConsumerImpl<T extends ConsumerTarget>
@@ -77,6 +79,10 @@ class QueueConsumerImpl<T extends ConsumerTarget>
     private final boolean _isTransient;
     private final AtomicLong _deliveredCount = new AtomicLong(0);
     private final AtomicLong _deliveredBytes = new AtomicLong(0);
+    private final WindowedLatencyHistogram _enqueueToDeliverLatency =
+            new WindowedLatencyHistogram(QueueStatistics.LATENCY_WINDOW, TimeUnit.MILLISECONDS);
+    private final WindowedLatencyHistogram _deliverToSettleLatency =
+            new WindowedLatencyHistogram(QueueStatistics.LATENCY_WINDOW, TimeUnit.MILLISECONDS);
     private final FilterManager _filters;
     private final Class<? extends ServerMessage> _messageClass;
     private final Object _sessionReference;
@@ -508,6 +514,42 @@ class QueueConsumerImpl<T extends ConsumerTarget>
         return _deliveredCount.longValue();
     }
 
+    @Override
+    public long getEnqueueToDeliver50thPercentile()
+    {
+        return TimeUnit.NANOSECONDS.toMillis(_enqueueToDeliverLatency.getValueAtPercentile(50.0));
+    }
+
+    @Override
+    public long getEnqueueToDeliver99thPercentile()
+    {
+        return TimeUnit.NANOSECONDS.toMillis(_enqueueToDeliverLatency.getValueAtPercentile(99.0));
+    }
+
+    @Override
+    public long getDeliverToSettle50thPercentile()
+    {
+        return TimeUnit.NANOSECONDS.toMillis(_deliverToSettleLatency.getValueAtPercentile(50.0));
+    }
+
+    @Override
+    public long getDeliverToSettle99thPercentile()
+    {
+        return TimeUnit.NANOSECONDS.toMillis(_deliverToSettleLatency.getValueAtPercentile(99.0));
+    }
+
+    @Override
+    public void recordEnqueueToDeliverLatency(final long latency)
+    {
+        _enqueueToDeliverLatency.record(latency);
+    }
+
+    @Override
+    public void recordDeliverToSettleLatency(final long latency)
+    {
+        _deliverToSettleLatency.record(latency);
+    }
+
     @Override
     public void acquisitionRemoved(final QueueEntry node)
     {
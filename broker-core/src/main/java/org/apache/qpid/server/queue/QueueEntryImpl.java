@@ -114,6 +114,9 @@ public abstract class QueueEntryImpl implements QueueEntry
 
     private final MessageEnqueueRecord _enqueueRecord;
 
+    /** Times of the entry if it was sampled for the latency statistics of the queue, otherwise null */
+    private volatile LatencySample _latencySample;
+
 
     QueueEntryImpl(QueueEntryList queueEntryList)
     {
@@ -180,6 +183,16 @@ public abstract class QueueEntryImpl implements QueueEntry
         return _entryId;
     }
 
+    LatencySample getLatencySample()
+    {
+        return _latencySample;
+    }
+
+    void setLatencySample(final LatencySample latencySample)
+    {
+        _latencySample = latencySample;
+    }
+
     @Override
     public Queue<?> getQueue()
     {
@@ -788,4 +801,32 @@ public abstract class QueueEntryImpl implements QueueEntry
     {
         return _enqueueRecord;
     }
+
+    static final class LatencySample
+    {
+        /** System.nanoTime() at which the entry was enqueued */
+        private final long _enqueueTime;
+        /** System.nanoTime() at which the entry was last delivered to an acquiring consumer, or zero */
+        private volatile long _deliveryTime;
+
+        LatencySample(final long enqueueTime)
+        {
+            _enqueueTime = enqueueTime;
+        }
+
+        long getEnqueueTime()
+        {
+            return _enqueueTime;
+        }
+
+        long getDeliveryTime()
+        {
+            return _deliveryTime;
+        }
+
+        void setDeliveryTime(final long deliveryTime)
+        {
+            _deliveryTime = deliveryTime;
+        }
+    }
 }
@@ -48,4 +48,10 @@ interface QueueEntryList
 
     QueueEntry getLeastSignificantOldestEntry();
 
+    /**
+     * Returns the entry following the given entry in the order in which entries are discarded on overflow, that is,
+     * the order starting at {@link #getLeastSignificantOldestEntry()}.
+     */
+    QueueEntry getLeastSignificantNextEntry(QueueEntry entry);
+
 }
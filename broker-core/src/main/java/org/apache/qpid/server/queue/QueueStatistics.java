@@ -20,9 +20,13 @@
  */
 package org.apache.qpid.server.queue;
 
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
+import org.apache.qpid.server.model.Queue;
+import org.apache.qpid.server.stats.WindowedLatencyHistogram;
+
 final class QueueStatistics
 {
     private final AtomicInteger _queueCount = new AtomicInteger();
@@ -55,6 +59,18 @@ final class QueueStatistics
     private final AtomicInteger _expiredCount = new AtomicInteger();
     private final AtomicLong _expiredSize = new AtomicLong();
 
+    private final AtomicLong _evictedCount = new AtomicLong();
+    private final AtomicLong _evictedSize = new AtomicLong();
+
+    /** Period, in milliseconds, over which latencies are reported */
+    static final long LATENCY_WINDOW = 60000L;
+
+    private final WindowedLatencyHistogram _enqueueToDeliverLatency =
+            new WindowedLatencyHistogram(LATENCY_WINDOW, TimeUnit.MILLISECONDS);
+    private final WindowedLatencyHistogram _deliverToSettleLatency =
+            new WindowedLatencyHistogram(LATENCY_WINDOW, TimeUnit.MILLISECONDS);
+    private volatile int _latencySamplingInterval = Queue.DEFAULT_QUEUE_LATENCY_SAMPLING_INTERVAL;
+
     public final int getQueueCount()
     {
         return _queueCount.get();
@@ -155,6 +171,16 @@ final class QueueStatistics
         return _expiredSize.get();
     }
 
+    public long getEvictedCount()
+    {
+        return _evictedCount.get();
+    }
+
+    public long getEvictedSize()
+    {
+        return _evictedSize.get();
+    }
+
     void addToQueue(long size)
     {
         int count = _queueCount.incrementAndGet();
@@ -241,4 +267,35 @@ final class QueueStatistics
         _expiredSize.addAndGet(size);
     }
 
+    void addToEvicted(final long size)
+    {
+        _evictedCount.incrementAndGet();
+        _evictedSize.addAndGet(size);
+    }
+
+    WindowedLatencyHistogram getEnqueueToDeliverLatency()
+    {
+        return _enqueueToDeliverLatency;
+    }
+
+    WindowedLatencyHistogram getDeliverToSettleLatency()
+    {
+        return _deliverToSettleLatency;
+    }
+
+    void setLatencySamplingInterval(final int latencySamplingInterval)
+    {
+        _latencySamplingInterval = latencySamplingInterval;
+    }
+
+    /**
+     * Decides whether the entry most recently added to the enqueued statistics should be timed.  The enqueue count
+     * is read without synchronisation, so under concurrent enqueues the sampling is only approximately one in
+     * every interval.
+     */
+    boolean isLatencySampled()
+    {
+        final int interval = _latencySamplingInterval;
+        return interval == 1 || (interval > 1 && _enqueueCount.get() % interval == 0);
+    }
 }
@@ -19,6 +19,8 @@
 
 package org.apache.qpid.server.queue;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.apache.qpid.server.logging.EventLogger;
 import org.apache.qpid.server.logging.messages.QueueMessages;
 import org.apache.qpid.server.model.OverflowPolicy;
@@ -41,10 +43,13 @@ public class RingOverflowPolicyHandler implements OverflowPolicyHandler
         _handler.checkOverflow();
     }
 
+    private static final int MAXIMUM_EVICTION_BATCH_SIZE = 256;
+
     private static class Handler extends OverflowPolicyMaximumQueueDepthChangeListener
     {
         private final Queue<?> _queue;
         private final EventLogger _eventLogger;
+        private final AtomicInteger _trimRequests = new AtomicInteger();
 
         public Handler(final Queue<?> queue, final EventLogger eventLogger)
         {
@@ -60,47 +65,84 @@ public class RingOverflowPolicyHandler implements OverflowPolicyHandler
         }
 
         private void checkOverflow()
+        {
+            // Only one thread trims the queue at a time; enqueuing threads finding a trim in progress leave a
+            // request for the trimming thread, which makes a further pass for any requests that arrived during its
+            // last one, so that an enqueue arriving after its last check of the queue depth is not left over the
+            // limit.
+            if (_trimRequests.getAndIncrement() != 0)
+            {
+                return;
+            }
+
+            int requests = 1;
+            try
+            {
+                do
+                {
+                    trim();
+                    requests = _trimRequests.addAndGet(-requests);
+                }
+                while (requests != 0);
+            }
+            finally
+            {
+                if (requests != 0)
+                {
+                    _trimRequests.set(0);
+                }
+            }
+        }
+
+        /**
+         * Evicts entries in order of least significance until the queue is within its limits.  Each entry is visited
+         * at most once per pass.  Within a batch the excess is estimated from the sizes of the entries evicted; it is
+         * recomputed from the actual queue depth after each batch, so that entries which could not be removed
+         * immediately (for instance because they are acquired by a consumer) do not end the pass early.
+         */
+        private void trim()
         {
             final long maximumQueueDepthMessages = _queue.getMaximumQueueDepthMessages();
             final long maximumQueueDepthBytes = _queue.getMaximumQueueDepthBytes();
 
-            boolean bytesOverflow, messagesOverflow, overflow = false;
-            int counter = 0;
-            int queueDepthMessages;
-            long queueDepthBytes;
-            do
+            int queueDepthMessages = _queue.getQueueDepthMessages();
+            long queueDepthBytes = _queue.getQueueDepthBytes();
+            long excessMessages = getExcess(queueDepthMessages, maximumQueueDepthMessages);
+            long excessBytes = getExcess(queueDepthBytes, maximumQueueDepthBytes);
+            if (excessMessages <= 0 && excessBytes <= 0)
             {
-                queueDepthMessages = _queue.getQueueDepthMessages();
-                queueDepthBytes = _queue.getQueueDepthBytes();
-
-                messagesOverflow = maximumQueueDepthMessages >= 0 && queueDepthMessages > maximumQueueDepthMessages;
-                bytesOverflow = maximumQueueDepthBytes >= 0 && queueDepthBytes > maximumQueueDepthBytes;
+                return;
+            }
 
-                if (bytesOverflow || messagesOverflow)
+            int counter = 0;
+            QueueEntry entry = _queue.getLeastSignificantOldestEntry();
+            while (entry != null && (excessMessages > 0 || excessBytes > 0))
+            {
+                int batch = 0;
+                while (entry != null && batch < MAXIMUM_EVICTION_BATCH_SIZE && (excessMessages > 0 || excessBytes > 0))
                 {
-                    if (!overflow)
-                    {
-                        overflow = true;
-                    }
-
-                    QueueEntry entry = _queue.getLeastSignificantOldestEntry();
-
-                    if (entry != null)
+                    final QueueEntry next = _queue.getLeastSignificantNextEntry(entry);
+                    if (!entry.isDeleted())
                     {
-                        counter++;
-                        _queue.deleteEntry(entry);
-                    }
-                    else
-                    {
-                        queueDepthMessages = _queue.getQueueDepthMessages();
-                        queueDepthBytes = _queue.getQueueDepthBytes();
-                        break;
+                        excessMessages--;
+                        excessBytes -= entry.getSizeWithHeader();
+                        _queue.evictEntry(entry);
+                        if (entry.isDeleted())
+                        {
+                            counter++;
+                        }
+                        batch++;
                     }
+                    entry = next;
                 }
+
+                queueDepthMessages = _queue.getQueueDepthMessages();
+                queueDepthBytes = _queue.getQueueDepthBytes();
+                excessMessages = getExcess(queueDepthMessages, maximumQueueDepthMessages);
+                excessBytes = getExcess(queueDepthBytes, maximumQueueDepthBytes);
             }
-            while (bytesOverflow || messagesOverflow);
 
-            if (overflow)
+            if (counter > 0)
             {
                 _eventLogger.message(_queue.getLogSubject(), QueueMessages.DROPPED(counter,
                                                                                    queueDepthBytes,
@@ -109,6 +151,11 @@ public class RingOverflowPolicyHandler implements OverflowPolicyHandler
                                                                                    maximumQueueDepthMessages));
             }
         }
+
+        private long getExcess(final long queueDepth, final long maximumQueueDepth)
+        {
+            return maximumQueueDepth >= 0 ? queueDepth - maximumQueueDepth : 0L;
+        }
     }
 
 }
@@ -344,6 +344,16 @@ public class SortedQueueEntryList extends AbstractQueueEntryList
 
     @Override
     public QueueEntry getOldestEntry()
+    {
+        return getOldestEntryAfter(null);
+    }
+
+    /**
+     * Returns the undeleted entry with the lowest message number greater than the given message number, or the
+     * oldest undeleted entry if the given message number is null.  The sort order of the list does not follow the
+     * order of arrival, so the whole list is searched.
+     */
+    private QueueEntry getOldestEntryAfter(final Long messageNumber)
     {
         QueueEntry oldestEntry = null;
         QueueEntryIterator iter = iterator();
@@ -353,7 +363,9 @@ public class SortedQueueEntryList extends AbstractQueueEntryList
             if (node != null && !node.isDeleted())
             {
                 ServerMessage msg = node.getMessage();
-                if(msg != null && (oldestEntry == null || oldestEntry.getMessage().getMessageNumber() > msg.getMessageNumber()))
+                if(msg != null
+                   && (messageNumber == null || msg.getMessageNumber() > messageNumber)
+                   && (oldestEntry == null || oldestEntry.getMessage().getMessageNumber() > msg.getMessageNumber()))
                 {
                     oldestEntry = node;
                 }
@@ -478,6 +490,13 @@ public class SortedQueueEntryList extends AbstractQueueEntryList
         return getOldestEntry();
     }
 
+    @Override
+    public QueueEntry getLeastSignificantNextEntry(final QueueEntry entry)
+    {
+        final ServerMessage message = entry.getMessage();
+        return message == null ? null : getOldestEntryAfter(message.getMessageNumber());
+    }
+
     /**
      * Swaps the position of the node in the tree with it's successor
      * (that is the node with the next highest key)
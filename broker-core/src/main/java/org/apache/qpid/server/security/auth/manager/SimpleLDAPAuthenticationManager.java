@@ -26,6 +26,9 @@ import org.apache.qpid.server.model.DerivedAttribute;
 import org.apache.qpid.server.model.ManagedAttribute;
 import org.apache.qpid.server.model.ManagedContextDefault;
 import org.apache.qpid.server.model.ManagedObject;
+import org.apache.qpid.server.model.ManagedStatistic;
+import org.apache.qpid.server.model.StatisticType;
+import org.apache.qpid.server.model.StatisticUnit;
 import org.apache.qpid.server.model.TrustStore;
 
 @ManagedObject( category = false,
@@ -43,10 +46,37 @@ public interface SimpleLDAPAuthenticationManager<X extends SimpleLDAPAuthenticat
     String PROVIDER_AUTH_URL = "providerAuthUrl";
     String SEARCH_CONTEXT = "searchContext";
     String LDAP_CONTEXT_FACTORY = "ldapContextFactory";
-    String SEARCH_USERNAME = "getSearchUsername";
-    String SEARCH_PASSWORD = "getSearchPassword";
+    String SEARCH_USERNAME = "searchUsername";
+    String SEARCH_PASSWORD = "searchPassword";
     String TRUST_STORE = "trustStore";
 
+    String CONNECTION_POOL_MAXIMUM_SIZE = "qpid.auth.ldap.connectionPool.maximumSize";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault(name = CONNECTION_POOL_MAXIMUM_SIZE,
+            description = "Maximum number of connections to the Directory in use at the same time, including the"
+                          + " connections bound with the credentials of the users being authenticated.")
+    int DEFAULT_CONNECTION_POOL_MAXIMUM_SIZE = 8;
+
+    String CONNECTION_POOL_BORROW_TIMEOUT = "qpid.auth.ldap.connectionPool.borrowTimeout";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault(name = CONNECTION_POOL_BORROW_TIMEOUT,
+            description = "Time in milliseconds an authentication waits for a connection to the Directory when the"
+                          + " maximum number is in use.")
+    long DEFAULT_CONNECTION_POOL_BORROW_TIMEOUT = 10000L;
+
+    String CONNECTION_POOL_IDLE_TIMEOUT = "qpid.auth.ldap.connectionPool.idleTimeout";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault(name = CONNECTION_POOL_IDLE_TIMEOUT,
+            description = "Time in milliseconds after which an idle pooled search connection is closed.")
+    long DEFAULT_CONNECTION_POOL_IDLE_TIMEOUT = 60000L;
+
+    String CONNECTION_POOL_VALIDATION_INTERVAL = "qpid.auth.ldap.connectionPool.validationInterval";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault(name = CONNECTION_POOL_VALIDATION_INTERVAL,
+            description = "Time in milliseconds after which an idle pooled search connection is validated before"
+                          + " it is reused.")
+    long DEFAULT_CONNECTION_POOL_VALIDATION_INTERVAL = 5000L;
+
 
     @ManagedAttribute( description = "LDAP server URL", mandatory = true)
     String getProviderUrl();
@@ -102,4 +132,37 @@ public interface SimpleLDAPAuthenticationManager<X extends SimpleLDAPAuthenticat
     @DerivedAttribute
     List<String> getTlsCipherSuiteBlackList();
 
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.TIME_DURATION,
+                      label = "Authentication Median",
+                      description = "Median of the time taken by the Directory to authenticate a user whose"
+                                    + " authentication result was not cached, over the last one to two minutes.")
+    long getAuthentication50thPercentile();
+
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.TIME_DURATION,
+                      label = "Authentication 99th Percentile",
+                      description = "99th percentile of the time taken by the Directory to authenticate a user"
+                                    + " whose authentication result was not cached, over the last one to two"
+                                    + " minutes.")
+    long getAuthentication99thPercentile();
+
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.COUNT,
+                      label = "Open Connections",
+                      description = "Current number of open connections to the Directory.")
+    int getLdapConnectionsOpen();
+
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.COUNT,
+                      label = "Idle Connections",
+                      description = "Current number of idle pooled connections to the Directory.")
+    int getLdapConnectionsIdle();
+
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.COUNT,
+                      label = "Connections Created",
+                      description = "Total number of connections opened to the Directory.")
+    long getLdapConnectionsCreated();
+
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.COUNT,
+                      label = "Failed Connection Validations",
+                      description = "Total number of idle pooled connections to the Directory found to be unusable.")
+    long getLdapConnectionValidationFailures();
+
 }
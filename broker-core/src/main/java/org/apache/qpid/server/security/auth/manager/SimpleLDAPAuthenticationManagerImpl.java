@@ -33,6 +33,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import javax.naming.AuthenticationException;
 import javax.naming.Context;
@@ -54,21 +56,26 @@ import org.slf4j.LoggerFactory;
 
 import org.apache.qpid.server.configuration.CommonProperties;
 import org.apache.qpid.server.configuration.IllegalConfigurationException;
+import org.apache.qpid.server.model.AbstractConfigurationChangeListener;
+import org.apache.qpid.server.model.Broker;
 import org.apache.qpid.server.model.ConfiguredObject;
 import org.apache.qpid.server.model.Container;
 import org.apache.qpid.server.model.ManagedAttributeField;
 import org.apache.qpid.server.model.ManagedObjectFactoryConstructor;
 import org.apache.qpid.server.model.NamedAddressSpace;
+import org.apache.qpid.server.model.State;
 import org.apache.qpid.server.model.TrustStore;
 import org.apache.qpid.server.security.auth.AuthenticationResult;
 import org.apache.qpid.server.security.auth.AuthenticationResult.AuthenticationStatus;
 import org.apache.qpid.server.security.auth.UsernamePrincipal;
 import org.apache.qpid.server.security.auth.manager.ldap.AbstractLDAPSSLSocketFactory;
+import org.apache.qpid.server.security.auth.manager.ldap.LDAPConnectionPool;
 import org.apache.qpid.server.security.auth.manager.ldap.LDAPSSLSocketFactoryGenerator;
 import org.apache.qpid.server.security.auth.sasl.SaslNegotiator;
 import org.apache.qpid.server.security.auth.sasl.SaslSettings;
 import org.apache.qpid.server.security.auth.sasl.plain.PlainNegotiator;
 import org.apache.qpid.server.security.group.GroupPrincipal;
+import org.apache.qpid.server.stats.WindowedLatencyHistogram;
 import org.apache.qpid.server.util.CipherSuiteAndProtocolRestrictingSSLSocketFactory;
 import org.apache.qpid.server.util.ParameterizedTypes;
 import org.apache.qpid.server.util.StringUtil;
@@ -92,6 +99,9 @@ public class SimpleLDAPAuthenticationManagerImpl extends AbstractAuthenticationM
      */
     private static final String JAVA_NAMING_LDAP_FACTORY_SOCKET = "java.naming.ldap.factory.socket";
 
+    /** Period, in milliseconds, over which authentication latencies are reported */
+    private static final long AUTHENTICATION_LATENCY_WINDOW = 60000L;
+
     @ManagedAttributeField
     private String _providerUrl;
     @ManagedAttributeField
@@ -144,6 +154,11 @@ public class SimpleLDAPAuthenticationManagerImpl extends AbstractAuthenticationM
      */
     private Class<? extends SocketFactory> _sslSocketFactoryOverrideClass;
 
+    private volatile LDAPConnectionPool _connectionPool;
+    private volatile ScheduledFuture<?> _idleConnectionEvictionFuture;
+    private final WindowedLatencyHistogram _authenticationLatency =
+            new WindowedLatencyHistogram(AUTHENTICATION_LATENCY_WINDOW, TimeUnit.MILLISECONDS);
+
     @ManagedObjectFactoryConstructor
     protected SimpleLDAPAuthenticationManagerImpl(final Map<String, Object> attributes, final Container<?> container)
     {
@@ -203,9 +218,92 @@ public class SimpleLDAPAuthenticationManagerImpl extends AbstractAuthenticationM
     protected ListenableFuture<Void> activate()
     {
         _sslSocketFactoryOverrideClass = createSslSocketFactoryOverrideClass(_trustStore);
+        final long idleTimeout = getContextValue(Long.class, CONNECTION_POOL_IDLE_TIMEOUT);
+        _connectionPool = new LDAPConnectionPool(this::createSearchInitialDirContext,
+                                                 getContextValue(Integer.class, CONNECTION_POOL_MAXIMUM_SIZE),
+                                                 getContextValue(Long.class, CONNECTION_POOL_BORROW_TIMEOUT),
+                                                 idleTimeout,
+                                                 getContextValue(Long.class, CONNECTION_POOL_VALIDATION_INTERVAL));
+        scheduleIdleConnectionEviction(_connectionPool, idleTimeout);
         return super.activate();
     }
 
+    private void scheduleIdleConnectionEviction(final LDAPConnectionPool connectionPool, final long idleTimeout)
+    {
+        if (getParent() instanceof Broker && idleTimeout > 0)
+        {
+            final Broker<?> broker = (Broker<?>) getParent();
+            if (broker.getState() == State.ACTIVE)
+            {
+                _idleConnectionEvictionFuture = broker.scheduleHouseKeepingTask(idleTimeout,
+                                                                                TimeUnit.MILLISECONDS,
+                                                                                connectionPool::evictIdleContexts);
+            }
+            else
+            {
+                broker.addChangeListener(new AbstractConfigurationChangeListener()
+                {
+                    @Override
+                    public void stateChanged(final ConfiguredObject<?> object,
+                                             final State oldState,
+                                             final State newState)
+                    {
+                        if (newState == State.ACTIVE)
+                        {
+                            broker.removeChangeListener(this);
+                            if (!connectionPool.isClosed())
+                            {
+                                _idleConnectionEvictionFuture =
+                                        broker.scheduleHouseKeepingTask(idleTimeout,
+                                                                        TimeUnit.MILLISECONDS,
+                                                                        connectionPool::evictIdleContexts);
+                            }
+                        }
+                    }
+                });
+            }
+        }
+    }
+
+    @Override
+    protected void postSetAttributes(final Set<String> actualUpdatedAttributes)
+    {
+        super.postSetAttributes(actualUpdatedAttributes);
+        final LDAPConnectionPool connectionPool = _connectionPool;
+        if (connectionPool != null && !disjoint(actualUpdatedAttributes, CONNECTIVITY_ATTRS))
+        {
+            connectionPool.clear();
+        }
+    }
+
+    @Override
+    protected ListenableFuture<Void> onClose()
+    {
+        closeConnectionPool();
+        return super.onClose();
+    }
+
+    @Override
+    protected ListenableFuture<Void> onDelete()
+    {
+        closeConnectionPool();
+        return super.onDelete();
+    }
+
+    private void closeConnectionPool()
+    {
+        final LDAPConnectionPool connectionPool = _connectionPool;
+        if (connectionPool != null)
+        {
+            connectionPool.close();
+        }
+        final ScheduledFuture<?> idleConnectionEvictionFuture = _idleConnectionEvictionFuture;
+        if (idleConnectionEvictionFuture != null)
+        {
+            idleConnectionEvictionFuture.cancel(false);
+        }
+    }
+
     @Override
     public String getProviderUrl()
     {
@@ -305,6 +403,19 @@ public class SimpleLDAPAuthenticationManagerImpl extends AbstractAuthenticationM
         return getOrLoadAuthenticationResult(username, password);
     }
 
+    private AuthenticationResult doTimedLDAPNameAuthentication(final String userId, final String password)
+    {
+        final long startTime = System.nanoTime();
+        try
+        {
+            return doLDAPNameAuthentication(userId, password);
+        }
+        finally
+        {
+            _authenticationLatency.record(System.nanoTime() - startTime);
+        }
+    }
+
     private AuthenticationResult doLDAPNameAuthentication(String userId, String password)
     {
         final String name;
@@ -331,20 +442,25 @@ public class SimpleLDAPAuthenticationManagerImpl extends AbstractAuthenticationM
         env.put(Context.SECURITY_PRINCIPAL, name);
         env.put(Context.SECURITY_CREDENTIALS, password);
 
-        InitialDirContext ctx = null;
+        final LDAPConnectionPool connectionPool = _connectionPool;
+        DirContext ctx = null;
         try
         {
-            ctx = createInitialDirContext(env, _sslSocketFactoryOverrideClass);
+            ctx = connectionPool.openUnpooledContext(() -> createInitialDirContext(env, _sslSocketFactoryOverrideClass));
 
             Set<Principal> groups = Collections.emptySet();
             if (isGroupSearchRequired())
             {
                 if (!providerAuthUrl.equals(getProviderUrl()))
                 {
-                    closeSafely(ctx);
-                    ctx = createSearchInitialDirContext();
+                    connectionPool.closeUnpooledContext(ctx);
+                    ctx = null;
+                    groups = findGroupsWithSearchContext(name);
+                }
+                else
+                {
+                    groups = findGroups(ctx, name);
                 }
-                groups = findGroups(ctx, name);
             }
 
             //Authentication succeeded
@@ -365,11 +481,28 @@ public class SimpleLDAPAuthenticationManagerImpl extends AbstractAuthenticationM
         {
             if(ctx != null)
             {
-                closeSafely(ctx);
+                connectionPool.closeUnpooledContext(ctx);
             }
         }
     }
 
+    private Set<Principal> findGroupsWithSearchContext(final String userDN) throws NamingException
+    {
+        final LDAPConnectionPool connectionPool = _connectionPool;
+        final DirContext ctx = connectionPool.borrowContext();
+        try
+        {
+            final Set<Principal> groups = findGroups(ctx, userDN);
+            connectionPool.returnContext(ctx);
+            return groups;
+        }
+        catch (NamingException | RuntimeException e)
+        {
+            connectionPool.invalidateContext(ctx);
+            throw e;
+        }
+    }
+
     private AuthenticationResult getOrLoadAuthenticationResult(final String userId, final String password)
     {
         return _authenticationResultCacher.getOrLoad(new String[]{userId, password}, new Callable<AuthenticationResult>()
@@ -377,7 +510,7 @@ public class SimpleLDAPAuthenticationManagerImpl extends AbstractAuthenticationM
             @Override
             public AuthenticationResult call()
             {
-                return doLDAPNameAuthentication(userId, password);
+                return doTimedLDAPNameAuthentication(userId, password);
             }
         });
     }
@@ -611,7 +744,8 @@ public class SimpleLDAPAuthenticationManagerImpl extends AbstractAuthenticationM
     {
         if(!isBindWithoutSearch())
         {
-            InitialDirContext ctx = createSearchInitialDirContext();
+            final LDAPConnectionPool connectionPool = _connectionPool;
+            final DirContext ctx = connectionPool.borrowContext();
 
             try
             {
@@ -619,26 +753,35 @@ public class SimpleLDAPAuthenticationManagerImpl extends AbstractAuthenticationM
                 searchControls.setReturningAttributes(new String[]{});
                 searchControls.setCountLimit(1l);
                 searchControls.setSearchScope(SearchControls.SUBTREE_SCOPE);
-                NamingEnumeration<?> namingEnum = null;
 
                 LOGGER.debug("Searching for '{}'", id);
-                namingEnum = ctx.search(_searchContext, _searchFilter, new String[]{id}, searchControls);
-                if (namingEnum.hasMore())
+                final String name;
+                final NamingEnumeration<?> namingEnum = ctx.search(_searchContext, _searchFilter, new String[]{id}, searchControls);
+                try
                 {
-                    SearchResult result = (SearchResult) namingEnum.next();
-                    String name = result.getNameInNamespace();
-                    LOGGER.debug("Found '{}' DN '{}'", id, name);
-                    return name;
+                    if (namingEnum.hasMore())
+                    {
+                        SearchResult result = (SearchResult) namingEnum.next();
+                        name = result.getNameInNamespace();
+                        LOGGER.debug("Found '{}' DN '{}'", id, name);
+                    }
+                    else
+                    {
+                        LOGGER.debug("Not found '{}'", id);
+                        name = null;
+                    }
                 }
-                else
+                finally
                 {
-                    LOGGER.debug("Not found '{}'", id);
-                    return null;
+                    namingEnum.close();
                 }
+                connectionPool.returnContext(ctx);
+                return name;
             }
-            finally
+            catch (NamingException | RuntimeException e)
             {
-                closeSafely(ctx);
+                connectionPool.invalidateContext(ctx);
+                throw e;
             }
         }
         else
@@ -686,6 +829,46 @@ public class SimpleLDAPAuthenticationManagerImpl extends AbstractAuthenticationM
         return _tlsCipherSuiteBlackList;
     }
 
+    @Override
+    public long getAuthentication50thPercentile()
+    {
+        return TimeUnit.NANOSECONDS.toMillis(_authenticationLatency.getValueAtPercentile(50.0));
+    }
+
+    @Override
+    public long getAuthentication99thPercentile()
+    {
+        return TimeUnit.NANOSECONDS.toMillis(_authenticationLatency.getValueAtPercentile(99.0));
+    }
+
+    @Override
+    public int getLdapConnectionsOpen()
+    {
+        final LDAPConnectionPool connectionPool = _connectionPool;
+        return connectionPool == null ? 0 : connectionPool.getOpenContextCount();
+    }
+
+    @Override
+    public int getLdapConnectionsIdle()
+    {
+        final LDAPConnectionPool connectionPool = _connectionPool;
+        return connectionPool == null ? 0 : connectionPool.getIdleContextCount();
+    }
+
+    @Override
+    public long getLdapConnectionsCreated()
+    {
+        final LDAPConnectionPool connectionPool = _connectionPool;
+        return connectionPool == null ? 0L : connectionPool.getCreatedContextCount();
+    }
+
+    @Override
+    public long getLdapConnectionValidationFailures()
+    {
+        final LDAPConnectionPool connectionPool = _connectionPool;
+        return connectionPool == null ? 0L : connectionPool.getValidationFailureCount();
+    }
+
     private void closeSafely(InitialDirContext ctx)
     {
         try
@@ -0,0 +1,374 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.security.auth.manager.ldap;
+
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.naming.InterruptedNamingException;
+import javax.naming.NamingException;
+import javax.naming.ServiceUnavailableException;
+import javax.naming.directory.DirContext;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounds the number of directory contexts in use at the same time and pools the contexts bound with the search
+ * credentials so that they are reused across authentications.
+ * <p>
+ * Pooled contexts which have been idle for longer than the idle timeout are closed, either when they are next
+ * borrowed or by {@link #evictIdleContexts()}, which the owner is expected to call periodically; those which have
+ * been idle for longer than the validation interval are checked by reading the root DSE before being reused.  Contexts which are
+ * not pooled, such as those bound with the credentials of the user being authenticated, count towards the bound
+ * while they are open.
+ */
+public class LDAPConnectionPool
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(LDAPConnectionPool.class);
+    private static final String[] VALIDATION_ATTRIBUTES = {"objectClass"};
+
+    public interface ContextFactory
+    {
+        DirContext createContext() throws NamingException;
+    }
+
+    private final ContextFactory _pooledContextFactory;
+    private final Semaphore _permits;
+    private final long _borrowTimeout;
+    private final long _idleTimeout;
+    private final long _validationInterval;
+    private final Deque<PooledContext> _idleContexts = new ConcurrentLinkedDeque<>();
+    private final Map<DirContext, PooledContext> _borrowedContexts = new ConcurrentHashMap<>();
+    private final AtomicLong _generation = new AtomicLong();
+    private final AtomicInteger _openContextCount = new AtomicInteger();
+    private final AtomicLong _createdContextCount = new AtomicLong();
+    private final AtomicLong _validationFailureCount = new AtomicLong();
+    private volatile boolean _closed;
+
+    /**
+     * @param pooledContextFactory factory of the contexts to pool
+     * @param maximumSize maximum number of contexts in use at the same time
+     * @param borrowTimeout time in milliseconds to wait for a context when the maximum number is in use
+     * @param idleTimeout time in milliseconds after which an idle pooled context is closed
+     * @param validationInterval time in milliseconds after which an idle pooled context is validated before reuse
+     */
+    public LDAPConnectionPool(final ContextFactory pooledContextFactory,
+                              final int maximumSize,
+                              final long borrowTimeout,
+                              final long idleTimeout,
+                              final long validationInterval)
+    {
+        if (maximumSize <= 0)
+        {
+            throw new IllegalArgumentException("Maximum size of LDAP connection pool must be positive: " + maximumSize);
+        }
+        _pooledContextFactory = pooledContextFactory;
+        _permits = new Semaphore(maximumSize, true);
+        _borrowTimeout = borrowTimeout;
+        _idleTimeout = idleTimeout;
+        _validationInterval = validationInterval;
+    }
+
+    /**
+     * Borrows a pooled context, which must be given back with either {@link #returnContext(DirContext)} or, if it
+     * has failed, {@link #invalidateContext(DirContext)}.
+     */
+    public DirContext borrowContext() throws NamingException
+    {
+        acquirePermit();
+        try
+        {
+            final long generation = _generation.get();
+            PooledContext pooledContext;
+            while ((pooledContext = _idleContexts.pollFirst()) != null)
+            {
+                final long idleTime = System.currentTimeMillis() - pooledContext.getLastUsedTime();
+                if (pooledContext.getGeneration() != generation || idleTime > _idleTimeout)
+                {
+                    closeContext(pooledContext.getContext());
+                }
+                else if (idleTime > _validationInterval && !isValid(pooledContext.getContext()))
+                {
+                    _validationFailureCount.incrementAndGet();
+                    closeContext(pooledContext.getContext());
+                }
+                else
+                {
+                    _borrowedContexts.put(pooledContext.getContext(), pooledContext);
+                    return pooledContext.getContext();
+                }
+            }
+
+            final DirContext context = createContext(_pooledContextFactory);
+            _borrowedContexts.put(context, new PooledContext(context, generation));
+            return context;
+        }
+        catch (NamingException | RuntimeException e)
+        {
+            _permits.release();
+            throw e;
+        }
+    }
+
+    public void returnContext(final DirContext context)
+    {
+        final PooledContext pooledContext = _borrowedContexts.remove(context);
+        if (pooledContext != null)
+        {
+            try
+            {
+                if (_closed || pooledContext.getGeneration() != _generation.get())
+                {
+                    closeContext(context);
+                }
+                else
+                {
+                    pooledContext.setLastUsedTime(System.currentTimeMillis());
+                    _idleContexts.offerFirst(pooledContext);
+                    if (_closed)
+                    {
+                        closeIdleContexts();
+                    }
+                }
+            }
+            finally
+            {
+                _permits.release();
+            }
+        }
+    }
+
+    public void invalidateContext(final DirContext context)
+    {
+        if (_borrowedContexts.remove(context) != null)
+        {
+            try
+            {
+                closeContext(context);
+            }
+            finally
+            {
+                _permits.release();
+            }
+        }
+    }
+
+    /**
+     * Opens a context which is not pooled, waiting whilst the maximum number of contexts is in use.  The context
+     * must be closed with {@link #closeUnpooledContext(DirContext)}.
+     */
+    public DirContext openUnpooledContext(final ContextFactory contextFactory) throws NamingException
+    {
+        acquirePermit();
+        try
+        {
+            return createContext(contextFactory);
+        }
+        catch (NamingException | RuntimeException e)
+        {
+            _permits.release();
+            throw e;
+        }
+    }
+
+    public void closeUnpooledContext(final DirContext context)
+    {
+        if (context != null)
+        {
+            try
+            {
+                closeContext(context);
+            }
+            finally
+            {
+                _permits.release();
+            }
+        }
+    }
+
+    /**
+     * Closes the idle contexts and causes the contexts in use to be closed when they are returned, so that
+     * contexts are recreated after a change of configuration.
+     */
+    public void clear()
+    {
+        _generation.incrementAndGet();
+        closeIdleContexts();
+    }
+
+    public void close()
+    {
+        _closed = true;
+        clear();
+    }
+
+    /**
+     * Closes the pooled contexts which have been idle for longer than the idle timeout, so that connections are not
+     * held open on the Directory whilst there are no authentications to reuse them.
+     */
+    public void evictIdleContexts()
+    {
+        final long generation = _generation.get();
+        final long now = System.currentTimeMillis();
+        final Iterator<PooledContext> iterator = _idleContexts.descendingIterator();
+        while (iterator.hasNext())
+        {
+            final PooledContext pooledContext = iterator.next();
+            if ((pooledContext.getGeneration() != generation || now - pooledContext.getLastUsedTime() > _idleTimeout)
+                && _idleContexts.removeLastOccurrence(pooledContext))
+            {
+                closeContext(pooledContext.getContext());
+            }
+        }
+    }
+
+    public boolean isClosed()
+    {
+        return _closed;
+    }
+
+    public int getOpenContextCount()
+    {
+        return _openContextCount.get();
+    }
+
+    public int getIdleContextCount()
+    {
+        return _idleContexts.size();
+    }
+
+    public long getCreatedContextCount()
+    {
+        return _createdContextCount.get();
+    }
+
+    public long getValidationFailureCount()
+    {
+        return _validationFailureCount.get();
+    }
+
+    private void acquirePermit() throws NamingException
+    {
+        if (_closed)
+        {
+            throw new ServiceUnavailableException("LDAP connection pool is closed");
+        }
+        try
+        {
+            if (!_permits.tryAcquire(_borrowTimeout, TimeUnit.MILLISECONDS))
+            {
+                throw new ServiceUnavailableException(String.format(
+                        "Timed out after %d ms waiting for an LDAP connection", _borrowTimeout));
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedNamingException("Interrupted waiting for an LDAP connection");
+        }
+    }
+
+    private DirContext createContext(final ContextFactory contextFactory) throws NamingException
+    {
+        final DirContext context = contextFactory.createContext();
+        _openContextCount.incrementAndGet();
+        _createdContextCount.incrementAndGet();
+        return context;
+    }
+
+    private boolean isValid(final DirContext context)
+    {
+        try
+        {
+            context.getAttributes("", VALIDATION_ATTRIBUTES);
+            return true;
+        }
+        catch (NamingException | RuntimeException e)
+        {
+            LOGGER.debug("Pooled LDAP connection failed validation", e);
+            return false;
+        }
+    }
+
+    private void closeIdleContexts()
+    {
+        PooledContext pooledContext;
+        while ((pooledContext = _idleContexts.pollFirst()) != null)
+        {
+            closeContext(pooledContext.getContext());
+        }
+    }
+
+    private void closeContext(final DirContext context)
+    {
+        _openContextCount.decrementAndGet();
+        try
+        {
+            context.close();
+        }
+        catch (NamingException | RuntimeException e)
+        {
+            LOGGER.warn("Exception closing LDAP context", e);
+        }
+    }
+
+    private static final class PooledContext
+    {
+        private final DirContext _context;
+        private final long _generation;
+        private volatile long _lastUsedTime;
+
+        private PooledContext(final DirContext context, final long generation)
+        {
+            _context = context;
+            _generation = generation;
+            _lastUsedTime = System.currentTimeMillis();
+        }
+
+        DirContext getContext()
+        {
+            return _context;
+        }
+
+        long getGeneration()
+        {
+            return _generation;
+        }
+
+        long getLastUsedTime()
+        {
+            return _lastUsedTime;
+        }
+
+        void setLastUsedTime(final long lastUsedTime)
+        {
+            _lastUsedTime = lastUsedTime;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.security.auth.sasl;
+
+import java.security.AccessControlContext;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.qpid.server.pool.SuppressingInheritedAccessControlContextThreadFactory;
+import org.apache.qpid.server.security.SubjectCreator;
+import org.apache.qpid.server.security.auth.AuthenticationResult;
+import org.apache.qpid.server.security.auth.SubjectAuthenticationResult;
+import org.apache.qpid.server.stats.WindowedLatencyHistogram;
+
+/**
+ * Evaluates SASL responses on a bounded pool of threads so that password hashing and calls to remote directories
+ * do not hold up the IO threads processing connections.
+ * <p>
+ * At most {@code threadCount} responses are evaluated at the same time and at most {@code maximumQueued} further
+ * responses wait for a thread; responses submitted beyond that fail authentication at once.  Each response is
+ * evaluated under the access control context of the thread which submitted it.
+ * <p>
+ * A negotiator must not be disposed of whilst a response is being evaluated with it.  A connection which closes
+ * whilst its response is outstanding cancels the returned future instead: the executor then disposes of the
+ * negotiator itself, once the evaluation has finished or, if the evaluation had not yet started, in its place.
+ */
+public class SaslAuthenticationExecutor
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(SaslAuthenticationExecutor.class);
+
+    /** Period, in milliseconds, over which authentication latencies are reported */
+    private static final long AUTHENTICATION_LATENCY_WINDOW = 60000L;
+
+    private final ThreadPoolExecutor _executor;
+    private final WindowedLatencyHistogram _authenticationLatency =
+            new WindowedLatencyHistogram(AUTHENTICATION_LATENCY_WINDOW, TimeUnit.MILLISECONDS);
+    private final AtomicInteger _authenticationsInProgress = new AtomicInteger();
+    private final AtomicLong _rejectedAuthenticationCount = new AtomicLong();
+
+    public SaslAuthenticationExecutor(final String name,
+                                      final int threadCount,
+                                      final int maximumQueued,
+                                      final long threadKeepAliveTimeout)
+    {
+        _executor = new ThreadPoolExecutor(threadCount,
+                                           threadCount,
+                                           threadKeepAliveTimeout,
+                                           TimeUnit.MINUTES,
+                                           new LinkedBlockingQueue<>(maximumQueued),
+                                           new SuppressingInheritedAccessControlContextThreadFactory("SASL-" + name,
+                                                                                                     null));
+        _executor.allowCoreThreadTimeOut(true);
+    }
+
+    public ListenableFuture<SubjectAuthenticationResult> authenticate(final SubjectCreator subjectCreator,
+                                                                      final SaslNegotiator saslNegotiator,
+                                                                      final byte[] response)
+    {
+        final SettableFuture<SubjectAuthenticationResult> future = SettableFuture.create();
+        final AccessControlContext context = AccessController.getContext();
+        final long submitTime = System.nanoTime();
+        try
+        {
+            _executor.execute(() ->
+                              {
+                                  if (future.isCancelled())
+                                  {
+                                      saslNegotiator.dispose();
+                                      return;
+                                  }
+                                  _authenticationsInProgress.incrementAndGet();
+                                  SubjectAuthenticationResult result = null;
+                                  Throwable failure = null;
+                                  try
+                                  {
+                                      result = AccessController.doPrivileged(
+                                              (PrivilegedAction<SubjectAuthenticationResult>) () ->
+                                                      subjectCreator.authenticate(saslNegotiator, response),
+                                              context);
+                                  }
+                                  catch (RuntimeException | Error e)
+                                  {
+                                      failure = e;
+                                  }
+                                  finally
+                                  {
+                                      _authenticationsInProgress.decrementAndGet();
+                                      _authenticationLatency.record(System.nanoTime() - submitTime);
+                                  }
+                                  if (failure == null ? !future.set(result) : !future.setException(failure))
+                                  {
+                                      saslNegotiator.dispose();
+                                  }
+                              });
+        }
+        catch (RejectedExecutionException e)
+        {
+            _rejectedAuthenticationCount.incrementAndGet();
+            LOGGER.debug("SASL authentication rejected", e);
+            future.set(new SubjectAuthenticationResult(new AuthenticationResult(
+                    AuthenticationResult.AuthenticationStatus.ERROR,
+                    new RejectedExecutionException("Too many authentications in progress"))));
+        }
+        return future;
+    }
+
+    public void shutdown()
+    {
+        _executor.shutdown();
+    }
+
+    public int getAuthenticationsInProgress()
+    {
+        return _authenticationsInProgress.get();
+    }
+
+    public int getQueuedAuthentications()
+    {
+        return _executor.getQueue().size();
+    }
+
+    public long getRejectedAuthenticationCount()
+    {
+        return _rejectedAuthenticationCount.get();
+    }
+
+    /**
+     * @return the percentile, in milliseconds, of the time between a response being submitted and its evaluation
+     * completing, over the last one to two minutes
+     */
+    public long getAuthenticationLatencyAtPercentile(final double percentile)
+    {
+        return TimeUnit.NANOSECONDS.toMillis(_authenticationLatency.getValueAtPercentile(percentile));
+    }
+}
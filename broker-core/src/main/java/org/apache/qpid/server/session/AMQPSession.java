@@ -55,6 +55,8 @@ public interface AMQPSession<S extends org.apache.qpid.server.session.AMQPSessio
 
     boolean getBlocking();
 
+    void addProducerFlowThrottleTime(long throttleTime);
+
     int getUnacknowledgedMessageCount();
 
     @Override
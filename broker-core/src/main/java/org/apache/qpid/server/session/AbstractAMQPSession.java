@@ -28,6 +28,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.security.auth.Subject;
 
@@ -74,6 +75,7 @@ public abstract class AbstractAMQPSession<S extends AbstractAMQPSession<S, X>,
 
     protected final List<Action<? super S>> _taskList = new CopyOnWriteArrayList<>();
     private final AtomicInteger _consumerCount = new AtomicInteger();
+    private final AtomicLong _producerFlowThrottleTime = new AtomicLong();
 
     protected final Set<AbstractConsumerTarget> _consumersWithPendingWork = new ScheduledConsumerTargetSet<>();
     private Iterator<AbstractConsumerTarget> _processPendingIterator;
@@ -158,6 +160,18 @@ public abstract class AbstractAMQPSession<S extends AbstractAMQPSession<S, X>,
         return getUnacknowledgedMessageCount();
     }
 
+    @Override
+    public long getProducerFlowThrottleTime()
+    {
+        return _producerFlowThrottleTime.get();
+    }
+
+    @Override
+    public void addProducerFlowThrottleTime(final long throttleTime)
+    {
+        _producerFlowThrottleTime.addAndGet(throttleTime);
+    }
+
     @Override
     public void addDeleteTask(final Action<? super S> task)
     {
@@ -0,0 +1,149 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.stats;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock free histogram of non-negative values, such as latencies, with a bounded relative error.
+ * <p>
+ * Values are counted in buckets whose width doubles with every power of two, each power of two being divided into
+ * {@value #SUB_BUCKETS} linear sub-buckets, so that the value reported for a percentile is within 12.5% of the
+ * recorded value.  Recording is a single atomic increment; the histogram is intended to be recorded on the hot path
+ * and read by management.
+ */
+public final class LatencyHistogram
+{
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray _counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong _count = new AtomicLong();
+    private final AtomicLong _maximum = new AtomicLong();
+
+    public void record(final long value)
+    {
+        final long recorded = Math.max(0L, value);
+        _counts.incrementAndGet(bucketIndex(recorded));
+        _count.incrementAndGet();
+        long maximum;
+        while ((maximum = _maximum.get()) < recorded && !_maximum.compareAndSet(maximum, recorded))
+        {
+        }
+    }
+
+    public long getCount()
+    {
+        return _count.get();
+    }
+
+    public long getMaximum()
+    {
+        return _maximum.get();
+    }
+
+    /**
+     * Returns the highest value of the bucket holding the given percentile of the recorded values, or zero if
+     * nothing has been recorded.
+     *
+     * @param percentile percentile between 0 and 100
+     */
+    public long getValueAtPercentile(final double percentile)
+    {
+        return getValueAtPercentile(percentile, this);
+    }
+
+    /**
+     * Returns the highest value of the bucket holding the given percentile of the values recorded by all of the
+     * histograms together, or zero if nothing has been recorded.
+     */
+    static long getValueAtPercentile(final double percentile, final LatencyHistogram... histograms)
+    {
+        if (percentile < 0.0 || percentile > 100.0)
+        {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        }
+        long count = 0;
+        long maximum = 0;
+        for (LatencyHistogram histogram : histograms)
+        {
+            count += histogram._count.get();
+            maximum = Math.max(maximum, histogram._maximum.get());
+        }
+        if (count == 0)
+        {
+            return 0L;
+        }
+        final long target = Math.max(1L, (long) Math.ceil(count * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            for (LatencyHistogram histogram : histograms)
+            {
+                seen += histogram._counts.get(i);
+            }
+            if (seen >= target)
+            {
+                return Math.min(highestValue(i), maximum);
+            }
+        }
+        return maximum;
+    }
+
+    public void reset()
+    {
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            _counts.set(i, 0L);
+        }
+        _count.set(0L);
+        _maximum.set(0L);
+    }
+
+    static int bucketIndex(final long value)
+    {
+        if (value < SUB_BUCKETS)
+        {
+            return (int) value;
+        }
+        final int exponent = (Long.SIZE - 1) - Long.numberOfLeadingZeros(value);
+        final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long lowestValue(final int index)
+    {
+        if (index < SUB_BUCKETS)
+        {
+            return index;
+        }
+        final int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        final long subBucket = index % SUB_BUCKETS;
+        return (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    static long highestValue(final int index)
+    {
+        return index + 1 < BUCKETS ? lowestValue(index + 1) - 1 : Long.MAX_VALUE;
+    }
+}
@@ -21,96 +21,23 @@
 
 package org.apache.qpid.server.stats;
 
-import static org.apache.qpid.server.model.ConfiguredObjectTypeRegistry.returnsCollectionOfConfiguredObjects;
-
-import java.security.PrivilegedAction;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
-import java.util.TimerTask;
-
 import javax.security.auth.Subject;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.apache.qpid.server.model.ConfiguredObject;
-import org.apache.qpid.server.model.ConfiguredObjectOperation;
-import org.apache.qpid.server.model.ConfiguredObjectTypeRegistry;
-import org.apache.qpid.server.model.ManagedObject;
 import org.apache.qpid.server.util.Strings;
 
-public class StatisticsReportingTask extends TimerTask
+public class StatisticsReportingTask extends AbstractStatisticsTask
 {
-    private final ConfiguredObject<?> _root;
-    private final Subject _subject;
-    private final ConfiguredObjectTypeRegistry _typeRegistry;
-    private final Map<Class<? extends ConfiguredObject>, Set<ConfiguredObjectOperation<?>>> _associatedOperations = new HashMap<>();
-
     public StatisticsReportingTask(final ConfiguredObject<?> root, final Subject subject)
     {
-        _root = root;
-        _typeRegistry = root.getModel().getTypeRegistry();
-        _subject = subject;
+        super(root, subject);
     }
 
     @Override
-    public void run()
-    {
-        Subject.doAs(_subject, (PrivilegedAction<Object>) () -> {
-            processChild(_root);
-            return null;
-        });
-    }
-
-    private void processChild(final ConfiguredObject<?> child)
-    {
-        reportStatisticsForObject(child);
-
-        if (!child.getCategoryClass().getAnnotation(ManagedObject.class).managesChildren())
-        {
-            applyRecursively(child);
-        }
-    }
-
-    private void applyRecursively(final ConfiguredObject<?> object)
-    {
-        Collection<Class<? extends ConfiguredObject>> childTypes = object.getModel().getChildTypes(object.getCategoryClass());
-        childTypes.forEach(childClass -> {
-            Collection<? extends ConfiguredObject> children = object.getChildren(childClass);
-            if (!children.isEmpty())
-            {
-                children.forEach(this::processChild);
-            }
-        });
-        processAssociations(object);
-    }
-
-    private void processAssociations(final ConfiguredObject<?> object)
-    {
-        _associatedOperations.computeIfAbsent(object.getTypeClass(), aClass -> new HashSet<>(_typeRegistry.getOperations(object.getTypeClass(),
-                                                                                                           operation -> operation.isAssociateAsIfChildren()
-                                                                                                                        && returnsCollectionOfConfiguredObjects(
-                                                                                                                   operation)).values()));
-        for(ConfiguredObjectOperation<?> operation : _associatedOperations.get(object.getTypeClass()))
-        {
-            @SuppressWarnings("unchecked")
-            ConfiguredObjectOperation<ConfiguredObject<?>> configuredObjectOperation = (ConfiguredObjectOperation<ConfiguredObject<?>>) operation;
-
-            @SuppressWarnings("unchecked")
-            Collection<? extends ConfiguredObject<?>> associatedChildren =
-                    (Collection<? extends ConfiguredObject<?>>) configuredObjectOperation.perform(object, Collections.emptyMap());
-            if (associatedChildren != null && !associatedChildren.isEmpty())
-            {
-                associatedChildren.forEach(this::processChild);
-            }
-        }
-    }
-
-    private void reportStatisticsForObject(final ConfiguredObject<?> object)
+    protected void processObject(final ConfiguredObject<?> object)
     {
         final String statisticsReportPatternContextKey =
                 String.format("qpid.%s.statisticsReportPattern",
@@ -0,0 +1,53 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.stats;
+
+import javax.security.auth.Subject;
+
+import org.apache.qpid.server.model.AbstractConfiguredObject;
+import org.apache.qpid.server.model.ConfiguredObject;
+
+/**
+ * Samples the statistics history of the objects selecting statistics with the qpid.&lt;category&gt;.statisticsTimeSeries
+ * context variable.
+ */
+public class StatisticsSamplingTask extends AbstractStatisticsTask
+{
+    private final long _samplingPeriod;
+
+    /**
+     * @param samplingPeriod the period in milliseconds at which the task is scheduled
+     */
+    public StatisticsSamplingTask(final ConfiguredObject<?> root, final Subject subject, final long samplingPeriod)
+    {
+        super(root, subject);
+        _samplingPeriod = samplingPeriod;
+    }
+
+    @Override
+    protected void processObject(final ConfiguredObject<?> object)
+    {
+        if (object instanceof AbstractConfiguredObject)
+        {
+            ((AbstractConfiguredObject<?>) object).sampleStatistics(System.currentTimeMillis(), _samplingPeriod);
+        }
+    }
+}
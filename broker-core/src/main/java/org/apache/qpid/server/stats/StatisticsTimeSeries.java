@@ -0,0 +1,300 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.stats;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.qpid.server.model.ConfiguredObject;
+import org.apache.qpid.server.model.ConfiguredObjectStatistic;
+import org.apache.qpid.server.model.StatisticType;
+
+/**
+ * A fixed-size in-memory history of selected numeric statistics of a configured object.
+ * <p>
+ * Samples are held column-wise in a number of tiers of ring buffers.  The first tier holds every sample; each further
+ * tier holds one sample for every {@code downsamplingFactor} samples of the tier below, so that a coarser history is
+ * retained for longer within the same memory.  When downsampling, cumulative statistics keep their last value and
+ * point in time statistics are averaged.
+ */
+public final class StatisticsTimeSeries
+{
+    public static final String INTERVAL = "interval";
+    public static final String TIMESTAMPS = "timestamps";
+    public static final String VALUES = "values";
+    public static final String RATES = "rates";
+
+    private final List<ConfiguredObjectStatistic<?, ?>> _statistics;
+    private final boolean[] _cumulative;
+    private final Tier[] _tiers;
+    private final long _samplingPeriod;
+    private final int _capacity;
+    private final int _downsamplingFactor;
+
+    public StatisticsTimeSeries(final Collection<ConfiguredObjectStatistic<?, ?>> statistics,
+                                final long samplingPeriod,
+                                final int capacity,
+                                final int numberOfTiers,
+                                final int downsamplingFactor)
+    {
+        if (samplingPeriod <= 0 || capacity <= 0 || numberOfTiers <= 0 || downsamplingFactor <= 0)
+        {
+            throw new IllegalArgumentException(String.format(
+                    "Invalid time series: sampling period %d, capacity %d, tiers %d, downsampling factor %d",
+                    samplingPeriod, capacity, numberOfTiers, downsamplingFactor));
+        }
+        _statistics = Collections.unmodifiableList(new ArrayList<>(statistics));
+        _cumulative = new boolean[_statistics.size()];
+        for (int i = 0; i < _cumulative.length; i++)
+        {
+            _cumulative[i] = _statistics.get(i).getStatisticType() == StatisticType.CUMULATIVE;
+        }
+        _samplingPeriod = samplingPeriod;
+        _capacity = capacity;
+        _downsamplingFactor = downsamplingFactor;
+        _tiers = new Tier[numberOfTiers];
+        long interval = samplingPeriod;
+        for (int i = 0; i < numberOfTiers; i++)
+        {
+            _tiers[i] = new Tier(interval, capacity, _statistics.size());
+            interval *= downsamplingFactor;
+        }
+    }
+
+    public List<ConfiguredObjectStatistic<?, ?>> getStatistics()
+    {
+        return _statistics;
+    }
+
+    public boolean isConfiguredAs(final Collection<ConfiguredObjectStatistic<?, ?>> statistics,
+                                  final long samplingPeriod,
+                                  final int capacity,
+                                  final int numberOfTiers,
+                                  final int downsamplingFactor)
+    {
+        return _samplingPeriod == samplingPeriod
+               && _capacity == capacity
+               && _tiers.length == numberOfTiers
+               && _downsamplingFactor == downsamplingFactor
+               && _statistics.equals(new ArrayList<>(statistics));
+    }
+
+    public synchronized void sample(final ConfiguredObject<?> object, final long timestamp)
+    {
+        final double[] values = new double[_statistics.size()];
+        for (int i = 0; i < values.length; i++)
+        {
+            final ConfiguredObjectStatistic statistic = _statistics.get(i);
+            final Object value = statistic.getValue(object);
+            values[i] = value instanceof Number ? ((Number) value).doubleValue() : Double.NaN;
+        }
+        add(0, timestamp, values);
+    }
+
+    /**
+     * Returns the samples with timestamps within the given range from the finest tier whose history reaches back to
+     * the start of the range, or from the coarsest tier if none does.  For cumulative statistics the rate of change
+     * per second since the preceding sample is returned too.
+     *
+     * @param statisticNames names of the statistics to return, or an empty list for all
+     * @param from start of the range in milliseconds since the epoch, or null for the whole of the finest tier
+     * @param to end of the range in milliseconds since the epoch, or null for the most recent sample
+     */
+    public synchronized Map<String, Object> getHistory(final List<String> statisticNames,
+                                                       final Long from,
+                                                       final Long to)
+    {
+        final Tier tier = selectTier(from);
+        final long start = from == null ? Long.MIN_VALUE : from;
+        final long end = to == null ? Long.MAX_VALUE : to;
+
+        final List<Long> timestamps = new ArrayList<>();
+        final List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < tier._size; i++)
+        {
+            final long timestamp = tier.getTimestamp(i);
+            if (timestamp >= start && timestamp <= end)
+            {
+                timestamps.add(timestamp);
+                positions.add(i);
+            }
+        }
+
+        final Map<String, Object> values = new LinkedHashMap<>();
+        final Map<String, Object> rates = new LinkedHashMap<>();
+        for (int column = 0; column < _statistics.size(); column++)
+        {
+            final ConfiguredObjectStatistic<?, ?> statistic = _statistics.get(column);
+            if (statisticNames == null || statisticNames.isEmpty() || statisticNames.contains(statistic.getName()))
+            {
+                final boolean integral = isIntegral(statistic.getType());
+                final List<Number> columnValues = new ArrayList<>(positions.size());
+                for (int position : positions)
+                {
+                    final double value = tier.getValue(column, position);
+                    if (Double.isNaN(value))
+                    {
+                        columnValues.add(null);
+                    }
+                    else
+                    {
+                        columnValues.add(integral ? (Number) Math.round(value) : (Number) value);
+                    }
+                }
+                values.put(statistic.getName(), columnValues);
+
+                if (_cumulative[column])
+                {
+                    final List<Double> columnRates = new ArrayList<>(positions.size());
+                    for (int position : positions)
+                    {
+                        columnRates.add(position == 0 ? null : tier.getRate(column, position));
+                    }
+                    rates.put(statistic.getName(), columnRates);
+                }
+            }
+        }
+
+        final Map<String, Object> history = new LinkedHashMap<>();
+        history.put(INTERVAL, tier._interval);
+        history.put(TIMESTAMPS, timestamps);
+        history.put(VALUES, values);
+        history.put(RATES, rates);
+        return history;
+    }
+
+    private Tier selectTier(final Long from)
+    {
+        if (from != null)
+        {
+            for (Tier tier : _tiers)
+            {
+                if (tier._size > 0 && tier.getTimestamp(0) <= from)
+                {
+                    return tier;
+                }
+            }
+            for (int i = _tiers.length - 1; i > 0; i--)
+            {
+                if (_tiers[i]._size > 0)
+                {
+                    return _tiers[i];
+                }
+            }
+        }
+        return _tiers[0];
+    }
+
+    private void add(final int tierIndex, final long timestamp, final double[] values)
+    {
+        final Tier tier = _tiers[tierIndex];
+        tier.add(timestamp, values);
+
+        if (tierIndex + 1 < _tiers.length)
+        {
+            final double[] pending = tier._pending;
+            for (int i = 0; i < values.length; i++)
+            {
+                pending[i] = _cumulative[i] ? values[i] : pending[i] + values[i];
+            }
+            if (++tier._pendingCount == _downsamplingFactor)
+            {
+                final double[] downsampled = new double[values.length];
+                for (int i = 0; i < values.length; i++)
+                {
+                    downsampled[i] = _cumulative[i] ? pending[i] : pending[i] / _downsamplingFactor;
+                    pending[i] = 0d;
+                }
+                tier._pendingCount = 0;
+                add(tierIndex + 1, timestamp, downsampled);
+            }
+        }
+    }
+
+    private static boolean isIntegral(final Class<?> type)
+    {
+        return type == Long.class || type == Integer.class || type == Short.class
+               || type == Long.TYPE || type == Integer.TYPE || type == Short.TYPE;
+    }
+
+    private static final class Tier
+    {
+        private final long _interval;
+        private final long[] _timestamps;
+        private final double[][] _columns;
+        private final double[] _pending;
+        private int _pendingCount;
+        private int _next;
+        private int _size;
+
+        private Tier(final long interval, final int capacity, final int numberOfColumns)
+        {
+            _interval = interval;
+            _timestamps = new long[capacity];
+            _columns = new double[numberOfColumns][capacity];
+            _pending = new double[numberOfColumns];
+        }
+
+        void add(final long timestamp, final double[] values)
+        {
+            _timestamps[_next] = timestamp;
+            for (int i = 0; i < values.length; i++)
+            {
+                _columns[i][_next] = values[i];
+            }
+            _next = (_next + 1) % _timestamps.length;
+            if (_size < _timestamps.length)
+            {
+                _size++;
+            }
+        }
+
+        /**
+         * @param position position of the sample counting from the oldest retained sample
+         */
+        long getTimestamp(final int position)
+        {
+            return _timestamps[index(position)];
+        }
+
+        double getValue(final int column, final int position)
+        {
+            return _columns[column][index(position)];
+        }
+
+        Double getRate(final int column, final int position)
+        {
+            final long elapsed = getTimestamp(position) - getTimestamp(position - 1);
+            final double rate = (getValue(column, position) - getValue(column, position - 1)) * 1000d / elapsed;
+            return elapsed <= 0 || Double.isNaN(rate) ? null : rate;
+        }
+
+        private int index(final int position)
+        {
+            final int capacity = _timestamps.length;
+            return (_next - _size + position + capacity) % capacity;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.stats;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * A {@link LatencyHistogram} of the values recorded over a recent window of time, rather than since its creation.
+ * <p>
+ * Values are recorded into the histogram of the current period.  Once the period has elapsed a new histogram is
+ * started and the previous one retained, so that the reported values cover between one and two periods.  The
+ * histogram of a period is only allocated when a value is first recorded in it, so that a histogram which is never
+ * recorded, such as that of a statistic whose sampling is disabled, holds no buckets.
+ */
+public final class WindowedLatencyHistogram
+{
+    private static final LatencyHistogram EMPTY = new LatencyHistogram();
+
+    private final long _period;
+    private final LongSupplier _nanoTime;
+    private final AtomicReference<Window> _window;
+
+    public WindowedLatencyHistogram(final long period, final TimeUnit unit)
+    {
+        this(unit.toNanos(period), System::nanoTime);
+    }
+
+    WindowedLatencyHistogram(final long period, final LongSupplier nanoTime)
+    {
+        if (period <= 0)
+        {
+            throw new IllegalArgumentException("Period must be positive: " + period);
+        }
+        _period = period;
+        _nanoTime = nanoTime;
+        _window = new AtomicReference<>(new Window(nanoTime.getAsLong(), null));
+    }
+
+    public void record(final long value)
+    {
+        getWindow().getOrCreateCurrent().record(value);
+    }
+
+    public long getCount()
+    {
+        final Window window = getWindow();
+        final LatencyHistogram current = window.getCurrent();
+        final LatencyHistogram previous = window.getPrevious();
+        return (current == null ? 0L : current.getCount()) + (previous == null ? 0L : previous.getCount());
+    }
+
+    /**
+     * Returns the highest value of the bucket holding the given percentile of the values recorded in the current and
+     * previous periods, or zero if nothing has been recorded.
+     */
+    public long getValueAtPercentile(final double percentile)
+    {
+        final Window window = getWindow();
+        final LatencyHistogram current = window.getCurrent() == null ? EMPTY : window.getCurrent();
+        final LatencyHistogram previous = window.getPrevious();
+        return previous == null
+                ? current.getValueAtPercentile(percentile)
+                : LatencyHistogram.getValueAtPercentile(percentile, current, previous);
+    }
+
+    private Window getWindow()
+    {
+        final long now = _nanoTime.getAsLong();
+        Window window;
+        while (now - (window = _window.get()).getStart() >= _period)
+        {
+            final long elapsedPeriods = (now - window.getStart()) / _period;
+            final Window next = new Window(window.getStart() + elapsedPeriods * _period,
+                                           elapsedPeriods == 1 ? window.getCurrent() : null);
+            if (_window.compareAndSet(window, next))
+            {
+                return next;
+            }
+        }
+        return window;
+    }
+
+    private static final class Window
+    {
+        private final long _start;
+        private final AtomicReference<LatencyHistogram> _current = new AtomicReference<>();
+        private final LatencyHistogram _previous;
+
+        private Window(final long start, final LatencyHistogram previous)
+        {
+            _start = start;
+            _previous = previous;
+        }
+
+        long getStart()
+        {
+            return _start;
+        }
+
+        LatencyHistogram getCurrent()
+        {
+            return _current.get();
+        }
+
+        LatencyHistogram getOrCreateCurrent()
+        {
+            final LatencyHistogram current = _current.get();
+            if (current != null)
+            {
+                return current;
+            }
+            _current.compareAndSet(null, new LatencyHistogram());
+            return _current.get();
+        }
+
+        LatencyHistogram getPrevious()
+        {
+            return _previous;
+        }
+    }
+}
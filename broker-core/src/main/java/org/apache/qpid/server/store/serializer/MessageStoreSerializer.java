@@ -21,6 +21,7 @@
 package org.apache.qpid.server.store.serializer;
 
 import java.io.DataInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -39,6 +40,24 @@ public interface MessageStoreSerializer extends Pluggable
                    OutputStream outputStream) throws IOException;
     void deserialize(final Map<String, UUID> queueMap, MessageStore store, InputStream inputStream) throws IOException;
 
+    /**
+     * Returns true if the serializer can record the progress of an import so that an import which fails can
+     * be resumed.
+     */
+    boolean isResumable();
+
+    /**
+     * Deserializes as {@link #deserialize(Map, MessageStore, InputStream)}, recording the progress of the import in
+     * the given checkpoint file.  If the file records the progress of an earlier attempt to import the same content
+     * into the store, the content which that attempt added to the store is not added again.
+     *
+     * @throws UnsupportedOperationException if the serializer is not {@link #isResumable() resumable}
+     */
+    void deserialize(final Map<String, UUID> queueMap,
+                     MessageStore store,
+                     InputStream inputStream,
+                     File checkpointFile) throws IOException;
+
     interface Factory
     {
         MessageStoreSerializer newInstance();
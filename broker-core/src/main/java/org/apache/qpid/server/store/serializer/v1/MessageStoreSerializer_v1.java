@@ -21,6 +21,7 @@
 package org.apache.qpid.server.store.serializer.v1;
 
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -124,6 +125,21 @@ public class MessageStoreSerializer_v1 implements MessageStoreSerializer
     }
 
 
+    @Override
+    public boolean isResumable()
+    {
+        return false;
+    }
+
+    @Override
+    public void deserialize(final Map<String, UUID> queueMap,
+                            final MessageStore store,
+                            final InputStream inputStream,
+                            final File checkpointFile)
+    {
+        throw new UnsupportedOperationException("Imports of version " + VERSION + " cannot be resumed");
+    }
+
     @Override
     public void deserialize(final Map<String, UUID> queueMap, final MessageStore store, final InputStream inputStream) throws IOException
     {
@@ -0,0 +1,165 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.store.serializer.v2;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The progress of a v2 import, appended to a file as the import proceeds so that an import which fails can be
+ * resumed without adding the content it has already imported a second time.
+ * <p>
+ * The file holds the checksum of the first segment of the upload, identifying the upload being imported, followed
+ * by the original and new number of each message added to the store.  A record cut short by a failure is discarded
+ * when the file is next opened.
+ */
+final class ImportCheckpoint implements Closeable
+{
+    private static final byte UPLOAD = 1;
+    private static final byte MESSAGE = 2;
+
+    private final FileOutputStream _fileOutputStream;
+    private final DataOutputStream _output;
+    private final Map<Long, Long> _importedMessages;
+    private Long _uploadChecksum;
+
+    private ImportCheckpoint(final FileOutputStream fileOutputStream,
+                             final Long uploadChecksum,
+                             final Map<Long, Long> importedMessages)
+    {
+        _fileOutputStream = fileOutputStream;
+        _output = new DataOutputStream(new BufferedOutputStream(fileOutputStream));
+        _uploadChecksum = uploadChecksum;
+        _importedMessages = importedMessages;
+    }
+
+    static ImportCheckpoint open(final File file) throws IOException
+    {
+        final File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs())
+        {
+            throw new IOException("Cannot create directory '" + parent + "' for import checkpoint");
+        }
+
+        Long uploadChecksum = null;
+        final Map<Long, Long> importedMessages = new HashMap<>();
+        long validLength = 0;
+        if (file.exists())
+        {
+            try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file))))
+            {
+                while (true)
+                {
+                    final int type = input.read();
+                    if (type == UPLOAD)
+                    {
+                        uploadChecksum = input.readLong();
+                        validLength += 9;
+                    }
+                    else if (type == MESSAGE)
+                    {
+                        importedMessages.put(input.readLong(), input.readLong());
+                        validLength += 17;
+                    }
+                    else
+                    {
+                        break;
+                    }
+                }
+            }
+            catch (EOFException e)
+            {
+                // the last record was cut short
+            }
+        }
+
+        final FileOutputStream output = new FileOutputStream(file, true);
+        try
+        {
+            output.getChannel().truncate(validLength);
+        }
+        catch (IOException e)
+        {
+            output.close();
+            throw e;
+        }
+        return new ImportCheckpoint(output, uploadChecksum, importedMessages);
+    }
+
+    /**
+     * Returns the checksum of the first segment of the upload whose import this checkpoint records, or null if
+     * the checkpoint records no import.
+     */
+    Long getUploadChecksum()
+    {
+        return _uploadChecksum;
+    }
+
+    /**
+     * Returns the new number of each message whose import was recorded before the checkpoint was opened, keyed by
+     * its number in the upload.
+     */
+    Map<Long, Long> getImportedMessages()
+    {
+        return Collections.unmodifiableMap(_importedMessages);
+    }
+
+    synchronized void uploadStarted(final long checksum) throws IOException
+    {
+        _uploadChecksum = checksum;
+        _output.write(UPLOAD);
+        _output.writeLong(checksum);
+        sync();
+    }
+
+    synchronized void messageImported(final long originalMessageNumber, final long messageNumber) throws IOException
+    {
+        _output.write(MESSAGE);
+        _output.writeLong(originalMessageNumber);
+        _output.writeLong(messageNumber);
+    }
+
+    /**
+     * Forces the records written so far to the file.
+     */
+    synchronized void sync() throws IOException
+    {
+        _output.flush();
+        _fileOutputStream.getFD().sync();
+    }
+
+    @Override
+    public synchronized void close() throws IOException
+    {
+        _output.close();
+    }
+}
@@ -0,0 +1,1174 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.store.serializer.v2;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.message.EnqueueableMessage;
+import org.apache.qpid.server.plugin.MessageMetaDataType;
+import org.apache.qpid.server.plugin.PluggableService;
+import org.apache.qpid.server.store.MessageDurability;
+import org.apache.qpid.server.store.MessageEnqueueRecord;
+import org.apache.qpid.server.store.MessageHandle;
+import org.apache.qpid.server.store.MessageMetaDataTypeRegistry;
+import org.apache.qpid.server.store.MessageStore;
+import org.apache.qpid.server.store.StorableMessageMetaData;
+import org.apache.qpid.server.store.StoredMessage;
+import org.apache.qpid.server.store.Transaction;
+import org.apache.qpid.server.store.TransactionLogResource;
+import org.apache.qpid.server.store.handler.DistributedTransactionHandler;
+import org.apache.qpid.server.store.handler.MessageHandler;
+import org.apache.qpid.server.store.handler.MessageInstanceHandler;
+import org.apache.qpid.server.store.serializer.MessageStoreSerializer;
+import org.apache.qpid.server.txn.Xid;
+import org.apache.qpid.server.util.ConnectionScopedRuntimeException;
+import org.apache.qpid.server.util.DaemonThreadFactory;
+
+/**
+ * Serializes the message store as a sequence of independently compressed and checksummed segments.
+ * <p>
+ * On export the store is visited on the calling thread while message content is read, encoded and compressed by a
+ * pool of worker threads; segments are written in the order in which they were formed.  On import segments are
+ * decompressed, verified and applied by the worker threads, each segment of messages or message instances being
+ * added to the store independently.  The segments of each record type are applied before any segment of the next.
+ * <p>
+ * Message content larger than one megabyte is not held in the message record but follows all
+ * message records in chunks, each in a segment of its own, so that no segment grows beyond a bounded size.
+ * <p>
+ * An import given a checkpoint file records there the messages it has added to the store; an import which fails can
+ * then be resumed from the same upload, the messages recorded and the message instances and distributed
+ * transactions already in the store being skipped.
+ */
+@PluggableService
+public class MessageStoreSerializer_v2 implements MessageStoreSerializer
+{
+    public static final String VERSION = "v2.0";
+
+    public static final String WORKER_THREADS_PROPERTY = "qpid.messageStoreSerializer.v2.workerThreads";
+
+    private static final int MAXIMUM_MESSAGES_PER_SEGMENT = 1024;
+    private static final int TARGET_SEGMENT_SIZE = 1024 * 1024;
+    private static final int MAXIMUM_CONTENT_CHUNK_SIZE = 1024 * 1024;
+    private static final int COPY_BUFFER_SIZE = 8192;
+    private static final int MAXIMUM_VERSION_LENGTH = 255;
+    private static final int MAXIMUM_INSTANCES_PER_SEGMENT = 16384;
+    private static final int MAXIMUM_TRANSACTIONS_PER_SEGMENT = 256;
+    private static final int INSTANCE_RECORD_SIZE = 24;
+
+    @Override
+    public String getType()
+    {
+        return VERSION;
+    }
+
+    @Override
+    public void serialize(final Map<UUID, String> queueMap,
+                          final MessageStore.MessageStoreReader storeReader,
+                          final OutputStream outputStream) throws IOException
+    {
+        final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(outputStream, 65536));
+        writeHeader(output);
+
+        final int workerThreads = getWorkerThreads();
+        final ExecutorService executor = createExecutor("MessageStoreExporter");
+        try
+        {
+            final OrderedSegmentWriter writer = new OrderedSegmentWriter(executor, output, 2 * workerThreads);
+
+            serializeQueueMappings(queueMap, writer);
+            serializeMessages(storeReader, writer);
+            serializeMessageInstances(storeReader, writer);
+            serializeDistributedTransactions(storeReader, writer);
+
+            writer.flush();
+            final int segmentCount = writer.getSegmentCount();
+            Segment.encode(SegmentType.END, segmentCount, new byte[0], 0).write(output, segmentCount);
+            output.flush();
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    private void serializeQueueMappings(final Map<UUID, String> queueMap,
+                                        final OrderedSegmentWriter writer) throws IOException
+    {
+        if (!queueMap.isEmpty())
+        {
+            final SegmentBuilder builder = new SegmentBuilder(SegmentType.QUEUE_MAPPINGS, 64 * queueMap.size());
+            for (Map.Entry<UUID, String> entry : queueMap.entrySet())
+            {
+                final DataOutputStream record = builder.nextRecord();
+                writeUUID(record, entry.getKey());
+                record.writeUTF(entry.getValue());
+            }
+            writer.submit(builder);
+        }
+    }
+
+    private void serializeMessages(final MessageStore.MessageStoreReader storeReader,
+                                   final OrderedSegmentWriter writer) throws IOException
+    {
+        final SegmentingMessageHandler handler = new SegmentingMessageHandler(writer);
+        storeReader.visitMessages(handler);
+        handler.complete();
+        serializeMessageContent(handler.getLargeMessages(), writer);
+    }
+
+    private void serializeMessageContent(final List<StoredMessage<?>> messages,
+                                         final OrderedSegmentWriter writer) throws IOException
+    {
+        for (StoredMessage<?> storedMessage : messages)
+        {
+            final int contentSize = storedMessage.getContentSize();
+            for (int offset = 0; offset < contentSize; offset += MAXIMUM_CONTENT_CHUNK_SIZE)
+            {
+                final int length = Math.min(MAXIMUM_CONTENT_CHUNK_SIZE, contentSize - offset);
+                final SegmentBuilder builder = new SegmentBuilder(SegmentType.MESSAGE_CONTENT, length + 12);
+                final DataOutputStream record = builder.nextRecord();
+                record.writeLong(storedMessage.getMessageNumber());
+                writeContent(record, storedMessage, offset, length);
+                writer.submit(builder);
+            }
+            storedMessage.flowToDisk();
+        }
+    }
+
+    private void serializeMessageInstances(final MessageStore.MessageStoreReader storeReader,
+                                           final OrderedSegmentWriter writer) throws IOException
+    {
+        final SegmentingMessageInstanceHandler handler = new SegmentingMessageInstanceHandler(writer);
+        storeReader.visitMessageInstances(handler);
+        handler.complete();
+    }
+
+    private void serializeDistributedTransactions(final MessageStore.MessageStoreReader storeReader,
+                                                  final OrderedSegmentWriter writer) throws IOException
+    {
+        final SegmentingDistributedTransactionHandler handler = new SegmentingDistributedTransactionHandler(writer);
+        storeReader.visitDistributedTransactions(handler);
+        handler.complete();
+    }
+
+    private static Segment encodeMessages(final List<StoredMessage<?>> messages, final int estimatedSize)
+            throws IOException
+    {
+        final SegmentBuilder builder = new SegmentBuilder(SegmentType.MESSAGES, estimatedSize + 20 * messages.size());
+        for (StoredMessage<?> storedMessage : messages)
+        {
+            final byte[] metaData = new byte[1 + storedMessage.getMetadataSize()];
+            try (QpidByteBuffer buf = QpidByteBuffer.wrap(metaData))
+            {
+                buf.put((byte) storedMessage.getMetaData().getType().ordinal());
+                storedMessage.getMetaData().writeToBuffer(buf);
+            }
+
+            final int contentSize = storedMessage.getContentSize();
+            final DataOutputStream record = builder.nextRecord();
+            record.writeLong(storedMessage.getMessageNumber());
+            record.writeInt(metaData.length);
+            record.write(metaData);
+            record.writeInt(contentSize);
+            if (contentSize <= MAXIMUM_CONTENT_CHUNK_SIZE)
+            {
+                writeContent(record, storedMessage, 0, contentSize);
+                storedMessage.flowToDisk();
+            }
+            else
+            {
+                record.writeInt(0);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Copies the given range of the message content straight into the record, preceded by its length.
+     */
+    private static void writeContent(final DataOutputStream record,
+                                     final StoredMessage<?> storedMessage,
+                                     final int offset,
+                                     final int length) throws IOException
+    {
+        try (QpidByteBuffer content = storedMessage.getContent(offset, length))
+        {
+            record.writeInt(content.remaining());
+            final byte[] copyBuffer = new byte[Math.min(COPY_BUFFER_SIZE, Math.max(1, content.remaining()))];
+            while (content.hasRemaining())
+            {
+                final int count = Math.min(copyBuffer.length, content.remaining());
+                content.get(copyBuffer, 0, count);
+                record.write(copyBuffer, 0, count);
+            }
+        }
+    }
+
+    @Override
+    public void deserialize(final Map<String, UUID> queueMap,
+                            final MessageStore store,
+                            final InputStream inputStream) throws IOException
+    {
+        deserialize(queueMap, store, inputStream, (ImportCheckpoint) null);
+    }
+
+    @Override
+    public boolean isResumable()
+    {
+        return true;
+    }
+
+    @Override
+    public void deserialize(final Map<String, UUID> queueMap,
+                            final MessageStore store,
+                            final InputStream inputStream,
+                            final File checkpointFile) throws IOException
+    {
+        try (ImportCheckpoint checkpoint = ImportCheckpoint.open(checkpointFile))
+        {
+            deserialize(queueMap, store, inputStream, checkpoint);
+        }
+    }
+
+    private void deserialize(final Map<String, UUID> queueMap,
+                             final MessageStore store,
+                             final InputStream inputStream,
+                             final ImportCheckpoint checkpoint) throws IOException
+    {
+        final DataInputStream input = new DataInputStream(inputStream);
+        readHeader(input);
+
+        final int workerThreads = getWorkerThreads();
+        final ExecutorService executor = createExecutor("MessageStoreImporter");
+        try
+        {
+            final Importer importer = new Importer(queueMap, store, executor, 2 * workerThreads, checkpoint);
+            importer.importSegments(input);
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    private void writeHeader(final DataOutputStream output) throws IOException
+    {
+        // All encodings start 0x00 << int length of the version string >> << version string in UTF-8 >>
+        final byte[] version = VERSION.getBytes(StandardCharsets.UTF_8);
+        output.write(0);
+        output.writeInt(version.length);
+        output.write(version);
+    }
+
+    private void readHeader(final DataInputStream input) throws IOException
+    {
+        if (input.read() != 0)
+        {
+            throw new IllegalArgumentException("Invalid format for upload");
+        }
+        final int versionLength = input.readInt();
+        if (versionLength < 0 || versionLength > MAXIMUM_VERSION_LENGTH)
+        {
+            throw new IllegalArgumentException("Invalid format for upload");
+        }
+        final byte[] version = new byte[versionLength];
+        input.readFully(version);
+        if (!VERSION.equals(new String(version, StandardCharsets.UTF_8)))
+        {
+            throw new IllegalArgumentException("Unexpected version '" + new String(version, StandardCharsets.UTF_8)
+                                               + "' expecting '" + VERSION + "'");
+        }
+    }
+
+    private int getWorkerThreads()
+    {
+        return Math.max(1, Integer.getInteger(WORKER_THREADS_PROPERTY, Runtime.getRuntime().availableProcessors()));
+    }
+
+    private ExecutorService createExecutor(final String name)
+    {
+        return Executors.newFixedThreadPool(getWorkerThreads(), new DaemonThreadFactory(name));
+    }
+
+    static <T> T await(final Future<T> future) throws IOException
+    {
+        try
+        {
+            return future.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted awaiting message store serialization");
+        }
+        catch (ExecutionException e)
+        {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException)
+            {
+                throw (IOException) cause;
+            }
+            else if (cause instanceof RuntimeException)
+            {
+                throw (RuntimeException) cause;
+            }
+            else if (cause instanceof Error)
+            {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private static void writeUUID(final DataOutputStream output, final UUID uuid) throws IOException
+    {
+        output.writeLong(uuid.getMostSignificantBits());
+        output.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID readUUID(final DataInputStream input) throws IOException
+    {
+        return new UUID(input.readLong(), input.readLong());
+    }
+
+    private static byte[] readBytes(final DataInputStream input) throws IOException
+    {
+        final int length = input.readInt();
+        if (length < 0 || length > input.available())
+        {
+            throw new IllegalArgumentException("Record field length " + length + " exceeds the segment");
+        }
+        final byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return bytes;
+    }
+
+    private static class SegmentingMessageHandler implements MessageHandler
+    {
+        private final OrderedSegmentWriter _writer;
+        private final List<StoredMessage<?>> _largeMessages = new ArrayList<>();
+        private List<StoredMessage<?>> _messages = new ArrayList<>();
+        private int _estimatedSize;
+        private IOException _exception;
+
+        private SegmentingMessageHandler(final OrderedSegmentWriter writer)
+        {
+            _writer = writer;
+        }
+
+        @Override
+        public boolean handle(final StoredMessage<?> storedMessage)
+        {
+            _messages.add(storedMessage);
+            _estimatedSize += storedMessage.getMetadataSize();
+            if (storedMessage.getContentSize() > MAXIMUM_CONTENT_CHUNK_SIZE)
+            {
+                _largeMessages.add(storedMessage);
+            }
+            else
+            {
+                _estimatedSize += storedMessage.getContentSize();
+            }
+            if (_messages.size() >= MAXIMUM_MESSAGES_PER_SEGMENT || _estimatedSize >= TARGET_SEGMENT_SIZE)
+            {
+                try
+                {
+                    submitSegment();
+                }
+                catch (IOException e)
+                {
+                    _exception = e;
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void submitSegment() throws IOException
+        {
+            final List<StoredMessage<?>> messages = _messages;
+            final int estimatedSize = _estimatedSize;
+            _messages = new ArrayList<>();
+            _estimatedSize = 0;
+            _writer.submit(new Callable<Segment>()
+            {
+                @Override
+                public Segment call() throws IOException
+                {
+                    return encodeMessages(messages, estimatedSize);
+                }
+            });
+        }
+
+        void complete() throws IOException
+        {
+            if (_exception != null)
+            {
+                throw _exception;
+            }
+            if (!_messages.isEmpty())
+            {
+                submitSegment();
+            }
+        }
+
+        /**
+         * Returns the messages whose content was not included in their message record.
+         */
+        List<StoredMessage<?>> getLargeMessages()
+        {
+            return _largeMessages;
+        }
+    }
+
+    private static class SegmentingMessageInstanceHandler implements MessageInstanceHandler
+    {
+        private final OrderedSegmentWriter _writer;
+        private SegmentBuilder _builder = newBuilder();
+        private IOException _exception;
+
+        private SegmentingMessageInstanceHandler(final OrderedSegmentWriter writer)
+        {
+            _writer = writer;
+        }
+
+        @Override
+        public boolean handle(final MessageEnqueueRecord record)
+        {
+            try
+            {
+                final DataOutputStream output = _builder.nextRecord();
+                output.writeLong(record.getMessageNumber());
+                writeUUID(output, record.getQueueId());
+                if (_builder.getRecordCount() >= MAXIMUM_INSTANCES_PER_SEGMENT)
+                {
+                    _writer.submit(_builder);
+                    _builder = newBuilder();
+                }
+            }
+            catch (IOException e)
+            {
+                _exception = e;
+                return false;
+            }
+            return true;
+        }
+
+        void complete() throws IOException
+        {
+            if (_exception != null)
+            {
+                throw _exception;
+            }
+            if (!_builder.isEmpty())
+            {
+                _writer.submit(_builder);
+            }
+        }
+
+        private static SegmentBuilder newBuilder()
+        {
+            return new SegmentBuilder(SegmentType.MESSAGE_INSTANCES,
+                                      INSTANCE_RECORD_SIZE * MAXIMUM_INSTANCES_PER_SEGMENT);
+        }
+    }
+
+    private static class SegmentingDistributedTransactionHandler implements DistributedTransactionHandler
+    {
+        private final OrderedSegmentWriter _writer;
+        private SegmentBuilder _builder = newBuilder();
+        private IOException _exception;
+
+        private SegmentingDistributedTransactionHandler(final OrderedSegmentWriter writer)
+        {
+            _writer = writer;
+        }
+
+        @Override
+        public boolean handle(final Transaction.StoredXidRecord storedXid,
+                              final Transaction.EnqueueRecord[] enqueues,
+                              final Transaction.DequeueRecord[] dequeues)
+        {
+            try
+            {
+                final DataOutputStream output = _builder.nextRecord();
+                output.writeLong(storedXid.getFormat());
+                output.writeInt(storedXid.getGlobalId().length);
+                output.write(storedXid.getGlobalId());
+                output.writeInt(storedXid.getBranchId().length);
+                output.write(storedXid.getBranchId());
+
+                output.writeInt(enqueues.length);
+                for (Transaction.EnqueueRecord record : enqueues)
+                {
+                    output.writeLong(record.getMessage().getMessageNumber());
+                    writeUUID(output, record.getResource().getId());
+                }
+
+                output.writeInt(dequeues.length);
+                for (Transaction.DequeueRecord record : dequeues)
+                {
+                    output.writeLong(record.getEnqueueRecord().getMessageNumber());
+                    writeUUID(output, record.getEnqueueRecord().getQueueId());
+                }
+
+                if (_builder.getRecordCount() >= MAXIMUM_TRANSACTIONS_PER_SEGMENT)
+                {
+                    _writer.submit(_builder);
+                    _builder = newBuilder();
+                }
+            }
+            catch (IOException e)
+            {
+                _exception = e;
+                return false;
+            }
+            return true;
+        }
+
+        void complete() throws IOException
+        {
+            if (_exception != null)
+            {
+                throw _exception;
+            }
+            if (!_builder.isEmpty())
+            {
+                _writer.submit(_builder);
+            }
+        }
+
+        private static SegmentBuilder newBuilder()
+        {
+            return new SegmentBuilder(SegmentType.DISTRIBUTED_TRANSACTIONS, 4096);
+        }
+    }
+
+    private static class Importer
+    {
+        private final Map<String, UUID> _queueMap;
+        private final MessageStore _store;
+        private final ExecutorService _executor;
+        private final int _maximumOutstandingSegments;
+        private final Map<UUID, UUID> _queueIdMap = new HashMap<>();
+        private final Map<Long, StoredMessage<?>> _messageMap = new ConcurrentHashMap<>();
+        private final Map<Long, PartialMessage> _partialMessages = new ConcurrentHashMap<>();
+        private final Deque<Future<Void>> _outstandingSegments = new ArrayDeque<>();
+        private final ImportCheckpoint _checkpoint;
+        private final Map<UUID, Set<Long>> _existingInstances = new HashMap<>();
+        private final Set<Xid> _existingTransactions = new HashSet<>();
+
+        private Importer(final Map<String, UUID> queueMap,
+                         final MessageStore store,
+                         final ExecutorService executor,
+                         final int maximumOutstandingSegments,
+                         final ImportCheckpoint checkpoint)
+        {
+            _queueMap = queueMap;
+            _store = store;
+            _executor = executor;
+            _maximumOutstandingSegments = maximumOutstandingSegments;
+            _checkpoint = checkpoint;
+        }
+
+        /**
+         * Restores the state of the import recorded by the checkpoint from the store, so that the content already
+         * in the store is not added again.  A message whose addition did not survive in the store is imported again.
+         */
+        private void resume()
+        {
+            final MessageStore.MessageStoreReader reader = _store.newMessageStoreReader();
+            try
+            {
+                for (Map.Entry<Long, Long> entry : _checkpoint.getImportedMessages().entrySet())
+                {
+                    final StoredMessage<?> storedMessage = reader.getMessage(entry.getValue());
+                    if (storedMessage != null)
+                    {
+                        _messageMap.put(entry.getKey(), storedMessage);
+                    }
+                }
+                reader.visitMessageInstances(new MessageInstanceHandler()
+                {
+                    @Override
+                    public boolean handle(final MessageEnqueueRecord record)
+                    {
+                        Set<Long> messageNumbers = _existingInstances.get(record.getQueueId());
+                        if (messageNumbers == null)
+                        {
+                            messageNumbers = new HashSet<>();
+                            _existingInstances.put(record.getQueueId(), messageNumbers);
+                        }
+                        messageNumbers.add(record.getMessageNumber());
+                        return true;
+                    }
+                });
+                reader.visitDistributedTransactions(new DistributedTransactionHandler()
+                {
+                    @Override
+                    public boolean handle(final Transaction.StoredXidRecord storedXid,
+                                          final Transaction.EnqueueRecord[] enqueues,
+                                          final Transaction.DequeueRecord[] dequeues)
+                    {
+                        _existingTransactions.add(new Xid(storedXid.getFormat(),
+                                                          storedXid.getGlobalId(),
+                                                          storedXid.getBranchId()));
+                        return true;
+                    }
+                });
+            }
+            finally
+            {
+                reader.close();
+            }
+        }
+
+        private void checkUpload(final Segment segment) throws IOException
+        {
+            final Long uploadChecksum = _checkpoint.getUploadChecksum();
+            if (uploadChecksum == null)
+            {
+                _checkpoint.uploadStarted(segment.getChecksum());
+            }
+            else if (uploadChecksum != segment.getChecksum())
+            {
+                throw new IllegalArgumentException("The upload differs from the upload whose import is being resumed");
+            }
+            else
+            {
+                resume();
+            }
+        }
+
+        private void syncCheckpoint() throws IOException
+        {
+            if (_checkpoint != null)
+            {
+                _checkpoint.sync();
+            }
+        }
+
+        void importSegments(final DataInputStream input) throws IOException
+        {
+            try
+            {
+                applySegments(input);
+            }
+            finally
+            {
+                // segments already being applied are allowed to finish so that, should the import fail, what it has
+                // added to the store is known to its checkpoint
+                abandonOutstandingSegments();
+            }
+        }
+
+        private void applySegments(final DataInputStream input) throws IOException
+        {
+            SegmentType currentType = SegmentType.QUEUE_MAPPINGS;
+            int expectedSequence = 0;
+            while (true)
+            {
+                final Segment segment;
+                try
+                {
+                    segment = Segment.read(input);
+                }
+                catch (EOFException e)
+                {
+                    throw new IllegalArgumentException("Message store import is truncated after segment "
+                                                       + (expectedSequence - 1), e);
+                }
+
+                if (segment.getSequence() != expectedSequence)
+                {
+                    throw new IllegalArgumentException("Unexpected segment " + segment.getSequence()
+                                                       + " expecting segment " + expectedSequence);
+                }
+                if (expectedSequence == 0 && _checkpoint != null)
+                {
+                    checkUpload(segment);
+                }
+                if (segment.getType().ordinal() < currentType.ordinal())
+                {
+                    throw new IllegalArgumentException("Unexpected segment type '" + segment.getType()
+                                                       + "' following segment type '" + currentType + "'");
+                }
+                if (segment.getType() != currentType)
+                {
+                    // all records of one type must be in the store before records of the next refer to them
+                    awaitOutstandingSegments(0);
+                    if (segment.getType().ordinal() > SegmentType.MESSAGE_CONTENT.ordinal()
+                        && !_partialMessages.isEmpty())
+                    {
+                        throw new IllegalArgumentException("Message store import is missing the content of "
+                                                           + _partialMessages.size() + " messages");
+                    }
+                    currentType = segment.getType();
+                }
+
+                switch (segment.getType())
+                {
+                    case QUEUE_MAPPINGS:
+                        importQueueMappings(segment);
+                        break;
+                    case MESSAGES:
+                        submit(new Callable<Void>()
+                        {
+                            @Override
+                            public Void call() throws IOException
+                            {
+                                importMessages(segment);
+                                return null;
+                            }
+                        });
+                        break;
+                    case MESSAGE_CONTENT:
+                        importMessageContent(segment);
+                        break;
+                    case MESSAGE_INSTANCES:
+                        submit(new Callable<Void>()
+                        {
+                            @Override
+                            public Void call() throws IOException
+                            {
+                                importMessageInstances(segment);
+                                return null;
+                            }
+                        });
+                        break;
+                    case DISTRIBUTED_TRANSACTIONS:
+                        importDistributedTransactions(segment);
+                        break;
+                    case END:
+                        if (segment.getRecordCount() != expectedSequence)
+                        {
+                            throw new IllegalArgumentException("Message store import contained "
+                                                               + expectedSequence + " segments, expecting "
+                                                               + segment.getRecordCount());
+                        }
+                        return;
+                    default:
+                        throw new IllegalArgumentException("Unexpected segment type: " + segment.getType());
+                }
+                expectedSequence++;
+            }
+        }
+
+        private void submit(final Callable<Void> task) throws IOException
+        {
+            awaitOutstandingSegments(_maximumOutstandingSegments - 1);
+            _outstandingSegments.add(_executor.submit(task));
+        }
+
+        private void awaitOutstandingSegments(final int remaining) throws IOException
+        {
+            while (_outstandingSegments.size() > remaining)
+            {
+                await(_outstandingSegments.poll());
+            }
+        }
+
+        private void abandonOutstandingSegments()
+        {
+            Future<Void> future;
+            while ((future = _outstandingSegments.poll()) != null)
+            {
+                try
+                {
+                    future.get();
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                catch (ExecutionException e)
+                {
+                    // the import has already failed
+                }
+            }
+        }
+
+        private void importQueueMappings(final Segment segment) throws IOException
+        {
+            final DataInputStream records = segment.open();
+            for (int i = 0; i < segment.getRecordCount(); i++)
+            {
+                final UUID id = readUUID(records);
+                final String name = records.readUTF();
+                if (_queueMap.containsKey(name))
+                {
+                    _queueIdMap.put(id, _queueMap.get(name));
+                }
+                else
+                {
+                    throw new IllegalArgumentException("The message store expects the existence of a queue named '"
+                                                       + name + "'");
+                }
+            }
+        }
+
+        private void importMessages(final Segment segment) throws IOException
+        {
+            final DataInputStream records = segment.open();
+            for (int i = 0; i < segment.getRecordCount(); i++)
+            {
+                final long originalMessageNumber = records.readLong();
+                final byte[] metaData = readBytes(records);
+                final int contentSize = records.readInt();
+                final byte[] content = readBytes(records);
+                if (content.length > contentSize)
+                {
+                    throw new IllegalArgumentException("Message " + originalMessageNumber + " has " + content.length
+                                                       + " bytes of content, expecting " + contentSize);
+                }
+                if (_messageMap.containsKey(originalMessageNumber))
+                {
+                    continue;
+                }
+
+                final MessageMetaDataType metaDataType = MessageMetaDataTypeRegistry.fromOrdinal(metaData[0] & 0xff);
+                final MessageHandle<StorableMessageMetaData> handle;
+                try (QpidByteBuffer buf = QpidByteBuffer.wrap(metaData, 1, metaData.length - 1))
+                {
+                    try
+                    {
+                        StorableMessageMetaData storableMessageMetaData = metaDataType.createMetaData(buf);
+                        handle = _store.addMessage(storableMessageMetaData);
+                    }
+                    catch (ConnectionScopedRuntimeException e)
+                    {
+                        throw new IllegalArgumentException("Could not deserialize message metadata", e);
+                    }
+                }
+
+                try (QpidByteBuffer buf = QpidByteBuffer.wrap(content))
+                {
+                    handle.addContent(buf);
+                }
+                if (content.length == contentSize)
+                {
+                    completeMessage(originalMessageNumber, handle);
+                }
+                else
+                {
+                    _partialMessages.put(originalMessageNumber,
+                                         new PartialMessage(handle, contentSize - content.length));
+                }
+            }
+            syncCheckpoint();
+        }
+
+        private void importMessageContent(final Segment segment) throws IOException
+        {
+            final DataInputStream records = segment.open();
+            for (int i = 0; i < segment.getRecordCount(); i++)
+            {
+                final long originalMessageNumber = records.readLong();
+                final byte[] content = readBytes(records);
+                if (_messageMap.containsKey(originalMessageNumber))
+                {
+                    continue;
+                }
+                final PartialMessage partialMessage = _partialMessages.get(originalMessageNumber);
+                if (partialMessage == null || content.length > partialMessage.getRemaining())
+                {
+                    throw new IllegalArgumentException("Unexpected content for message " + originalMessageNumber);
+                }
+                try (QpidByteBuffer buf = QpidByteBuffer.wrap(content))
+                {
+                    partialMessage.getHandle().addContent(buf);
+                }
+                if (partialMessage.contentAdded(content.length) == 0)
+                {
+                    _partialMessages.remove(originalMessageNumber);
+                    completeMessage(originalMessageNumber, partialMessage.getHandle());
+                }
+            }
+            syncCheckpoint();
+        }
+
+        private void completeMessage(final long originalMessageNumber,
+                                     final MessageHandle<StorableMessageMetaData> handle) throws IOException
+        {
+            final StoredMessage<StorableMessageMetaData> storedMessage = handle.allContentAdded();
+            _messageMap.put(originalMessageNumber, storedMessage);
+            storedMessage.flowToDisk();
+            if (_checkpoint != null)
+            {
+                _checkpoint.messageImported(originalMessageNumber, storedMessage.getMessageNumber());
+            }
+        }
+
+        private void importMessageInstances(final Segment segment) throws IOException
+        {
+            final DataInputStream records = segment.open();
+            final Transaction txn = _store.newTransaction();
+            boolean enqueued = false;
+            for (int i = 0; i < segment.getRecordCount(); i++)
+            {
+                final StoredMessage<?> storedMessage = _messageMap.get(records.readLong());
+                final UUID queueId = _queueIdMap.get(readUUID(records));
+                if (storedMessage != null && queueId != null && !isExistingInstance(storedMessage, queueId))
+                {
+                    txn.enqueueMessage(new ImportedQueue(queueId), new ImportedMessage(storedMessage));
+                    enqueued = true;
+                }
+            }
+            if (enqueued)
+            {
+                txn.commitTran();
+            }
+            else
+            {
+                txn.abortTran();
+            }
+        }
+
+        private boolean isExistingInstance(final StoredMessage<?> storedMessage, final UUID queueId)
+        {
+            final Set<Long> messageNumbers = _existingInstances.get(queueId);
+            return messageNumbers != null && messageNumbers.contains(storedMessage.getMessageNumber());
+        }
+
+        private void importDistributedTransactions(final Segment segment) throws IOException
+        {
+            final DataInputStream records = segment.open();
+            for (int i = 0; i < segment.getRecordCount(); i++)
+            {
+                final long format = records.readLong();
+                final byte[] globalId = readBytes(records);
+                final byte[] branchId = readBytes(records);
+
+                final Transaction.EnqueueRecord[] enqueues = new Transaction.EnqueueRecord[records.readInt()];
+                for (int j = 0; j < enqueues.length; j++)
+                {
+                    enqueues[j] = new EnqueueRecordImpl(translateMessageNumber(records.readLong()),
+                                                        _queueIdMap.get(readUUID(records)));
+                }
+                final Transaction.DequeueRecord[] dequeues = new Transaction.DequeueRecord[records.readInt()];
+                for (int j = 0; j < dequeues.length; j++)
+                {
+                    dequeues[j] = new DequeueRecordImpl(translateMessageNumber(records.readLong()),
+                                                        _queueIdMap.get(readUUID(records)));
+                }
+
+                if (!_existingTransactions.contains(new Xid(format, globalId, branchId)))
+                {
+                    final Transaction txn = _store.newTransaction();
+                    txn.recordXid(format, globalId, branchId, enqueues, dequeues);
+                    txn.commitTran();
+                }
+            }
+        }
+
+        private long translateMessageNumber(final long originalMessageNumber)
+        {
+            final StoredMessage<?> storedMessage = _messageMap.get(originalMessageNumber);
+            if (storedMessage == null)
+            {
+                throw new IllegalArgumentException("Distributed transaction refers to unknown message "
+                                                   + originalMessageNumber);
+            }
+            return storedMessage.getMessageNumber();
+        }
+    }
+
+    private static class PartialMessage
+    {
+        private final MessageHandle<StorableMessageMetaData> _handle;
+        private int _remaining;
+
+        private PartialMessage(final MessageHandle<StorableMessageMetaData> handle, final int remaining)
+        {
+            _handle = handle;
+            _remaining = remaining;
+        }
+
+        MessageHandle<StorableMessageMetaData> getHandle()
+        {
+            return _handle;
+        }
+
+        int getRemaining()
+        {
+            return _remaining;
+        }
+
+        int contentAdded(final int length)
+        {
+            _remaining -= length;
+            return _remaining;
+        }
+    }
+
+    private static class ImportedQueue implements TransactionLogResource
+    {
+        private final UUID _queueId;
+
+        private ImportedQueue(final UUID queueId)
+        {
+            _queueId = queueId;
+        }
+
+        @Override
+        public String getName()
+        {
+            return _queueId.toString();
+        }
+
+        @Override
+        public UUID getId()
+        {
+            return _queueId;
+        }
+
+        @Override
+        public MessageDurability getMessageDurability()
+        {
+            return MessageDurability.DEFAULT;
+        }
+    }
+
+    private static class ImportedMessage implements EnqueueableMessage
+    {
+        private final StoredMessage<?> _storedMessage;
+
+        private ImportedMessage(final StoredMessage<?> storedMessage)
+        {
+            _storedMessage = storedMessage;
+        }
+
+        @Override
+        public long getMessageNumber()
+        {
+            return _storedMessage.getMessageNumber();
+        }
+
+        @Override
+        public boolean isPersistent()
+        {
+            return true;
+        }
+
+        @Override
+        public StoredMessage getStoredMessage()
+        {
+            return _storedMessage;
+        }
+    }
+
+    private static class EnqueueRecordImpl extends ImportedQueue implements Transaction.EnqueueRecord, EnqueueableMessage
+    {
+        private final long _messageNumber;
+
+        private EnqueueRecordImpl(final long messageNumber, final UUID queueId)
+        {
+            super(queueId);
+            _messageNumber = messageNumber;
+        }
+
+        @Override
+        public TransactionLogResource getResource()
+        {
+            return this;
+        }
+
+        @Override
+        public EnqueueableMessage getMessage()
+        {
+            return this;
+        }
+
+        @Override
+        public long getMessageNumber()
+        {
+            return _messageNumber;
+        }
+
+        @Override
+        public boolean isPersistent()
+        {
+            return true;
+        }
+
+        @Override
+        public StoredMessage getStoredMessage()
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static class DequeueRecordImpl implements Transaction.DequeueRecord, MessageEnqueueRecord
+    {
+        private final long _messageNumber;
+        private final UUID _queueId;
+
+        private DequeueRecordImpl(final long messageNumber, final UUID queueId)
+        {
+            _messageNumber = messageNumber;
+            _queueId = queueId;
+        }
+
+        @Override
+        public MessageEnqueueRecord getEnqueueRecord()
+        {
+            return this;
+        }
+
+        @Override
+        public UUID getQueueId()
+        {
+            return _queueId;
+        }
+
+        @Override
+        public long getMessageNumber()
+        {
+            return _messageNumber;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.store.serializer.v2;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Encodes segments on a pool of worker threads and writes them to the output in the order in which they were
+ * submitted.  The number of segments being encoded, or waiting to be written, is bounded so that the memory used by
+ * an export does not depend on the size of the store.
+ */
+final class OrderedSegmentWriter
+{
+    private final ExecutorService _executor;
+    private final DataOutputStream _output;
+    private final int _maximumPendingSegments;
+    private final Deque<Future<Segment>> _pendingSegments = new ArrayDeque<>();
+    private int _segmentCount;
+
+    OrderedSegmentWriter(final ExecutorService executor,
+                         final DataOutputStream output,
+                         final int maximumPendingSegments)
+    {
+        _executor = executor;
+        _output = output;
+        _maximumPendingSegments = maximumPendingSegments;
+    }
+
+    void submit(final Callable<Segment> segmentEncoder) throws IOException
+    {
+        while (_pendingSegments.size() >= _maximumPendingSegments)
+        {
+            writeNextSegment();
+        }
+        _pendingSegments.add(_executor.submit(segmentEncoder));
+    }
+
+    void submit(final SegmentBuilder builder) throws IOException
+    {
+        submit(new Callable<Segment>()
+        {
+            @Override
+            public Segment call()
+            {
+                return builder.build();
+            }
+        });
+    }
+
+    void flush() throws IOException
+    {
+        while (!_pendingSegments.isEmpty())
+        {
+            writeNextSegment();
+        }
+        _output.flush();
+    }
+
+    int getSegmentCount()
+    {
+        return _segmentCount;
+    }
+
+    private void writeNextSegment() throws IOException
+    {
+        final Segment segment = MessageStoreSerializer_v2.await(_pendingSegments.poll());
+        segment.write(_output, _segmentCount++);
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.store.serializer.v2;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * An independently decodable unit of the v2 format: a run of records of a single type, compressed and checksummed
+ * on its own so that segments can be encoded and decoded in parallel.
+ * <p>
+ * On the wire a segment is: type (byte), sequence (int), record count (int), uncompressed length (int),
+ * CRC32 of the uncompressed records (long), compressed length (int) followed by the deflated records.
+ */
+final class Segment
+{
+    /**
+     * The largest number of uncompressed record bytes that a segment may hold.
+     */
+    static final int MAXIMUM_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private final SegmentType _type;
+    private final int _sequence;
+    private final int _recordCount;
+    private final int _uncompressedLength;
+    private final long _checksum;
+    private final byte[] _compressedData;
+
+    private Segment(final SegmentType type,
+                    final int sequence,
+                    final int recordCount,
+                    final int uncompressedLength,
+                    final long checksum,
+                    final byte[] compressedData)
+    {
+        _type = type;
+        _sequence = sequence;
+        _recordCount = recordCount;
+        _uncompressedLength = uncompressedLength;
+        _checksum = checksum;
+        _compressedData = compressedData;
+    }
+
+    static Segment encode(final SegmentType type,
+                          final int recordCount,
+                          final byte[] records,
+                          final int length)
+    {
+        if (length > MAXIMUM_SEGMENT_SIZE)
+        {
+            throw new IllegalArgumentException("Segment of " + length + " bytes exceeds the maximum segment size of "
+                                               + MAXIMUM_SEGMENT_SIZE + " bytes");
+        }
+        final CRC32 crc = new CRC32();
+        crc.update(records, 0, length);
+
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try
+        {
+            deflater.setInput(records, 0, length);
+            deflater.finish();
+            byte[] compressed = new byte[Math.max(64, length / 2)];
+            int compressedLength = 0;
+            while (!deflater.finished())
+            {
+                if (compressedLength == compressed.length)
+                {
+                    compressed = Arrays.copyOf(compressed, compressed.length * 2);
+                }
+                compressedLength += deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+            }
+            return new Segment(type, -1, recordCount, length, crc.getValue(),
+                               Arrays.copyOf(compressed, compressedLength));
+        }
+        finally
+        {
+            deflater.end();
+        }
+    }
+
+    static Segment read(final DataInputStream input) throws IOException
+    {
+        final SegmentType type = SegmentType.fromOrdinal(input.read());
+        final int sequence = input.readInt();
+        final int recordCount = input.readInt();
+        final int uncompressedLength = input.readInt();
+        final long checksum = input.readLong();
+        final int compressedLength = input.readInt();
+        if (recordCount < 0
+            || uncompressedLength < 0
+            || uncompressedLength > MAXIMUM_SEGMENT_SIZE
+            || compressedLength < 0
+            || compressedLength > getMaximumCompressedLength(uncompressedLength))
+        {
+            throw new IllegalArgumentException("Segment " + sequence + " has an invalid header");
+        }
+        final byte[] compressedData = new byte[compressedLength];
+        input.readFully(compressedData);
+        return new Segment(type, sequence, recordCount, uncompressedLength, checksum, compressedData);
+    }
+
+    /**
+     * Returns an upper bound on the deflated length of the given number of bytes, allowing for the overhead of
+     * stored blocks when the input is incompressible.
+     */
+    static int getMaximumCompressedLength(final int uncompressedLength)
+    {
+        return uncompressedLength + (uncompressedLength >> 12) + (uncompressedLength >> 14) + 64;
+    }
+
+    void write(final DataOutputStream output, final int sequence) throws IOException
+    {
+        output.write(_type.ordinal());
+        output.writeInt(sequence);
+        output.writeInt(_recordCount);
+        output.writeInt(_uncompressedLength);
+        output.writeLong(_checksum);
+        output.writeInt(_compressedData.length);
+        output.write(_compressedData);
+    }
+
+    /**
+     * Inflates the records of the segment, verifying their length and checksum.
+     */
+    DataInputStream open()
+    {
+        final byte[] records = new byte[_uncompressedLength];
+        final Inflater inflater = new Inflater();
+        try
+        {
+            inflater.setInput(_compressedData);
+            int inflated = 0;
+            while (inflated < records.length && !inflater.finished())
+            {
+                final int count = inflater.inflate(records, inflated, records.length - inflated);
+                if (count == 0 && inflater.needsInput())
+                {
+                    break;
+                }
+                inflated += count;
+            }
+            if (inflated != records.length)
+            {
+                throw new IllegalArgumentException("Segment " + _sequence + " is truncated");
+            }
+        }
+        catch (DataFormatException e)
+        {
+            throw new IllegalArgumentException("Segment " + _sequence + " is corrupt", e);
+        }
+        finally
+        {
+            inflater.end();
+        }
+
+        final CRC32 crc = new CRC32();
+        crc.update(records);
+        if (crc.getValue() != _checksum)
+        {
+            throw new IllegalArgumentException("Segment " + _sequence + " failed checksum validation");
+        }
+        return new DataInputStream(new ByteArrayInputStream(records));
+    }
+
+    SegmentType getType()
+    {
+        return _type;
+    }
+
+    int getSequence()
+    {
+        return _sequence;
+    }
+
+    long getChecksum()
+    {
+        return _checksum;
+    }
+
+    int getRecordCount()
+    {
+        return _recordCount;
+    }
+}
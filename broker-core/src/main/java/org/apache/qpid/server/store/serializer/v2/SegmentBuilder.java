@@ -0,0 +1,84 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.store.serializer.v2;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+
+/**
+ * Accumulates the encoded records of a segment prior to the segment being compressed.
+ */
+final class SegmentBuilder
+{
+    private final SegmentType _type;
+    private final RecordBytes _bytes;
+    private final DataOutputStream _output;
+    private int _recordCount;
+
+    SegmentBuilder(final SegmentType type, final int initialCapacity)
+    {
+        _type = type;
+        _bytes = new RecordBytes(initialCapacity);
+        _output = new DataOutputStream(_bytes);
+    }
+
+    /**
+     * Returns the stream to which the next record should be written.
+     */
+    DataOutputStream nextRecord()
+    {
+        _recordCount++;
+        return _output;
+    }
+
+    int getRecordCount()
+    {
+        return _recordCount;
+    }
+
+    int size()
+    {
+        return _bytes.size();
+    }
+
+    boolean isEmpty()
+    {
+        return _recordCount == 0;
+    }
+
+    Segment build()
+    {
+        return Segment.encode(_type, _recordCount, _bytes.getBuffer(), _bytes.size());
+    }
+
+    private static final class RecordBytes extends ByteArrayOutputStream
+    {
+        private RecordBytes(final int initialCapacity)
+        {
+            super(initialCapacity);
+        }
+
+        byte[] getBuffer()
+        {
+            return buf;
+        }
+    }
+}
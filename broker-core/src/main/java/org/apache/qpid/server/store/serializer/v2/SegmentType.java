@@ -0,0 +1,42 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.store.serializer.v2;
+
+enum SegmentType
+{
+    QUEUE_MAPPINGS,
+    MESSAGES,
+    MESSAGE_CONTENT,
+    MESSAGE_INSTANCES,
+    DISTRIBUTED_TRANSACTIONS,
+    END;
+
+    private static final SegmentType[] VALUES = values();
+
+    static SegmentType fromOrdinal(final int ordinal)
+    {
+        if (ordinal < 0 || ordinal >= VALUES.length)
+        {
+            throw new IllegalArgumentException("Unknown segment type: " + ordinal);
+        }
+        return VALUES[ordinal];
+    }
+}
@@ -136,6 +136,15 @@ public interface AMQPConnection<C extends AMQPConnection<C>>
 
     boolean isTransportBlockedForWriting();
 
+    /**
+     * Stops reading from the transport for the given number of milliseconds, so that a producer that is publishing
+     * too quickly is slowed by back-pressure on its network connection rather than by a protocol level flow
+     * control frame.  Data already read continues to be processed.
+     *
+     * @param duration number of milliseconds for which reading is suspended
+     */
+    void suspendReading(long duration);
+
     boolean isClosing();
 
     long getMaxMessageSize();
@@ -35,6 +35,7 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicLong;
@@ -42,8 +43,10 @@ import java.util.concurrent.atomic.AtomicLong;
 import javax.security.auth.Subject;
 import javax.security.auth.SubjectDomainCombiner;
 
+import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.SettableFuture;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -68,7 +71,12 @@ import org.apache.qpid.server.model.State;
 import org.apache.qpid.server.model.TaskExecutorProvider;
 import org.apache.qpid.server.model.Transport;
 import org.apache.qpid.server.model.port.AmqpPort;
+import org.apache.qpid.server.security.SubjectCreator;
 import org.apache.qpid.server.security.auth.AuthenticatedPrincipal;
+import org.apache.qpid.server.security.auth.AuthenticationResult;
+import org.apache.qpid.server.security.auth.SubjectAuthenticationResult;
+import org.apache.qpid.server.security.auth.sasl.SaslAuthenticationExecutor;
+import org.apache.qpid.server.security.auth.sasl.SaslNegotiator;
 import org.apache.qpid.server.security.auth.sasl.SaslSettings;
 import org.apache.qpid.server.stats.StatisticsGatherer;
 import org.apache.qpid.server.transport.network.NetworkConnection;
@@ -134,8 +142,10 @@ public abstract class AbstractAMQPConnection<C extends AbstractAMQPConnection<C,
     private volatile boolean _messageAuthorizationRequired;
 
     private final AtomicLong _maxMessageSize = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong _readingSuspendedUntil = new AtomicLong();
     private volatile int _messageCompressionThreshold;
     private volatile TransactionObserver _transactionObserver;
+    private volatile ListenableFuture<SubjectAuthenticationResult> _saslEvaluation;
     private long _maxUncommittedInMemorySize;
 
     private final Map<ServerTransaction, Set<Ticker>> _transactionTickers = new ConcurrentHashMap<>();
@@ -209,6 +219,7 @@ public abstract class AbstractAMQPConnection<C extends AbstractAMQPConnection<C,
         long maxAuthDelay = _port.getContextValue(Long.class, Port.CONNECTION_MAXIMUM_AUTHENTICATION_DELAY);
         SlowConnectionOpenTicker slowConnectionOpenTicker = new SlowConnectionOpenTicker(maxAuthDelay);
         _aggregateTicker.addTicker(slowConnectionOpenTicker);
+        _aggregateTicker.addTicker(new ReadSuspensionTicker());
         _lastReadTime = _lastWriteTime = getCreatedTime().getTime();
         _maxUncommittedInMemorySize = getContextValue(Long.class, Connection.MAX_UNCOMMITTED_IN_MEMORY_SIZE);
         _transactionObserver = _maxUncommittedInMemorySize < 0 ? FlowToDiskTransactionObserver.NOOP_TRANSACTION_OBSERVER : new FlowToDiskTransactionObserver(_maxUncommittedInMemorySize, _logSubject, _eventLoggerProvider.getEventLogger());
@@ -256,6 +267,20 @@ public abstract class AbstractAMQPConnection<C extends AbstractAMQPConnection<C,
         return _aggregateTicker;
     }
 
+    @Override
+    public void suspendReading(final long duration)
+    {
+        final long suspendedUntil = System.currentTimeMillis() + duration;
+        _readingSuspendedUntil.accumulateAndGet(suspendedUntil, Math::max);
+    }
+
+    @Override
+    public boolean isTransportBlockedForReading()
+    {
+        final long suspendedUntil = _readingSuspendedUntil.get();
+        return suspendedUntil != 0L && System.currentTimeMillis() < suspendedUntil;
+    }
+
     @Override
     public final Date getLastIoTime()
     {
@@ -524,6 +549,80 @@ public abstract class AbstractAMQPConnection<C extends AbstractAMQPConnection<C,
 
     protected abstract void addAsyncTask(final Action<? super T> action);
 
+    /**
+     * Evaluates a SASL response and performs the given action with the result.  If the port has an authentication
+     * executor, the response is evaluated on it and the action is performed later on the IO thread of this
+     * connection; otherwise both happen immediately on the calling thread.
+     */
+    public void evaluateSaslResponse(final SubjectCreator subjectCreator,
+                                     final SaslNegotiator saslNegotiator,
+                                     final byte[] response,
+                                     final Action<SubjectAuthenticationResult> resultAction)
+    {
+        final SaslAuthenticationExecutor executor = _port.getSaslAuthenticationExecutor();
+        if (executor == null)
+        {
+            resultAction.performAction(subjectCreator.authenticate(saslNegotiator, response));
+        }
+        else
+        {
+            final ListenableFuture<SubjectAuthenticationResult> evaluation =
+                    executor.authenticate(subjectCreator, saslNegotiator, response);
+            _saslEvaluation = evaluation;
+            addFutureCallback(evaluation,
+                              new FutureCallback<SubjectAuthenticationResult>()
+                              {
+                                  @Override
+                                  public void onSuccess(final SubjectAuthenticationResult result)
+                                  {
+                                      performOnIOThread(resultAction, result);
+                                  }
+
+                                  @Override
+                                  public void onFailure(final Throwable t)
+                                  {
+                                      if (t instanceof CancellationException)
+                                      {
+                                          return;
+                                      }
+                                      LOGGER.warn("Unexpected failure evaluating SASL response", t);
+                                      final Exception cause = t instanceof Exception
+                                              ? (Exception) t
+                                              : new RuntimeException(t);
+                                      performOnIOThread(resultAction,
+                                                        new SubjectAuthenticationResult(new AuthenticationResult(
+                                                                AuthenticationResult.AuthenticationStatus.ERROR,
+                                                                cause)));
+                                  }
+                              }, MoreExecutors.directExecutor());
+        }
+    }
+
+    /**
+     * Disposes of a SASL negotiator, unless a response is still being evaluated with it on the authentication
+     * executor, in which case the evaluation is cancelled and the executor disposes of the negotiator once it is
+     * no longer in use.
+     */
+    public void disposeSaslNegotiator(final SaslNegotiator saslNegotiator)
+    {
+        final ListenableFuture<SubjectAuthenticationResult> evaluation = _saslEvaluation;
+        _saslEvaluation = null;
+        if (evaluation == null || !evaluation.cancel(false))
+        {
+            saslNegotiator.dispose();
+        }
+    }
+
+    private void performOnIOThread(final Action<SubjectAuthenticationResult> resultAction,
+                                   final SubjectAuthenticationResult result)
+    {
+        addAsyncTask(object -> AccessController.doPrivileged((PrivilegedAction<Void>) () ->
+        {
+            resultAction.performAction(result);
+            return null;
+        }, getAccessControllerContext()));
+    }
+
     protected abstract boolean isOpeningInProgress();
 
     protected <T> T runAsSubject(PrivilegedAction<T> action)
@@ -951,6 +1050,35 @@ public abstract class AbstractAMQPConnection<C extends AbstractAMQPConnection<C,
         }
     }
 
+    /**
+     * Wakes the connection once a suspension of reading has expired, so that reading resumes without waiting for
+     * other activity on the connection.
+     */
+    private class ReadSuspensionTicker implements Ticker
+    {
+        @Override
+        public int getTimeToNextTick(final long currentTime)
+        {
+            final long suspendedUntil = _readingSuspendedUntil.get();
+            if (suspendedUntil == 0L)
+            {
+                return Integer.MAX_VALUE;
+            }
+            return (int) Math.min(Integer.MAX_VALUE, suspendedUntil - currentTime);
+        }
+
+        @Override
+        public int tick(final long currentTime)
+        {
+            final long suspendedUntil = _readingSuspendedUntil.get();
+            if (suspendedUntil != 0L && currentTime >= suspendedUntil)
+            {
+                _readingSuspendedUntil.compareAndSet(suspendedUntil, 0L);
+            }
+            return getTimeToNextTick(currentTime);
+        }
+    }
+
     private class SlowConnectionOpenTicker implements Ticker, SchedulingDelayNotificationListener
     {
         private final long _allowedTime;
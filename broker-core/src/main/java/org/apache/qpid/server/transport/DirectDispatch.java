@@ -0,0 +1,64 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.transport;
+
+/**
+ * Lets the code notifying an idle consumer of new work ask for the consumer's connection to be processed by the IO
+ * thread raising the notification, rather than being handed over to another thread of the IO pool.
+ * <p>
+ * The request is only honoured when the notifying thread is an IO thread of the scheduler which owns the consumer's
+ * connection.  The connection is then processed by that thread as soon as it has finished processing the connection
+ * it is currently working on, so that the ownership of each connection by a single IO thread at a time is preserved.
+ * Otherwise the connection is scheduled as normal.
+ */
+public final class DirectDispatch
+{
+    private static final ThreadLocal<Boolean> REQUESTED = new ThreadLocal<>();
+
+    private DirectDispatch()
+    {
+    }
+
+    public static void notifyDirect(final Runnable notification)
+    {
+        final boolean outermost = REQUESTED.get() == null;
+        if (outermost)
+        {
+            REQUESTED.set(Boolean.TRUE);
+        }
+        try
+        {
+            notification.run();
+        }
+        finally
+        {
+            if (outermost)
+            {
+                REQUESTED.remove();
+            }
+        }
+    }
+
+    static boolean isRequested()
+    {
+        return REQUESTED.get() != null;
+    }
+}
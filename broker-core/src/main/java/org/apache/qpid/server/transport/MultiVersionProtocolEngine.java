@@ -165,6 +165,12 @@ public class MultiVersionProtocolEngine implements ProtocolEngine
         _delegate.setTransportBlockedForWriting(blocked);
     }
 
+    @Override
+    public boolean isTransportBlockedForReading()
+    {
+        return _delegate.isTransportBlockedForReading();
+    }
+
     public void setNetworkConnection(ServerNetworkConnection network)
     {
         _network = network;
@@ -333,6 +339,12 @@ public class MultiVersionProtocolEngine implements ProtocolEngine
         {
         }
 
+        @Override
+        public boolean isTransportBlockedForReading()
+        {
+            return false;
+        }
+
         @Override
         public AggregateTicker getAggregateTicker()
         {
@@ -535,6 +547,12 @@ public class MultiVersionProtocolEngine implements ProtocolEngine
         {
         }
 
+        @Override
+        public boolean isTransportBlockedForReading()
+        {
+            return false;
+        }
+
         @Override
         public void closed()
         {
@@ -22,6 +22,8 @@ package org.apache.qpid.server.transport;
 
 import java.io.IOException;
 import java.nio.channels.ServerSocketChannel;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
@@ -33,10 +35,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.stats.LatencyHistogram;
 
 public class NetworkConnectionScheduler
 {
     private static final Logger LOGGER = LoggerFactory.getLogger(NetworkConnectionScheduler.class);
+    /** Bounds the connections an IO thread processes directly on behalf of the connection it was given */
+    private static final int MAXIMUM_DIRECT_DISPATCHES = 16;
+    private static final ThreadLocal<DirectDispatchCycle> DIRECT_DISPATCH_CYCLE =
+            ThreadLocal.withInitial(DirectDispatchCycle::new);
+
     private final ThreadFactory _factory;
     private final String _selectorThreadName;
     private volatile ThreadPoolExecutor _executor;
@@ -46,6 +54,9 @@ public class NetworkConnectionScheduler
     private final String _name;
     private final int _numberOfSelectors;
     private SelectorThread _selectorThread;
+    private final LatencyHistogram _scheduledDispatchWait = new LatencyHistogram();
+    private final LatencyHistogram _directDispatchWait = new LatencyHistogram();
+    private volatile boolean _directDispatchRequested;
 
     public NetworkConnectionScheduler(final String name,
                                       final int numberOfSelectors, int threadPoolSize,
@@ -124,6 +135,49 @@ public class NetworkConnectionScheduler
     }
 
     void processConnection(final NonBlockingConnection connection)
+    {
+        if (!_directDispatchRequested)
+        {
+            doProcessConnection(connection);
+            return;
+        }
+
+        final DirectDispatchCycle cycle = DIRECT_DISPATCH_CYCLE.get();
+        cycle.start(this);
+        try
+        {
+            recordDispatchWait(connection, _scheduledDispatchWait);
+            doProcessConnection(connection);
+
+            NonBlockingConnection directConnection;
+            while ((directConnection = cycle.poll()) != null)
+            {
+                recordDispatchWait(directConnection, _directDispatchWait);
+                doProcessConnection(directConnection);
+            }
+        }
+        finally
+        {
+            cycle.finish();
+            NonBlockingConnection directConnection;
+            while ((directConnection = cycle.poll()) != null)
+            {
+                directConnection.clearScheduled();
+                _selectorThread.addToWork(directConnection);
+            }
+        }
+    }
+
+    private void recordDispatchWait(final NonBlockingConnection connection, final LatencyHistogram histogram)
+    {
+        final long scheduledNanoTime = connection.getScheduledNanoTime();
+        if (scheduledNanoTime != 0L)
+        {
+            histogram.record(System.nanoTime() - scheduledNanoTime);
+        }
+    }
+
+    private void doProcessConnection(final NonBlockingConnection connection)
     {
         Thread.currentThread().setName(connection.getThreadName());
         connection.doPreWork();
@@ -232,6 +286,81 @@ public class NetworkConnectionScheduler
 
     public void schedule(final NonBlockingConnection connection)
     {
+        if (DirectDispatch.isRequested())
+        {
+            if (!_directDispatchRequested)
+            {
+                _directDispatchRequested = true;
+            }
+
+            final DirectDispatchCycle cycle = DIRECT_DISPATCH_CYCLE.get();
+            if (cycle.getScheduler() == this
+                && cycle.hasCapacity()
+                && connection.setScheduled())
+            {
+                cycle.add(connection);
+                return;
+            }
+        }
         _selectorThread.addToWork(connection);
     }
+
+    /**
+     * Returns the distribution of the time, in nanoseconds, for which connections scheduled onto the IO pool waited
+     * before being processed.  Only recorded once direct dispatch has been requested of this scheduler.
+     */
+    public LatencyHistogram getScheduledDispatchWait()
+    {
+        return _scheduledDispatchWait;
+    }
+
+    /**
+     * Returns the distribution of the time, in nanoseconds, for which connections dispatched directly by the IO
+     * thread which notified them of work waited before being processed.
+     *
+     * @see DirectDispatch
+     */
+    public LatencyHistogram getDirectDispatchWait()
+    {
+        return _directDispatchWait;
+    }
+
+    private static final class DirectDispatchCycle
+    {
+        private final Deque<NonBlockingConnection> _connections = new ArrayDeque<>();
+        private NetworkConnectionScheduler _scheduler;
+        private int _dispatched;
+
+        void start(final NetworkConnectionScheduler scheduler)
+        {
+            _scheduler = scheduler;
+            _dispatched = 0;
+        }
+
+        void finish()
+        {
+            _scheduler = null;
+        }
+
+        NetworkConnectionScheduler getScheduler()
+        {
+            return _scheduler;
+        }
+
+        boolean hasCapacity()
+        {
+            return _dispatched < MAXIMUM_DIRECT_DISPATCHES;
+        }
+
+        void add(final NonBlockingConnection connection)
+        {
+            _dispatched++;
+            _connections.add(connection);
+        }
+
+        NonBlockingConnection poll()
+        {
+            return _connections.poll();
+        }
+    }
 }
@@ -63,10 +63,12 @@ public class NonBlockingConnection implements ServerNetworkConnection, ByteBuffe
     private volatile boolean _fullyWritten = true;
 
     private volatile boolean _partialRead = false;
+    private volatile boolean _readBlockedSinceLastRead;
 
     private final AmqpPort _port;
     private final AtomicBoolean _scheduled = new AtomicBoolean();
     private volatile long _scheduledTime;
+    private volatile long _scheduledNanoTime;
     private volatile boolean _unexpectedByteBufferSizeReported;
     private final String _threadName;
     private volatile SelectorThread.SelectionTask _selectionTask;
@@ -216,7 +218,7 @@ public class NonBlockingConnection implements ServerNetworkConnection, ByteBuffe
 
     boolean wantsRead()
     {
-        return _fullyWritten;
+        return _fullyWritten && !_protocolEngine.isTransportBlockedForReading();
     }
 
     boolean wantsWrite()
@@ -267,10 +269,17 @@ public class NonBlockingConnection implements ServerNetworkConnection, ByteBuffe
                 {
                     _pendingIterator = null;
                     _protocolEngine.setTransportBlockedForWriting(false);
-                    boolean dataRead = doRead();
+                    final boolean readBlocked = _protocolEngine.isTransportBlockedForReading();
+                    if (readBlocked)
+                    {
+                        _readBlockedSinceLastRead = true;
+                    }
+                    boolean dataRead = !readBlocked && doRead();
                     _protocolEngine.setTransportBlockedForWriting(!doWrite());
 
-                    if (!_fullyWritten || dataRead || (_delegate.needsWork() && _delegate.getNetInputBuffer().position() != 0))
+                    if (!_fullyWritten
+                        || dataRead
+                        || (!readBlocked && _delegate.needsWork() && _delegate.getNetInputBuffer().position() != 0))
                     {
                         _protocolEngine.notifyWork();
                     }
@@ -491,7 +500,11 @@ public class NonBlockingConnection implements ServerNetworkConnection, ByteBuffe
         {
             long readData = readFromNetwork();
 
-            if (readData > 0)
+            // input which the protocol engine left unconsumed when it blocked reading is presented again once
+            // reading resumes, whether or not more has arrived
+            final boolean readResumed = _readBlockedSinceLastRead;
+            _readBlockedSinceLastRead = false;
+            if (readData > 0 || readResumed)
             {
                 return _delegate.processData();
             }
@@ -644,6 +657,7 @@ public class NonBlockingConnection implements ServerNetworkConnection, ByteBuffe
         if (scheduled)
         {
             _scheduledTime = System.currentTimeMillis();
+            _scheduledNanoTime = System.nanoTime();
         }
         return scheduled;
     }
@@ -660,6 +674,11 @@ public class NonBlockingConnection implements ServerNetworkConnection, ByteBuffe
         return _scheduledTime;
     }
 
+    long getScheduledNanoTime()
+    {
+        return _scheduledNanoTime;
+    }
+
     void reportUnexpectedByteBufferSizeUsage()
     {
         if (!_unexpectedByteBufferSizeReported)
@@ -53,6 +53,8 @@ public interface ProtocolEngine extends TransportActivity
 
     void setTransportBlockedForWriting(boolean blocked);
 
+    boolean isTransportBlockedForReading();
+
     Iterator<Runnable> processPendingIterator();
 
     boolean hasWork();
@@ -22,9 +22,9 @@
 package org.apache.qpid.server.txn;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ScheduledFuture;
 
 import org.apache.qpid.server.session.AMQPSession;
@@ -32,9 +32,17 @@ import org.apache.qpid.server.store.MessageStore;
 import org.apache.qpid.server.store.StoreException;
 import org.apache.qpid.server.virtualhost.QueueManagingVirtualHost;
 
+/**
+ * Registry of the distributed transaction branches of a virtual host.
+ * <p>
+ * There is no registry-wide lock: the branches are held in a concurrent map and each operation on a branch is
+ * performed holding the monitor of that branch only, so that the prepare and commit store work of different
+ * branches proceeds concurrently.  An operation which acquires the monitor of a branch re-checks that the branch is
+ * still registered, as another operation may have completed and unregistered it in the meantime.
+ */
 public class DtxRegistry
 {
-    private final Map<ComparableXid, DtxBranch> _branches = new HashMap<>();
+    private final ConcurrentMap<ComparableXid, DtxBranch> _branches = new ConcurrentHashMap<>();
     private final QueueManagingVirtualHost<?> _virtualHost;
 
     public DtxRegistry(final QueueManagingVirtualHost<?> virtualHost)
@@ -115,28 +123,27 @@ public class DtxRegistry
         }
     }
 
-    public synchronized DtxBranch getBranch(Xid xid)
+    public DtxBranch getBranch(Xid xid)
     {
         return _branches.get(new ComparableXid(xid));
     }
 
-    public synchronized boolean registerBranch(DtxBranch branch)
+    public boolean registerBranch(DtxBranch branch)
     {
-        ComparableXid xid = new ComparableXid(branch.getXid());
-        if(!_branches.containsKey(xid))
-        {
-            _branches.put(xid, branch);
-            return true;
-        }
-        return false;
+        return _branches.putIfAbsent(new ComparableXid(branch.getXid()), branch) == null;
     }
 
-    synchronized boolean unregisterBranch(DtxBranch branch)
+    boolean unregisterBranch(DtxBranch branch)
     {
-        return (_branches.remove(new ComparableXid(branch.getXid())) != null);
+        return _branches.remove(new ComparableXid(branch.getXid()), branch);
     }
 
-    public synchronized void commit(Xid id, boolean onePhase)
+    private boolean isRegistered(DtxBranch branch)
+    {
+        return _branches.get(new ComparableXid(branch.getXid())) == branch;
+    }
+
+    public void commit(Xid id, boolean onePhase)
             throws IncorrectDtxStateException, UnknownDtxBranchException, StoreException, RollbackOnlyDtxException, TimeoutDtxException
     {
         DtxBranch branch = getBranch(id);
@@ -144,6 +151,10 @@ public class DtxRegistry
         {
             synchronized (branch)
             {
+                if(!isRegistered(branch))
+                {
+                    throw new UnknownDtxBranchException(id);
+                }
                 if(!branch.hasAssociatedActiveSessions())
                 {
                     branch.clearAssociations();
@@ -182,7 +193,7 @@ public class DtxRegistry
         }
     }
 
-    public synchronized void prepare(Xid id)
+    public void prepare(Xid id)
             throws UnknownDtxBranchException,
             IncorrectDtxStateException, StoreException, RollbackOnlyDtxException, TimeoutDtxException
     {
@@ -191,6 +202,10 @@ public class DtxRegistry
         {
             synchronized (branch)
             {
+                if(!isRegistered(branch))
+                {
+                    throw new UnknownDtxBranchException(id);
+                }
                 if(!branch.hasAssociatedActiveSessions())
                 {
                     branch.clearAssociations();
@@ -224,7 +239,7 @@ public class DtxRegistry
         }
     }
 
-    public synchronized void rollback(Xid id)
+    public void rollback(Xid id)
             throws IncorrectDtxStateException,
             UnknownDtxBranchException,
             StoreException, TimeoutDtxException
@@ -235,6 +250,10 @@ public class DtxRegistry
         {
             synchronized (branch)
             {
+                if(!isRegistered(branch))
+                {
+                    throw new UnknownDtxBranchException(id);
+                }
                 if(branch.expired() || branch.getState() == DtxBranch.State.TIMEDOUT)
                 {
                     unregisterBranch(branch);
@@ -267,6 +286,10 @@ public class DtxRegistry
         {
             synchronized (branch)
             {
+                if(!isRegistered(branch))
+                {
+                    throw new UnknownDtxBranchException(id);
+                }
                 if(!branch.hasAssociatedSessions())
                 {
                     if(branch.getState() != DtxBranch.State.HEUR_COM && branch.getState() != DtxBranch.State.HEUR_RB)
@@ -315,7 +338,7 @@ public class DtxRegistry
         }
     }
 
-    public synchronized List<Xid> recover()
+    public List<Xid> recover()
     {
         List<Xid> inDoubt = new ArrayList<>();
         for(DtxBranch branch : _branches.values())
@@ -328,27 +351,33 @@ public class DtxRegistry
         return inDoubt;
     }
 
-    public synchronized void endAssociations(AMQPSession<?,?> session)
+    public void endAssociations(AMQPSession<?,?> session)
     {
         for(DtxBranch branch : _branches.values())
         {
-            if(branch.isAssociated(session))
+            synchronized (branch)
             {
-                branch.setState(DtxBranch.State.ROLLBACK_ONLY);
-                branch.disassociateSession(session);
+                if(branch.isAssociated(session))
+                {
+                    branch.setState(DtxBranch.State.ROLLBACK_ONLY);
+                    branch.disassociateSession(session);
+                }
             }
         }
 
     }
 
 
-    public synchronized void close()
+    public void close()
     {
         for(DtxBranch branch : _branches.values())
         {
-            branch.close();
+            synchronized (branch)
+            {
+                branch.close();
+                unregisterBranch(branch);
+            }
         }
-        _branches.clear();
     }
 
 }
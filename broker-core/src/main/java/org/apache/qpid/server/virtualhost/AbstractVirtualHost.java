@@ -24,6 +24,7 @@ import static com.google.common.collect.Iterators.cycle;
 import static java.util.Collections.newSetFromMap;
 
 import java.io.BufferedInputStream;
+import java.io.Closeable;
 import java.io.DataInputStream;
 import java.io.File;
 import java.io.IOException;
@@ -115,6 +116,7 @@ import org.apache.qpid.server.security.access.Operation;
 import org.apache.qpid.server.security.auth.AuthenticatedPrincipal;
 import org.apache.qpid.server.security.auth.SocketConnectionMetaData;
 import org.apache.qpid.server.stats.StatisticsReportingTask;
+import org.apache.qpid.server.stats.StatisticsSamplingTask;
 import org.apache.qpid.server.store.ConfiguredObjectRecord;
 import org.apache.qpid.server.store.DurableConfigurationStore;
 import org.apache.qpid.server.store.Event;
@@ -168,6 +170,7 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
 
     private volatile ScheduledThreadPoolExecutor _houseKeepingTaskExecutor;
     private volatile ScheduledFuture<?> _statisticsReportingFuture;
+    private volatile ScheduledFuture<?> _statisticsSamplingFuture;
 
     private final Broker<?> _broker;
 
@@ -434,6 +437,10 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
         {
             initialiseStatisticsReporting();
         }
+        if (attributes.containsKey(CONTEXT) && getState() == State.ACTIVE)
+        {
+            initialiseStatisticsSampling();
+        }
     }
 
     @Override
@@ -675,6 +682,27 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
         }
     }
 
+    private void closeSystemNodes()
+    {
+        Set<MessageNode> systemNodes = new HashSet<>();
+        systemNodes.addAll(_systemNodeDestinations.values());
+        systemNodes.addAll(_systemNodeSources.values());
+        for(MessageNode node : systemNodes)
+        {
+            if(node instanceof Closeable)
+            {
+                try
+                {
+                    ((Closeable) node).close();
+                }
+                catch (IOException e)
+                {
+                    LOGGER.warn("Failed to close system node '{}'", node.getName(), e);
+                }
+            }
+        }
+    }
+
     protected abstract MessageStore createMessageStore();
 
     private ListenableFuture<List<Void>> createDefaultExchanges()
@@ -899,13 +927,25 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
     }
 
     @Override
-    public Content exportMessageStore()
+    public Content exportMessageStore(final String format)
     {
-        return new MessageStoreContent();
+        final MessageStoreSerializer serializer =
+                new QpidServiceLoader().getInstancesByType(MessageStoreSerializer.class).get(format);
+        if (serializer == null)
+        {
+            throw new IllegalArgumentException("Message store export format '" + format + "' is not supported");
+        }
+        return new MessageStoreContent(serializer);
     }
 
     private class MessageStoreContent implements Content, CustomRestHeaders
     {
+        private final MessageStoreSerializer _serializer;
+
+        private MessageStoreContent(final MessageStoreSerializer serializer)
+        {
+            _serializer = serializer;
+        }
 
         @Override
         public void write(final OutputStream outputStream) throws IOException
@@ -936,9 +976,8 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
                                 }
                             }
                         });
-                        MessageStoreSerializer serializer = new QpidServiceLoader().getInstancesByType(MessageStoreSerializer.class).get(MessageStoreSerializer.LATEST);
                         MessageStore.MessageStoreReader reader = _messageStore.newMessageStoreReader();
-                        serializer.serialize(queueMap, reader, outputStream);
+                        _serializer.serialize(queueMap, reader, outputStream);
                     }
                     finally
                     {
@@ -962,7 +1001,7 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
                 @Override
                 public String getArguments()
                 {
-                    return null;
+                    return "format=" + _serializer.getType();
                 }
             }));
         }
@@ -1006,7 +1045,7 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
     }
 
     @Override
-    public void importMessageStore(final String source)
+    public void importMessageStore(final String source, final boolean resume)
     {
         try
         {
@@ -1018,6 +1057,12 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
             {
 
                 final MessageStoreSerializer serializer = MessageStoreSerializer.FACTORY.newInstance(data);
+                if (resume && !serializer.isResumable())
+                {
+                    throw new IllegalArgumentException("An import of version '" + serializer.getType()
+                                                       + "' cannot be resumed");
+                }
+                final File checkpointFile = new File(getContextValue(String.class, IMPORT_CHECKPOINT_FILE));
 
                 doSync(doOnConfigThread(new Task<ListenableFuture<Void>, IOException>()
                 {
@@ -1033,7 +1078,21 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
                         try
                         {
                             _messageStore.openMessageStore(AbstractVirtualHost.this);
-                            checkMessageStoreEmpty();
+                            if (resume)
+                            {
+                                if (!checkpointFile.exists())
+                                {
+                                    throw new IllegalArgumentException("There is no failed import to resume");
+                                }
+                            }
+                            else
+                            {
+                                checkMessageStoreEmpty();
+                                if (checkpointFile.exists() && !checkpointFile.delete())
+                                {
+                                    throw new IOException("Cannot delete import checkpoint '" + checkpointFile + "'");
+                                }
+                            }
                             final Map<String, UUID> queueMap = new HashMap<>();
                             getDurableConfigurationStore().reload(new ConfiguredObjectRecordHandler()
                             {
@@ -1048,7 +1107,18 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
                                 }
                             });
 
-                            serializer.deserialize(queueMap, _messageStore, data);
+                            if (serializer.isResumable())
+                            {
+                                serializer.deserialize(queueMap, _messageStore, data, checkpointFile);
+                                if (!checkpointFile.delete())
+                                {
+                                    LOGGER.warn("Cannot delete import checkpoint '{}'", checkpointFile);
+                                }
+                            }
+                            else
+                            {
+                                serializer.deserialize(queueMap, _messageStore, data);
+                            }
                         }
                         finally
                         {
@@ -1074,15 +1144,15 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
                     {
                         if (url.getProtocol().equalsIgnoreCase("http") || url.getProtocol().equalsIgnoreCase("https") || url.getProtocol().equalsIgnoreCase("file"))
                         {
-                            return "source=" + source;
+                            return "source=" + source + ",resume=" + resume;
                         }
                         else if (url.getProtocol().equalsIgnoreCase("data"))
                         {
-                            return "source=<data stream>";
+                            return "source=<data stream>,resume=" + resume;
                         }
                         else
                         {
-                            return "source=<unknown source type>";
+                            return "source=<unknown source type>,resume=" + resume;
                         }
                     }
                 }));
@@ -1152,6 +1222,26 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
         return true;
     }
 
+    private void initialiseStatisticsSampling()
+    {
+        long period = getContextValue(Integer.class, Broker.STATISTICS_TIME_SERIES_SAMPLING_PERIOD) * 1000L;
+
+        ScheduledFuture<?> previousStatisticsSamplingFuture = _statisticsSamplingFuture;
+        if (previousStatisticsSamplingFuture != null)
+        {
+            previousStatisticsSamplingFuture.cancel(false);
+        }
+        if (period > 0L)
+        {
+            _statisticsSamplingFuture = _houseKeepingTaskExecutor.scheduleAtFixedRate(new StatisticsSamplingTask(this,
+                                                                                                                 getSystemTaskSubject("Statistics", _principal),
+                                                                                                                 period),
+                                                                                      period,
+                                                                                      period,
+                                                                                      TimeUnit.MILLISECONDS);
+        }
+    }
+
     private void initialiseStatisticsReporting()
     {
         long report = getStatisticsReportingPeriod() * 1000L;
@@ -1470,6 +1560,38 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
         return _messageStore == null ? -1 : _messageStore.getInMemorySize();
     }
 
+    @Override
+    public long getScheduledDispatches()
+    {
+        final NetworkConnectionScheduler scheduler = _networkConnectionScheduler;
+        return scheduler == null ? 0L : scheduler.getScheduledDispatchWait().getCount();
+    }
+
+    @Override
+    public long getDirectDispatches()
+    {
+        final NetworkConnectionScheduler scheduler = _networkConnectionScheduler;
+        return scheduler == null ? 0L : scheduler.getDirectDispatchWait().getCount();
+    }
+
+    @Override
+    public long getScheduledDispatchWait99thPercentile()
+    {
+        final NetworkConnectionScheduler scheduler = _networkConnectionScheduler;
+        return scheduler == null
+                ? 0L
+                : TimeUnit.NANOSECONDS.toMillis(scheduler.getScheduledDispatchWait().getValueAtPercentile(99.0));
+    }
+
+    @Override
+    public long getDirectDispatchWait99thPercentile()
+    {
+        final NetworkConnectionScheduler scheduler = _networkConnectionScheduler;
+        return scheduler == null
+                ? 0L
+                : TimeUnit.NANOSECONDS.toMillis(scheduler.getDirectDispatchWait().getValueAtPercentile(99.0));
+    }
+
     @Override
     public long getBytesEvacuatedFromMemory()
     {
@@ -1599,6 +1721,7 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
         }
 
         closeNetworkConnectionScheduler();
+        closeSystemNodes();
         _eventLogger.message(VirtualHostMessages.CLOSED(getName()));
 
         stopLogging(_virtualHostLoggersToClose);
@@ -2557,6 +2680,7 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
 
         updateAccessControl();
         initialiseStatisticsReporting();
+        initialiseStatisticsSampling();
 
         MessageStore messageStore = getMessageStore();
         messageStore.openMessageStore(this);
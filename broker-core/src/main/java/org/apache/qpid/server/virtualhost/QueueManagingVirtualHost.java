@@ -52,6 +52,7 @@ import org.apache.qpid.server.stats.StatisticsGatherer;
 import org.apache.qpid.server.store.DurableConfigurationStore;
 import org.apache.qpid.server.store.EventListener;
 import org.apache.qpid.server.store.preferences.UserPreferencesCreator;
+import org.apache.qpid.server.store.serializer.MessageStoreSerializer;
 
 public interface QueueManagingVirtualHost<X extends QueueManagingVirtualHost<X>> extends VirtualHost<X>,
                                                                                          EventListener,
@@ -96,6 +97,13 @@ public interface QueueManagingVirtualHost<X extends QueueManagingVirtualHost<X>>
     @ManagedContextDefault(name = VIRTUALHOST_STATISTICS_REPORING_PERIOD)
     int DEFAULT_STATISTICS_REPORTING_PERIOD = 0;
 
+    String IMPORT_CHECKPOINT_FILE = "virtualhost.importCheckpointFile";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault(name = IMPORT_CHECKPOINT_FILE,
+                           description = "File in which an import of message store content records its progress so"
+                                         + " that an import which fails can be resumed.")
+    String DEFAULT_IMPORT_CHECKPOINT_FILE = "${" + VirtualHost.VIRTUALHOST_WORK_DIR_VAR + "}${file.separator}importCheckpoint";
+
     String DISCARD_GLOBAL_SHARED_SUBSCRIPTION_LINKS_ON_DETACH = "qpid.jms.discardGlobalSharedSubscriptionLinksOnDetach";
     @SuppressWarnings("unused")
     @ManagedContextDefault(name = DISCARD_GLOBAL_SHARED_SUBSCRIPTION_LINKS_ON_DETACH,
@@ -257,6 +265,34 @@ public interface QueueManagingVirtualHost<X extends QueueManagingVirtualHost<X>>
                       description="Current size of all messages cached in-memory.")
     long getInMemoryMessageSize();
 
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.COUNT, label = "Scheduled Dispatches",
+                      description = "Total number of times a connection of this virtualhost was handed to its IO pool"
+                                    + " for processing.  Only counted once direct dispatch has been used (see"
+                                    + " context variable queue.directDispatch).")
+    long getScheduledDispatches();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.COUNT, label = "Direct Dispatches",
+                      description = "Total number of times a consumer's connection was processed directly by the IO"
+                                    + " thread which enqueued a message for it (see context variable"
+                                    + " queue.directDispatch).")
+    long getDirectDispatches();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.TIME_DURATION,
+                      label = "Scheduled Dispatch Wait 99th Percentile",
+                      description = "99th percentile of the time for which connections handed to the IO pool waited"
+                                    + " before being processed.")
+    long getScheduledDispatchWait99thPercentile();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.TIME_DURATION,
+                      label = "Direct Dispatch Wait 99th Percentile",
+                      description = "99th percentile of the time for which connections dispatched directly waited"
+                                    + " before being processed.")
+    long getDirectDispatchWait99thPercentile();
+
     @SuppressWarnings("unused")
     @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.BYTES, label = "Evacuated Message Bytes",
                       description = "Total Number of Bytes Evacuated from Memory Due to Flow to Disk.")
@@ -288,12 +324,17 @@ public interface QueueManagingVirtualHost<X extends QueueManagingVirtualHost<X>>
             description = "Extract message store content",
             secure = true,
             changesConfiguredObjectState = false)
-    Content exportMessageStore();
+    Content exportMessageStore(@Param(name = "format",
+            description = "Format of the extract: v1.0, or v2.0 whose import can be resumed",
+            defaultValue = MessageStoreSerializer.LATEST) String format);
 
     @ManagedOperation(description = "Import message store content",
             secure = true,
             changesConfiguredObjectState = false)
-    void importMessageStore(@Param(name="source", description = "Extract file", mandatory = true)String source);
+    void importMessageStore(@Param(name="source", description = "Extract file", mandatory = true)String source,
+                            @Param(name = "resume",
+                                    description = "Resume a v2.0 import which failed, skipping the content it added",
+                                    defaultValue = "false") boolean resume);
 
     @ManagedOperation(nonModifying = true,
             description = "Returns metadata concerning the current connection",
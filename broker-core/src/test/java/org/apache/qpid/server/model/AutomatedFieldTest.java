@@ -0,0 +1,153 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class AutomatedFieldTest extends UnitTestBase
+{
+    @Test
+    public void testSetField() throws Throwable
+    {
+        final FieldHolder holder = new FieldHolder();
+        final ConfiguredObjectTypeRegistry.AutomatedField field = createAutomatedField("_plain");
+
+        field.preSet(holder);
+        field.set(holder, "value");
+        field.postSet(holder);
+
+        assertEquals("Unexpected field value", "value", holder._plain);
+        assertEquals("Unexpected actions", new ArrayList<>(), holder._actions);
+    }
+
+    @Test
+    public void testSetPrimitiveField() throws Throwable
+    {
+        final FieldHolder holder = new FieldHolder();
+
+        createAutomatedField("_primitive").set(holder, 42);
+
+        assertEquals("Unexpected field value", 42, holder._primitive);
+    }
+
+    @Test
+    public void testSetFinalField() throws Throwable
+    {
+        final FieldHolder holder = new FieldHolder();
+        final Object value = new Object();
+
+        createAutomatedField("_finalValue").set(holder, value);
+
+        assertSame("Unexpected field value", value, holder.getFinalValue());
+    }
+
+    @Test
+    public void testSettingActions() throws Throwable
+    {
+        final FieldHolder holder = new FieldHolder();
+        holder._actioned = "old";
+        final ConfiguredObjectTypeRegistry.AutomatedField field = createAutomatedField("_actioned");
+
+        field.preSet(holder);
+        field.set(holder, "new");
+        field.postSet(holder);
+
+        assertEquals("Unexpected field value", "new", holder._actioned);
+        assertEquals("Unexpected actions", Arrays.asList("beforeSet:old", "afterSet:new"), holder._actions);
+    }
+
+    @Test
+    public void testActionExceptionPropagated() throws Throwable
+    {
+        final FieldHolder holder = new FieldHolder();
+        final ConfiguredObjectTypeRegistry.AutomatedField field = createAutomatedField("_failing");
+
+        try
+        {
+            field.postSet(holder);
+            fail("Exception not thrown");
+        }
+        catch (IllegalStateException e)
+        {
+            // pass
+        }
+    }
+
+    private ConfiguredObjectTypeRegistry.AutomatedField createAutomatedField(final String fieldName)
+            throws NoSuchFieldException
+    {
+        final Field field = FieldHolder.class.getDeclaredField(fieldName);
+        return ConfiguredObjectTypeRegistry.createAutomatedField(FieldHolder.class,
+                                                                 field,
+                                                                 field.getAnnotation(ManagedAttributeField.class));
+    }
+
+    private static class FieldHolder
+    {
+        private final List<String> _actions = new ArrayList<>();
+
+        @ManagedAttributeField
+        private String _plain;
+
+        @ManagedAttributeField
+        private int _primitive;
+
+        @ManagedAttributeField
+        private final Object _finalValue = null;
+
+        @ManagedAttributeField(beforeSet = "beforeSet", afterSet = "afterSet")
+        private String _actioned;
+
+        @ManagedAttributeField(afterSet = "failingAction")
+        private String _failing;
+
+        private Object getFinalValue()
+        {
+            return _finalValue;
+        }
+
+        private void beforeSet()
+        {
+            _actions.add("beforeSet:" + _actioned);
+        }
+
+        private void afterSet()
+        {
+            _actions.add("afterSet:" + _actioned);
+        }
+
+        private void failingAction()
+        {
+            throw new IllegalStateException();
+        }
+    }
+}
@@ -415,6 +415,36 @@ public class AbstractConfiguredObjectTest extends UnitTestBase
                             engine.getContextValue(String.class, contentVarName));
     }
 
+    @Test
+    public void testContextVariableChangeOfAncestorSeenByDescendant()
+    {
+        final String contextVarName = "contextVar";
+        Map<String, Object> carAttributes = new HashMap<>();
+        carAttributes.put(ConfiguredObject.NAME, "myCar");
+        carAttributes.put(ConfiguredObject.TYPE, TestKitCarImpl.TEST_KITCAR_TYPE);
+        carAttributes.put(ConfiguredObject.CONTEXT, Collections.singletonMap(contextVarName, "1"));
+
+        TestCar car = _model.getObjectFactory().create(TestCar.class, carAttributes, null);
+
+        Map<String, Object> engineAttributes = new HashMap<>();
+        engineAttributes.put(ConfiguredObject.NAME, "myEngine");
+        engineAttributes.put(ConfiguredObject.TYPE, TestElecEngineImpl.TEST_ELEC_ENGINE_TYPE);
+
+        TestEngine engine = (TestEngine) car.createChild(TestEngine.class, engineAttributes);
+
+        assertEquals("Context variable has unexpected value",
+                     1, (int) engine.getContextValue(Integer.class, contextVarName));
+        assertEquals("Context variable has unexpected value",
+                     1, (int) engine.getContextValue(Integer.class, contextVarName));
+
+        car.setContextVariable(contextVarName, "2");
+
+        assertEquals("Context variable has unexpected value after change",
+                     2, (int) engine.getContextValue(Integer.class, contextVarName));
+        assertEquals("Context variable has unexpected value after change",
+                     "2", engine.getContextValue(String.class, contextVarName));
+    }
+
     @Test
     public void testGlobalContextDefaultWithAncestorRef()
     {
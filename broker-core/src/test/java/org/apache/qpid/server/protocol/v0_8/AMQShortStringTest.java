@@ -22,6 +22,9 @@ package org.apache.qpid.server.protocol.v0_8;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -29,6 +32,7 @@ import java.nio.charset.StandardCharsets;
 
 import org.junit.Test;
 
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
 import org.apache.qpid.test.utils.UnitTestBase;
 
 public class AMQShortStringTest extends UnitTestBase
@@ -162,6 +166,79 @@ public class AMQShortStringTest extends UnitTestBase
         assertEquals("Unexpected null string from valueOf", null, shortString);
     }
 
+    @Test
+    public void testReadInternedReturnsSameInstanceForSameContent()
+    {
+        final AMQShortString first = readInterned("routing.key.interned", "routing.key.interned");
+        final AMQShortString second = readInterned("routing.key.interned", "routing.key.interned");
+
+        assertEquals("Unexpected value", new AMQShortString("routing.key.interned"), first);
+        assertSame("Expected interned instance", first, second);
+        assertEquals("Unexpected hash code", new AMQShortString("routing.key.interned").hashCode(), first.hashCode());
+    }
+
+    @Test
+    public void testReadInternedDistinguishesContent()
+    {
+        final AMQShortString first = readInterned("exchange.one", "exchange.one");
+        final AMQShortString second = readInterned("exchange.two", "exchange.two");
+
+        assertEquals("Unexpected value", "exchange.one", first.toString());
+        assertEquals("Unexpected value", "exchange.two", second.toString());
+    }
+
+    @Test
+    public void testReadInternedDoesNotInternLongStrings()
+    {
+        final String value = buildString('x', AMQShortString.MAX_INTERNED_LENGTH + 1);
+        final AMQShortString first = readInterned(value, value);
+        final AMQShortString second = readInterned(value, value);
+
+        assertEquals("Unexpected value", first, second);
+        assertNotSame("Long strings should not be interned", first, second);
+    }
+
+    @Test
+    public void testReadInternedEmptyString()
+    {
+        try (QpidByteBuffer buffer = QpidByteBuffer.wrap(new byte[]{0, 42}))
+        {
+            assertNull("Expected null for empty short string", AMQShortString.readInternedAMQShortString(buffer));
+            assertEquals("Unexpected position", 1, buffer.position());
+        }
+    }
+
+    @Test
+    public void testReadInternedTruncatedBuffer()
+    {
+        try (QpidByteBuffer buffer = QpidByteBuffer.wrap(new byte[]{5, 'a', 'b'}))
+        {
+            AMQShortString.readInternedAMQShortString(buffer);
+            fail("Exception is expected");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // pass
+        }
+    }
+
+    private AMQShortString readInterned(final String value, final String following)
+    {
+        final AMQShortString shortString = new AMQShortString(value);
+        final AMQShortString followingString = new AMQShortString(following);
+        try (QpidByteBuffer buffer = QpidByteBuffer.allocate(false, 2 + shortString.length() + followingString.length()))
+        {
+            shortString.writeToBuffer(buffer);
+            followingString.writeToBuffer(buffer);
+            buffer.flip();
+
+            final AMQShortString result = AMQShortString.readInternedAMQShortString(buffer);
+            assertEquals("Unexpected position after read", 1 + shortString.length(), buffer.position());
+            assertEquals("Unexpected following string", followingString, AMQShortString.readAMQShortString(buffer));
+            return result;
+        }
+    }
+
     /**
      * A helper method to generate a string with given length containing given
      * character
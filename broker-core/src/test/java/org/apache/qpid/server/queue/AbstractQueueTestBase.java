@@ -205,6 +205,109 @@ abstract class AbstractQueueTestBase extends UnitTestBase
         assertNull(_consumer.getQueueContext());
     }
 
+    @Test
+    public void testRegisterConsumerThenEnqueueMessageWithDirectDispatchOutsideIoThread() throws Exception
+    {
+        // direct dispatch is only honoured on an IO thread; elsewhere the consumer must be notified as normal
+        _queue.close();
+        Map<String,Object> attributes = new HashMap<>(_arguments);
+        attributes.put(Queue.NAME, _qname);
+        attributes.put(Queue.OWNER, _owner);
+        attributes.put(Queue.CONTEXT, Collections.singletonMap(Queue.QUEUE_DIRECT_DISPATCH, "true"));
+
+        _queue = _virtualHost.createChild(Queue.class, attributes);
+
+        ServerMessage messageA = createMessage(new Long(24));
+        _consumer = (QueueConsumer<?,?>) _queue.addConsumer(_consumerTarget, null, messageA.getClass(), "test",
+                                                          EnumSet.of(ConsumerOption.ACQUIRES,
+                                                                     ConsumerOption.SEES_REQUEUES), 0);
+
+        _queue.enqueue(messageA, null, null);
+        while(_consumerTarget.processPending());
+
+        assertEquals("Unexpected number of messages delivered", 1, _consumerTarget.getMessages().size());
+        assertEquals(messageA, _consumer.getQueueContext().getLastSeenEntry().getMessage());
+    }
+
+    @Test
+    public void testDeliveryAndSettlementLatencyRecorded() throws Exception
+    {
+        _queue.close();
+        Map<String,Object> attributes = new HashMap<>(_arguments);
+        attributes.put(Queue.NAME, _qname);
+        attributes.put(Queue.OWNER, _owner);
+        attributes.put(Queue.CONTEXT, Collections.singletonMap(Queue.QUEUE_LATENCY_SAMPLING_INTERVAL, "1"));
+
+        _queue = _virtualHost.createChild(Queue.class, attributes);
+
+        ServerMessage messageA = createMessage(new Long(24));
+        _consumer = (QueueConsumer<?,?>) _queue.addConsumer(_consumerTarget, null, messageA.getClass(), "test",
+                                                          EnumSet.of(ConsumerOption.ACQUIRES,
+                                                                     ConsumerOption.SEES_REQUEUES), 0);
+
+        _queue.enqueue(messageA, null, null);
+        while(_consumerTarget.processPending());
+
+        final QueueStatistics queueStatistics = ((AbstractQueue<?>) _queue).getQueueStatistics();
+        assertEquals("Unexpected enqueue to deliver samples", 1, queueStatistics.getEnqueueToDeliverLatency().getCount());
+        assertEquals("Unexpected deliver to settle samples", 0, queueStatistics.getDeliverToSettleLatency().getCount());
+
+        _consumerTarget.getMessages().get(0).delete();
+
+        assertEquals("Unexpected deliver to settle samples", 1, queueStatistics.getDeliverToSettleLatency().getCount());
+    }
+
+    @Test
+    public void testLatencyRecordedForOneInEverySamplingInterval() throws Exception
+    {
+        _queue.close();
+        Map<String,Object> attributes = new HashMap<>(_arguments);
+        attributes.put(Queue.NAME, _qname);
+        attributes.put(Queue.OWNER, _owner);
+        attributes.put(Queue.CONTEXT, Collections.singletonMap(Queue.QUEUE_LATENCY_SAMPLING_INTERVAL, "2"));
+
+        _queue = _virtualHost.createChild(Queue.class, attributes);
+
+        ServerMessage messageA = createMessage(new Long(24));
+        _consumer = (QueueConsumer<?,?>) _queue.addConsumer(_consumerTarget, null, messageA.getClass(), "test",
+                                                          EnumSet.of(ConsumerOption.ACQUIRES,
+                                                                     ConsumerOption.SEES_REQUEUES), 0);
+
+        _queue.enqueue(messageA, null, null);
+        _queue.enqueue(createMessage(new Long(25)), null, null);
+        _queue.enqueue(createMessage(new Long(26)), null, null);
+        _queue.enqueue(createMessage(new Long(27)), null, null);
+        while(_consumerTarget.processPending());
+
+        final QueueStatistics queueStatistics = ((AbstractQueue<?>) _queue).getQueueStatistics();
+        assertEquals("Unexpected enqueue to deliver samples", 2, queueStatistics.getEnqueueToDeliverLatency().getCount());
+    }
+
+    @Test
+    public void testLatencyNotRecordedWhenSamplingDisabled() throws Exception
+    {
+        _queue.close();
+        Map<String,Object> attributes = new HashMap<>(_arguments);
+        attributes.put(Queue.NAME, _qname);
+        attributes.put(Queue.OWNER, _owner);
+        attributes.put(Queue.CONTEXT, Collections.singletonMap(Queue.QUEUE_LATENCY_SAMPLING_INTERVAL, "0"));
+
+        _queue = _virtualHost.createChild(Queue.class, attributes);
+
+        ServerMessage messageA = createMessage(new Long(24));
+        _consumer = (QueueConsumer<?,?>) _queue.addConsumer(_consumerTarget, null, messageA.getClass(), "test",
+                                                          EnumSet.of(ConsumerOption.ACQUIRES,
+                                                                     ConsumerOption.SEES_REQUEUES), 0);
+
+        _queue.enqueue(messageA, null, null);
+        while(_consumerTarget.processPending());
+        _consumerTarget.getMessages().get(0).delete();
+
+        final QueueStatistics queueStatistics = ((AbstractQueue<?>) _queue).getQueueStatistics();
+        assertEquals("Unexpected enqueue to deliver samples", 0, queueStatistics.getEnqueueToDeliverLatency().getCount());
+        assertEquals("Unexpected deliver to settle samples", 0, queueStatistics.getDeliverToSettleLatency().getCount());
+    }
+
     @Test
     public void testEnqueueMessageThenRegisterConsumer() throws Exception, InterruptedException
     {
@@ -0,0 +1,147 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.queue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class MessageGroupIndexTest extends UnitTestBase
+{
+    private final Map<QueueEntry, Long> _entryPositions = new HashMap<>();
+    private MessageGroupIndex _index;
+    private QueueConsumer<?,?> _consumerA;
+    private QueueConsumer<?,?> _consumerB;
+    private QueueEntry _start;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        _index = new MessageGroupIndex();
+        _consumerA = mock(QueueConsumer.class);
+        _consumerB = mock(QueueConsumer.class);
+        _start = mockEntry(0);
+    }
+
+    @Test
+    public void testConsumerSkipsEntriesOfGroupsAssignedElsewhere()
+    {
+        final QueueEntry a1 = mockEntry(1);
+        final QueueEntry b1 = mockEntry(2);
+        final QueueEntry a2 = mockEntry(3);
+        _index.assign("a", _consumerA);
+        _index.assign("b", _consumerB);
+        _index.update("a", a1);
+        _index.update("b", b1);
+        _index.update("a", a2);
+
+        assertEquals("Unexpected next entry", a1, _index.getNextAssignableEntry(_consumerA, _start));
+        assertEquals("Unexpected next entry", a2, _index.getNextAssignableEntry(_consumerA, a1));
+        assertEquals("Unexpected next entry", b1, _index.getNextAssignableEntry(_consumerB, _start));
+        assertNull("Unexpected next entry", _index.getNextAssignableEntry(_consumerB, b1));
+    }
+
+    @Test
+    public void testEntryRemovedOnceUnavailable()
+    {
+        final QueueEntry a1 = mockEntry(1);
+        final QueueEntry a2 = mockEntry(2);
+        _index.update("a", a1);
+        _index.update("a", a2);
+
+        when(a1.isAvailable()).thenReturn(false);
+        _index.update("a", a1);
+
+        assertEquals("Unexpected first entry", a2, _index.getFirstEntry("a"));
+        assertEquals("Unexpected next entry", a2, _index.getNextAssignableEntry(_consumerA, _start));
+
+        when(a2.isAvailable()).thenReturn(false);
+        _index.update("a", a2);
+
+        assertNull("Unexpected first entry", _index.getFirstEntry("a"));
+        assertNull("Unexpected next entry", _index.getNextAssignableEntry(_consumerA, _start));
+
+        when(a1.isAvailable()).thenReturn(true);
+        _index.update("a", a1);
+
+        assertEquals("Released entry not indexed", a1, _index.getFirstEntry("a"));
+    }
+
+    @Test
+    public void testUnassignReleasesOnlyGroupsOfConsumer()
+    {
+        final QueueEntry a1 = mockEntry(1);
+        final QueueEntry b1 = mockEntry(2);
+        final QueueEntry c1 = mockEntry(3);
+        _index.assign("a", _consumerA);
+        _index.assign("b", _consumerB);
+        _index.assign("c", _consumerA);
+        _index.update("a", a1);
+        _index.update("b", b1);
+        _index.update("c", c1);
+
+        _index.unassign(_consumerA);
+
+        assertNull("Unexpected assigned entry", _index.getFirstAssignedEntry(_consumerA));
+        assertEquals("Unexpected assigned entry", b1, _index.getFirstAssignedEntry(_consumerB));
+        assertEquals("Unassigned entry skipped", a1, _index.getNextAssignableEntry(_consumerB, _start));
+        assertEquals("Unassigned entry skipped", c1, _index.getNextAssignableEntry(_consumerB, b1));
+        assertEquals("Entry of other consumer not skipped", c1, _index.getNextAssignableEntry(_consumerA, a1));
+    }
+
+    @Test
+    public void testReassignedGroupMovesToNewConsumer()
+    {
+        final QueueEntry a1 = mockEntry(1);
+        _index.assign("a", _consumerA);
+        _index.update("a", a1);
+
+        _index.assign("a", null);
+        _index.assign("a", _consumerB);
+
+        assertNull("Unexpected assigned entry", _index.getFirstAssignedEntry(_consumerA));
+        assertEquals("Unexpected assigned entry", a1, _index.getFirstAssignedEntry(_consumerB));
+        assertNull("Entry of other consumer not skipped", _index.getNextAssignableEntry(_consumerA, _start));
+    }
+
+    private QueueEntry mockEntry(final long position)
+    {
+        final QueueEntry entry = mock(QueueEntry.class);
+        when(entry.isAvailable()).thenReturn(true);
+        when(entry.compareTo(any(QueueEntry.class))).thenAnswer(invocation ->
+        {
+            final QueueEntry other = (QueueEntry) invocation.getArguments()[0];
+            return Long.compare(position, _entryPositions.get(other));
+        });
+        _entryPositions.put(entry, position);
+        return entry;
+    }
+}
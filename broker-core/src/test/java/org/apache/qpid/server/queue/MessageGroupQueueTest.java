@@ -0,0 +1,280 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.queue;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.qpid.server.consumer.ConsumerOption;
+import org.apache.qpid.server.consumer.TestConsumerTarget;
+import org.apache.qpid.server.message.AMQMessageHeader;
+import org.apache.qpid.server.message.MessageInstance;
+import org.apache.qpid.server.message.MessageReference;
+import org.apache.qpid.server.message.ServerMessage;
+import org.apache.qpid.server.model.BrokerTestHelper;
+import org.apache.qpid.server.model.Queue;
+import org.apache.qpid.server.store.StoredMessage;
+import org.apache.qpid.server.store.TransactionLogResource;
+import org.apache.qpid.server.virtualhost.QueueManagingVirtualHost;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class MessageGroupQueueTest extends UnitTestBase
+{
+    private static final String GROUP_HEADER = "group";
+
+    private QueueManagingVirtualHost<?> _virtualHost;
+    private Queue<?> _queue;
+    private long _messageNumber;
+    private final Map<QueueEntry, Long> _entryPositions = new HashMap<>();
+
+    @Before
+    public void setUp() throws Exception
+    {
+        BrokerTestHelper.setUp();
+        _virtualHost = BrokerTestHelper.createVirtualHost(getClass().getName(), this);
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        try
+        {
+            _virtualHost.close();
+        }
+        finally
+        {
+            BrokerTestHelper.tearDown();
+        }
+    }
+
+    @Test
+    public void testSharedGroupsConsumerSkipsGroupsOfOtherConsumers() throws Exception
+    {
+        createQueue(MessageGroupType.SHARED_GROUPS);
+        doTestConsumerSkipsGroupsOfOtherConsumers();
+    }
+
+    @Test
+    public void testStandardGroupsConsumerSkipsGroupsOfOtherConsumers() throws Exception
+    {
+        createQueue(MessageGroupType.STANDARD);
+        doTestConsumerSkipsGroupsOfOtherConsumers();
+    }
+
+    @Test
+    public void testSharedGroupsReassignedWhenConsumerCloses() throws Exception
+    {
+        createQueue(MessageGroupType.SHARED_GROUPS);
+        doTestGroupsReassignedWhenConsumerCloses();
+    }
+
+    @Test
+    public void testStandardGroupsReassignedWhenConsumerCloses() throws Exception
+    {
+        createQueue(MessageGroupType.STANDARD);
+        doTestGroupsReassignedWhenConsumerCloses();
+    }
+
+    @Test
+    public void testSharedGroupsManyGroups() throws Exception
+    {
+        createQueue(MessageGroupType.SHARED_GROUPS);
+
+        final TestConsumerTarget targetA = new TestConsumerTarget();
+        final TestConsumerTarget targetB = new TestConsumerTarget();
+        addConsumer(targetA);
+        for (int i = 0; i < 1000; i++)
+        {
+            enqueue("a");
+        }
+        drain(targetA);
+        addConsumer(targetB);
+
+        final int numberOfGroups = 100;
+        for (int i = 0; i < 1000; i++)
+        {
+            enqueue("a");
+            enqueue("group" + (i % numberOfGroups));
+        }
+        drain(targetB);
+        drain(targetA);
+
+        assertEquals("Unexpected groups delivered to first consumer", 2000, countGroup(targetA, "a"));
+        assertEquals("Unexpected number of messages delivered to first consumer", 2000, targetA.getMessages().size());
+        assertEquals("Unexpected number of messages delivered to second consumer", 1000, targetB.getMessages().size());
+    }
+
+    @Test
+    public void testSharedGroupsConsumersMovedBackToEntryIndexedOutOfOrder()
+    {
+        final MessageGroupManager.ConsumerResetHelper resetHelper = mock(MessageGroupManager.ConsumerResetHelper.class);
+        final MessageGroupManager manager = new DefinedGroupMessageGroupManager(GROUP_HEADER, "default", resetHelper);
+        final QueueEntry earlier = mockEntry(1);
+        final QueueEntry later = mockEntry(2);
+
+        // concurrent enqueues may index their entries in the opposite order to that of the queue
+        manager.entryAdded(later);
+        manager.entryAdded(earlier);
+
+        verify(resetHelper).resetSubPointersForGroups(earlier);
+        verify(resetHelper, never()).resetSubPointersForGroups(later);
+
+        final QueueEntry last = mockEntry(3);
+        manager.entryAdded(last);
+
+        verify(resetHelper, never()).resetSubPointersForGroups(last);
+    }
+
+    private void doTestConsumerSkipsGroupsOfOtherConsumers() throws Exception
+    {
+        final TestConsumerTarget targetA = new TestConsumerTarget();
+        final TestConsumerTarget targetB = new TestConsumerTarget();
+        addConsumer(targetA);
+
+        enqueue("a");
+        enqueue("a");
+        enqueue("a");
+        drain(targetA);
+        assertEquals("Unexpected number of messages delivered to first consumer", 3, targetA.getMessages().size());
+
+        addConsumer(targetB);
+        enqueue("b");
+        enqueue("a");
+        enqueue("b");
+        drain(targetB);
+        drain(targetA);
+
+        assertEquals("Unexpected number of messages delivered to first consumer", 4, targetA.getMessages().size());
+        assertEquals("Unexpected groups delivered to first consumer", 4, countGroup(targetA, "a"));
+        assertEquals("Unexpected number of messages delivered to second consumer", 2, targetB.getMessages().size());
+        assertEquals("Unexpected groups delivered to second consumer", 2, countGroup(targetB, "b"));
+    }
+
+    private void doTestGroupsReassignedWhenConsumerCloses() throws Exception
+    {
+        final TestConsumerTarget targetA = new TestConsumerTarget();
+        final TestConsumerTarget targetB = new TestConsumerTarget();
+        final QueueConsumer<?,?> consumerA = addConsumer(targetA);
+
+        enqueue("a");
+        enqueue("a");
+        drain(targetA);
+
+        addConsumer(targetB);
+        enqueue("a");
+        enqueue("b");
+        drain(targetB);
+        assertEquals("Unexpected number of messages delivered to second consumer", 1, targetB.getMessages().size());
+
+        consumerA.close();
+        for (MessageInstance instance : targetA.getMessages())
+        {
+            instance.release();
+        }
+        drain(targetB);
+
+        assertEquals("Unexpected number of messages delivered to second consumer", 4, targetB.getMessages().size());
+        assertEquals("Unexpected groups delivered to second consumer", 3, countGroup(targetB, "a"));
+    }
+
+    private void createQueue(final MessageGroupType messageGroupType)
+    {
+        final Map<String, Object> attributes = new HashMap<>();
+        attributes.put(Queue.NAME, getTestName());
+        attributes.put(Queue.MESSAGE_GROUP_TYPE, messageGroupType);
+        attributes.put(Queue.MESSAGE_GROUP_KEY_OVERRIDE, GROUP_HEADER);
+        _queue = _virtualHost.createChild(Queue.class, attributes);
+    }
+
+    private QueueConsumer<?,?> addConsumer(final TestConsumerTarget target) throws Exception
+    {
+        return (QueueConsumer<?,?>) _queue.addConsumer(target, null, mock(ServerMessage.class).getClass(), getTestName(),
+                                                       EnumSet.of(ConsumerOption.ACQUIRES,
+                                                                  ConsumerOption.SEES_REQUEUES), 0);
+    }
+
+    private void drain(final TestConsumerTarget target)
+    {
+        while (target.processPending())
+        {
+        }
+    }
+
+    private int countGroup(final TestConsumerTarget target, final String group)
+    {
+        int count = 0;
+        for (MessageInstance instance : new ArrayList<>(target.getMessages()))
+        {
+            if (group.equals(instance.getMessage().getMessageHeader().getHeader(GROUP_HEADER)))
+            {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private QueueEntry mockEntry(final long position)
+    {
+        final QueueEntryImpl entry = mock(QueueEntryImpl.class);
+        when(entry.isAvailable()).thenReturn(true);
+        when(entry.getEntryId()).thenReturn(position);
+        when(entry.compareTo(any(QueueEntry.class))).thenAnswer(invocation ->
+        {
+            final QueueEntry other = (QueueEntry) invocation.getArguments()[0];
+            return Long.compare(position, _entryPositions.get(other));
+        });
+        _entryPositions.put(entry, position);
+        return entry;
+    }
+
+    private void enqueue(final String group)
+    {
+        final long messageNumber = ++_messageNumber;
+        final AMQMessageHeader header = mock(AMQMessageHeader.class);
+        when(header.getMessageId()).thenReturn(String.valueOf(messageNumber));
+        when(header.getHeader(GROUP_HEADER)).thenReturn(group);
+
+        final ServerMessage message = mock(ServerMessage.class);
+        when(message.getMessageNumber()).thenReturn(messageNumber);
+        when(message.getMessageHeader()).thenReturn(header);
+        when(message.getStoredMessage()).thenReturn(mock(StoredMessage.class));
+
+        final MessageReference reference = mock(MessageReference.class);
+        when(reference.getMessage()).thenReturn(message);
+        when(message.newReference()).thenReturn(reference);
+        when(message.newReference(any(TransactionLogResource.class))).thenReturn(reference);
+
+        _queue.enqueue(message, null, null);
+    }
+}
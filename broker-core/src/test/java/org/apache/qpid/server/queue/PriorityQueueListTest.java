@@ -21,6 +21,9 @@
 package org.apache.qpid.server.queue;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -51,6 +54,7 @@ public class PriorityQueueListTest extends UnitTestBase
     private QueueEntry _priority4message2;
     private QueueEntry _priority5message1;
     private QueueEntry _priority5message2;
+    private QueueManagingVirtualHost<?> _virtualHost;
 
     @Before
     public void setUp() throws Exception
@@ -61,8 +65,8 @@ public class PriorityQueueListTest extends UnitTestBase
         queueAttributes.put(Queue.ID, UUID.randomUUID());
         queueAttributes.put(Queue.NAME, getTestName());
         queueAttributes.put(PriorityQueue.PRIORITIES, 10);
-        final QueueManagingVirtualHost<?> virtualHost = BrokerTestHelper.createVirtualHost("testVH", this);
-        PriorityQueueImpl queue = new PriorityQueueImpl(queueAttributes, virtualHost);
+        _virtualHost = BrokerTestHelper.createVirtualHost("testVH", this);
+        PriorityQueueImpl queue = new PriorityQueueImpl(queueAttributes, _virtualHost);
         queue.open();
         _list = queue.getEntries();
 
@@ -189,4 +193,82 @@ public class PriorityQueueListTest extends UnitTestBase
 
         assertEquals("Unexpected last entry", newEntry, _list.getLeastSignificantOldestEntry());
     }
+
+    @Test
+    public void testGetLeastSignificantNextEntry()
+    {
+        assertEquals("Unexpected next entry", _priority4message2, _list.getLeastSignificantNextEntry(_priority4message1));
+        assertEquals("Unexpected next entry", _priority5message1, _list.getLeastSignificantNextEntry(_priority4message2));
+        assertEquals("Unexpected next entry", _priority5message2, _list.getLeastSignificantNextEntry(_priority5message1));
+        assertNull("Unexpected next entry", _list.getLeastSignificantNextEntry(_priority5message2));
+    }
+
+    @Test
+    public void testOccupancyMaintainedOnAddAndDelete()
+    {
+        final PriorityQueueList.PriorityQueueMasterList masterList = (PriorityQueueList.PriorityQueueMasterList) _list;
+        assertTrue("Priority 4 should be occupied", masterList.isOccupied(4));
+        assertTrue("Priority 5 should be occupied", masterList.isOccupied(5));
+        assertFalse("Priority 3 should not be occupied", masterList.isOccupied(3));
+
+        _priority5message1.acquire();
+        _priority5message1.delete();
+        assertTrue("Priority 5 should still be occupied", masterList.isOccupied(5));
+
+        _priority5message2.acquire();
+        _priority5message2.delete();
+        assertFalse("Priority 5 should no longer be occupied", masterList.isOccupied(5));
+        assertEquals("Unexpected next entry", _priority4message1, _list.next(_list.getHead()));
+
+        final QueueEntry newEntry = _list.add(createMessage((byte) 5), null);
+        assertTrue("Priority 5 should be occupied again", masterList.isOccupied(5));
+        assertEquals("Unexpected next entry", newEntry, _list.next(_list.getHead()));
+    }
+
+    @Test
+    public void testNextAndIteratorSkipEmptyLevelsAcrossOccupancyWords()
+    {
+        Map<String,Object> queueAttributes = new HashMap<>();
+        queueAttributes.put(Queue.ID, UUID.randomUUID());
+        queueAttributes.put(Queue.NAME, getTestName() + "_255");
+        queueAttributes.put(PriorityQueue.PRIORITIES, 255);
+        PriorityQueueImpl queue = new PriorityQueueImpl(queueAttributes, _virtualHost);
+        queue.open();
+        PriorityQueueList list = queue.getEntries();
+
+        // with 255 levels these priorities map to levels 123, 250 and 193, which lie in different occupancy words
+        final QueueEntry lowest = list.add(createMessage((byte) 0), null);
+        final QueueEntry highest = list.add(createMessage((byte) 127), null);
+        final QueueEntry middle = list.add(createMessage((byte) 70), null);
+
+        assertEquals("Unexpected first entry", highest, list.next(list.getHead()));
+        assertEquals("Unexpected entry after highest", middle, list.next(highest));
+        assertEquals("Unexpected entry after middle", lowest, list.next(middle));
+        assertNull("Unexpected entry after lowest", list.next(lowest));
+
+        QueueEntryIterator iterator = list.iterator();
+        assertTrue(iterator.advance());
+        assertEquals("Unexpected first iterated entry", highest, iterator.getNode());
+        assertTrue(iterator.advance());
+        assertEquals("Unexpected second iterated entry", middle, iterator.getNode());
+        assertTrue(iterator.advance());
+        assertEquals("Unexpected third iterated entry", lowest, iterator.getNode());
+        assertFalse(iterator.advance());
+        assertTrue(iterator.atTail());
+    }
+
+    private ServerMessage<?> createMessage(final byte priority)
+    {
+        ServerMessage<?> message = mock(ServerMessage.class);
+        AMQMessageHeader header = mock(AMQMessageHeader.class);
+        @SuppressWarnings({ "rawtypes", "unchecked" })
+        MessageReference<ServerMessage> ref = mock(MessageReference.class);
+
+        when(message.getMessageHeader()).thenReturn(header);
+        when(message.newReference()).thenReturn(ref);
+        when(message.newReference(any(TransactionLogResource.class))).thenReturn(ref);
+        when(ref.getMessage()).thenReturn(message);
+        when(header.getPriority()).thenReturn(priority);
+        return message;
+    }
 }
@@ -21,9 +21,13 @@ package org.apache.qpid.server.queue;
 
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.argThat;
 import static org.mockito.Matchers.same;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -38,6 +42,7 @@ import org.hamcrest.BaseMatcher;
 import org.hamcrest.Description;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
 import org.apache.qpid.server.connection.SessionPrincipal;
 import org.apache.qpid.server.logging.EventLogger;
@@ -47,6 +52,8 @@ import org.apache.qpid.server.logging.messages.QueueMessages;
 import org.apache.qpid.server.model.OverflowPolicy;
 import org.apache.qpid.server.model.Queue;
 import org.apache.qpid.server.session.AMQPSession;
+import org.apache.qpid.server.transport.AMQPConnection;
+import org.apache.qpid.server.util.Action;
 import org.apache.qpid.test.utils.UnitTestBase;
 
 public class ProducerFlowControlOverflowPolicyHandlerTest extends UnitTestBase
@@ -173,6 +180,148 @@ public class ProducerFlowControlOverflowPolicyHandlerTest extends UnitTestBase
         verifyNoMoreInteractions(session);
     }
 
+    @Test
+    public void testCheckOverflowThrottlesSessionAboveThrottleLimit() throws Exception
+    {
+        createThrottlingHandler(50.0, 4);
+        final AMQPSession<?, ?> session = mock(AMQPSession.class);
+        final AMQPConnection<?> connection = mockConnection(session);
+        when(_queue.getMaximumQueueDepthMessages()).thenReturn(10L);
+        when(_queue.getQueueDepthMessages()).thenReturn(5);
+
+        for (int i = 0; i < 3; i++)
+        {
+            checkOverflow(session);
+        }
+        verify(connection, never()).suspendReading(anyLong());
+
+        checkOverflow(session);
+
+        verify(connection, times(1)).suspendReading(anyLong());
+        verify(session).addProducerFlowThrottleTime(anyLong());
+        verify(session, never()).block(_queue);
+        verify(session, never()).unblock(_queue);
+        assertFalse("Flow should not be stopped", _producerFlowControlOverflowPolicyHandler.isQueueFlowStopped());
+        verifyNoMoreInteractions(_eventLogger);
+    }
+
+    @Test
+    public void testThrottleCreditFallsAsQueueDepthApproachesMaximum() throws Exception
+    {
+        createThrottlingHandler(50.0, 4);
+        final AMQPSession<?, ?> session = mock(AMQPSession.class);
+        final AMQPConnection<?> connection = mockConnection(session);
+        when(_queue.getMaximumQueueDepthBytes()).thenReturn(100L);
+        when(_queue.getQueueDepthBytes()).thenReturn(95L);
+
+        checkOverflow(session);
+
+        verify(connection, times(1)).suspendReading(anyLong());
+        verify(session, never()).block(_queue);
+        verifyNoMoreInteractions(_eventLogger);
+    }
+
+    @Test
+    public void testThrottleDoesNotUnblockOverfullSession() throws Exception
+    {
+        createThrottlingHandler(50.0, 1);
+        final AMQPSession<?, ?> session = mock(AMQPSession.class);
+        mockConnection(session);
+        when(_queue.getMaximumQueueDepthMessages()).thenReturn(10L);
+        when(_queue.getQueueDepthMessages()).thenReturn(6);
+
+        checkOverflow(session);
+
+        when(_queue.getQueueDepthMessages()).thenReturn(11);
+        checkOverflow(session);
+
+        verify(session, times(1)).block(_queue);
+        verify(session, never()).unblock(_queue);
+        assertTrue("Flow should be stopped", _producerFlowControlOverflowPolicyHandler.isQueueFlowStopped());
+    }
+
+    @Test
+    public void testThrottleRemovedWhenSessionDeleted() throws Exception
+    {
+        createThrottlingHandler(50.0, 1);
+        final AMQPSession<?, ?> session = mock(AMQPSession.class);
+        mockConnection(session);
+        when(_queue.getMaximumQueueDepthMessages()).thenReturn(10L);
+        when(_queue.getQueueDepthMessages()).thenReturn(6);
+
+        checkOverflow(session);
+
+        final ArgumentCaptor<Action> deleteTask = ArgumentCaptor.forClass(Action.class);
+        verify(session).addDeleteTask(deleteTask.capture());
+
+        deleteTask.getValue().performAction(session);
+        checkOverflow(session);
+
+        verify(session, times(2)).addDeleteTask(any(Action.class));
+    }
+
+    @Test
+    public void testMessagesReadDuringSuspensionChargedToFollowingPeriod() throws Exception
+    {
+        createThrottlingHandler(50.0, 2);
+        final AMQPSession<?, ?> session = mock(AMQPSession.class);
+        final AMQPConnection<?> connection = mockConnection(session);
+        when(_queue.getMaximumQueueDepthMessages()).thenReturn(10L);
+        when(_queue.getQueueDepthMessages()).thenReturn(5);
+
+        checkOverflow(session);
+        checkOverflow(session);
+
+        verify(connection, times(1)).suspendReading(anyLong());
+
+        checkOverflow(session);
+        checkOverflow(session);
+
+        final ArgumentCaptor<Long> suspension = ArgumentCaptor.forClass(Long.class);
+        verify(connection, times(2)).suspendReading(suspension.capture());
+        assertTrue("Suspension not extended into the following period",
+                   suspension.getAllValues().get(1) > suspension.getAllValues().get(0));
+    }
+
+    @Test
+    public void testProducerSharingConnectionWithConsumerNotThrottled() throws Exception
+    {
+        createThrottlingHandler(50.0, 1);
+        final AMQPSession<?, ?> producingSession = mock(AMQPSession.class);
+        final AMQPSession<?, ?> consumingSession = mock(AMQPSession.class);
+        final AMQPConnection<?> connection = mockConnection(producingSession);
+        doReturn(connection).when(consumingSession).getAMQPConnection();
+        when(connection.getSessionCount()).thenReturn(2);
+        when(_queue.getMaximumQueueDepthMessages()).thenReturn(10L);
+        when(_queue.getQueueDepthMessages()).thenReturn(9);
+
+        for (int i = 0; i < 10; i++)
+        {
+            checkOverflow(producingSession);
+        }
+
+        verify(connection, never()).suspendReading(anyLong());
+        verify(producingSession, never()).addProducerFlowThrottleTime(anyLong());
+        verify(producingSession, never()).block(_queue);
+        verifyNoMoreInteractions(consumingSession);
+    }
+
+    private void createThrottlingHandler(final double throttleLimit, final int throttleCredit)
+    {
+        when(_queue.getContextValue(Double.class, Queue.QUEUE_FLOW_THROTTLE_LIMIT)).thenReturn(throttleLimit);
+        when(_queue.getContextValue(Long.class, Queue.QUEUE_FLOW_THROTTLE_PERIOD)).thenReturn(60000L);
+        when(_queue.getContextValue(Integer.class, Queue.QUEUE_FLOW_THROTTLE_CREDIT)).thenReturn(throttleCredit);
+        _producerFlowControlOverflowPolicyHandler = new ProducerFlowControlOverflowPolicyHandler(_queue, _eventLogger);
+    }
+
+    private AMQPConnection<?> mockConnection(final AMQPSession<?, ?> session)
+    {
+        final AMQPConnection<?> connection = mock(AMQPConnection.class);
+        when(connection.getSessionCount()).thenReturn(1);
+        doReturn(connection).when(session).getAMQPConnection();
+        return connection;
+    }
+
     private void checkOverflow(AMQPSession<?, ?> session)
     {
         Subject subject = createSubject(session);
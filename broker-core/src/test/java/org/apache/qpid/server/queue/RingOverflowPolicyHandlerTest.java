@@ -22,12 +22,16 @@ package org.apache.qpid.server.queue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.argThat;
 import static org.mockito.Matchers.same;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import java.util.HashSet;
+import java.util.Set;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -48,6 +52,7 @@ public class RingOverflowPolicyHandlerTest extends UnitTestBase
     private Queue<?> _queue;
     private EventLogger _eventLogger;
     private LogSubject _subject;
+    private Set<QueueEntry> _removableEntries;
 
     @Before
     public void setUp() throws Exception
@@ -63,6 +68,17 @@ public class RingOverflowPolicyHandlerTest extends UnitTestBase
         when(_queue.getQueueDepthMessages()).thenReturn(0);
         when(_queue.getLogSubject()).thenReturn(_subject);
 
+        _removableEntries = new HashSet<>();
+        doAnswer(invocation ->
+                 {
+                     final QueueEntry entry = (QueueEntry) invocation.getArguments()[0];
+                     if (_removableEntries.contains(entry))
+                     {
+                         when(entry.isDeleted()).thenReturn(true);
+                     }
+                     return null;
+                 }).when(_queue).evictEntry(any(QueueEntry.class));
+
         _ringOverflowPolicyHandler = new RingOverflowPolicyHandler(_queue, _eventLogger);
     }
 
@@ -77,7 +93,7 @@ public class RingOverflowPolicyHandlerTest extends UnitTestBase
 
         _ringOverflowPolicyHandler.checkOverflow(null);
 
-        verify(_queue).deleteEntry(lastEntry);
+        verify(_queue).evictEntry(lastEntry);
         LogMessage dropped = QueueMessages.DROPPED(1L, 4, 1, 5,-1);
         verify(_eventLogger).message(same(_subject), argThat(new LogMessageMatcher(dropped)));
         verifyNoMoreInteractions(_eventLogger);
@@ -94,7 +110,7 @@ public class RingOverflowPolicyHandlerTest extends UnitTestBase
 
         _ringOverflowPolicyHandler.checkOverflow(null);
 
-        verify((AbstractQueue<?>) _queue).deleteEntry(lastEntry);
+        verify((AbstractQueue<?>) _queue).evictEntry(lastEntry);
         LogMessage dropped = QueueMessages.DROPPED(1, 4, 5, -1,5);
         verify(_eventLogger).message(same(_subject), argThat(new LogMessageMatcher(dropped)));
         verifyNoMoreInteractions(_eventLogger);
@@ -109,7 +125,7 @@ public class RingOverflowPolicyHandlerTest extends UnitTestBase
 
         _ringOverflowPolicyHandler.checkOverflow(null);
 
-        verify(_queue, never()).deleteEntry(any(QueueEntry.class));
+        verify(_queue, never()).evictEntry(any(QueueEntry.class));
         verifyNoMoreInteractions(_eventLogger);
     }
 
@@ -122,10 +138,100 @@ public class RingOverflowPolicyHandlerTest extends UnitTestBase
 
         _ringOverflowPolicyHandler.checkOverflow(null);
 
-        verify(_queue, never()).deleteEntry(any(QueueEntry.class));
+        verify(_queue, never()).evictEntry(any(QueueEntry.class));
+        verifyNoMoreInteractions(_eventLogger);
+    }
+
+    @Test
+    public void testCheckOverflowEvictsRunOfEntriesSkippingDeleted() throws Exception
+    {
+        QueueEntry first = createLastEntry();
+        QueueEntry deleted = createLastEntry();
+        when(deleted.isDeleted()).thenReturn(true);
+        QueueEntry second = createLastEntry();
+        QueueEntry third = createLastEntry();
+        QueueEntry retained = createLastEntry();
+        when(_queue.getLeastSignificantOldestEntry()).thenReturn(first);
+        when(_queue.getLeastSignificantNextEntry(first)).thenReturn(deleted);
+        when(_queue.getLeastSignificantNextEntry(deleted)).thenReturn(second);
+        when(_queue.getLeastSignificantNextEntry(second)).thenReturn(third);
+        when(_queue.getLeastSignificantNextEntry(third)).thenReturn(retained);
+        when(_queue.getMaximumQueueDepthMessages()).thenReturn(2L);
+        when(_queue.getQueueDepthMessages()).thenReturn(5, 2);
+        when(_queue.getQueueDepthBytes()).thenReturn(50L, 20L);
+
+        _ringOverflowPolicyHandler.checkOverflow(null);
+
+        verify(_queue).evictEntry(first);
+        verify(_queue).evictEntry(second);
+        verify(_queue).evictEntry(third);
+        verify(_queue, never()).evictEntry(deleted);
+        verify(_queue, never()).evictEntry(retained);
+        LogMessage dropped = QueueMessages.DROPPED(3, 20, 2, -1, 2);
+        verify(_eventLogger).message(same(_subject), argThat(new LogMessageMatcher(dropped)));
         verifyNoMoreInteractions(_eventLogger);
     }
 
+    @Test
+    public void testCheckOverflowContinuesPastEntriesNotRemoved() throws Exception
+    {
+        QueueEntry acquired = createLastEntry();
+        _removableEntries.remove(acquired);
+        QueueEntry next = createLastEntry();
+        when(_queue.getLeastSignificantOldestEntry()).thenReturn(acquired);
+        when(_queue.getLeastSignificantNextEntry(acquired)).thenReturn(next);
+        when(_queue.getMaximumQueueDepthMessages()).thenReturn(1L);
+        when(_queue.getQueueDepthMessages()).thenReturn(2, 2, 1);
+        when(_queue.getQueueDepthBytes()).thenReturn(20L, 20L, 10L);
+
+        _ringOverflowPolicyHandler.checkOverflow(null);
+
+        verify(_queue).evictEntry(acquired);
+        verify(_queue).evictEntry(next);
+        LogMessage dropped = QueueMessages.DROPPED(1, 10, 1, -1, 1);
+        verify(_eventLogger).message(same(_subject), argThat(new LogMessageMatcher(dropped)));
+        verifyNoMoreInteractions(_eventLogger);
+    }
+
+    @Test
+    public void testCheckOverflowDoesNotLogWhenNothingDropped() throws Exception
+    {
+        QueueEntry acquired = createLastEntry();
+        _removableEntries.remove(acquired);
+        when(_queue.getLeastSignificantOldestEntry()).thenReturn(acquired);
+        when(_queue.getMaximumQueueDepthMessages()).thenReturn(1L);
+        when(_queue.getQueueDepthMessages()).thenReturn(2);
+        when(_queue.getQueueDepthBytes()).thenReturn(20L);
+
+        _ringOverflowPolicyHandler.checkOverflow(null);
+
+        verify(_queue).evictEntry(acquired);
+        verifyNoMoreInteractions(_eventLogger);
+    }
+
+    @Test
+    public void testCheckOverflowMakesFurtherPassForConcurrentEnqueue() throws Exception
+    {
+        QueueEntry first = createLastEntry();
+        QueueEntry second = createLastEntry();
+        when(_queue.getLeastSignificantOldestEntry()).thenReturn(first, second);
+        when(_queue.getMaximumQueueDepthMessages()).thenReturn(1L);
+        when(_queue.getQueueDepthMessages()).thenReturn(2, 1, 2, 1);
+        when(_queue.getQueueDepthBytes()).thenReturn(20L, 10L, 20L, 10L);
+        // another enqueue checks for overflow whilst the first pass is in progress
+        doAnswer(invocation ->
+                 {
+                     when(first.isDeleted()).thenReturn(true);
+                     _ringOverflowPolicyHandler.checkOverflow(null);
+                     return null;
+                 }).when(_queue).evictEntry(first);
+
+        _ringOverflowPolicyHandler.checkOverflow(null);
+
+        verify(_queue).evictEntry(first);
+        verify(_queue).evictEntry(second);
+    }
+
     private QueueEntry createLastEntry()
     {
         AMQMessageHeader oldestMessageHeader = mock(AMQMessageHeader.class);
@@ -133,6 +239,7 @@ public class RingOverflowPolicyHandlerTest extends UnitTestBase
         when(oldestMessage.getMessageHeader()).thenReturn(oldestMessageHeader);
         QueueEntry oldestEntry = mock(QueueEntry.class);
         when(oldestEntry.getMessage()).thenReturn(oldestMessage);
+        _removableEntries.add(oldestEntry);
         return oldestEntry;
     }
 }
@@ -445,6 +445,22 @@ public class SortedQueueEntryListTest extends QueueEntryListTestBase
         assertEquals("Unexpected last entry", entry1, list.getLeastSignificantOldestEntry());
     }
 
+    @Test
+    public void testGetLeastSignificantNextEntry()
+    {
+        SortedQueueEntryList list = new SortedQueueEntryList(_testQueue, _testQueue.getQueueStatistics());
+
+        SortedQueueEntry entry1 = list.add(generateTestMessage(1, "D"), null);
+        SortedQueueEntry entry2 = list.add(generateTestMessage(2, "B"), null);
+        SortedQueueEntry entry3 = list.add(generateTestMessage(3, "C"), null);
+        SortedQueueEntry entry4 = list.add(generateTestMessage(4, "A"), null);
+
+        assertEquals("Unexpected next entry", entry2, list.getLeastSignificantNextEntry(entry1));
+        assertEquals("Unexpected next entry", entry3, list.getLeastSignificantNextEntry(entry2));
+        assertEquals("Unexpected next entry", entry4, list.getLeastSignificantNextEntry(entry3));
+        assertNull("Unexpected next entry", list.getLeastSignificantNextEntry(entry4));
+    }
+
     private void validateEntry(final SortedQueueEntry entry, final String expectedSortKey, final long expectedMessageId)
     {
         assertEquals("Sorted queue entry value is not as expected",
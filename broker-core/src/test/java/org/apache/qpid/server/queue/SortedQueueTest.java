@@ -20,11 +20,19 @@
  */
 package org.apache.qpid.server.queue;
 
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 import org.junit.Before;
+import org.junit.Test;
 
+import org.apache.qpid.server.model.OverflowPolicy;
 import org.apache.qpid.server.model.Queue;
 public class SortedQueueTest extends AbstractQueueTestBase
 {
@@ -38,4 +46,36 @@ public class SortedQueueTest extends AbstractQueueTestBase
 
         super.setUp();
     }
+
+    @Test
+    public void testRingOverflowEvictsOldestWhenSortOrderDiffersFromArrival()
+    {
+        final Map<String, Object> attributes = new HashMap<>(getArguments());
+        attributes.put(Queue.OVERFLOW_POLICY, OverflowPolicy.RING);
+        final Queue<?> queue = getQueue();
+        queue.setAttributes(attributes);
+
+        final String[] sortKeys = {"E", "D", "C", "B", "A"};
+        for (int i = 0; i < sortKeys.length; i++)
+        {
+            queue.enqueue(createMessage((long) i + 1, (byte) 4, Collections.singletonMap("sortKey", sortKeys[i]), 0L),
+                          null,
+                          null);
+        }
+
+        queue.setAttributes(Collections.singletonMap(Queue.MAXIMUM_QUEUE_DEPTH_MESSAGES, 2));
+
+        assertEquals("Unexpected queue depth", 2, queue.getQueueDepthMessages());
+        final Set<Long> remaining = new HashSet<>();
+        final QueueEntryIterator iterator = ((AbstractQueue<?>) queue).getEntries().iterator();
+        while (iterator.advance())
+        {
+            final QueueEntry entry = iterator.getNode();
+            if (!entry.isDeleted())
+            {
+                remaining.add(entry.getMessage().getMessageNumber());
+            }
+        }
+        assertEquals("Unexpected messages retained", new HashSet<>(Arrays.asList(4L, 5L)), remaining);
+    }
 }
@@ -0,0 +1,164 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.security.auth.manager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.qpid.server.model.AuthenticationProvider;
+import org.apache.qpid.server.model.Broker;
+import org.apache.qpid.server.model.BrokerModel;
+import org.apache.qpid.server.model.BrokerTestHelper;
+import org.apache.qpid.server.model.ConfiguredObject;
+import org.apache.qpid.server.security.auth.AuthenticationResult;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class SimpleLDAPAuthenticationManagerTest extends UnitTestBase
+{
+    private static final String SEARCH_DN = "cn=search,dc=example";
+    private static final String SEARCH_PASSWORD = "searchPassword";
+
+    private final Broker<?> _broker = BrokerTestHelper.createBrokerMock();
+    private final Map<String, String> _context = new HashMap<>();
+    private SimpleLDAPAuthenticationManager<?> _authenticationManager;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        TestInMemoryLdapContextFactory.reset();
+        TestInMemoryLdapContextFactory.addUser("search", SEARCH_DN, SEARCH_PASSWORD);
+        TestInMemoryLdapContextFactory.addUser("user1", "uid=user1,dc=example", "password1");
+        TestInMemoryLdapContextFactory.addUser("user2", "uid=user2,dc=example", "password2");
+
+        _context.put(CachingAuthenticationProvider.AUTHENTICATION_CACHE_MAX_SIZE, "0");
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        if (_authenticationManager != null)
+        {
+            _authenticationManager.close();
+        }
+        TestInMemoryLdapContextFactory.reset();
+    }
+
+    @Test
+    public void testSearchConnectionReusedAcrossAuthentications() throws Exception
+    {
+        _authenticationManager = createAuthenticationManager();
+        final int searchContextsAfterValidation = TestInMemoryLdapContextFactory.getCreatedContextCount(SEARCH_DN);
+
+        assertAuthenticationStatus(AuthenticationResult.AuthenticationStatus.SUCCESS, "user1", "password1");
+        assertAuthenticationStatus(AuthenticationResult.AuthenticationStatus.SUCCESS, "user2", "password2");
+        assertAuthenticationStatus(AuthenticationResult.AuthenticationStatus.SUCCESS, "user1", "password1");
+
+        assertEquals("Unexpected number of search contexts created",
+                     searchContextsAfterValidation + 1,
+                     TestInMemoryLdapContextFactory.getCreatedContextCount(SEARCH_DN));
+        assertEquals("Unexpected number of user contexts created",
+                     2, TestInMemoryLdapContextFactory.getCreatedContextCount("uid=user1,dc=example"));
+        assertEquals("Unexpected number of open connections", 1, _authenticationManager.getLdapConnectionsOpen());
+        assertEquals("Unexpected number of idle connections", 1, _authenticationManager.getLdapConnectionsIdle());
+        assertEquals("Unexpected number of created connections", 4, _authenticationManager.getLdapConnectionsCreated());
+    }
+
+    @Test
+    public void testAuthenticationWithWrongPassword() throws Exception
+    {
+        _authenticationManager = createAuthenticationManager();
+
+        assertAuthenticationStatus(AuthenticationResult.AuthenticationStatus.ERROR, "user1", "password2");
+        assertAuthenticationStatus(AuthenticationResult.AuthenticationStatus.ERROR, "unknown", "password1");
+        assertAuthenticationStatus(AuthenticationResult.AuthenticationStatus.SUCCESS, "user1", "password1");
+
+        assertEquals("Unexpected number of open connections", 1, _authenticationManager.getLdapConnectionsOpen());
+    }
+
+    @Test
+    public void testDroppedPooledConnectionReplaced() throws Exception
+    {
+        _context.put(SimpleLDAPAuthenticationManager.CONNECTION_POOL_VALIDATION_INTERVAL, "-1");
+        _authenticationManager = createAuthenticationManager();
+
+        assertAuthenticationStatus(AuthenticationResult.AuthenticationStatus.SUCCESS, "user1", "password1");
+        final int searchContextsBeforeDrop = TestInMemoryLdapContextFactory.getCreatedContextCount(SEARCH_DN);
+
+        TestInMemoryLdapContextFactory.dropConnections();
+
+        assertAuthenticationStatus(AuthenticationResult.AuthenticationStatus.SUCCESS, "user2", "password2");
+        assertEquals("Unexpected number of search contexts created",
+                     searchContextsBeforeDrop + 1,
+                     TestInMemoryLdapContextFactory.getCreatedContextCount(SEARCH_DN));
+        assertEquals("Unexpected number of failed validations",
+                     1, _authenticationManager.getLdapConnectionValidationFailures());
+        assertEquals("Unexpected number of open connections", 1, _authenticationManager.getLdapConnectionsOpen());
+    }
+
+    @Test
+    public void testAuthenticationLatencyRecorded() throws Exception
+    {
+        _authenticationManager = createAuthenticationManager();
+        TestInMemoryLdapContextFactory.setBindDelay(10L);
+
+        assertAuthenticationStatus(AuthenticationResult.AuthenticationStatus.SUCCESS, "user1", "password1");
+
+        assertTrue("Authentication latency not recorded", _authenticationManager.getAuthentication99thPercentile() > 0);
+    }
+
+    private void assertAuthenticationStatus(final AuthenticationResult.AuthenticationStatus expectedStatus,
+                                            final String username,
+                                            final String password)
+    {
+        final AuthenticationResult result = _authenticationManager.authenticate(username, password);
+        assertEquals("Unexpected authentication status for " + username, expectedStatus, result.getStatus());
+    }
+
+    private SimpleLDAPAuthenticationManager<?> createAuthenticationManager()
+    {
+        final Map<String, Object> attributes = new HashMap<>();
+        attributes.put(AuthenticationProvider.ID, UUID.randomUUID());
+        attributes.put(AuthenticationProvider.NAME, getTestName());
+        attributes.put(AuthenticationProvider.TYPE, SimpleLDAPAuthenticationManager.PROVIDER_TYPE);
+        attributes.put(SimpleLDAPAuthenticationManager.PROVIDER_URL, "ldap://example.com:389/");
+        attributes.put(SimpleLDAPAuthenticationManager.SEARCH_CONTEXT, "dc=example");
+        attributes.put("searchFilter", "(uid={0})");
+        attributes.put(SimpleLDAPAuthenticationManager.SEARCH_USERNAME, SEARCH_DN);
+        attributes.put(SimpleLDAPAuthenticationManager.SEARCH_PASSWORD, SEARCH_PASSWORD);
+        attributes.put(SimpleLDAPAuthenticationManager.LDAP_CONTEXT_FACTORY,
+                       TestInMemoryLdapContextFactory.class.getName());
+        attributes.put(ConfiguredObject.CONTEXT, _context);
+
+        return (SimpleLDAPAuthenticationManager<?>) BrokerModel.getInstance()
+                                                               .getObjectFactory()
+                                                               .create(AuthenticationProvider.class,
+                                                                       attributes,
+                                                                       _broker);
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.security.auth.manager;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Hashtable;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.naming.AuthenticationException;
+import javax.naming.CommunicationException;
+import javax.naming.Context;
+import javax.naming.InterruptedNamingException;
+import javax.naming.NamingEnumeration;
+import javax.naming.NamingException;
+import javax.naming.directory.BasicAttributes;
+import javax.naming.directory.DirContext;
+import javax.naming.directory.SearchControls;
+import javax.naming.directory.SearchResult;
+import javax.naming.spi.InitialContextFactory;
+
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+/**
+ * Stands in for a Directory holding a set of users, each with a DN and a password.  Binds with the wrong password
+ * are refused, searches with a filter argument of a user id find the DN of that user, and the number of contexts
+ * created for each principal is counted.
+ */
+public class TestInMemoryLdapContextFactory implements InitialContextFactory
+{
+    private static final Map<String, String> USER_DNS = new ConcurrentHashMap<>();
+    private static final Map<String, String> PASSWORDS = new ConcurrentHashMap<>();
+    private static final Map<String, AtomicInteger> CREATED_CONTEXTS = new ConcurrentHashMap<>();
+    private static final AtomicInteger CONNECTION_GENERATION = new AtomicInteger();
+    private static volatile int _firstLiveGeneration;
+    private static volatile long _bindDelay;
+
+    public static void reset()
+    {
+        USER_DNS.clear();
+        PASSWORDS.clear();
+        CREATED_CONTEXTS.clear();
+        _firstLiveGeneration = CONNECTION_GENERATION.get();
+        _bindDelay = 0L;
+    }
+
+    public static void addUser(final String id, final String dn, final String password)
+    {
+        USER_DNS.put(id, dn);
+        PASSWORDS.put(dn, password);
+    }
+
+    public static int getCreatedContextCount(final String principal)
+    {
+        final AtomicInteger count = CREATED_CONTEXTS.get(principal);
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * Simulates a Directory taking the given number of milliseconds to answer each bind.
+     */
+    public static void setBindDelay(final long bindDelay)
+    {
+        _bindDelay = bindDelay;
+    }
+
+    /**
+     * Simulates the Directory dropping the connections of all the contexts created so far.
+     */
+    public static void dropConnections()
+    {
+        _firstLiveGeneration = CONNECTION_GENERATION.incrementAndGet();
+    }
+
+    @Override
+    public Context getInitialContext(final Hashtable<?, ?> environment) throws NamingException
+    {
+        final String principal = String.valueOf(environment.get(Context.SECURITY_PRINCIPAL));
+        if (_bindDelay > 0L)
+        {
+            try
+            {
+                Thread.sleep(_bindDelay);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new InterruptedNamingException("Interrupted whilst binding");
+            }
+        }
+        if (PASSWORDS.containsKey(principal)
+            && !PASSWORDS.get(principal).equals(environment.get(Context.SECURITY_CREDENTIALS)))
+        {
+            throw new AuthenticationException("Invalid credentials for " + principal);
+        }
+        CREATED_CONTEXTS.computeIfAbsent(principal, p -> new AtomicInteger()).incrementAndGet();
+
+        final int generation = CONNECTION_GENERATION.get();
+        final DirContext context = mock(DirContext.class);
+        when(context.getAttributes(eq(""), any(String[].class))).thenAnswer(new Answer<Object>()
+        {
+            @Override
+            public Object answer(final InvocationOnMock invocation) throws Throwable
+            {
+                if (generation < _firstLiveGeneration)
+                {
+                    throw new CommunicationException("Directory unreachable");
+                }
+                return new BasicAttributes();
+            }
+        });
+        when(context.search(anyString(), anyString(), any(Object[].class), any(SearchControls.class))).thenAnswer(
+                new Answer<Object>()
+                {
+                    @Override
+                    public Object answer(final InvocationOnMock invocation) throws Throwable
+                    {
+                        if (generation < _firstLiveGeneration)
+                        {
+                            throw new CommunicationException("Directory unreachable");
+                        }
+                        final Object[] filterArgs = (Object[]) invocation.getArguments()[2];
+                        final List<SearchResult> results = new ArrayList<>();
+                        final String dn = USER_DNS.get(String.valueOf(filterArgs[0]));
+                        if (dn != null)
+                        {
+                            final SearchResult result = new SearchResult(dn, null, new BasicAttributes());
+                            result.setNameInNamespace(dn);
+                            results.add(result);
+                        }
+                        return new IteratorNamingEnumeration<>(results.iterator());
+                    }
+                });
+        return context;
+    }
+
+    private static class IteratorNamingEnumeration<T> implements NamingEnumeration<T>
+    {
+        private final Iterator<T> _iterator;
+
+        private IteratorNamingEnumeration(final Iterator<T> iterator)
+        {
+            _iterator = iterator;
+        }
+
+        @Override
+        public T next()
+        {
+            if (!_iterator.hasNext())
+            {
+                throw new NoSuchElementException();
+            }
+            return _iterator.next();
+        }
+
+        @Override
+        public boolean hasMore()
+        {
+            return _iterator.hasNext();
+        }
+
+        @Override
+        public void close()
+        {
+        }
+
+        @Override
+        public boolean hasMoreElements()
+        {
+            return hasMore();
+        }
+
+        @Override
+        public T nextElement()
+        {
+            return next();
+        }
+    }
+}
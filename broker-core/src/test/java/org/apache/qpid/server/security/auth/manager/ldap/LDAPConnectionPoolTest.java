@@ -0,0 +1,112 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.security.auth.manager.ldap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import javax.naming.ServiceUnavailableException;
+import javax.naming.directory.DirContext;
+
+import org.junit.Test;
+
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class LDAPConnectionPoolTest extends UnitTestBase
+{
+    @Test
+    public void testBorrowReusesReturnedContext() throws Exception
+    {
+        final LDAPConnectionPool pool = new LDAPConnectionPool(() -> mock(DirContext.class), 2, 10, 60000, 60000);
+
+        final DirContext context = pool.borrowContext();
+        pool.returnContext(context);
+
+        assertSame("Returned context not reused", context, pool.borrowContext());
+        assertEquals("Unexpected number of created contexts", 1, pool.getCreatedContextCount());
+    }
+
+    @Test
+    public void testBorrowTimesOutWhenMaximumInUse() throws Exception
+    {
+        final LDAPConnectionPool pool = new LDAPConnectionPool(() -> mock(DirContext.class), 2, 10, 60000, 60000);
+
+        final DirContext pooled = pool.borrowContext();
+        final DirContext unpooled = pool.openUnpooledContext(() -> mock(DirContext.class));
+        try
+        {
+            pool.borrowContext();
+            fail("Exception not thrown");
+        }
+        catch (ServiceUnavailableException e)
+        {
+            // PASS
+        }
+
+        pool.closeUnpooledContext(unpooled);
+        verify(unpooled).close();
+        assertNotSame("Context in use was borrowed again", pooled, pool.borrowContext());
+        assertEquals("Unexpected number of open contexts", 2, pool.getOpenContextCount());
+    }
+
+    @Test
+    public void testClearClosesContexts() throws Exception
+    {
+        final LDAPConnectionPool pool = new LDAPConnectionPool(() -> mock(DirContext.class), 2, 10, 60000, 60000);
+
+        final DirContext idle = pool.borrowContext();
+        final DirContext inUse = pool.borrowContext();
+        pool.returnContext(idle);
+
+        pool.clear();
+        verify(idle).close();
+
+        pool.returnContext(inUse);
+        verify(inUse).close();
+        assertEquals("Unexpected number of open contexts", 0, pool.getOpenContextCount());
+        assertEquals("Unexpected number of idle contexts", 0, pool.getIdleContextCount());
+    }
+
+    @Test
+    public void testEvictIdleContextsClosesExpiredContexts() throws Exception
+    {
+        final LDAPConnectionPool pool = new LDAPConnectionPool(() -> mock(DirContext.class), 2, 10, 50, 60000);
+
+        final DirContext expired = pool.borrowContext();
+        final DirContext recent = pool.borrowContext();
+        pool.returnContext(expired);
+        Thread.sleep(100);
+        pool.returnContext(recent);
+
+        pool.evictIdleContexts();
+
+        verify(expired).close();
+        verify(recent, never()).close();
+        assertEquals("Unexpected number of idle contexts", 1, pool.getIdleContextCount());
+        assertEquals("Unexpected number of open contexts", 1, pool.getOpenContextCount());
+        assertSame("Recently used context not reused", recent, pool.borrowContext());
+    }
+}
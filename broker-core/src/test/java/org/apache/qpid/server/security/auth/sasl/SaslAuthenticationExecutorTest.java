@@ -0,0 +1,171 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.security.auth.sasl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.qpid.server.security.SubjectCreator;
+import org.apache.qpid.server.security.auth.AuthenticationResult;
+import org.apache.qpid.server.security.auth.SubjectAuthenticationResult;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class SaslAuthenticationExecutorTest extends UnitTestBase
+{
+    private static final byte[] RESPONSE = "response".getBytes();
+
+    private SaslAuthenticationExecutor _executor;
+    private SubjectCreator _subjectCreator;
+    private SaslNegotiator _saslNegotiator;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        _executor = new SaslAuthenticationExecutor(getTestName(), 1, 1, 1L);
+        _subjectCreator = mock(SubjectCreator.class);
+        _saslNegotiator = mock(SaslNegotiator.class);
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        _executor.shutdown();
+    }
+
+    @Test
+    public void testAuthenticate() throws Exception
+    {
+        final SubjectAuthenticationResult result = new SubjectAuthenticationResult(new AuthenticationResult(
+                AuthenticationResult.AuthenticationStatus.CONTINUE));
+        when(_subjectCreator.authenticate(_saslNegotiator, RESPONSE)).thenReturn(result);
+
+        final ListenableFuture<SubjectAuthenticationResult> future =
+                _executor.authenticate(_subjectCreator, _saslNegotiator, RESPONSE);
+
+        assertSame("Unexpected result", result, future.get(10, TimeUnit.SECONDS));
+        assertEquals("Unexpected number of authentications in progress", 0, _executor.getAuthenticationsInProgress());
+        assertTrue("Unexpected latency", _executor.getAuthenticationLatencyAtPercentile(100.0) >= 0);
+    }
+
+    @Test
+    public void testAuthenticationRejectedWhenTooManyQueued() throws Exception
+    {
+        final CountDownLatch evaluationStarted = new CountDownLatch(1);
+        final CountDownLatch evaluationAllowed = new CountDownLatch(1);
+        final SubjectAuthenticationResult result = new SubjectAuthenticationResult(new AuthenticationResult(
+                AuthenticationResult.AuthenticationStatus.CONTINUE));
+        when(_subjectCreator.authenticate(eq(_saslNegotiator), any(byte[].class))).thenAnswer(invocation ->
+        {
+            evaluationStarted.countDown();
+            evaluationAllowed.await(10, TimeUnit.SECONDS);
+            return result;
+        });
+
+        final ListenableFuture<SubjectAuthenticationResult> inProgress =
+                _executor.authenticate(_subjectCreator, _saslNegotiator, RESPONSE);
+        assertTrue("Evaluation not started", evaluationStarted.await(10, TimeUnit.SECONDS));
+        final ListenableFuture<SubjectAuthenticationResult> queued =
+                _executor.authenticate(_subjectCreator, _saslNegotiator, RESPONSE);
+        final ListenableFuture<SubjectAuthenticationResult> rejected =
+                _executor.authenticate(_subjectCreator, _saslNegotiator, RESPONSE);
+
+        assertEquals("Unexpected number of authentications in progress", 1, _executor.getAuthenticationsInProgress());
+        assertEquals("Unexpected number of queued authentications", 1, _executor.getQueuedAuthentications());
+        assertEquals("Unexpected rejected authentication status",
+                     AuthenticationResult.AuthenticationStatus.ERROR,
+                     rejected.get(10, TimeUnit.SECONDS).getStatus());
+        assertEquals("Unexpected number of rejected authentications", 1, _executor.getRejectedAuthenticationCount());
+
+        evaluationAllowed.countDown();
+
+        assertSame("Unexpected in progress result", result, inProgress.get(10, TimeUnit.SECONDS));
+        assertSame("Unexpected queued result", result, queued.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testAuthenticationFailure() throws Exception
+    {
+        final RuntimeException failure = new RuntimeException("Test");
+        when(_subjectCreator.authenticate(_saslNegotiator, RESPONSE)).thenThrow(failure);
+
+        final ListenableFuture<SubjectAuthenticationResult> future =
+                _executor.authenticate(_subjectCreator, _saslNegotiator, RESPONSE);
+
+        try
+        {
+            future.get(10, TimeUnit.SECONDS);
+            fail("Exception not thrown");
+        }
+        catch (ExecutionException e)
+        {
+            assertSame("Unexpected cause", failure, e.getCause());
+        }
+    }
+
+    @Test
+    public void testCancelledAuthenticationDisposesNegotiatorOnceEvaluated() throws Exception
+    {
+        final CountDownLatch evaluationStarted = new CountDownLatch(1);
+        final CountDownLatch evaluationAllowed = new CountDownLatch(1);
+        final SaslNegotiator queuedNegotiator = mock(SaslNegotiator.class);
+        when(_subjectCreator.authenticate(eq(_saslNegotiator), any(byte[].class))).thenAnswer(invocation ->
+        {
+            evaluationStarted.countDown();
+            evaluationAllowed.await(10, TimeUnit.SECONDS);
+            return new SubjectAuthenticationResult(new AuthenticationResult(
+                    AuthenticationResult.AuthenticationStatus.CONTINUE));
+        });
+
+        final ListenableFuture<SubjectAuthenticationResult> inProgress =
+                _executor.authenticate(_subjectCreator, _saslNegotiator, RESPONSE);
+        assertTrue("Evaluation not started", evaluationStarted.await(10, TimeUnit.SECONDS));
+        final ListenableFuture<SubjectAuthenticationResult> queued =
+                _executor.authenticate(_subjectCreator, queuedNegotiator, RESPONSE);
+
+        assertTrue("In progress authentication not cancelled", inProgress.cancel(false));
+        assertTrue("Queued authentication not cancelled", queued.cancel(false));
+        verify(_saslNegotiator, never()).dispose();
+
+        evaluationAllowed.countDown();
+
+        verify(_saslNegotiator, timeout(10000)).dispose();
+        verify(queuedNegotiator, timeout(10000)).dispose();
+        verify(_subjectCreator, never()).authenticate(eq(queuedNegotiator), any(byte[].class));
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.stats;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class LatencyHistogramTest extends UnitTestBase
+{
+    @Test
+    public void testEmptyHistogram()
+    {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals("Unexpected count", 0, histogram.getCount());
+        assertEquals("Unexpected percentile", 0, histogram.getValueAtPercentile(99.0));
+    }
+
+    @Test
+    public void testSmallValuesAreExact()
+    {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 4; i++)
+        {
+            histogram.record(i);
+        }
+
+        assertEquals("Unexpected count", 4, histogram.getCount());
+        assertEquals("Unexpected median", 2, histogram.getValueAtPercentile(50.0));
+        assertEquals("Unexpected maximum", 4, histogram.getValueAtPercentile(100.0));
+    }
+
+    @Test
+    public void testPercentilesWithinRelativeError()
+    {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100000; i++)
+        {
+            histogram.record(i * 1000L);
+        }
+
+        assertWithinError(50000000L, histogram.getValueAtPercentile(50.0));
+        assertWithinError(99000000L, histogram.getValueAtPercentile(99.0));
+        assertEquals("Unexpected maximum", 100000000L, histogram.getValueAtPercentile(100.0));
+        assertEquals("Unexpected maximum", 100000000L, histogram.getMaximum());
+    }
+
+    @Test
+    public void testBucketBoundaries()
+    {
+        long previousHighest = -1;
+        for (int i = 0; i < 200; i++)
+        {
+            final long lowest = LatencyHistogram.lowestValue(i);
+            assertEquals("Buckets are not contiguous at " + i, previousHighest + 1, lowest);
+            assertEquals("Unexpected bucket for lowest value of " + i, i, LatencyHistogram.bucketIndex(lowest));
+            previousHighest = LatencyHistogram.highestValue(i);
+            assertEquals("Unexpected bucket for highest value of " + i, i, LatencyHistogram.bucketIndex(previousHighest));
+        }
+        LatencyHistogram.bucketIndex(Long.MAX_VALUE);
+    }
+
+    @Test
+    public void testReset()
+    {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(10);
+        histogram.record(-5);
+        histogram.reset();
+
+        assertEquals("Unexpected count", 0, histogram.getCount());
+        assertEquals("Unexpected maximum", 0, histogram.getMaximum());
+    }
+
+    private void assertWithinError(final long expected, final long actual)
+    {
+        assertTrue(String.format("Value %d is not within 12.5%% of %d", actual, expected),
+                   Math.abs(actual - expected) <= expected / 8);
+    }
+}
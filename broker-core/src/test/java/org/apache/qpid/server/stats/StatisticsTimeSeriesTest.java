@@ -0,0 +1,130 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.stats;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.qpid.server.model.ConfiguredObject;
+import org.apache.qpid.server.model.ConfiguredObjectStatistic;
+import org.apache.qpid.server.model.StatisticType;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class StatisticsTimeSeriesTest extends UnitTestBase
+{
+    private static final String DEPTH = "depth";
+    private static final String TOTAL = "total";
+
+    private final AtomicLong _depth = new AtomicLong();
+    private final AtomicLong _total = new AtomicLong();
+    private ConfiguredObject<?> _object;
+    private List<ConfiguredObjectStatistic<?, ?>> _statistics;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        _object = mock(ConfiguredObject.class);
+        _statistics = Arrays.asList(createStatistic(DEPTH, StatisticType.POINT_IN_TIME, _depth),
+                                    createStatistic(TOTAL, StatisticType.CUMULATIVE, _total));
+    }
+
+    @Test
+    public void testHistoryWithinRange()
+    {
+        final StatisticsTimeSeries timeSeries = new StatisticsTimeSeries(_statistics, 1000L, 10, 1, 10);
+        for (int i = 0; i < 5; i++)
+        {
+            _depth.set(i);
+            _total.set(i * 10L);
+            timeSeries.sample(_object, 1000L * i);
+        }
+
+        final Map<String, Object> history = timeSeries.getHistory(Collections.<String>emptyList(), 1000L, 3000L);
+
+        assertEquals("Unexpected interval", 1000L, history.get(StatisticsTimeSeries.INTERVAL));
+        assertEquals("Unexpected timestamps",
+                     Arrays.asList(1000L, 2000L, 3000L),
+                     history.get(StatisticsTimeSeries.TIMESTAMPS));
+        final Map<?, ?> values = (Map<?, ?>) history.get(StatisticsTimeSeries.VALUES);
+        assertEquals("Unexpected depths", Arrays.asList(1L, 2L, 3L), values.get(DEPTH));
+        assertEquals("Unexpected totals", Arrays.asList(10L, 20L, 30L), values.get(TOTAL));
+        final Map<?, ?> rates = (Map<?, ?>) history.get(StatisticsTimeSeries.RATES);
+        assertFalse("Point in time statistic should not have a rate", rates.containsKey(DEPTH));
+        assertEquals("Unexpected rates", Arrays.asList(10d, 10d, 10d), rates.get(TOTAL));
+    }
+
+    @Test
+    public void testDownsampledHistory()
+    {
+        final StatisticsTimeSeries timeSeries = new StatisticsTimeSeries(_statistics, 1000L, 4, 2, 2);
+        for (int i = 0; i < 8; i++)
+        {
+            _depth.set(i);
+            _total.set(i * 10L);
+            timeSeries.sample(_object, 1000L * i);
+        }
+
+        final Map<String, Object> recentHistory = timeSeries.getHistory(Collections.singletonList(DEPTH), null, null);
+        assertEquals("Unexpected interval", 1000L, recentHistory.get(StatisticsTimeSeries.INTERVAL));
+        assertEquals("Unexpected timestamps",
+                     Arrays.asList(4000L, 5000L, 6000L, 7000L),
+                     recentHistory.get(StatisticsTimeSeries.TIMESTAMPS));
+        assertFalse("Unselected statistic returned",
+                    ((Map<?, ?>) recentHistory.get(StatisticsTimeSeries.VALUES)).containsKey(TOTAL));
+
+        final Map<String, Object> history = timeSeries.getHistory(Collections.<String>emptyList(), 0L, null);
+        assertEquals("Unexpected interval", 2000L, history.get(StatisticsTimeSeries.INTERVAL));
+        assertEquals("Unexpected timestamps",
+                     Arrays.asList(1000L, 3000L, 5000L, 7000L),
+                     history.get(StatisticsTimeSeries.TIMESTAMPS));
+        final Map<?, ?> values = (Map<?, ?>) history.get(StatisticsTimeSeries.VALUES);
+        assertEquals("Point in time statistic should be averaged", Arrays.asList(1L, 3L, 5L, 7L), values.get(DEPTH));
+        assertEquals("Cumulative statistic should keep last value", Arrays.asList(10L, 30L, 50L, 70L), values.get(TOTAL));
+        assertEquals("Unexpected rates",
+                     Arrays.asList(null, 10d, 10d, 10d),
+                     ((Map<?, ?>) history.get(StatisticsTimeSeries.RATES)).get(TOTAL));
+    }
+
+    @SuppressWarnings("unchecked")
+    private ConfiguredObjectStatistic<?, ?> createStatistic(final String name,
+                                                          final StatisticType statisticType,
+                                                          final AtomicLong value)
+    {
+        final ConfiguredObjectStatistic statistic = mock(ConfiguredObjectStatistic.class);
+        when(statistic.getName()).thenReturn(name);
+        when(statistic.getStatisticType()).thenReturn(statisticType);
+        when(statistic.getType()).thenReturn(Long.class);
+        when(statistic.getValue(any(ConfiguredObject.class))).thenAnswer(invocation -> value.get());
+        return statistic;
+    }
+}
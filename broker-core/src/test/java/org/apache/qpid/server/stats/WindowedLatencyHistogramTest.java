@@ -0,0 +1,110 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.stats;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class WindowedLatencyHistogramTest extends UnitTestBase
+{
+    private static final long PERIOD = 1000L;
+
+    private final AtomicLong _time = new AtomicLong();
+    private final WindowedLatencyHistogram _histogram = new WindowedLatencyHistogram(PERIOD, _time::get);
+
+    @Test
+    public void testValuesOfPreviousPeriodRetained()
+    {
+        _histogram.record(100);
+        _time.addAndGet(PERIOD);
+        _histogram.record(2);
+
+        assertEquals("Unexpected count", 2, _histogram.getCount());
+        assertEquals("Unexpected median", 2, _histogram.getValueAtPercentile(50.0));
+        assertEquals("Unexpected maximum", 100, _histogram.getValueAtPercentile(100.0));
+    }
+
+    @Test
+    public void testValuesOlderThanPreviousPeriodDiscarded()
+    {
+        _histogram.record(100);
+        _time.addAndGet(PERIOD);
+        _histogram.record(2);
+        _time.addAndGet(PERIOD);
+
+        assertEquals("Unexpected count", 1, _histogram.getCount());
+        assertEquals("Unexpected maximum", 2, _histogram.getValueAtPercentile(100.0));
+
+        _time.addAndGet(PERIOD);
+
+        assertEquals("Unexpected count", 0, _histogram.getCount());
+        assertEquals("Unexpected maximum", 0, _histogram.getValueAtPercentile(100.0));
+    }
+
+    @Test
+    public void testNothingRecorded()
+    {
+        assertEquals("Unexpected count", 0, _histogram.getCount());
+        assertEquals("Unexpected median", 0, _histogram.getValueAtPercentile(50.0));
+
+        _time.addAndGet(PERIOD);
+
+        assertEquals("Unexpected count", 0, _histogram.getCount());
+        assertEquals("Unexpected median", 0, _histogram.getValueAtPercentile(50.0));
+        try
+        {
+            _histogram.getValueAtPercentile(101.0);
+            fail("Exception not thrown");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // pass
+        }
+    }
+
+    @Test
+    public void testValuesRecordedAfterIdlePeriod()
+    {
+        _time.addAndGet(PERIOD);
+        _histogram.record(7);
+        _time.addAndGet(PERIOD);
+
+        assertEquals("Unexpected count", 1, _histogram.getCount());
+        assertEquals("Unexpected maximum", 7, _histogram.getValueAtPercentile(100.0));
+    }
+
+    @Test
+    public void testIdlePeriodsDiscardAllValues()
+    {
+        _histogram.record(100);
+        _time.addAndGet(5 * PERIOD + 1);
+        _histogram.record(3);
+
+        assertEquals("Unexpected count", 1, _histogram.getCount());
+        assertEquals("Unexpected maximum", 3, _histogram.getValueAtPercentile(100.0));
+    }
+}
@@ -0,0 +1,518 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.store.serializer.v2;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.message.EnqueueableMessage;
+import org.apache.qpid.server.store.MemoryMessageStore;
+import org.apache.qpid.server.store.MessageDurability;
+import org.apache.qpid.server.store.MessageEnqueueRecord;
+import org.apache.qpid.server.store.MessageHandle;
+import org.apache.qpid.server.store.MessageStore;
+import org.apache.qpid.server.store.StoredMessage;
+import org.apache.qpid.server.store.TestMessageMetaData;
+import org.apache.qpid.server.store.TestRecord;
+import org.apache.qpid.server.store.Transaction;
+import org.apache.qpid.server.store.TransactionLogResource;
+import org.apache.qpid.server.store.handler.DistributedTransactionHandler;
+import org.apache.qpid.server.store.handler.MessageHandler;
+import org.apache.qpid.server.store.handler.MessageInstanceHandler;
+import org.apache.qpid.server.store.serializer.MessageStoreSerializer;
+import org.apache.qpid.test.utils.TestFileUtils;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class MessageStoreSerializer_v2Test extends UnitTestBase
+{
+    private static final int NUMBER_OF_MESSAGES = 2500;
+
+    private final UUID _sourceQueueId = UUID.randomUUID();
+    private final UUID _targetQueueId = UUID.randomUUID();
+    private MessageStore _sourceStore;
+    private MessageStore _targetStore;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        setTestSystemProperty(MessageStoreSerializer_v2.WORKER_THREADS_PROPERTY, "3");
+        _sourceStore = new MemoryMessageStore();
+        _sourceStore.openMessageStore(null);
+        _targetStore = new MemoryMessageStore();
+        _targetStore.openMessageStore(null);
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        _sourceStore.closeMessageStore();
+        _targetStore.closeMessageStore();
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception
+    {
+        populateSourceStore();
+        final byte[] exported = export();
+
+        final DataInputStream input = new DataInputStream(new ByteArrayInputStream(exported));
+        final MessageStoreSerializer serializer = MessageStoreSerializer.FACTORY.newInstance(input);
+        assertEquals("Unexpected serializer", MessageStoreSerializer_v2.VERSION, serializer.getType());
+        serializer.deserialize(targetQueueMap(), _targetStore, input);
+
+        final Map<Long, String> importedContent = new HashMap<>();
+        final MessageStore.MessageStoreReader reader = _targetStore.newMessageStoreReader();
+        reader.visitMessages(new MessageHandler()
+        {
+            @Override
+            public boolean handle(final StoredMessage<?> storedMessage)
+            {
+                try (QpidByteBuffer content = storedMessage.getContent(0, storedMessage.getContentSize()))
+                {
+                    final byte[] bytes = new byte[content.remaining()];
+                    content.get(bytes);
+                    importedContent.put(storedMessage.getMessageNumber(), new String(bytes, StandardCharsets.UTF_8));
+                }
+                return true;
+            }
+        });
+        assertEquals("Unexpected number of messages", NUMBER_OF_MESSAGES, importedContent.size());
+
+        final List<String> enqueuedContent = new ArrayList<>();
+        reader.visitMessageInstances(new MessageInstanceHandler()
+        {
+            @Override
+            public boolean handle(final MessageEnqueueRecord record)
+            {
+                assertEquals("Unexpected queue", _targetQueueId, record.getQueueId());
+                enqueuedContent.add(importedContent.get(record.getMessageNumber()));
+                return true;
+            }
+        });
+        assertEquals("Unexpected number of message instances", NUMBER_OF_MESSAGES / 2, enqueuedContent.size());
+        assertTrue("Unexpected enqueued content", enqueuedContent.contains("content-" + (NUMBER_OF_MESSAGES - 2)));
+
+        final List<String> transactionContent = new ArrayList<>();
+        reader.visitDistributedTransactions(new DistributedTransactionHandler()
+        {
+            @Override
+            public boolean handle(final Transaction.StoredXidRecord storedXid,
+                                  final Transaction.EnqueueRecord[] enqueues,
+                                  final Transaction.DequeueRecord[] dequeues)
+            {
+                assertArrayEquals("Unexpected global id", new byte[]{1}, storedXid.getGlobalId());
+                assertEquals("Unexpected enqueue queue", _targetQueueId, enqueues[0].getResource().getId());
+                transactionContent.add(importedContent.get(enqueues[0].getMessage().getMessageNumber()));
+                transactionContent.add(importedContent.get(dequeues[0].getEnqueueRecord().getMessageNumber()));
+                return true;
+            }
+        });
+        assertEquals("Unexpected transaction content", 2, transactionContent.size());
+        assertEquals("Unexpected enqueue content", "content-1", transactionContent.get(0));
+        assertEquals("Unexpected dequeue content", "content-0", transactionContent.get(1));
+    }
+
+    @Test
+    public void testCorruptSegmentRejected() throws Exception
+    {
+        for (int i = 0; i < 10; i++)
+        {
+            addMessage(_sourceStore, i, "content-" + i);
+        }
+        final byte[] exported = export();
+        exported[exported.length / 2] ^= 0xff;
+
+        try
+        {
+            new MessageStoreSerializer_v2().deserialize(targetQueueMap(),
+                                                        _targetStore,
+                                                        new ByteArrayInputStream(exported));
+            fail("Exception not thrown");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // pass
+        }
+    }
+
+    @Test
+    public void testTruncatedImportRejected() throws Exception
+    {
+        addMessage(_sourceStore, 0, "content");
+        final byte[] exported = export();
+        final byte[] truncated = new byte[exported.length - 1];
+        System.arraycopy(exported, 0, truncated, 0, truncated.length);
+
+        try
+        {
+            new MessageStoreSerializer_v2().deserialize(targetQueueMap(),
+                                                        _targetStore,
+                                                        new ByteArrayInputStream(truncated));
+            fail("Exception not thrown");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // pass
+        }
+    }
+
+    @Test
+    public void testLargeMessageRoundTrip() throws Exception
+    {
+        final byte[] largeContent = new byte[5 * 1024 * 1024 / 2];
+        for (int i = 0; i < largeContent.length; i++)
+        {
+            largeContent[i] = (byte) i;
+        }
+        final StoredMessage<?> largeMessage = addMessage(_sourceStore, 0, largeContent);
+        final StoredMessage<?> smallMessage = addMessage(_sourceStore, 1, "content".getBytes(StandardCharsets.UTF_8));
+        final Transaction txn = _sourceStore.newTransaction();
+        txn.enqueueMessage(new TestQueue(_sourceQueueId), new TestMessage(largeMessage));
+        txn.enqueueMessage(new TestQueue(_sourceQueueId), new TestMessage(smallMessage));
+        txn.commitTran();
+
+        new MessageStoreSerializer_v2().deserialize(targetQueueMap(),
+                                                    _targetStore,
+                                                    new ByteArrayInputStream(export()));
+
+        final List<byte[]> importedContent = new ArrayList<>();
+        _targetStore.newMessageStoreReader().visitMessages(new MessageHandler()
+        {
+            @Override
+            public boolean handle(final StoredMessage<?> storedMessage)
+            {
+                try (QpidByteBuffer content = storedMessage.getContent(0, storedMessage.getContentSize()))
+                {
+                    final byte[] bytes = new byte[content.remaining()];
+                    content.get(bytes);
+                    importedContent.add(bytes);
+                }
+                return true;
+            }
+        });
+        assertEquals("Unexpected number of messages", 2, importedContent.size());
+        final byte[] importedLargeContent = importedContent.get(0).length > importedContent.get(1).length
+                ? importedContent.get(0)
+                : importedContent.get(1);
+        assertArrayEquals("Unexpected large message content", largeContent, importedLargeContent);
+    }
+
+    @Test
+    public void testResumeAfterFailedImport() throws Exception
+    {
+        populateSourceStore();
+        final byte[] exported = export();
+
+        // interrupt the upload within the messages, within the message instances and before the end
+        for (int length : new int[]{exported.length / 3, exported.length - 200, exported.length - 1})
+        {
+            _targetStore.closeMessageStore();
+            _targetStore = new MemoryMessageStore();
+            _targetStore.openMessageStore(null);
+            final File checkpointFile = TestFileUtils.createTempFile(this);
+            try
+            {
+                try
+                {
+                    new MessageStoreSerializer_v2().deserialize(targetQueueMap(),
+                                                                _targetStore,
+                                                                new ByteArrayInputStream(exported, 0, length),
+                                                                checkpointFile);
+                    fail("Exception not thrown");
+                }
+                catch (IllegalArgumentException e)
+                {
+                    // pass
+                }
+
+                new MessageStoreSerializer_v2().deserialize(targetQueueMap(),
+                                                            _targetStore,
+                                                            new ByteArrayInputStream(exported),
+                                                            checkpointFile);
+
+                assertEquals("Unexpected number of messages after resuming import interrupted at " + length,
+                             NUMBER_OF_MESSAGES, countMessages(_targetStore));
+                assertEquals("Unexpected number of message instances after resuming import interrupted at " + length,
+                             NUMBER_OF_MESSAGES / 2, countMessageInstances(_targetStore));
+                assertEquals("Unexpected number of transactions after resuming import interrupted at " + length,
+                             1, countDistributedTransactions(_targetStore));
+            }
+            finally
+            {
+                checkpointFile.delete();
+            }
+        }
+    }
+
+    @Test
+    public void testResumeWithDifferentUploadRejected() throws Exception
+    {
+        populateSourceStore();
+        final byte[] exported = export();
+        final File checkpointFile = TestFileUtils.createTempFile(this);
+        try
+        {
+            try
+            {
+                new MessageStoreSerializer_v2().deserialize(targetQueueMap(),
+                                                            _targetStore,
+                                                            new ByteArrayInputStream(exported, 0, exported.length / 2),
+                                                            checkpointFile);
+                fail("Exception not thrown");
+            }
+            catch (IllegalArgumentException e)
+            {
+                // pass
+            }
+
+            addMessage(_sourceStore, NUMBER_OF_MESSAGES, "other");
+            final Map<UUID, String> queueMap = new HashMap<>();
+            queueMap.put(UUID.randomUUID(), "queue");
+            final ByteArrayOutputStream other = new ByteArrayOutputStream();
+            new MessageStoreSerializer_v2().serialize(queueMap, _sourceStore.newMessageStoreReader(), other);
+
+            try
+            {
+                new MessageStoreSerializer_v2().deserialize(targetQueueMap(),
+                                                            _targetStore,
+                                                            new ByteArrayInputStream(other.toByteArray()),
+                                                            checkpointFile);
+                fail("Exception not thrown");
+            }
+            catch (IllegalArgumentException e)
+            {
+                // pass
+            }
+        }
+        finally
+        {
+            checkpointFile.delete();
+        }
+    }
+
+    @Test
+    public void testOversizedSegmentRejected() throws Exception
+    {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream output = new DataOutputStream(bytes);
+        final byte[] version = MessageStoreSerializer_v2.VERSION.getBytes(StandardCharsets.UTF_8);
+        output.write(0);
+        output.writeInt(version.length);
+        output.write(version);
+        output.write(SegmentType.MESSAGES.ordinal());
+        output.writeInt(0);
+        output.writeInt(1);
+        output.writeInt(Integer.MAX_VALUE);
+        output.writeLong(0L);
+        output.writeInt(Integer.MAX_VALUE);
+        output.flush();
+
+        try
+        {
+            new MessageStoreSerializer_v2().deserialize(targetQueueMap(),
+                                                        _targetStore,
+                                                        new ByteArrayInputStream(bytes.toByteArray()));
+            fail("Exception not thrown");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // pass
+        }
+    }
+
+    private void populateSourceStore()
+    {
+        final List<StoredMessage<?>> messages = new ArrayList<>();
+        final Transaction txn = _sourceStore.newTransaction();
+        for (int i = 0; i < NUMBER_OF_MESSAGES; i++)
+        {
+            final StoredMessage<?> message = addMessage(_sourceStore, i, "content-" + i);
+            messages.add(message);
+            if (i % 2 == 0)
+            {
+                txn.enqueueMessage(new TestQueue(_sourceQueueId), new TestMessage(message));
+            }
+        }
+        txn.commitTran();
+
+        final Transaction dtx = _sourceStore.newTransaction();
+        final TestQueue queue = new TestQueue(_sourceQueueId);
+        dtx.recordXid(1L,
+                      new byte[]{1},
+                      new byte[]{2},
+                      new Transaction.EnqueueRecord[]{new TestRecord(queue, new TestMessage(messages.get(1)))},
+                      new Transaction.DequeueRecord[]{new TestRecord(queue, new TestMessage(messages.get(0)))});
+        dtx.commitTran();
+    }
+
+    private int countMessages(final MessageStore store)
+    {
+        final int[] count = new int[1];
+        store.newMessageStoreReader().visitMessages(new MessageHandler()
+        {
+            @Override
+            public boolean handle(final StoredMessage<?> storedMessage)
+            {
+                count[0]++;
+                return true;
+            }
+        });
+        return count[0];
+    }
+
+    private int countMessageInstances(final MessageStore store)
+    {
+        final int[] count = new int[1];
+        store.newMessageStoreReader().visitMessageInstances(new MessageInstanceHandler()
+        {
+            @Override
+            public boolean handle(final MessageEnqueueRecord record)
+            {
+                count[0]++;
+                return true;
+            }
+        });
+        return count[0];
+    }
+
+    private int countDistributedTransactions(final MessageStore store)
+    {
+        final int[] count = new int[1];
+        store.newMessageStoreReader().visitDistributedTransactions(new DistributedTransactionHandler()
+        {
+            @Override
+            public boolean handle(final Transaction.StoredXidRecord storedXid,
+                                  final Transaction.EnqueueRecord[] enqueues,
+                                  final Transaction.DequeueRecord[] dequeues)
+            {
+                count[0]++;
+                return true;
+            }
+        });
+        return count[0];
+    }
+
+    private byte[] export() throws Exception
+    {
+        final Map<UUID, String> queueMap = new HashMap<>();
+        queueMap.put(_sourceQueueId, "queue");
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new MessageStoreSerializer_v2().serialize(queueMap, _sourceStore.newMessageStoreReader(), output);
+        return output.toByteArray();
+    }
+
+    private Map<String, UUID> targetQueueMap()
+    {
+        final Map<String, UUID> queueMap = new HashMap<>();
+        queueMap.put("queue", _targetQueueId);
+        return queueMap;
+    }
+
+    private StoredMessage<?> addMessage(final MessageStore store, final long id, final String content)
+    {
+        return addMessage(store, id, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private StoredMessage<?> addMessage(final MessageStore store, final long id, final byte[] bytes)
+    {
+        final MessageHandle<TestMessageMetaData> handle = store.addMessage(new TestMessageMetaData(id, bytes.length));
+        try (QpidByteBuffer buf = QpidByteBuffer.wrap(bytes))
+        {
+            handle.addContent(buf);
+        }
+        return handle.allContentAdded();
+    }
+
+    private static class TestQueue implements TransactionLogResource
+    {
+        private final UUID _id;
+
+        private TestQueue(final UUID id)
+        {
+            _id = id;
+        }
+
+        @Override
+        public String getName()
+        {
+            return _id.toString();
+        }
+
+        @Override
+        public UUID getId()
+        {
+            return _id;
+        }
+
+        @Override
+        public MessageDurability getMessageDurability()
+        {
+            return MessageDurability.DEFAULT;
+        }
+    }
+
+    private static class TestMessage implements EnqueueableMessage
+    {
+        private final StoredMessage<?> _storedMessage;
+
+        private TestMessage(final StoredMessage<?> storedMessage)
+        {
+            _storedMessage = storedMessage;
+        }
+
+        @Override
+        public long getMessageNumber()
+        {
+            return _storedMessage.getMessageNumber();
+        }
+
+        @Override
+        public boolean isPersistent()
+        {
+            return true;
+        }
+
+        @Override
+        public StoredMessage getStoredMessage()
+        {
+            return _storedMessage;
+        }
+    }
+}
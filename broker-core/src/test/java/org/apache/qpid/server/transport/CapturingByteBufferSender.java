@@ -0,0 +1,70 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.transport;
+
+import java.io.ByteArrayOutputStream;
+
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
+
+/**
+ * A sender that copies everything sent through it, so that tests can examine the bytes a protocol layer writes.
+ */
+public class CapturingByteBufferSender implements ByteBufferSender
+{
+    private final ByteArrayOutputStream _output = new ByteArrayOutputStream();
+
+    @Override
+    public boolean isDirectBufferPreferred()
+    {
+        return false;
+    }
+
+    @Override
+    public void send(final QpidByteBuffer msg)
+    {
+        try (QpidByteBuffer duplicate = msg.duplicate())
+        {
+            final byte[] bytes = new byte[duplicate.remaining()];
+            duplicate.get(bytes);
+            _output.write(bytes, 0, bytes.length);
+        }
+    }
+
+    @Override
+    public void flush()
+    {
+    }
+
+    @Override
+    public void close()
+    {
+    }
+
+    public int size()
+    {
+        return _output.size();
+    }
+
+    public byte[] toByteArray()
+    {
+        return _output.toByteArray();
+    }
+}
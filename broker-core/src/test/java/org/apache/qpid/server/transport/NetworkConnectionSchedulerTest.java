@@ -0,0 +1,129 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.apache.qpid.server.transport;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.channels.SocketChannel;
+import java.util.EnumSet;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.qpid.server.model.port.AmqpPort;
+import org.apache.qpid.server.transport.network.TransportEncryption;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class NetworkConnectionSchedulerTest extends UnitTestBase
+{
+    private NetworkConnectionScheduler _scheduler;
+    private NonBlockingConnection _publisher;
+    private NonBlockingConnection _consumer;
+    private String _threadName;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        _threadName = Thread.currentThread().getName();
+        _scheduler = new NetworkConnectionScheduler(getTestName(), 1, 1, 1);
+        _scheduler.start();
+
+        _consumer = mockConnection("consumer");
+        _publisher = mockConnection("publisher");
+        doAnswer(invocation ->
+                 {
+                     DirectDispatch.notifyDirect(() -> _scheduler.schedule(_consumer));
+                     return true;
+                 }).when(_publisher).doWork();
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        Thread.currentThread().setName(_threadName);
+        _scheduler.close();
+    }
+
+    @Test
+    public void testDispatchNotRecordedUntilDirectDispatchRequested()
+    {
+        doReturn(true).when(_publisher).doWork();
+
+        _scheduler.processConnection(_publisher);
+
+        verify(_publisher).doWork();
+        assertEquals("Unexpected scheduled dispatches", 0, _scheduler.getScheduledDispatchWait().getCount());
+        assertEquals("Unexpected direct dispatches", 0, _scheduler.getDirectDispatchWait().getCount());
+    }
+
+    @Test
+    public void testConsumerConnectionProcessedByNotifyingThread()
+    {
+        // the consumer is handed to the selector the first time, before direct dispatch is known to be in use
+        doReturn(false).doReturn(true).when(_consumer).setScheduled();
+
+        _scheduler.processConnection(_publisher);
+
+        verify(_consumer, never()).doWork();
+        assertEquals("Unexpected direct dispatches", 0, _scheduler.getDirectDispatchWait().getCount());
+
+        _scheduler.processConnection(_publisher);
+
+        verify(_consumer, times(1)).doWork();
+        assertEquals("Unexpected scheduled dispatches", 1, _scheduler.getScheduledDispatchWait().getCount());
+        assertEquals("Unexpected direct dispatches", 1, _scheduler.getDirectDispatchWait().getCount());
+    }
+
+    private NonBlockingConnection mockConnection(final String name)
+    {
+        final Socket socket = mock(Socket.class);
+        when(socket.getRemoteSocketAddress()).thenReturn(new InetSocketAddress("localhost", 5672));
+        final SocketChannel socketChannel = mock(SocketChannel.class);
+        when(socketChannel.socket()).thenReturn(socket);
+
+        final NonBlockingConnection connection = spy(new NonBlockingConnection(socketChannel,
+                                                                               mock(ProtocolEngine.class),
+                                                                               EnumSet.of(TransportEncryption.NONE,
+                                                                                          TransportEncryption.TLS),
+                                                                               null,
+                                                                               _scheduler,
+                                                                               mock(AmqpPort.class)));
+        doReturn(name).when(connection).getThreadName();
+        doNothing().when(connection).doPreWork();
+        doReturn(true).when(connection).doWork();
+        doReturn(false).when(connection).setScheduled();
+        doAnswer(invocation -> System.nanoTime()).when(connection).getScheduledNanoTime();
+        return connection;
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.txn;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.qpid.server.store.MessageStore;
+import org.apache.qpid.server.store.Transaction;
+import org.apache.qpid.server.virtualhost.QueueManagingVirtualHost;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class DtxRegistryTest extends UnitTestBase
+{
+    private static final int TIMEOUT = 5000;
+
+    private final CountDownLatch _storeWorkStarted = new CountDownLatch(1);
+    private final CountDownLatch _releaseStoreWork = new CountDownLatch(1);
+    private volatile Thread _blockedThread;
+    private DtxRegistry _registry;
+    private ExecutorService _executor;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        final Transaction storeTransaction = mock(Transaction.class);
+        doAnswer(invocation ->
+                 {
+                     if (Thread.currentThread() == _blockedThread)
+                     {
+                         _storeWorkStarted.countDown();
+                         assertTrue("Store work was not released",
+                                    _releaseStoreWork.await(TIMEOUT, TimeUnit.MILLISECONDS));
+                     }
+                     return null;
+                 }).when(storeTransaction).commitTran();
+        final MessageStore messageStore = mock(MessageStore.class);
+        when(messageStore.newTransaction()).thenReturn(storeTransaction);
+        final QueueManagingVirtualHost<?> virtualHost = mock(QueueManagingVirtualHost.class);
+        when(virtualHost.getMessageStore()).thenReturn(messageStore);
+
+        _registry = new DtxRegistry(virtualHost);
+        _executor = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown()
+    {
+        _releaseStoreWork.countDown();
+        _executor.shutdownNow();
+    }
+
+    @Test
+    public void testBranchesProgressWhileAnotherBranchIsInStoreWork() throws Exception
+    {
+        final Xid blockedXid = createXid("blocked");
+        final Xid otherXid = createXid("other");
+        assertTrue(_registry.registerBranch(new DtxBranch(blockedXid, _registry)));
+        assertTrue(_registry.registerBranch(new DtxBranch(otherXid, _registry)));
+
+        final Future<?> blockedPrepare = _executor.submit(() ->
+                                                          {
+                                                              _blockedThread = Thread.currentThread();
+                                                              _registry.prepare(blockedXid);
+                                                              return null;
+                                                          });
+        assertTrue("Prepare did not reach the store", _storeWorkStarted.await(TIMEOUT, TimeUnit.MILLISECONDS));
+
+        _registry.prepare(otherXid);
+        assertEquals("Unexpected in-doubt branches",
+                     Collections.singletonList(otherXid), _registry.recover());
+        _registry.commit(otherXid, false);
+        assertEquals("Unexpected branch after commit", null, _registry.getBranch(otherXid));
+        assertFalse("Blocked prepare should still be in progress", blockedPrepare.isDone());
+
+        _releaseStoreWork.countDown();
+        blockedPrepare.get(TIMEOUT, TimeUnit.MILLISECONDS);
+        assertEquals("Unexpected in-doubt branches",
+                     Collections.singletonList(blockedXid), _registry.recover());
+    }
+
+    @Test
+    public void testCommitOfCompletedBranchFails() throws Exception
+    {
+        final Xid xid = createXid("xid");
+        final DtxBranch branch = new DtxBranch(xid, _registry);
+        assertTrue(_registry.registerBranch(branch));
+        assertFalse("Branch should not be registered twice",
+                    _registry.registerBranch(new DtxBranch(xid, _registry)));
+
+        _registry.commit(xid, true);
+
+        try
+        {
+            _registry.commit(xid, true);
+            fail("Exception not thrown");
+        }
+        catch (UnknownDtxBranchException e)
+        {
+            // pass
+        }
+        assertEquals("Unexpected branch state", DtxBranch.State.FORGOTTEN, branch.getState());
+    }
+
+    private Xid createXid(final String name)
+    {
+        return new Xid(0L, name.getBytes(StandardCharsets.UTF_8), name.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -29,8 +29,12 @@ import org.apache.qpid.server.model.ContextProvider;
 import org.apache.qpid.server.model.DerivedAttribute;
 import org.apache.qpid.server.model.ManagedObject;
 import org.apache.qpid.server.model.NamedAddressSpace;
+import org.apache.qpid.server.security.SubjectCreator;
+import org.apache.qpid.server.security.auth.SubjectAuthenticationResult;
+import org.apache.qpid.server.security.auth.sasl.SaslNegotiator;
 import org.apache.qpid.server.transport.AMQPConnection;
 import org.apache.qpid.server.transport.ProtocolEngine;
+import org.apache.qpid.server.util.Action;
 
 @ManagedObject(category = false, creatable = false, type="AMQP_0_10")
 public interface AMQPConnection_0_10<C extends AMQPConnection_0_10<C>> extends AMQPConnection<C>,
@@ -59,6 +63,13 @@ public interface AMQPConnection_0_10<C extends AMQPConnection_0_10<C>> extends A
 
     void performDeleteTasks();
 
+    void evaluateSaslResponse(SubjectCreator subjectCreator,
+                              SaslNegotiator saslNegotiator,
+                              byte[] response,
+                              Action<SubjectAuthenticationResult> resultAction);
+
+    void disposeSaslNegotiator(SaslNegotiator saslNegotiator);
+
     @DerivedAttribute(description = "The actual negotiated value of heartbeat delay.")
     int getHeartbeatDelay();
 
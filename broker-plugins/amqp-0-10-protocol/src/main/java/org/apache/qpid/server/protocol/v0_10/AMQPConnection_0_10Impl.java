@@ -385,6 +385,7 @@ public class AMQPConnection_0_10Impl extends AbstractAMQPConnection<AMQPConnecti
         {
             case INIT:
             case AWAIT_START_OK:
+            case AUTHENTICATING:
             case AWAIT_SECURE_OK:
             case AWAIT_TUNE_OK:
             case AWAIT_OPEN:
@@ -21,7 +21,6 @@
 package org.apache.qpid.server.protocol.v0_10;
 
 
-import java.nio.ByteBuffer;
 import java.security.AccessControlContext;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
@@ -61,7 +60,7 @@ public class ServerAssembler
     private final Method[] _incompleteMethodArray = new Method[ARRAY_SIZE + 1];
     private final Map<Integer, Method> _incompleteMethodMap = new HashMap<>();
 
-    private final Map<Integer,List<ServerFrame>> _segments;
+    private final Map<Integer,List<QpidByteBuffer>> _segments;
 
     public ServerAssembler(ServerConnection connection)
     {
@@ -140,23 +139,17 @@ public class ServerAssembler
         }
     }
 
-    protected ByteBuffer allocateByteBuffer(int size)
-    {
-        return ByteBuffer.allocateDirect(size);
-    }
-
-
     private int segmentKey(ServerFrame frame)
     {
         return (frame.getTrack() + 1) * frame.getChannel();
     }
 
-    private List<ServerFrame> getSegment(ServerFrame frame)
+    private List<QpidByteBuffer> getSegment(ServerFrame frame)
     {
         return _segments.get(segmentKey(frame));
     }
 
-    private void setSegment(ServerFrame frame, List<ServerFrame> segment)
+    private void setSegment(ServerFrame frame, List<QpidByteBuffer> segment)
     {
         int key = segmentKey(frame);
         if (_segments.containsKey(key))
@@ -198,6 +191,10 @@ public class ServerAssembler
         emit(0, error);
     }
 
+    /**
+     * Assembles segments without copying: the body of each frame is a slice of the network buffer it arrived in,
+     * and the bodies of a segment spanning several frames are composed into a single buffer over those slices.
+     */
     public void frame(ServerFrame frame)
     {
         if (frame.isFirstFrame() && frame.isLastFrame())
@@ -206,29 +203,24 @@ public class ServerAssembler
         }
         else
         {
-            List<ServerFrame> frames;
+            List<QpidByteBuffer> frameBodies;
             if (frame.isFirstFrame())
             {
-                frames = new ArrayList<>();
-                setSegment(frame, frames);
+                frameBodies = new ArrayList<>();
+                setSegment(frame, frameBodies);
             }
             else
             {
-                frames = getSegment(frame);
+                frameBodies = getSegment(frame);
             }
 
-            frames.add(frame);
+            frameBodies.add(frame.getBody());
 
             if (frame.isLastFrame())
             {
                 clearSegment(frame);
-                List<QpidByteBuffer> frameBuffers = new ArrayList<>(frames.size());
-                for (ServerFrame f : frames)
-                {
-                    frameBuffers.add(f.getBody());
-                }
-                QpidByteBuffer combined = QpidByteBuffer.concatenate(frameBuffers);
-                for (QpidByteBuffer buffer : frameBuffers)
+                QpidByteBuffer combined = QpidByteBuffer.concatenate(frameBodies);
+                for (QpidByteBuffer buffer : frameBodies)
                 {
                     buffer.dispose();
                 }
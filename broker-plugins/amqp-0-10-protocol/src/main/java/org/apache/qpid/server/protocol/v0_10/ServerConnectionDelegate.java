@@ -70,6 +70,7 @@ public class ServerConnectionDelegate extends MethodDelegate<ServerConnection> i
     {
         INIT,
         AWAIT_START_OK,
+        AUTHENTICATING,
         AWAIT_SECURE_OK,
         AWAIT_TUNE_OK,
         AWAIT_OPEN,
@@ -181,14 +182,32 @@ public class ServerConnectionDelegate extends MethodDelegate<ServerConnection> i
 
     protected void secure(final ServerConnection sconn, final byte[] response)
     {
-        SubjectAuthenticationResult authResult = _successfulAuthenticationResult;
-        byte[] challenge = null;
-        if (authResult == null)
+        if (_successfulAuthenticationResult == null)
         {
-            authResult = _subjectCreator.authenticate(_saslNegotiator, response);
-            challenge = authResult.getChallenge();
+            _state = ConnectionState.AUTHENTICATING;
+            final AMQPConnection_0_10<?> amqpConnection = sconn.getAmqpConnection();
+            amqpConnection.evaluateSaslResponse(_subjectCreator, _saslNegotiator, response, authResult ->
+            {
+                if (_state == ConnectionState.AUTHENTICATING && !sconn.isClosing())
+                {
+                    processAuthenticationResult(sconn, authResult, authResult.getChallenge());
+                }
+                else if (_saslNegotiator != null)
+                {
+                    disposeSaslNegotiator(sconn);
+                }
+            });
         }
+        else
+        {
+            processAuthenticationResult(sconn, _successfulAuthenticationResult, null);
+        }
+    }
 
+    private void processAuthenticationResult(final ServerConnection sconn,
+                                             final SubjectAuthenticationResult authResult,
+                                             final byte[] challenge)
+    {
         if (AuthenticationStatus.SUCCESS.equals(authResult.getStatus()))
         {
             _successfulAuthenticationResult = authResult;
@@ -197,7 +216,7 @@ public class ServerConnectionDelegate extends MethodDelegate<ServerConnection> i
                 sconn.sendConnectionTune(getChannelMax(), getFrameMax(), 0, getHeartbeatMax());
                 sconn.setAuthorizedSubject(authResult.getSubject());
                 _state = ConnectionState.AWAIT_TUNE_OK;
-                disposeSaslNegotiator();
+                disposeSaslNegotiator(sconn);
             }
             else
             {
@@ -518,12 +537,12 @@ public class ServerConnectionDelegate extends MethodDelegate<ServerConnection> i
             serverConnection.exception(e);
         }
         serverConnection.sendConnectionClose(ConnectionCloseCode.CONNECTION_FORCED, e == null ? "Authentication failed" : e.getMessage());
-        disposeSaslNegotiator();
+        disposeSaslNegotiator(serverConnection);
     }
 
-    private void disposeSaslNegotiator()
+    private void disposeSaslNegotiator(final ServerConnection serverConnection)
     {
-        _saslNegotiator.dispose();
+        serverConnection.getAmqpConnection().disposeSaslNegotiator(_saslNegotiator);
         _saslNegotiator = null;
     }
 }
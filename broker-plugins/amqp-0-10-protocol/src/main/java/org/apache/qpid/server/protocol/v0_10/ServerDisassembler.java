@@ -90,17 +90,24 @@ public final class ServerDisassembler implements ProtocolEventSender, ProtocolDe
         }
     }
 
-    private void frame(byte flags, byte type, byte track, int channel, int size, QpidByteBuffer buffer)
+    private void frame(byte flags,
+                       byte type,
+                       byte track,
+                       int channel,
+                       int size,
+                       QpidByteBuffer buffer,
+                       QpidByteBuffer frameHeaders,
+                       int frameHeaderOffset)
     {
-        try (QpidByteBuffer data = QpidByteBuffer.allocateDirect(HEADER_SIZE))
+        frameHeaders.put(frameHeaderOffset, flags);
+        frameHeaders.put(frameHeaderOffset + 1, type);
+        frameHeaders.putShort(frameHeaderOffset + 2, (short) (size + HEADER_SIZE));
+        frameHeaders.put(frameHeaderOffset + 4, (byte) 0);
+        frameHeaders.put(frameHeaderOffset + 5, track);
+        frameHeaders.putShort(frameHeaderOffset + 6, (short) channel);
+        try (QpidByteBuffer frameHeader = frameHeaders.view(frameHeaderOffset, HEADER_SIZE))
         {
-            data.put(0, flags);
-            data.put(1, type);
-            data.putShort(2, (short) (size + HEADER_SIZE));
-            data.put(4, (byte) 0);
-            data.put(5, track);
-            data.putShort(6, (short) channel);
-            _sender.send(data);
+            _sender.send(frameHeader);
         }
 
         if(size > 0)
@@ -114,34 +121,45 @@ public final class ServerDisassembler implements ProtocolEventSender, ProtocolDe
 
     }
 
+    /**
+     * Sends the segment as frames whose payloads are views of the given buffer.  The headers of all the frames are
+     * written into a single buffer so that a segment split into many frames costs one allocation, and the sender
+     * writes each header and payload with a gathering write.
+     */
     private void fragment(byte flags, SegmentType type, ProtocolEvent event, QpidByteBuffer buffer)
     {
         byte typeb = (byte) type.getValue();
         byte track = event.getEncodedTrack() == Frame.L4 ? (byte) 1 : (byte) 0;
 
         int remaining = buffer.remaining();
-        boolean first = true;
-        while (true)
+        int frameCount = remaining == 0 ? 1 : (remaining + _maxPayload - 1) / _maxPayload;
+        try (QpidByteBuffer frameHeaders = QpidByteBuffer.allocateDirect(frameCount * HEADER_SIZE))
         {
-            int size = min(_maxPayload, remaining);
-            remaining -= size;
-
-            byte newflags = flags;
-            if (first)
-            {
-                newflags |= FIRST_FRAME;
-                first = false;
-            }
-            if (remaining == 0)
+            boolean first = true;
+            int frameHeaderOffset = 0;
+            while (true)
             {
-                newflags |= LAST_FRAME;
-            }
+                int size = min(_maxPayload, remaining);
+                remaining -= size;
+
+                byte newflags = flags;
+                if (first)
+                {
+                    newflags |= FIRST_FRAME;
+                    first = false;
+                }
+                if (remaining == 0)
+                {
+                    newflags |= LAST_FRAME;
+                }
 
-            frame(newflags, typeb, track, event.getChannel(), size, buffer);
+                frame(newflags, typeb, track, event.getChannel(), size, buffer, frameHeaders, frameHeaderOffset);
+                frameHeaderOffset += HEADER_SIZE;
 
-            if (remaining == 0)
-            {
-                break;
+                if (remaining == 0)
+                {
+                    break;
+                }
             }
         }
     }
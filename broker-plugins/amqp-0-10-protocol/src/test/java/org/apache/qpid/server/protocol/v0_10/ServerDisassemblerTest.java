@@ -0,0 +1,144 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.protocol.v0_10;
+
+import static org.apache.qpid.server.protocol.v0_10.transport.Frame.FIRST_FRAME;
+import static org.apache.qpid.server.protocol.v0_10.transport.Frame.FIRST_SEG;
+import static org.apache.qpid.server.protocol.v0_10.transport.Frame.HEADER_SIZE;
+import static org.apache.qpid.server.protocol.v0_10.transport.Frame.LAST_FRAME;
+import static org.apache.qpid.server.protocol.v0_10.transport.Frame.LAST_SEG;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.protocol.v0_10.transport.DeliveryProperties;
+import org.apache.qpid.server.protocol.v0_10.transport.Header;
+import org.apache.qpid.server.protocol.v0_10.transport.MessageAcceptMode;
+import org.apache.qpid.server.protocol.v0_10.transport.MessageAcquireMode;
+import org.apache.qpid.server.protocol.v0_10.transport.MessageProperties;
+import org.apache.qpid.server.protocol.v0_10.transport.MessageTransfer;
+import org.apache.qpid.server.protocol.v0_10.transport.SegmentType;
+import org.apache.qpid.server.transport.CapturingByteBufferSender;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class ServerDisassemblerTest extends UnitTestBase
+{
+    private static final int MAX_FRAME_SIZE = 4096;
+    private static final int CHANNEL = 3;
+
+    @Test
+    public void testTransferBodyFragmentedIntoFrames()
+    {
+        final byte[] content = new byte[3 * (MAX_FRAME_SIZE - HEADER_SIZE) - 100];
+        for (int i = 0; i < content.length; i++)
+        {
+            content[i] = (byte) i;
+        }
+
+        final CapturingByteBufferSender output = new CapturingByteBufferSender();
+        final ServerDisassembler disassembler = new ServerDisassembler(output, MAX_FRAME_SIZE);
+        try (QpidByteBuffer body = QpidByteBuffer.wrap(content))
+        {
+            final MessageTransfer transfer = new MessageTransfer("amq.direct",
+                                                                 MessageAcceptMode.NONE,
+                                                                 MessageAcquireMode.PRE_ACQUIRED,
+                                                                 new Header(new DeliveryProperties(),
+                                                                            new MessageProperties()),
+                                                                 body);
+            transfer.setChannel(CHANNEL);
+            disassembler.send(transfer);
+            transfer.dispose();
+        }
+        finally
+        {
+            disassembler.closed();
+        }
+
+        final List<ParsedFrame> frames = parse(output.toByteArray());
+        assertEquals("Unexpected number of frames", 5, frames.size());
+
+        final ParsedFrame command = frames.get(0);
+        assertEquals("Unexpected command segment type", SegmentType.COMMAND, command._type);
+        assertEquals("Unexpected command flags", FIRST_SEG | FIRST_FRAME | LAST_FRAME, command._flags);
+
+        final ParsedFrame header = frames.get(1);
+        assertEquals("Unexpected header segment type", SegmentType.HEADER, header._type);
+        assertEquals("Unexpected header flags", FIRST_FRAME | LAST_FRAME, header._flags);
+
+        final ByteArrayOutputStream receivedContent = new ByteArrayOutputStream();
+        for (int i = 2; i < frames.size(); i++)
+        {
+            final ParsedFrame frame = frames.get(i);
+            assertEquals("Unexpected body segment type", SegmentType.BODY, frame._type);
+            assertEquals("Unexpected channel", CHANNEL, frame._channel);
+            int expectedFlags = LAST_SEG;
+            if (i == 2)
+            {
+                expectedFlags |= FIRST_FRAME;
+            }
+            if (i == frames.size() - 1)
+            {
+                expectedFlags |= LAST_FRAME;
+            }
+            assertEquals("Unexpected body flags", expectedFlags, frame._flags);
+            receivedContent.write(frame._payload, 0, frame._payload.length);
+        }
+        assertArrayEquals("Unexpected content", content, receivedContent.toByteArray());
+    }
+
+    private List<ParsedFrame> parse(final byte[] bytes)
+    {
+        final List<ParsedFrame> frames = new ArrayList<>();
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining())
+        {
+            final ParsedFrame frame = new ParsedFrame();
+            frame._flags = buffer.get();
+            frame._type = SegmentType.get(buffer.get());
+            final int size = (buffer.getShort() & 0xFFFF) - HEADER_SIZE;
+            buffer.get();
+            buffer.get();
+            frame._channel = buffer.getShort() & 0xFFFF;
+            buffer.getInt();
+            frame._payload = new byte[size];
+            buffer.get(frame._payload);
+            assertFalse("Frame larger than maximum frame size", size + HEADER_SIZE > MAX_FRAME_SIZE);
+            frames.add(frame);
+        }
+        return frames;
+    }
+
+    private static class ParsedFrame
+    {
+        private byte _flags;
+        private SegmentType _type;
+        private int _channel;
+        private byte[] _payload;
+    }
+}
@@ -90,6 +90,7 @@ public class AMQPConnection_0_8Impl
     {
         INIT,
         AWAIT_START_OK,
+        AUTHENTICATING,
         AWAIT_SECURE_OK,
         AWAIT_TUNE_OK,
         AWAIT_OPEN,
@@ -1083,7 +1084,7 @@ public class AMQPConnection_0_8Impl
 
     private void disposeSaslNegotiator()
     {
-        _saslNegotiator.dispose();
+        disposeSaslNegotiator(_saslNegotiator);
         _saslNegotiator = null;
     }
 
@@ -1131,15 +1132,30 @@ public class AMQPConnection_0_8Impl
 
     private void processSaslResponse(final byte[] response, final SubjectCreator subjectCreator)
     {
-        MethodRegistry methodRegistry = getMethodRegistry();
-        SubjectAuthenticationResult authResult = _successfulAuthenticationResult;
-        byte[] challenge = null;
-        if (authResult == null)
+        if (_successfulAuthenticationResult == null)
         {
-            authResult = subjectCreator.authenticate(_saslNegotiator, response);
-            challenge = authResult.getChallenge();
+            _state = ConnectionState.AUTHENTICATING;
+            evaluateSaslResponse(subjectCreator, _saslNegotiator, response, authResult ->
+            {
+                if (_state == ConnectionState.AUTHENTICATING && !isClosing())
+                {
+                    processSaslAuthenticationResult(authResult, authResult.getChallenge());
+                }
+                else if (_saslNegotiator != null)
+                {
+                    disposeSaslNegotiator();
+                }
+            });
         }
+        else
+        {
+            processSaslAuthenticationResult(_successfulAuthenticationResult, null);
+        }
+    }
 
+    private void processSaslAuthenticationResult(final SubjectAuthenticationResult authResult, final byte[] challenge)
+    {
+        MethodRegistry methodRegistry = getMethodRegistry();
         switch (authResult.getStatus())
         {
             case ERROR:
@@ -1270,7 +1286,7 @@ public class AMQPConnection_0_8Impl
                                                   props,
                                                   _channelId,
                                                   deliveryTag,
-                                                  target.getConsumerTag());
+                                                  target.getDeliverTemplate());
             registerMessageDelivered(size);
             if (target.getChannel().isTransactional())
             {
@@ -1428,6 +1444,7 @@ public class AMQPConnection_0_8Impl
         {
             case INIT:
             case AWAIT_START_OK:
+            case AUTHENTICATING:
             case AWAIT_SECURE_OK:
             case AWAIT_TUNE_OK:
             case AWAIT_OPEN:
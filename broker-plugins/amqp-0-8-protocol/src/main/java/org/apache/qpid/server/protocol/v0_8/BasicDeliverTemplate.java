@@ -0,0 +1,165 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.protocol.v0_8;
+
+import org.apache.qpid.server.QpidException;
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.protocol.v0_8.transport.AMQBody;
+import org.apache.qpid.server.protocol.v0_8.transport.AMQMethodBody;
+import org.apache.qpid.server.protocol.v0_8.transport.AMQVersionAwareProtocolSession;
+import org.apache.qpid.server.protocol.v0_8.transport.BasicDeliverBody;
+import org.apache.qpid.server.transport.ByteBufferSender;
+
+/**
+ * Pre-encoded basic.deliver method body for a consumer.
+ * <p>
+ * The class and method ids and the consumer tag are encoded once when the consumer is created.  The exchange name
+ * and routing key of the last message delivered are kept encoded as well, as consecutive messages on a queue are
+ * usually published with the same ones.  Writing a delivery then only puts the delivery tag and redelivered flag
+ * between the two.
+ */
+public final class BasicDeliverTemplate
+{
+    private static final int DELIVERY_TAG_AND_FLAGS_SIZE = 9;
+
+    private final AMQShortString _consumerTag;
+    private final byte[] _prefix;
+    private volatile EncodedSuffix _lastSuffix;
+
+    public BasicDeliverTemplate(final AMQShortString consumerTag)
+    {
+        _consumerTag = consumerTag;
+        _prefix = new byte[4 + EncodingUtils.encodedShortStringLength(consumerTag)];
+        try (QpidByteBuffer buf = QpidByteBuffer.wrap(_prefix))
+        {
+            buf.putUnsignedShort(BasicDeliverBody.CLASS_ID);
+            buf.putUnsignedShort(BasicDeliverBody.METHOD_ID);
+            EncodingUtils.writeShortStringBytes(buf, consumerTag);
+        }
+    }
+
+    public AMQShortString getConsumerTag()
+    {
+        return _consumerTag;
+    }
+
+    public AMQBody createDeliverBody(final long deliveryTag,
+                                     final boolean redelivered,
+                                     final AMQShortString exchange,
+                                     final AMQShortString routingKey)
+    {
+        return new DeliverBody(deliveryTag, redelivered, getSuffix(exchange, routingKey));
+    }
+
+    private EncodedSuffix getSuffix(final AMQShortString exchange, final AMQShortString routingKey)
+    {
+        EncodedSuffix suffix = _lastSuffix;
+        if (suffix == null || !suffix.matches(exchange, routingKey))
+        {
+            suffix = new EncodedSuffix(exchange, routingKey);
+            _lastSuffix = suffix;
+        }
+        return suffix;
+    }
+
+    private static final class EncodedSuffix
+    {
+        private final AMQShortString _exchange;
+        private final AMQShortString _routingKey;
+        private final byte[] _data;
+
+        private EncodedSuffix(final AMQShortString exchange, final AMQShortString routingKey)
+        {
+            _exchange = exchange;
+            _routingKey = routingKey;
+            _data = new byte[EncodingUtils.encodedShortStringLength(exchange)
+                             + EncodingUtils.encodedShortStringLength(routingKey)];
+            try (QpidByteBuffer buf = QpidByteBuffer.wrap(_data))
+            {
+                EncodingUtils.writeShortStringBytes(buf, exchange);
+                EncodingUtils.writeShortStringBytes(buf, routingKey);
+            }
+        }
+
+        private boolean matches(final AMQShortString exchange, final AMQShortString routingKey)
+        {
+            return (_exchange == exchange || (_exchange != null && _exchange.equals(exchange)))
+                   && (_routingKey == routingKey || (_routingKey != null && _routingKey.equals(routingKey)));
+        }
+    }
+
+    private final class DeliverBody implements AMQBody
+    {
+        private final long _deliveryTag;
+        private final boolean _redelivered;
+        private final EncodedSuffix _suffix;
+
+        private DeliverBody(final long deliveryTag, final boolean redelivered, final EncodedSuffix suffix)
+        {
+            _deliveryTag = deliveryTag;
+            _redelivered = redelivered;
+            _suffix = suffix;
+        }
+
+        @Override
+        public byte getFrameType()
+        {
+            return AMQMethodBody.TYPE;
+        }
+
+        @Override
+        public int getSize()
+        {
+            return _prefix.length + DELIVERY_TAG_AND_FLAGS_SIZE + _suffix._data.length;
+        }
+
+        @Override
+        public long writePayload(final ByteBufferSender sender)
+        {
+            final int size = getSize();
+            try (QpidByteBuffer buf = QpidByteBuffer.allocate(sender.isDirectBufferPreferred(), size))
+            {
+                buf.put(_prefix);
+                buf.putLong(_deliveryTag);
+                buf.put(_redelivered ? (byte) 1 : (byte) 0);
+                buf.put(_suffix._data);
+                buf.flip();
+                sender.send(buf);
+            }
+            return size;
+        }
+
+        @Override
+        public void handle(final int channelId, final AMQVersionAwareProtocolSession amqProtocolSession)
+                throws QpidException
+        {
+            throw new QpidException("This block should never be dispatched!");
+        }
+
+        @Override
+        public String toString()
+        {
+            return "[" + getClass().getSimpleName() + " consumerTag: " + _consumerTag
+                   + ", deliveryTag: " + _deliveryTag + ", redelivered: " + _redelivered
+                   + ", exchange: " + _suffix._exchange + ", routingKey: " + _suffix._routingKey + "]";
+        }
+    }
+}
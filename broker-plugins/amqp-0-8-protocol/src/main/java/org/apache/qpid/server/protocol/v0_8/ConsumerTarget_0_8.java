@@ -238,6 +238,8 @@ public abstract class ConsumerTarget_0_8 extends AbstractConsumerTarget<Consumer
 
     private final AMQShortString _consumerTag;
 
+    private final BasicDeliverTemplate _deliverTemplate;
+
     private final FlowCreditManager_0_8 _creditManager;
 
     private final Boolean _autoClose;
@@ -253,6 +255,7 @@ public abstract class ConsumerTarget_0_8 extends AbstractConsumerTarget<Consumer
 
         _channel = channel;
         _consumerTag = consumerTag;
+        _deliverTemplate = new BasicDeliverTemplate(consumerTag);
 
         _creditManager = creditManager;
 
@@ -352,6 +355,11 @@ public abstract class ConsumerTarget_0_8 extends AbstractConsumerTarget<Consumer
         return _consumerTag;
     }
 
+    public BasicDeliverTemplate getDeliverTemplate()
+    {
+        return _deliverTemplate;
+    }
+
     private AMQPConnection_0_8 getConnection()
     {
         return _channel.getConnection();
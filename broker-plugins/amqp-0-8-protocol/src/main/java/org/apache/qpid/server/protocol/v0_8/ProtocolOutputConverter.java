@@ -39,7 +39,7 @@ public interface ProtocolOutputConverter
     long writeDeliver(final AMQMessage msg,
                       final InstanceProperties props, int channelId,
                       long deliveryTag,
-                      AMQShortString consumerTag);
+                      BasicDeliverTemplate deliverTemplate);
 
     long writeGetOk(final AMQMessage msg,
                     final InstanceProperties props,
@@ -23,7 +23,6 @@ package org.apache.qpid.server.protocol.v0_8;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -70,7 +69,20 @@ class UnacknowledgedMessageMapImpl implements UnacknowledgedMessageMap
             return _usesCredit;
         }
     }
-    private final Map<Long, MessageConsumerAssociationImpl> _map;
+    private static final int MINIMUM_CAPACITY = 16;
+
+    /*
+     * Deliveries are held in a ring ordered by delivery tag.  Delivery tags allocated by the channel are monotonic,
+     * so additions are appends at the tail and lookups are a binary search over the tags in the ring.  Removal of
+     * an entry from the middle of the ring leaves a hole which is trimmed once it reaches either end of the ring,
+     * or squeezed out when the ring would otherwise need to grow.
+     */
+    private final int _initialCapacity;
+    private long[] _tags;
+    private MessageConsumerAssociationImpl[] _entries;
+    private int _head;
+    private int _occupied;
+
     // we keep this separately as it is accessed by the management thread
     private volatile int _size;
 
@@ -78,7 +90,7 @@ class UnacknowledgedMessageMapImpl implements UnacknowledgedMessageMap
 
     UnacknowledgedMessageMapImpl(int prefetchLimit, CreditRestorer creditRestorer)
     {
-        _map = new LinkedHashMap<>(prefetchLimit);
+        _initialCapacity = Math.max(MINIMUM_CAPACITY, Integer.highestOneBit(Math.max(1, prefetchLimit - 1)) << 1);
         _creditRestorer = creditRestorer;
     }
 
@@ -87,48 +99,49 @@ class UnacknowledgedMessageMapImpl implements UnacknowledgedMessageMap
     {
         if (multiple)
         {
-            collect(deliveryTag, msgs);
+            final int end = rangeEnd(deliveryTag);
+            for (int i = 0; i < end; i++)
+            {
+                final MessageConsumerAssociationImpl entry = _entries[slot(i)];
+                if (entry != null)
+                {
+                    msgs.put(_tags[slot(i)], entry);
+                }
+            }
         }
         else
         {
-            final MessageConsumerAssociation messageConsumerAssociation = _map.get(deliveryTag);
-            if(messageConsumerAssociation != null)
+            final int index = indexOf(deliveryTag);
+            if (index >= 0 && _entries[slot(index)] != null)
             {
-                msgs.put(deliveryTag, messageConsumerAssociation);
+                msgs.put(deliveryTag, _entries[slot(index)]);
             }
         }
-
-    }
-
-    private void remove(Collection<Long> msgs)
-    {
-        for (Long deliveryTag : msgs)
-        {
-            remove(deliveryTag, true);
-        }
     }
 
     @Override
     public MessageConsumerAssociation remove(long deliveryTag, final boolean restoreCredit)
     {
-        MessageConsumerAssociationImpl entry = _map.remove(deliveryTag);
-        if(entry != null)
+        final int index = indexOf(deliveryTag);
+        if (index < 0)
         {
-            _size--;
-            if(restoreCredit && entry.isUsesCredit())
-            {
-                _creditRestorer.restoreCredit(entry.getConsumer().getTarget(), 1, entry.getSize());
-            }
+            return null;
         }
+        final MessageConsumerAssociationImpl entry = removeAt(index, restoreCredit);
+        trim();
         return entry;
     }
 
     @Override
     public void visit(Visitor visitor)
     {
-        for (Map.Entry<Long, MessageConsumerAssociationImpl> entry : _map.entrySet())
+        for (int i = 0; i < _occupied; i++)
         {
-            visitor.callback(entry.getKey(), entry.getValue());
+            final MessageConsumerAssociationImpl entry = _entries[slot(i)];
+            if (entry != null)
+            {
+                visitor.callback(_tags[slot(i)], entry);
+            }
         }
         visitor.visitComplete();
     }
@@ -136,14 +149,32 @@ class UnacknowledgedMessageMapImpl implements UnacknowledgedMessageMap
     @Override
     public void add(long deliveryTag, MessageInstance message, final MessageInstanceConsumer consumer, final boolean usesCredit)
     {
-        if(_map.put(deliveryTag, new MessageConsumerAssociationImpl(message, consumer, usesCredit)) == null)
+        final MessageConsumerAssociationImpl entry = new MessageConsumerAssociationImpl(message, consumer, usesCredit);
+        if (_occupied == 0 || deliveryTag > _tags[slot(_occupied - 1)])
         {
-            _size++;
+            ensureCapacity();
+            _tags[slot(_occupied)] = deliveryTag;
+            _entries[slot(_occupied)] = entry;
+            _occupied++;
         }
         else
         {
-            throw new ConnectionScopedRuntimeException("Unexpected duplicate delivery tag created");
+            final int index = indexOf(deliveryTag);
+            if (index >= 0)
+            {
+                if (_entries[slot(index)] != null)
+                {
+                    throw new ConnectionScopedRuntimeException("Unexpected duplicate delivery tag created");
+                }
+                _entries[slot(index)] = entry;
+            }
+            else
+            {
+                ensureCapacity();
+                insertAt(-(indexOf(deliveryTag) + 1), deliveryTag, entry);
+            }
         }
+        _size++;
     }
 
     @Override
@@ -155,7 +186,8 @@ class UnacknowledgedMessageMapImpl implements UnacknowledgedMessageMap
     @Override
     public MessageInstance get(long key)
     {
-        MessageConsumerAssociation association = _map.get(key);
+        final int index = indexOf(key);
+        final MessageConsumerAssociation association = index < 0 ? null : _entries[slot(index)];
         return association == null ? null : association.getMessageInstance();
     }
 
@@ -164,18 +196,18 @@ class UnacknowledgedMessageMapImpl implements UnacknowledgedMessageMap
     {
         if(multiple)
         {
-            Map<Long, MessageConsumerAssociation> ackedMessageMap = new LinkedHashMap<>();
-            collect(deliveryTag, multiple, ackedMessageMap);
-            remove(ackedMessageMap.keySet());
-            List<MessageConsumerAssociation> acknowledged = new ArrayList<>();
-            for (MessageConsumerAssociation messageConsumerAssociation : ackedMessageMap.values())
+            final int end = rangeEnd(deliveryTag);
+            List<MessageConsumerAssociation> acknowledged = new ArrayList<>(Math.min(end, _size));
+            for (int i = 0; i < end; i++)
             {
-                MessageInstance instance = messageConsumerAssociation.getMessageInstance();
-                if (instance.makeAcquisitionUnstealable(messageConsumerAssociation.getConsumer()))
+                final MessageConsumerAssociationImpl association = removeAt(i, true);
+                if (association != null
+                    && association.getMessageInstance().makeAcquisitionUnstealable(association.getConsumer()))
                 {
-                    acknowledged.add(messageConsumerAssociation);
+                    acknowledged.add(association);
                 }
             }
+            trim();
             return acknowledged;
         }
         else
@@ -193,16 +225,127 @@ class UnacknowledgedMessageMapImpl implements UnacknowledgedMessageMap
         }
     }
 
-    private void collect(long key, Map<Long, MessageConsumerAssociation> msgs)
+    private int slot(final int index)
+    {
+        return (_head + index) & (_tags.length - 1);
+    }
+
+    /**
+     * Returns the logical index of the given delivery tag within the ring, or (-(insertion point) - 1) if the tag
+     * is not present.
+     */
+    private int indexOf(final long deliveryTag)
+    {
+        int low = 0;
+        int high = _occupied - 1;
+        while (low <= high)
+        {
+            final int mid = (low + high) >>> 1;
+            final long midTag = _tags[slot(mid)];
+            if (midTag < deliveryTag)
+            {
+                low = mid + 1;
+            }
+            else if (midTag > deliveryTag)
+            {
+                high = mid - 1;
+            }
+            else
+            {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Returns the exclusive logical end of the range covered by a multiple acknowledgement of the given tag.
+     * A delivery tag of zero covers all outstanding deliveries.
+     */
+    private int rangeEnd(final long deliveryTag)
     {
-        for (Map.Entry<Long, MessageConsumerAssociationImpl> entry : _map.entrySet())
+        if (deliveryTag == 0L)
         {
-            msgs.put(entry.getKey(), entry.getValue());
-            if (entry.getKey() == key)
+            return _occupied;
+        }
+        final int index = indexOf(deliveryTag);
+        return index >= 0 ? index + 1 : -(index + 1);
+    }
+
+    private MessageConsumerAssociationImpl removeAt(final int index, final boolean restoreCredit)
+    {
+        final int slot = slot(index);
+        final MessageConsumerAssociationImpl entry = _entries[slot];
+        if (entry != null)
+        {
+            _entries[slot] = null;
+            _size--;
+            if (restoreCredit && entry.isUsesCredit())
             {
-                break;
+                _creditRestorer.restoreCredit(entry.getConsumer().getTarget(), 1, entry.getSize());
             }
         }
+        return entry;
     }
 
+    private void trim()
+    {
+        while (_occupied > 0 && _entries[_head] == null)
+        {
+            _head = (_head + 1) & (_tags.length - 1);
+            _occupied--;
+        }
+        while (_occupied > 0 && _entries[slot(_occupied - 1)] == null)
+        {
+            _occupied--;
+        }
+        if (_occupied == 0)
+        {
+            _head = 0;
+        }
+    }
+
+    private void ensureCapacity()
+    {
+        if (_tags == null)
+        {
+            _tags = new long[_initialCapacity];
+            _entries = new MessageConsumerAssociationImpl[_initialCapacity];
+        }
+        else if (_occupied == _tags.length)
+        {
+            // squeeze out holes rather than grow if a significant part of the ring is wasted
+            final boolean compact = _occupied - _size >= _tags.length >> 2;
+            final int capacity = compact ? _tags.length : _tags.length << 1;
+            final long[] tags = new long[capacity];
+            final MessageConsumerAssociationImpl[] entries = new MessageConsumerAssociationImpl[capacity];
+            int occupied = 0;
+            for (int i = 0; i < _occupied; i++)
+            {
+                final MessageConsumerAssociationImpl entry = _entries[slot(i)];
+                if (entry != null || !compact)
+                {
+                    tags[occupied] = _tags[slot(i)];
+                    entries[occupied] = entry;
+                    occupied++;
+                }
+            }
+            _tags = tags;
+            _entries = entries;
+            _head = 0;
+            _occupied = occupied;
+        }
+    }
+
+    private void insertAt(final int index, final long deliveryTag, final MessageConsumerAssociationImpl entry)
+    {
+        for (int i = _occupied; i > index; i--)
+        {
+            _tags[slot(i)] = _tags[slot(i - 1)];
+            _entries[slot(i)] = _entries[slot(i - 1)];
+        }
+        _tags[slot(index)] = deliveryTag;
+        _entries[slot(index)] = entry;
+        _occupied++;
+    }
 }
@@ -330,7 +330,7 @@ public class BasicContentHeaderProperties
         if ((_propertyFlags & (CONTENT_TYPE_MASK)) != 0)
         {
             length++;
-            _contentType = AMQShortString.readAMQShortString(input);
+            _contentType = AMQShortString.readInternedAMQShortString(input);
             if(_contentType != null)
             {
                 length += _contentType.length();
@@ -340,7 +340,7 @@ public class BasicContentHeaderProperties
         if ((_propertyFlags & ENCODING_MASK) != 0)
         {
             length++;
-            _encoding = AMQShortString.readAMQShortString(input);
+            _encoding = AMQShortString.readInternedAMQShortString(input);
             if(_encoding != null)
             {
                 length += _encoding.length();
@@ -382,7 +382,7 @@ public class BasicContentHeaderProperties
         if ((_propertyFlags & REPLY_TO_MASK) != 0)
         {
             length++;
-            _replyTo = AMQShortString.readAMQShortString(input);
+            _replyTo = AMQShortString.readInternedAMQShortString(input);
             if(_replyTo != null)
             {
                 length += _replyTo.length();
@@ -419,7 +419,7 @@ public class BasicContentHeaderProperties
         if ((_propertyFlags & TYPE_MASK) != 0)
         {
             length++;
-            _type = AMQShortString.readAMQShortString(input);
+            _type = AMQShortString.readInternedAMQShortString(input);
             if(_type != null)
             {
                 length += _type.length();
@@ -429,7 +429,7 @@ public class BasicContentHeaderProperties
         if ((_propertyFlags & USER_ID_MASK) != 0)
         {
             length++;
-            _userId = AMQShortString.readAMQShortString(input);
+            _userId = AMQShortString.readInternedAMQShortString(input);
             if(_userId != null)
             {
                 length += _userId.length();
@@ -439,7 +439,7 @@ public class BasicContentHeaderProperties
         if ((_propertyFlags & APPLICATION_ID_MASK) != 0)
         {
             length++;
-            _appId = AMQShortString.readAMQShortString(input);
+            _appId = AMQShortString.readInternedAMQShortString(input);
             if(_appId != null)
             {
                 length += _appId.length();
@@ -449,7 +449,7 @@ public class BasicContentHeaderProperties
         if ((_propertyFlags & CLUSTER_ID_MASK) != 0)
         {
             length++;
-            _clusterId = AMQShortString.readAMQShortString(input);
+            _clusterId = AMQShortString.readInternedAMQShortString(input);
             if(_clusterId != null)
             {
                 length += _clusterId.length();
@@ -511,12 +511,12 @@ public class BasicContentHeaderProperties
     {
         if ((_propertyFlags & (CONTENT_TYPE_MASK)) != 0)
         {
-            _contentType = AMQShortString.readAMQShortString(buffer);
+            _contentType = AMQShortString.readInternedAMQShortString(buffer);
         }
 
         if ((_propertyFlags & ENCODING_MASK) != 0)
         {
-            _encoding = AMQShortString.readAMQShortString(buffer);
+            _encoding = AMQShortString.readInternedAMQShortString(buffer);
         }
 
         if ((_propertyFlags & HEADERS_MASK) != 0)
@@ -547,7 +547,7 @@ public class BasicContentHeaderProperties
 
         if ((_propertyFlags & REPLY_TO_MASK) != 0)
         {
-            _replyTo = AMQShortString.readAMQShortString(buffer);
+            _replyTo = AMQShortString.readInternedAMQShortString(buffer);
         }
 
         if ((_propertyFlags & EXPIRATION_MASK) != 0)
@@ -567,22 +567,22 @@ public class BasicContentHeaderProperties
 
         if ((_propertyFlags & TYPE_MASK) != 0)
         {
-            _type = AMQShortString.readAMQShortString(buffer);
+            _type = AMQShortString.readInternedAMQShortString(buffer);
         }
 
         if ((_propertyFlags & USER_ID_MASK) != 0)
         {
-            _userId = AMQShortString.readAMQShortString(buffer);
+            _userId = AMQShortString.readInternedAMQShortString(buffer);
         }
 
         if ((_propertyFlags & APPLICATION_ID_MASK) != 0)
         {
-            _appId = AMQShortString.readAMQShortString(buffer);
+            _appId = AMQShortString.readInternedAMQShortString(buffer);
         }
 
         if ((_propertyFlags & CLUSTER_ID_MASK) != 0)
         {
-            _clusterId = AMQShortString.readAMQShortString(buffer);
+            _clusterId = AMQShortString.readInternedAMQShortString(buffer);
         }
 
     }
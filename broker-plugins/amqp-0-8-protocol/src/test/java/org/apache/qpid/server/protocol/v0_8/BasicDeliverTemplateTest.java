@@ -0,0 +1,85 @@
+/*
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.protocol.v0_8;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.protocol.v0_8.transport.AMQBody;
+import org.apache.qpid.server.protocol.v0_8.transport.BasicDeliverBody;
+import org.apache.qpid.server.transport.CapturingByteBufferSender;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class BasicDeliverTemplateTest extends UnitTestBase
+{
+    private static final AMQShortString CONSUMER_TAG = AMQShortString.valueOf("sgen_1");
+    private static final AMQShortString EXCHANGE = AMQShortString.valueOf("amq.direct");
+    private static final AMQShortString ROUTING_KEY = AMQShortString.valueOf("queue");
+
+    @Test
+    public void testDeliverBodyEncoding()
+    {
+        final BasicDeliverTemplate template = new BasicDeliverTemplate(CONSUMER_TAG);
+
+        assertEncodedAsBasicDeliverBody(template, 1L, false, EXCHANGE, ROUTING_KEY);
+        assertEncodedAsBasicDeliverBody(template, Long.MAX_VALUE, true, EXCHANGE, ROUTING_KEY);
+    }
+
+    @Test
+    public void testDeliverBodyEncodingWhenExchangeAndRoutingKeyChange()
+    {
+        final BasicDeliverTemplate template = new BasicDeliverTemplate(CONSUMER_TAG);
+
+        assertEncodedAsBasicDeliverBody(template, 1L, false, EXCHANGE, ROUTING_KEY);
+        assertEncodedAsBasicDeliverBody(template, 2L, false, AMQShortString.valueOf("amq.topic"), ROUTING_KEY);
+        assertEncodedAsBasicDeliverBody(template, 3L, false, AMQShortString.EMPTY_STRING, null);
+        assertEncodedAsBasicDeliverBody(template, 4L, true, null, AMQShortString.valueOf("other"));
+    }
+
+    private void assertEncodedAsBasicDeliverBody(final BasicDeliverTemplate template,
+                                                 final long deliveryTag,
+                                                 final boolean redelivered,
+                                                 final AMQShortString exchange,
+                                                 final AMQShortString routingKey)
+    {
+        final AMQBody body = template.createDeliverBody(deliveryTag, redelivered, exchange, routingKey);
+        final BasicDeliverBody expected =
+                new BasicDeliverBody(CONSUMER_TAG, deliveryTag, redelivered, exchange, routingKey);
+
+        final byte[] expectedBytes = encode(expected);
+        final byte[] actualBytes = encode(body);
+
+        assertEquals("Unexpected frame type", expected.getFrameType(), body.getFrameType());
+        assertEquals("Unexpected size", expected.getSize(), body.getSize());
+        assertArrayEquals("Unexpected encoding", expectedBytes, actualBytes);
+    }
+
+    private byte[] encode(final AMQBody body)
+    {
+        final CapturingByteBufferSender output = new CapturingByteBufferSender();
+        final long written = body.writePayload(output);
+        assertEquals("Unexpected number of bytes written", output.size(), written);
+        return output.toByteArray();
+    }
+}
@@ -21,19 +21,29 @@
 package org.apache.qpid.server.protocol.v0_8;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import com.google.common.base.Function;
 import com.google.common.collect.Collections2;
 import org.junit.Test;
 
+import org.apache.qpid.server.consumer.ConsumerTarget;
 import org.apache.qpid.server.message.MessageInstance;
 import org.apache.qpid.server.message.MessageInstanceConsumer;
 import org.apache.qpid.server.message.ServerMessage;
+import org.apache.qpid.server.util.ConnectionScopedRuntimeException;
 import org.apache.qpid.test.utils.UnitTestBase;
 
 public class UnacknowledgedMessageMapTest extends UnitTestBase
@@ -85,6 +95,82 @@ public class UnacknowledgedMessageMapTest extends UnitTestBase
 
     }
 
+    @Test
+    public void testMultipleAcknowledgeIsBoundedByDeliveryTag()
+    {
+        UnacknowledgedMessageMap map = new UnacknowledgedMessageMapImpl(100, mock(CreditRestorer.class));
+        MessageInstance[] msgs = populateMap(map, 10);
+
+        Collection<MessageInstance> acknowledgedMessages =
+                Collections2.transform(map.acknowledge(4, true), MESSAGE_INSTANCE_FUNCTION);
+        assertEquals((long) 5, (long) acknowledgedMessages.size());
+        assertEquals((long) 5, (long) map.size());
+        for (int i = 0; i < 10; i++)
+        {
+            assertEquals(i <= 4, acknowledgedMessages.contains(msgs[i]));
+            assertEquals(i <= 4, map.get(i) == null);
+        }
+
+        acknowledgedMessages = Collections2.transform(map.acknowledge(0, true), MESSAGE_INSTANCE_FUNCTION);
+        assertEquals((long) 5, (long) acknowledgedMessages.size());
+        assertEquals((long) 0, (long) map.size());
+    }
+
+    @Test
+    public void testOutOfOrderRemovalAndGrowth()
+    {
+        CreditRestorer creditRestorer = mock(CreditRestorer.class);
+        UnacknowledgedMessageMap map = new UnacknowledgedMessageMapImpl(1, creditRestorer);
+        final int expectedSize = 100;
+        MessageInstance[] msgs = populateMap(map, expectedSize);
+        assertEquals((long) expectedSize, (long) map.size());
+
+        for (int i = 1; i < expectedSize; i += 2)
+        {
+            assertSame(msgs[i], map.remove(i, true).getMessageInstance());
+        }
+        assertNull(map.remove(1, true));
+        assertEquals((long) expectedSize / 2, (long) map.size());
+        verify(creditRestorer, times(expectedSize / 2)).restoreCredit(any(ConsumerTarget.class), eq(1), eq(0L));
+
+        for (int i = expectedSize; i < expectedSize * 2; i++)
+        {
+            map.add(i, createMessageInstance(i), _consumer, true);
+        }
+        assertEquals((long) expectedSize + expectedSize / 2, (long) map.size());
+
+        final List<Long> visited = new ArrayList<>();
+        map.visit(new UnacknowledgedMessageMap.Visitor()
+        {
+            @Override
+            public boolean callback(final long deliveryTag, final MessageConsumerAssociation messageConsumerPair)
+            {
+                visited.add(deliveryTag);
+                return false;
+            }
+
+            @Override
+            public void visitComplete()
+            {
+            }
+        });
+        assertEquals((long) map.size(), (long) visited.size());
+        for (int i = 1; i < visited.size(); i++)
+        {
+            assertTrue("Delivery tags not visited in order", visited.get(i - 1) < visited.get(i));
+        }
+        assertSame(msgs[0], map.get(0));
+        assertNull(map.get(1));
+    }
+
+    @Test(expected = ConnectionScopedRuntimeException.class)
+    public void testDuplicateDeliveryTag()
+    {
+        UnacknowledgedMessageMap map = new UnacknowledgedMessageMapImpl(100, mock(CreditRestorer.class));
+        populateMap(map, 5);
+        map.add(2, createMessageInstance(2), _consumer, true);
+    }
+
     public MessageInstance[] populateMap(final UnacknowledgedMessageMap map, int size)
     {
         MessageInstance[] msgs = new MessageInstance[size];
@@ -332,14 +332,34 @@ public class AMQPConnection_1_0Impl extends AbstractAMQPConnection<AMQPConnectio
 
     private void processSaslResponse(final byte[] response)
     {
-        byte[] challenge = null;
-        SubjectAuthenticationResult authenticationResult = _successfulAuthenticationResult;
-        if (authenticationResult == null)
+        if (_successfulAuthenticationResult == null)
+        {
+            _connectionState = ConnectionState.AUTHENTICATING;
+            evaluateSaslResponse(_subjectCreator,
+                                 _saslNegotiator,
+                                 response != null ? response : new byte[0],
+                                 authenticationResult ->
+                                 {
+                                     if (_connectionState == ConnectionState.AUTHENTICATING)
+                                     {
+                                         processSaslAuthenticationResult(authenticationResult,
+                                                                         authenticationResult.getChallenge());
+                                     }
+                                     else
+                                     {
+                                         disposeSaslNegotiator();
+                                     }
+                                 });
+        }
+        else
         {
-            authenticationResult = _subjectCreator.authenticate(_saslNegotiator, response != null ? response : new byte[0]);
-            challenge = authenticationResult.getChallenge();
+            processSaslAuthenticationResult(_successfulAuthenticationResult, null);
         }
+    }
 
+    private void processSaslAuthenticationResult(final SubjectAuthenticationResult authenticationResult,
+                                                 final byte[] challenge)
+    {
         if (authenticationResult.getStatus() == AuthenticationResult.AuthenticationStatus.SUCCESS)
         {
             final boolean finalChallenge = challenge != null && challenge.length != 0;
@@ -403,7 +423,7 @@ public class AMQPConnection_1_0Impl extends AbstractAMQPConnection<AMQPConnectio
     {
         if (_saslNegotiator != null)
         {
-            _saslNegotiator.dispose();
+            disposeSaslNegotiator(_saslNegotiator);
         }
         _saslNegotiator = null;
     }
@@ -532,6 +552,7 @@ public class AMQPConnection_1_0Impl extends AbstractAMQPConnection<AMQPConnectio
             case AWAIT_AMQP_OR_SASL_HEADER:
             case AWAIT_SASL_INIT:
             case AWAIT_SASL_RESPONSE:
+            case AUTHENTICATING:
             case AWAIT_AMQP_HEADER:
                 throw new ConnectionScopedRuntimeException("Received unexpected close when AMQP connection has not been established.");
             case AWAIT_OPEN:
@@ -1174,6 +1195,7 @@ public class AMQPConnection_1_0Impl extends AbstractAMQPConnection<AMQPConnectio
             case AWAIT_AMQP_OR_SASL_HEADER:
             case AWAIT_SASL_INIT:
             case AWAIT_SASL_RESPONSE:
+            case AUTHENTICATING:
             case AWAIT_AMQP_HEADER:
                 throw new ConnectionScopedRuntimeException("Connection is closed before being fully established: " + error.getDescription());
 
@@ -1312,6 +1334,10 @@ public class AMQPConnection_1_0Impl extends AbstractAMQPConnection<AMQPConnectio
                                     processProtocolHeader(msg);
                                 }
                                 break;
+                            case AUTHENTICATING:
+                                // input pipelined behind the SASL response is left unconsumed; reading is
+                                // blocked until the evaluation completes and the input is then presented again
+                                break;
                             case AWAIT_SASL_INIT:
                             case AWAIT_SASL_RESPONSE:
                             case AWAIT_OPEN:
@@ -1354,6 +1380,17 @@ public class AMQPConnection_1_0Impl extends AbstractAMQPConnection<AMQPConnectio
 
     }
 
+    /**
+     * Reading is blocked whilst a SASL response is evaluated off the IO thread, so that input a client pipelines
+     * behind its SASL frames, such as the AMQP header and open frame, waits in the network buffer until the outcome
+     * of the authentication has been sent.
+     */
+    @Override
+    public boolean isTransportBlockedForReading()
+    {
+        return _connectionState == ConnectionState.AUTHENTICATING || super.isTransportBlockedForReading();
+    }
+
     @Override
     public void receivedComplete()
     {
@@ -1981,6 +2018,7 @@ public class AMQPConnection_1_0Impl extends AbstractAMQPConnection<AMQPConnectio
             case AWAIT_AMQP_OR_SASL_HEADER:
             case AWAIT_SASL_INIT:
             case AWAIT_SASL_RESPONSE:
+            case AUTHENTICATING:
             case AWAIT_AMQP_HEADER:
             case AWAIT_OPEN:
                 return true;
@@ -44,9 +44,7 @@ import org.apache.qpid.server.protocol.v1_0.type.DeliveryState;
 import org.apache.qpid.server.protocol.v1_0.type.Outcome;
 import org.apache.qpid.server.protocol.v1_0.type.UnsignedInteger;
 import org.apache.qpid.server.protocol.v1_0.type.messaging.Accepted;
-import org.apache.qpid.server.protocol.v1_0.type.messaging.EncodingRetainingSection;
-import org.apache.qpid.server.protocol.v1_0.type.messaging.Header;
-import org.apache.qpid.server.protocol.v1_0.type.messaging.HeaderSection;
+import org.apache.qpid.server.protocol.v1_0.type.messaging.FooterSection;
 import org.apache.qpid.server.protocol.v1_0.type.messaging.Modified;
 import org.apache.qpid.server.protocol.v1_0.type.messaging.Rejected;
 import org.apache.qpid.server.protocol.v1_0.type.messaging.Released;
@@ -151,71 +149,22 @@ class ConsumerTarget_1_0 extends AbstractConsumerTarget<ConsumerTarget_1_0>
         try
         {
             QpidByteBuffer bodyContent = message.getContent();
-            HeaderSection headerSection = message.getHeaderSection();
 
-            UnsignedInteger ttl = headerSection == null ? null : headerSection.getValue().getTtl();
-            if (entry.getDeliveryCount() != 0 || ttl != null)
+            List<QpidByteBuffer> payload = new ArrayList<>(4);
+            QpidByteBuffer encodedHeader =
+                    message.getEncodedHeaderSection(entry.getDeliveryCount(), System.currentTimeMillis());
+            if (encodedHeader != null)
             {
-                Header header = new Header();
-                if (headerSection != null)
-                {
-                    final Header oldHeader = headerSection.getValue();
-                    header.setDurable(oldHeader.getDurable());
-                    header.setPriority(oldHeader.getPriority());
-
-                    if (ttl != null)
-                    {
-                        long timeSpentOnBroker = System.currentTimeMillis() - message.getArrivalTime();
-                        final long adjustedTtl = Math.max(0L, ttl.longValue() - timeSpentOnBroker);
-                        header.setTtl(UnsignedInteger.valueOf(adjustedTtl));
-                    }
-                    headerSection.dispose();
-                }
-
-                if (entry.getDeliveryCount() != 0)
-                {
-                    header.setDeliveryCount(UnsignedInteger.valueOf(entry.getDeliveryCount()));
-                }
-
-                headerSection = header.createEncodingRetainingSection();
+                payload.add(encodedHeader);
             }
-            List<QpidByteBuffer> payload = new ArrayList<>();
-            if(headerSection != null)
-            {
-                payload.add(headerSection.getEncodedForm());
-                headerSection.dispose();
-            }
-            EncodingRetainingSection<?> section;
-            if((section = message.getDeliveryAnnotationsSection()) != null)
-            {
-                payload.add(section.getEncodedForm());
-                section.dispose();
-            }
-
-            if((section = message.getMessageAnnotationsSection()) != null)
-            {
-                payload.add(section.getEncodedForm());
-                section.dispose();
-            }
-
-            if((section = message.getPropertiesSection()) != null)
-            {
-                payload.add(section.getEncodedForm());
-                section.dispose();
-            }
-
-            if((section = message.getApplicationPropertiesSection()) != null)
-            {
-                payload.add(section.getEncodedForm());
-                section.dispose();
-            }
-
+            payload.add(message.getEncodedAnnotationsAndProperties());
             payload.add(bodyContent);
 
-            if((section = message.getFooterSection()) != null)
+            FooterSection footerSection = message.getFooterSection();
+            if (footerSection != null)
             {
-                payload.add(section.getEncodedForm());
-                section.dispose();
+                payload.add(footerSection.getEncodedForm());
+                footerSection.dispose();
             }
 
             try (QpidByteBuffer combined = QpidByteBuffer.concatenate(payload))
@@ -21,7 +21,6 @@ package org.apache.qpid.server.protocol.v1_0;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
 import org.apache.qpid.server.protocol.v1_0.type.BaseSource;
@@ -38,7 +37,7 @@ public class Delivery
 {
     private final UnsignedInteger _deliveryId;
     private final Binary _deliveryTag;
-    private final List<Transfer> _transfers = new CopyOnWriteArrayList<>();
+    private final List<QpidByteBuffer> _payloads = new ArrayList<>();
     private final LinkEndpoint<? extends BaseSource, ? extends BaseTarget> _linkEndpoint;
     private final UnsignedInteger _messageFormat;
     private volatile boolean _complete;
@@ -125,7 +124,12 @@ public class Delivery
                                                           _deliveryId.intValue()));
         }
 
-        _transfers.add(transfer);
+        final QpidByteBuffer payload = transfer.getPayload();
+        if (payload != null)
+        {
+            _totalPayloadSize += (long) payload.remaining();
+            _payloads.add(payload);
+        }
         if (Boolean.TRUE.equals(transfer.getAborted()))
         {
             _aborted = true;
@@ -170,13 +174,7 @@ public class Delivery
             }
         }
 
-        try (QpidByteBuffer payload = transfer.getPayload())
-        {
-            if (payload != null)
-            {
-                _totalPayloadSize += (long) payload.remaining();
-            }
-        }
+        transfer.dispose();
     }
 
     public LinkEndpoint<? extends BaseSource, ? extends BaseTarget> getLinkEndpoint()
@@ -184,27 +182,22 @@ public class Delivery
         return _linkEndpoint;
     }
 
+    /**
+     * Hands over the payload received so far as a single buffer.  The payloads of the individual transfers are
+     * not copied: the returned buffer is a view over the buffers in which they were received.
+     */
     public QpidByteBuffer getPayload()
     {
-        List<QpidByteBuffer> transferBuffers = new ArrayList<>(_transfers.size());
-        for (Transfer t : _transfers)
-        {
-            transferBuffers.add(t.getPayload());
-            t.dispose();
-        }
-        _transfers.clear();
-        final QpidByteBuffer combined = QpidByteBuffer.concatenate(transferBuffers);
-        transferBuffers.forEach(QpidByteBuffer::dispose);
+        final QpidByteBuffer combined = QpidByteBuffer.concatenate(_payloads);
+        _payloads.forEach(QpidByteBuffer::dispose);
+        _payloads.clear();
         return combined;
     }
 
     public void discard()
     {
-        for (Transfer transfer: _transfers)
-        {
-            transfer.dispose();
-        }
-        _transfers.clear();
+        _payloads.forEach(QpidByteBuffer::dispose);
+        _payloads.clear();
     }
 
 }
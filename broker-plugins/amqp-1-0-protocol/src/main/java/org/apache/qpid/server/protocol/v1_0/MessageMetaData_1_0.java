@@ -21,6 +21,7 @@
 package org.apache.qpid.server.protocol.v1_0;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -50,6 +51,7 @@ import org.apache.qpid.server.protocol.v1_0.type.messaging.DataSection;
 import org.apache.qpid.server.protocol.v1_0.type.messaging.DeliveryAnnotationsSection;
 import org.apache.qpid.server.protocol.v1_0.type.messaging.EncodingRetainingSection;
 import org.apache.qpid.server.protocol.v1_0.type.messaging.FooterSection;
+import org.apache.qpid.server.protocol.v1_0.type.messaging.Header;
 import org.apache.qpid.server.protocol.v1_0.type.messaging.HeaderSection;
 import org.apache.qpid.server.protocol.v1_0.type.messaging.MessageAnnotationsSection;
 import org.apache.qpid.server.protocol.v1_0.type.messaging.Properties;
@@ -77,6 +79,10 @@ public class MessageMetaData_1_0 implements StorableMessageMetaData
     private ApplicationPropertiesSection _applicationPropertiesSection;
     private FooterSection _footerSection;
 
+    private QpidByteBuffer _encodedAnnotationsAndProperties;
+    private QpidByteBuffer _encodedRedeliveryHeader;
+    private int _redeliveryHeaderDeliveryCount;
+
 
     private final MessageHeader_1_0 _messageHeader = new MessageHeader_1_0();
     private final int _version;
@@ -276,6 +282,7 @@ public class MessageMetaData_1_0 implements StorableMessageMetaData
     @Override
     public synchronized void dispose()
     {
+        clearEncodedDeliverySections();
         if (_headerSection != null)
         {
             _headerSection.dispose();
@@ -309,8 +316,9 @@ public class MessageMetaData_1_0 implements StorableMessageMetaData
     }
 
     @Override
-    public void reallocate()
+    public synchronized void reallocate()
     {
+        clearEncodedDeliverySections();
         if (_headerSection != null)
         {
             _headerSection.reallocate();
@@ -338,8 +346,9 @@ public class MessageMetaData_1_0 implements StorableMessageMetaData
     }
 
     @Override
-    public void clearEncodedForm()
+    public synchronized void clearEncodedForm()
     {
+        clearEncodedDeliverySections();
         if (_headerSection != null)
         {
             _headerSection.clearEncodedForm();
@@ -391,6 +400,120 @@ public class MessageMetaData_1_0 implements StorableMessageMetaData
         return _footerSection == null ? null : _footerSection.copy();
     }
 
+    /**
+     * Returns the encoded header section to send for a delivery of the message, or null if there is none.
+     * <p>
+     * The header received with the message is sent unchanged on the first delivery of a message without a ttl.
+     * Redeliveries of such a message reuse an encoding of the header for the latest delivery count.  The header of
+     * a message with a ttl is encoded for each delivery as the remaining ttl decreases.
+     *
+     * @param deliveryCount the number of previous delivery attempts
+     * @param currentTime the current time, used to adjust the ttl for the time the message spent on the broker
+     * @return the encoded header, to be disposed by the caller
+     */
+    public synchronized QpidByteBuffer getEncodedHeaderSection(final int deliveryCount, final long currentTime)
+    {
+        final Header originalHeader = _headerSection == null ? null : _headerSection.getValue();
+        final UnsignedInteger ttl = originalHeader == null ? null : originalHeader.getTtl();
+        if (ttl != null)
+        {
+            final long adjustedTtl = Math.max(0L, ttl.longValue() - (currentTime - _arrivalTime));
+            return encodeHeader(originalHeader, UnsignedInteger.valueOf(adjustedTtl), deliveryCount);
+        }
+        else if (deliveryCount == 0)
+        {
+            return _headerSection == null ? null : _headerSection.getEncodedForm();
+        }
+        else
+        {
+            if (_encodedRedeliveryHeader == null || _redeliveryHeaderDeliveryCount != deliveryCount)
+            {
+                if (_encodedRedeliveryHeader != null)
+                {
+                    _encodedRedeliveryHeader.dispose();
+                }
+                _encodedRedeliveryHeader = encodeHeader(originalHeader, null, deliveryCount);
+                _redeliveryHeaderDeliveryCount = deliveryCount;
+            }
+            return _encodedRedeliveryHeader.duplicate();
+        }
+    }
+
+    /**
+     * Returns the encoded delivery annotations, message annotations, properties and application properties sections
+     * as a single buffer.  The buffer is composed from slices of the retained section encodings on first use and
+     * kept until the metadata is disposed, reallocated or has its encoded form cleared.
+     *
+     * @return the encoded sections, to be disposed by the caller
+     */
+    public synchronized QpidByteBuffer getEncodedAnnotationsAndProperties()
+    {
+        if (_encodedAnnotationsAndProperties == null)
+        {
+            final List<QpidByteBuffer> encodedSections = new ArrayList<>(4);
+            if (_deliveryAnnotationsSection != null)
+            {
+                encodedSections.add(_deliveryAnnotationsSection.getEncodedForm());
+            }
+            if (_messageAnnotationsSection != null)
+            {
+                encodedSections.add(_messageAnnotationsSection.getEncodedForm());
+            }
+            if (_propertiesSection != null)
+            {
+                encodedSections.add(_propertiesSection.getEncodedForm());
+            }
+            if (_applicationPropertiesSection != null)
+            {
+                encodedSections.add(_applicationPropertiesSection.getEncodedForm());
+            }
+            _encodedAnnotationsAndProperties = QpidByteBuffer.concatenate(encodedSections);
+            encodedSections.forEach(QpidByteBuffer::dispose);
+        }
+        return _encodedAnnotationsAndProperties.duplicate();
+    }
+
+    private static QpidByteBuffer encodeHeader(final Header originalHeader,
+                                               final UnsignedInteger ttl,
+                                               final int deliveryCount)
+    {
+        final Header header = new Header();
+        if (originalHeader != null)
+        {
+            header.setDurable(originalHeader.getDurable());
+            header.setPriority(originalHeader.getPriority());
+        }
+        header.setTtl(ttl);
+        if (deliveryCount != 0)
+        {
+            header.setDeliveryCount(UnsignedInteger.valueOf(deliveryCount));
+        }
+
+        final HeaderSection headerSection = header.createEncodingRetainingSection();
+        try
+        {
+            return headerSection.getEncodedForm();
+        }
+        finally
+        {
+            headerSection.dispose();
+        }
+    }
+
+    private void clearEncodedDeliverySections()
+    {
+        if (_encodedAnnotationsAndProperties != null)
+        {
+            _encodedAnnotationsAndProperties.dispose();
+            _encodedAnnotationsAndProperties = null;
+        }
+        if (_encodedRedeliveryHeader != null)
+        {
+            _encodedRedeliveryHeader.dispose();
+            _encodedRedeliveryHeader = null;
+        }
+    }
+
     public int getVersion()
     {
         return _version;
@@ -171,6 +171,16 @@ public class Message_1_0 extends AbstractServerMessageImpl<Message_1_0, MessageM
         return getMessageMetaData().getFooterSection();
     }
 
+    public QpidByteBuffer getEncodedHeaderSection(final int deliveryCount, final long currentTime)
+    {
+        return getMessageMetaData().getEncodedHeaderSection(deliveryCount, currentTime);
+    }
+
+    public QpidByteBuffer getEncodedAnnotationsAndProperties()
+    {
+        return getMessageMetaData().getEncodedAnnotationsAndProperties();
+    }
+
     @Override
     public QpidByteBuffer getContent(final int offset, final int length)
     {
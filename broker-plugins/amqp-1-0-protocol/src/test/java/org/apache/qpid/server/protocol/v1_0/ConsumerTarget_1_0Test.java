@@ -20,7 +20,9 @@
  */
 package org.apache.qpid.server.protocol.v1_0;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyBoolean;
@@ -58,6 +60,7 @@ import org.apache.qpid.server.protocol.v1_0.type.messaging.HeaderSection;
 import org.apache.qpid.server.protocol.v1_0.type.messaging.MessageAnnotations;
 import org.apache.qpid.server.protocol.v1_0.type.messaging.MessageAnnotationsSection;
 import org.apache.qpid.server.protocol.v1_0.type.messaging.Properties;
+import org.apache.qpid.server.protocol.v1_0.type.messaging.PropertiesSection;
 import org.apache.qpid.server.protocol.v1_0.type.transport.Transfer;
 import org.apache.qpid.server.store.StoredMessage;
 import org.apache.qpid.test.utils.UnitTestBase;
@@ -139,6 +142,64 @@ public class ConsumerTarget_1_0Test extends UnitTestBase
         assertTrue("Unexpected ttl", sentHeader.getTtl().longValue() <= 1000);
     }
 
+    @Test
+    public void testDeliveryCountSetOnRedelivery() throws Exception
+    {
+        final Header header = new Header();
+        header.setDurable(true);
+        final Message_1_0 message = createTestMessage(header, System.currentTimeMillis());
+
+        for (int deliveryCount = 0; deliveryCount < 3; deliveryCount++)
+        {
+            final List<EncodingRetainingSection<?>> sections = sendAndParse(message, deliveryCount);
+
+            assertEquals("Unexpected number of sections", 6, sections.size());
+            assertTrue("Unexpected first section", sections.get(0) instanceof HeaderSection);
+            assertTrue("Unexpected second section", sections.get(1) instanceof DeliveryAnnotationsSection);
+            assertTrue("Unexpected third section", sections.get(2) instanceof MessageAnnotationsSection);
+            assertTrue("Unexpected fourth section", sections.get(3) instanceof PropertiesSection);
+            assertTrue("Unexpected fifth section", sections.get(4) instanceof ApplicationPropertiesSection);
+            assertTrue("Unexpected sixth section", sections.get(5) instanceof FooterSection);
+
+            final Header sentHeader = ((HeaderSection) sections.get(0)).getValue();
+            assertEquals("Unexpected durable", Boolean.TRUE, sentHeader.getDurable());
+            if (deliveryCount == 0)
+            {
+                assertNull("Unexpected delivery count", sentHeader.getDeliveryCount());
+            }
+            else
+            {
+                assertEquals("Unexpected delivery count",
+                             UnsignedInteger.valueOf(deliveryCount),
+                             sentHeader.getDeliveryCount());
+            }
+            sections.forEach(EncodingRetainingSection::dispose);
+        }
+    }
+
+    private List<EncodingRetainingSection<?>> sendAndParse(final Message_1_0 message, final int deliveryCount)
+            throws Exception
+    {
+        final MessageInstance messageInstance = mock(MessageInstance.class);
+        when(messageInstance.getMessage()).thenReturn(message);
+        when(messageInstance.getDeliveryCount()).thenReturn(deliveryCount);
+
+        final AtomicReference<QpidByteBuffer> payloadRef = new AtomicReference<>();
+        doAnswer(invocation ->
+                 {
+                     final Transfer transfer = (Transfer) invocation.getArguments()[0];
+                     payloadRef.set(transfer.getPayload().duplicate());
+                     return null;
+                 }).when(_sendingLinkEndpoint).transfer(any(Transfer.class), anyBoolean());
+
+        _consumerTarget.doSend(mock(MessageInstanceConsumer.class), messageInstance, false);
+
+        try (QpidByteBuffer payload = payloadRef.get())
+        {
+            return new SectionDecoderImpl(_describedTypeRegistry.getSectionDecoderRegistry()).parseAll(payload);
+        }
+    }
+
     private Message_1_0 createTestMessage(final Header header, long arrivalTime)
     {
         DeliveryAnnotationsSection deliveryAnnotations =
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.qpid.server.protocol.v1_0;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.protocol.v1_0.type.Binary;
+import org.apache.qpid.server.protocol.v1_0.type.UnsignedInteger;
+import org.apache.qpid.server.protocol.v1_0.type.transport.Transfer;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class DeliveryTest extends UnitTestBase
+{
+    @Test
+    public void testPayloadOfMultipleTransfers()
+    {
+        final Transfer first = createTransfer("first-", true);
+        final Transfer second = createTransfer("second-", true);
+        final Transfer third = createTransfer("third", false);
+
+        final Delivery delivery = new Delivery(first, mock(LinkEndpoint.class));
+        delivery.addTransfer(second);
+        delivery.addTransfer(third);
+
+        assertTrue("Delivery should be complete", delivery.isComplete());
+        assertEquals("Unexpected total payload size", 18, delivery.getTotalPayloadSize());
+        assertNull("Transfer payload should be released on arrival", first.getPayload());
+        assertNull("Transfer payload should be released on arrival", third.getPayload());
+
+        try (QpidByteBuffer payload = delivery.getPayload())
+        {
+            final byte[] content = new byte[payload.remaining()];
+            payload.get(content);
+            assertArrayEquals("Unexpected payload",
+                              "first-second-third".getBytes(StandardCharsets.US_ASCII),
+                              content);
+        }
+    }
+
+    @Test
+    public void testDiscard()
+    {
+        final Delivery delivery = new Delivery(createTransfer("first", true), mock(LinkEndpoint.class));
+        delivery.discard();
+
+        try (QpidByteBuffer payload = delivery.getPayload())
+        {
+            assertEquals("Discarded delivery should have no payload", 0, payload.remaining());
+        }
+    }
+
+    private Transfer createTransfer(final String content, final boolean more)
+    {
+        final Transfer transfer = new Transfer();
+        transfer.setDeliveryId(UnsignedInteger.ONE);
+        transfer.setDeliveryTag(new Binary("tag".getBytes(StandardCharsets.US_ASCII)));
+        transfer.setMore(more);
+        try (QpidByteBuffer payload = QpidByteBuffer.wrap(content.getBytes(StandardCharsets.US_ASCII)))
+        {
+            transfer.setPayload(payload);
+        }
+        return transfer;
+    }
+}
@@ -21,7 +21,9 @@
 package org.apache.qpid.server.protocol.v1_0;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyBoolean;
 import static org.mockito.Matchers.anyString;
@@ -31,15 +33,18 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
 import java.net.InetSocketAddress;
 import java.security.Principal;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.UUID;
 
 import javax.security.auth.Subject;
 
+import com.google.common.util.concurrent.SettableFuture;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
@@ -68,12 +73,16 @@ import org.apache.qpid.server.protocol.v1_0.type.security.SaslInit;
 import org.apache.qpid.server.protocol.v1_0.type.transport.Open;
 import org.apache.qpid.server.security.SubjectCreator;
 import org.apache.qpid.server.security.auth.AuthenticatedPrincipal;
+import org.apache.qpid.server.security.auth.SubjectAuthenticationResult;
 import org.apache.qpid.server.security.auth.manager.AnonymousAuthenticationManager;
 import org.apache.qpid.server.security.auth.manager.AnonymousAuthenticationManagerFactory;
 import org.apache.qpid.server.security.auth.manager.ExternalAuthenticationManagerImpl;
+import org.apache.qpid.server.security.auth.sasl.SaslAuthenticationExecutor;
+import org.apache.qpid.server.security.auth.sasl.SaslNegotiator;
 import org.apache.qpid.server.transport.AMQPConnection;
 import org.apache.qpid.server.transport.AggregateTicker;
 import org.apache.qpid.server.transport.ByteBufferSender;
+import org.apache.qpid.server.transport.CapturingByteBufferSender;
 import org.apache.qpid.server.transport.ServerNetworkConnection;
 import org.apache.qpid.server.virtualhost.ConnectionEstablishmentPolicy;
 import org.apache.qpid.server.virtualhost.VirtualHostPrincipal;
@@ -284,6 +293,78 @@ public class ProtocolEngine_1_0_0Test extends UnitTestBase
     }
 
 
+    @Test
+    public void testInputPipelinedBehindSaslResponseWaitsForAuthentication() throws Exception
+    {
+        final Map<String, Object> attrs = Collections.singletonMap(ConfiguredObject.NAME, getTestName());
+        final AnonymousAuthenticationManager anonymousAuthenticationManager =
+                (new AnonymousAuthenticationManagerFactory()).create(null, attrs, _broker);
+        when(_port.getAuthenticationProvider()).thenReturn(anonymousAuthenticationManager);
+        final SubjectCreator subjectCreator =
+                new SubjectCreator(anonymousAuthenticationManager, Collections.emptyList(), null);
+        when(_port.getSubjectCreator(anyBoolean(), anyString())).thenReturn(subjectCreator);
+
+        final SaslAuthenticationExecutor executor = mock(SaslAuthenticationExecutor.class);
+        final ArgumentCaptor<SaslNegotiator> negotiatorCaptor = ArgumentCaptor.forClass(SaslNegotiator.class);
+        final SettableFuture<SubjectAuthenticationResult> evaluation = SettableFuture.create();
+        when(executor.authenticate(any(SubjectCreator.class), negotiatorCaptor.capture(), any(byte[].class)))
+                .thenReturn(evaluation);
+        when(_port.getSaslAuthenticationExecutor()).thenReturn(executor);
+
+        allowMechanisms(AnonymousAuthenticationManager.MECHANISM_NAME);
+
+        createEngine(Transport.TCP);
+
+        _protocolEngine_1_0_0.received(QpidByteBuffer.wrap(ProtocolEngineCreator_1_0_0_SASL.getInstance()
+                                                                   .getHeaderIdentifier()));
+
+        final ByteArrayOutputStream pipelinedAmqp = new ByteArrayOutputStream();
+        pipelinedAmqp.write(ProtocolEngineCreator_1_0_0.getInstance().getHeaderIdentifier());
+        final Open open = new Open();
+        open.setContainerId("testContainerId");
+        pipelinedAmqp.write(encode(AMQFrame.createAMQFrame((short) 0, open)));
+
+        final ByteArrayOutputStream pipelined = new ByteArrayOutputStream();
+        final SaslInit init = new SaslInit();
+        init.setMechanism(Symbol.valueOf("ANONYMOUS"));
+        pipelined.write(encode(new SASLFrame(init)));
+        pipelined.write(pipelinedAmqp.toByteArray());
+
+        final QpidByteBuffer input = QpidByteBuffer.wrap(pipelined.toByteArray());
+        _protocolEngine_1_0_0.received(input);
+
+        assertTrue("Reading not blocked during authentication", _protocolEngine_1_0_0.isTransportBlockedForReading());
+        assertEquals("Input pipelined behind the SASL response consumed during authentication",
+                     pipelinedAmqp.size(), input.remaining());
+        verify(_virtualHost, never()).registerConnection(any(AMQPConnection.class),
+                                                         any(ConnectionEstablishmentPolicy.class));
+
+        evaluation.set(subjectCreator.authenticate(negotiatorCaptor.getValue(), new byte[0]));
+        _protocolEngine_1_0_0.setIOThread(Thread.currentThread());
+        final Iterator<Runnable> pendingIterator = _protocolEngine_1_0_0.processPendingIterator();
+        while (pendingIterator.hasNext())
+        {
+            pendingIterator.next().run();
+        }
+
+        assertFalse("Reading blocked after authentication", _protocolEngine_1_0_0.isTransportBlockedForReading());
+
+        _protocolEngine_1_0_0.received(input);
+
+        verify(_virtualHost).registerConnection(any(AMQPConnection.class), any(ConnectionEstablishmentPolicy.class));
+    }
+
+    private byte[] encode(final AMQFrame<?> frame)
+    {
+        final AMQPDescribedTypeRegistry registry = AMQPDescribedTypeRegistry.newInstance().registerTransportLayer()
+                .registerMessagingLayer()
+                .registerTransactionLayer()
+                .registerSecurityLayer();
+        final CapturingByteBufferSender sender = new CapturingByteBufferSender();
+        new FrameWriter(registry, sender).send(frame);
+        return sender.toByteArray();
+    }
+
     private void createEngine(Transport transport)
     {
         _protocolEngine_1_0_0 =
@@ -41,6 +41,7 @@ import org.apache.qpid.server.model.AbstractConfiguredObject;
 import org.apache.qpid.server.model.BrokerLogInclusionRule;
 import org.apache.qpid.server.model.ConfiguredObject;
 import org.apache.qpid.server.model.ConfiguredObjectTypeRegistry;
+import org.apache.qpid.server.model.ManagedContextDefault;
 import org.apache.qpid.server.model.ManagedObject;
 import org.apache.qpid.server.model.State;
 import org.apache.qpid.server.model.StateTransition;
@@ -50,9 +51,31 @@ import org.apache.qpid.server.plugin.QpidServiceLoader;
 
 public abstract class AbstractLogger<X extends AbstractLogger<X>> extends AbstractConfiguredObject<X>
 {
+    public static final String LOGGER_ASYNC_ENABLED = "qpid.logger.asyncEnabled";
+    @ManagedContextDefault(name = LOGGER_ASYNC_ENABLED,
+            description = "If true, log events are written by a dedicated thread rather than by the thread emitting them")
+    public static final boolean DEFAULT_LOGGER_ASYNC_ENABLED = false;
+
+    public static final String LOGGER_ASYNC_QUEUE_SIZE = "qpid.logger.asyncQueueSize";
+    @ManagedContextDefault(name = LOGGER_ASYNC_QUEUE_SIZE,
+            description = "Maximum number of log events awaiting the writer thread of an asynchronous logger")
+    public static final int DEFAULT_LOGGER_ASYNC_QUEUE_SIZE = 8192;
+
+    public static final String LOGGER_ASYNC_MAXIMUM_BATCH_SIZE = "qpid.logger.asyncMaximumBatchSize";
+    @ManagedContextDefault(name = LOGGER_ASYNC_MAXIMUM_BATCH_SIZE,
+            description = "Maximum number of log events an asynchronous logger writes before flushing its output")
+    public static final int DEFAULT_LOGGER_ASYNC_MAXIMUM_BATCH_SIZE = 256;
+
+    public static final String LOGGER_ASYNC_OVERFLOW_POLICY = "qpid.logger.asyncOverflowPolicy";
+    @ManagedContextDefault(name = LOGGER_ASYNC_OVERFLOW_POLICY,
+            description = "Action taken when the queue of an asynchronous logger is full: DROP discards the event, "
+                          + "BLOCK makes the emitting thread wait for space")
+    public static final String DEFAULT_LOGGER_ASYNC_OVERFLOW_POLICY = "DROP";
+
     private final static ch.qos.logback.classic.Logger ROOT_LOGGER = ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME));
 
     private final CompositeFilter _compositeFilter = new CompositeFilter();
+    private volatile AsyncLoggingAppender _asyncAppender;
 
     protected AbstractLogger(Map<String, Object> attributes, ConfiguredObject<?> parent)
     {
@@ -80,6 +103,20 @@ public abstract class AbstractLogger<X extends AbstractLogger<X>> extends Abstra
         appender.setName(getName());
         appender.setContext(loggerContext);
 
+        if (getContextValue(Boolean.class, LOGGER_ASYNC_ENABLED))
+        {
+            final AsyncLoggingAppender asyncAppender =
+                    new AsyncLoggingAppender(appender,
+                                             getContextValue(Integer.class, LOGGER_ASYNC_QUEUE_SIZE),
+                                             getContextValue(Integer.class, LOGGER_ASYNC_MAXIMUM_BATCH_SIZE),
+                                             AsyncLoggingAppender.OverflowPolicy.valueOf(
+                                                     getContextValue(String.class, LOGGER_ASYNC_OVERFLOW_POLICY)));
+            asyncAppender.setName(getName());
+            asyncAppender.setContext(loggerContext);
+            _asyncAppender = asyncAppender;
+            appender = asyncAppender;
+        }
+
         for(LogInclusionRule logInclusionRule : getLogInclusionRules())
         {
             _compositeFilter.addLogInclusionRule((LogBackLogInclusionRule)logInclusionRule);
@@ -125,6 +162,18 @@ public abstract class AbstractLogger<X extends AbstractLogger<X>> extends Abstra
         return _compositeFilter.getWarnCount();
     }
 
+    public final int getAsyncQueueDepth()
+    {
+        final AsyncLoggingAppender asyncAppender = _asyncAppender;
+        return asyncAppender == null ? 0 : asyncAppender.getQueueDepth();
+    }
+
+    public final long getDroppedLogEventCount()
+    {
+        final AsyncLoggingAppender asyncAppender = _asyncAppender;
+        return asyncAppender == null ? 0L : asyncAppender.getDroppedEventCount();
+    }
+
     public void stopLogging()
     {
         Appender appender = ROOT_LOGGER.getAppender(getName());
@@ -0,0 +1,264 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.logging.logback;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+
+/**
+ * Hands logging events over to a single writer thread through a bounded ring so that the threads emitting the
+ * events (including IO threads logging operational messages) never wait for the underlying appender.
+ * <p>
+ * Filters attached to this appender are evaluated on the emitting thread, before the event is queued, so that
+ * filters depending on the emitting thread's context see the right context.  The writer thread passes events to
+ * the delegate appender in batches; output stream based delegates are flushed once per batch rather than once per
+ * event.  When the ring is full, events are either dropped and counted or the emitting thread waits for space,
+ * according to the overflow policy.
+ */
+public class AsyncLoggingAppender extends UnsynchronizedAppenderBase<ILoggingEvent>
+{
+    public enum OverflowPolicy
+    {
+        BLOCK,
+        DROP
+    }
+
+    private static final int MAXIMUM_QUEUE_SIZE = 1 << 30;
+    private static final long WRITER_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long PRODUCER_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final Appender<ILoggingEvent> _delegate;
+    private final OverflowPolicy _overflowPolicy;
+    private final int _maximumBatchSize;
+    private final int _capacity;
+    private final int _mask;
+    private final AtomicReferenceArray<ILoggingEvent> _ring;
+    /** Sequence of the next event to be written; only advanced by the writer thread. */
+    private final AtomicLong _head = new AtomicLong();
+    /** Sequence of the next slot to be claimed by an emitting thread. */
+    private final AtomicLong _tail = new AtomicLong();
+    private final AtomicLong _droppedEventCount = new AtomicLong();
+    private volatile boolean _writerWaiting;
+    private volatile boolean _stopping;
+    private volatile Thread _writer;
+
+    public AsyncLoggingAppender(final Appender<ILoggingEvent> delegate,
+                                final int queueSize,
+                                final int maximumBatchSize,
+                                final OverflowPolicy overflowPolicy)
+    {
+        if (queueSize <= 0 || queueSize > MAXIMUM_QUEUE_SIZE || maximumBatchSize <= 0)
+        {
+            throw new IllegalArgumentException(String.format("Invalid queue size %d or maximum batch size %d",
+                                                             queueSize,
+                                                             maximumBatchSize));
+        }
+        _delegate = delegate;
+        _overflowPolicy = overflowPolicy;
+        _maximumBatchSize = maximumBatchSize;
+        _capacity = queueSize == 1 ? 1 : Integer.highestOneBit(queueSize - 1) << 1;
+        _mask = _capacity - 1;
+        _ring = new AtomicReferenceArray<>(_capacity);
+
+        if (delegate instanceof OutputStreamAppender)
+        {
+            ((OutputStreamAppender<ILoggingEvent>) delegate).setImmediateFlush(false);
+        }
+    }
+
+    @Override
+    public void start()
+    {
+        if (!_delegate.isStarted())
+        {
+            _delegate.start();
+        }
+        _stopping = false;
+        final Thread writer = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                writeEvents();
+            }
+        }, "AsyncLogger-" + getName());
+        writer.setDaemon(true);
+        _writer = writer;
+        super.start();
+        writer.start();
+    }
+
+    @Override
+    public void stop()
+    {
+        if (!isStarted())
+        {
+            return;
+        }
+        super.stop();
+        _stopping = true;
+        final Thread writer = _writer;
+        if (writer != null && writer != Thread.currentThread())
+        {
+            LockSupport.unpark(writer);
+            try
+            {
+                writer.join();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+        _delegate.stop();
+    }
+
+    @Override
+    protected void append(final ILoggingEvent event)
+    {
+        event.prepareForDeferredProcessing();
+        while (true)
+        {
+            final long tail = _tail.get();
+            if (tail - _head.get() >= _capacity)
+            {
+                if (_overflowPolicy == OverflowPolicy.DROP || _stopping)
+                {
+                    _droppedEventCount.incrementAndGet();
+                    return;
+                }
+                LockSupport.parkNanos(this, PRODUCER_PARK_NANOS);
+            }
+            else if (_tail.compareAndSet(tail, tail + 1))
+            {
+                _ring.set((int) tail & _mask, event);
+                if (_writerWaiting)
+                {
+                    LockSupport.unpark(_writer);
+                }
+                return;
+            }
+        }
+    }
+
+    public Appender<ILoggingEvent> getDelegate()
+    {
+        return _delegate;
+    }
+
+    public int getQueueDepth()
+    {
+        return (int) Math.max(0L, _tail.get() - _head.get());
+    }
+
+    public long getDroppedEventCount()
+    {
+        return _droppedEventCount.get();
+    }
+
+    private void writeEvents()
+    {
+        while (true)
+        {
+            if (writeBatch() == 0)
+            {
+                if (_head.get() == _tail.get())
+                {
+                    if (_stopping)
+                    {
+                        return;
+                    }
+                    _writerWaiting = true;
+                    // re-check after announcing the wait so that an event published concurrently is not missed
+                    if (_head.get() == _tail.get() && !_stopping)
+                    {
+                        LockSupport.parkNanos(this, WRITER_PARK_NANOS);
+                    }
+                    _writerWaiting = false;
+                }
+                else
+                {
+                    // a slot has been claimed but its event is not yet published
+                    Thread.yield();
+                }
+            }
+        }
+    }
+
+    private int writeBatch()
+    {
+        long head = _head.get();
+        int written = 0;
+        while (written < _maximumBatchSize && head < _tail.get())
+        {
+            final int index = (int) head & _mask;
+            final ILoggingEvent event = _ring.get(index);
+            if (event == null)
+            {
+                break;
+            }
+            _ring.lazySet(index, null);
+            _head.lazySet(++head);
+            try
+            {
+                _delegate.doAppend(event);
+            }
+            catch (RuntimeException e)
+            {
+                addError("Failed to write log event", e);
+            }
+            written++;
+        }
+        if (written > 0)
+        {
+            flush();
+        }
+        return written;
+    }
+
+    private void flush()
+    {
+        if (_delegate instanceof OutputStreamAppender)
+        {
+            final OutputStream outputStream = ((OutputStreamAppender<ILoggingEvent>) _delegate).getOutputStream();
+            if (outputStream != null)
+            {
+                try
+                {
+                    outputStream.flush();
+                }
+                catch (IOException e)
+                {
+                    addError("Failed to flush log events", e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.logging.logback;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class AsyncLoggingAppenderTest extends UnitTestBase
+{
+    private static final int TIMEOUT = 5000;
+
+    private RecordingAppender _delegate;
+    private AsyncLoggingAppender _appender;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        _delegate = new RecordingAppender();
+        _delegate.setContext(new LoggerContext());
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        _delegate.release();
+        if (_appender != null)
+        {
+            _appender.stop();
+        }
+    }
+
+    @Test
+    public void testEventsWrittenInOrder() throws Exception
+    {
+        _appender = createAndStartAppender(16, AsyncLoggingAppender.OverflowPolicy.BLOCK);
+        _delegate.release();
+
+        for (int i = 0; i < 100; i++)
+        {
+            _appender.doAppend(createEvent("message" + i));
+        }
+        _appender.stop();
+
+        assertEquals("Unexpected number of written events", 100, _delegate.getEvents().size());
+        for (int i = 0; i < 100; i++)
+        {
+            assertEquals("Unexpected event", "message" + i, _delegate.getEvents().get(i).getFormattedMessage());
+        }
+        assertFalse("Delegate should be stopped", _delegate.isStarted());
+        assertEquals("Unexpected dropped event count", 0, _appender.getDroppedEventCount());
+    }
+
+    @Test
+    public void testEventsDroppedWhenFull() throws Exception
+    {
+        _appender = createAndStartAppender(4, AsyncLoggingAppender.OverflowPolicy.DROP);
+
+        _appender.doAppend(createEvent("first"));
+        assertTrue("Writer did not take first event", _delegate.awaitAppendStarted());
+
+        for (int i = 0; i < 10; i++)
+        {
+            _appender.doAppend(createEvent("message" + i));
+        }
+
+        assertEquals("Unexpected queue depth", 4, _appender.getQueueDepth());
+        assertEquals("Unexpected dropped event count", 6, _appender.getDroppedEventCount());
+
+        _delegate.release();
+        _appender.stop();
+
+        assertEquals("Unexpected number of written events", 5, _delegate.getEvents().size());
+        assertEquals("Unexpected queue depth", 0, _appender.getQueueDepth());
+    }
+
+    @Test
+    public void testEmittingThreadWaitsWhenFullWithBlockPolicy() throws Exception
+    {
+        _appender = createAndStartAppender(1, AsyncLoggingAppender.OverflowPolicy.BLOCK);
+
+        _appender.doAppend(createEvent("first"));
+        assertTrue("Writer did not take first event", _delegate.awaitAppendStarted());
+        _appender.doAppend(createEvent("second"));
+
+        final CountDownLatch thirdAppended = new CountDownLatch(1);
+        final Thread emitter = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                _appender.doAppend(createEvent("third"));
+                thirdAppended.countDown();
+            }
+        });
+        emitter.start();
+
+        assertFalse("Emitting thread should wait for space", thirdAppended.await(100, TimeUnit.MILLISECONDS));
+
+        _delegate.release();
+        assertTrue("Emitting thread did not complete", thirdAppended.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        _appender.stop();
+
+        assertEquals("Unexpected number of written events", 3, _delegate.getEvents().size());
+        assertEquals("Unexpected dropped event count", 0, _appender.getDroppedEventCount());
+    }
+
+    private AsyncLoggingAppender createAndStartAppender(final int queueSize,
+                                                        final AsyncLoggingAppender.OverflowPolicy overflowPolicy)
+    {
+        final AsyncLoggingAppender appender = new AsyncLoggingAppender(_delegate, queueSize, 8, overflowPolicy);
+        appender.setContext(_delegate.getContext());
+        appender.setName(getTestName());
+        appender.start();
+        return appender;
+    }
+
+    private ILoggingEvent createEvent(final String message)
+    {
+        final ILoggingEvent event = mock(ILoggingEvent.class);
+        when(event.getFormattedMessage()).thenReturn(message);
+        return event;
+    }
+
+    private static class RecordingAppender extends AppenderBase<ILoggingEvent>
+    {
+        private final List<ILoggingEvent> _events = new CopyOnWriteArrayList<>();
+        private final CountDownLatch _appendStarted = new CountDownLatch(1);
+        private final CountDownLatch _released = new CountDownLatch(1);
+
+        @Override
+        protected void append(final ILoggingEvent event)
+        {
+            _appendStarted.countDown();
+            try
+            {
+                _released.await(TIMEOUT, TimeUnit.MILLISECONDS);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+            _events.add(event);
+        }
+
+        boolean awaitAppendStarted() throws InterruptedException
+        {
+            return _appendStarted.await(TIMEOUT, TimeUnit.MILLISECONDS);
+        }
+
+        void release()
+        {
+            _released.countDown();
+        }
+
+        List<ILoggingEvent> getEvents()
+        {
+            return _events;
+        }
+    }
+}
@@ -30,6 +30,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -245,6 +246,51 @@ public class BrokerLoggerTest extends UnitTestBase
         errorFilter.delete();
     }
 
+    @Test
+    public void testAsynchronousLogger()
+    {
+        final ListAppender<ILoggingEvent> delegateAppender = new ListAppender<>();
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(ConfiguredObject.NAME, getTestName());
+        attributes.put(ConfiguredObject.CONTEXT,
+                       Collections.singletonMap(AbstractLogger.LOGGER_ASYNC_ENABLED, "true"));
+        AbstractBrokerLogger<?> asyncLogger = new AbstractBrokerLogger(attributes, _broker)
+        {
+            @Override
+            public Appender<ILoggingEvent> createAppenderInstance(Context context)
+            {
+                return delegateAppender;
+            }
+        };
+        try
+        {
+            asyncLogger.open();
+            asyncLogger.createChild(BrokerLogInclusionRule.class,
+                                    createBrokerNameAndLevelLogInclusionRuleAttributes("org.apache.qpid", LogLevel.INFO));
+
+            ch.qos.logback.classic.Logger rootLogger =
+                    (ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME);
+            assertTrue("Unexpected appender",
+                       rootLogger.getAppender(getTestName()) instanceof AsyncLoggingAppender);
+
+            Logger logger = LoggerFactory.getLogger("org.apache.qpid");
+            logger.debug("Test1");
+            logger.info("Test2");
+
+            // stopping drains the events queued for the writer thread
+            asyncLogger.stopLogging();
+
+            assertLoggedEvent(delegateAppender, false, "Test1", logger.getName(), Level.DEBUG);
+            assertLoggedEvent(delegateAppender, true, "Test2", logger.getName(), Level.INFO);
+            assertEquals("Unexpected queue depth", 0, asyncLogger.getAsyncQueueDepth());
+            assertEquals("Unexpected dropped event count", 0L, asyncLogger.getDroppedLogEventCount());
+        }
+        finally
+        {
+            asyncLogger.delete();
+        }
+    }
+
     private Map<String, Object> createBrokerNameAndLevelLogInclusionRuleAttributes(final String loggerName,
                                                                                    final LogLevel logLevel)
     {
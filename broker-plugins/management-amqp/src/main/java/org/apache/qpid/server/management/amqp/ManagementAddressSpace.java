@@ -20,6 +20,7 @@
  */
 package org.apache.qpid.server.management.amqp;
 
+import java.io.Closeable;
 import java.nio.charset.StandardCharsets;
 import java.security.AccessControlException;
 import java.security.AccessController;
@@ -73,7 +74,7 @@ import org.apache.qpid.server.virtualhost.LinkRegistryFactory;
 import org.apache.qpid.server.virtualhost.LinkRegistryModel;
 import org.apache.qpid.server.virtualhost.VirtualHostPropertiesNode;
 
-public class ManagementAddressSpace implements NamedAddressSpace
+public class ManagementAddressSpace implements NamedAddressSpace, Closeable
 {
 
     public static final String MANAGEMENT_ADDRESS_SPACE_NAME = "$management";
@@ -200,6 +201,12 @@ public class ManagementAddressSpace implements NamedAddressSpace
         return _managementNode;
     }
 
+    @Override
+    public void close()
+    {
+        _managementNode.close();
+    }
+
     @Override
     public boolean registerConnection(final AMQPConnection<?> connection,
                                       final ConnectionEstablishmentPolicy connectionEstablishmentPolicy)
@@ -23,11 +23,14 @@ package org.apache.qpid.server.management.amqp;
 import static org.apache.qpid.server.model.ConfiguredObjectTypeRegistry.getRawType;
 import static org.apache.qpid.server.model.ConfiguredObjectTypeRegistry.returnsCollectionOfConfiguredObjects;
 
+import java.io.Closeable;
 import java.io.Serializable;
 import java.lang.reflect.ParameterizedType;
 import java.nio.charset.Charset;
 import java.security.AccessControlException;
+import java.security.AccessControlContext;
 import java.security.AccessController;
+import java.security.PrivilegedAction;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -42,7 +45,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 
 import javax.security.auth.Subject;
@@ -96,7 +104,7 @@ import org.apache.qpid.server.txn.ServerTransaction;
 import org.apache.qpid.server.util.Action;
 import org.apache.qpid.server.util.StateChangeListener;
 
-class ManagementNode implements MessageSource, MessageDestination, BaseQueue
+class ManagementNode implements MessageSource, MessageDestination, BaseQueue, Closeable
 {
     private static final Logger LOGGER = LoggerFactory.getLogger(ManagementNode.class);
 
@@ -117,6 +125,7 @@ class ManagementNode implements MessageSource, MessageDestination, BaseQueue
     public static final String STATUS_CODE_HEADER = "statusCode";
     public static final String OFFSET_HEADER = "offset";
     public static final String COUNT_HEADER = "count";
+    public static final String TOTAL_COUNT_HEADER = "totalCount";
     public static final String MANAGEMENT_NODE_NAME = "$management";
     public static final String STATUS_DESCRIPTION_HEADER = "statusDescription";
     public static final String ATTRIBUTES_HEADER = "attributes";
@@ -135,6 +144,19 @@ class ManagementNode implements MessageSource, MessageDestination, BaseQueue
     public static final int STATUS_CODE_CONFLICT = 409;
     public static final int STATUS_CODE_INTERNAL_ERROR = 500;
     public static final int STATUS_CODE_NOT_IMPLEMENTED = 501;
+    public static final int STATUS_CODE_SERVICE_UNAVAILABLE = 503;
+
+    /** Maximum number of requests awaiting the management thread before further requests are refused */
+    public static final String MANAGEMENT_REQUEST_QUEUE_SIZE = "qpid.management.amqp.requestQueueSize";
+    private static final int DEFAULT_MANAGEMENT_REQUEST_QUEUE_SIZE = 256;
+    /**
+     * Maximum number of results returned by a single QUERY, unlimited by default.  When results are truncated the
+     * response carries the number of matching objects in the {@link #TOTAL_COUNT_HEADER} header and clients page
+     * through the remainder using offset.
+     */
+    public static final String MANAGEMENT_MAXIMUM_QUERY_RESULTS = "qpid.management.amqp.maximumQueryResults";
+    private static final int DEFAULT_MANAGEMENT_MAXIMUM_QUERY_RESULTS = Integer.MAX_VALUE;
+    private static final long REQUEST_THREAD_KEEP_ALIVE_SECONDS = 60L;
     private static final Comparator<? super ConfiguredObject<?>> OBJECT_COMPARATOR =
             new Comparator<ConfiguredObject<?>>()
             {
@@ -177,6 +199,10 @@ class ManagementNode implements MessageSource, MessageDestination, BaseQueue
 
     private final ManagementInputConverter _managementInputConverter;
 
+    private final ThreadPoolExecutor _requestExecutor;
+    private final AtomicInteger _outstandingRequests = new AtomicInteger();
+    private final int _maximumQueryResults;
+
     private static final InstanceProperties CONSUMED_INSTANCE_PROPERTIES = prop -> null;
 
     ManagementNode(final NamedAddressSpace addressSpace,
@@ -194,6 +220,30 @@ class ManagementNode implements MessageSource, MessageDestination, BaseQueue
         _managementInputConverter = new ManagementInputConverter(this);
 
         _configuredObjectFinder = new ConfiguredObjectFinder(configuredObject);
+
+        final String threadName = "AMQP-Management-" + configuredObject.getName();
+        _requestExecutor = new ThreadPoolExecutor(1, 1,
+                                                  REQUEST_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                                                  new ArrayBlockingQueue<>(getContextValue(configuredObject,
+                                                                                           MANAGEMENT_REQUEST_QUEUE_SIZE,
+                                                                                           DEFAULT_MANAGEMENT_REQUEST_QUEUE_SIZE)),
+                                                  runnable ->
+                                                  {
+                                                      final Thread thread = new Thread(runnable, threadName);
+                                                      thread.setDaemon(true);
+                                                      return thread;
+                                                  });
+        _requestExecutor.allowCoreThreadTimeOut(true);
+        _maximumQueryResults = getContextValue(configuredObject,
+                                               MANAGEMENT_MAXIMUM_QUERY_RESULTS,
+                                               DEFAULT_MANAGEMENT_MAXIMUM_QUERY_RESULTS);
+    }
+
+    private static int getContextValue(final ConfiguredObject<?> object, final String name, final int defaultValue)
+    {
+        return object.getContextKeys(false).contains(name)
+                ? object.getContextValue(Integer.class, name)
+                : defaultValue;
     }
 
     ConfiguredObject<?> getManagedObject()
@@ -357,6 +407,86 @@ class ManagementNode implements MessageSource, MessageDestination, BaseQueue
     }
 
     private synchronized void processRequest(InternalMessage message)
+    {
+        doProcessRequest(message);
+    }
+
+    /**
+     * Requests which only read the management model are processed on the management thread rather than on the IO
+     * thread of the requesting connection, so that a large QUERY cannot hold up the messaging traffic of that
+     * connection.  Requests which change the model remain synchronous so that their effect is visible as soon as
+     * the request has been published, unless earlier requests are still outstanding on the management thread, in
+     * which case they are queued behind them so that responses are sent in the order the requests arrived.
+     */
+    private boolean isReadOnlyRequest(InternalMessage message)
+    {
+        final InternalMessageHeader header = message.getMessageHeader();
+        final String id = (String) header.getHeader(IDENTITY_ATTRIBUTE);
+        final String type = (String) header.getHeader(TYPE_ATTRIBUTE);
+        final String operation = (String) header.getHeader(OPERATION_HEADER);
+
+        return (SELF_NODE_NAME.equals(id) && MANAGEMENT_TYPE.equals(type))
+               || (READ_OPERATION.getName().equals(operation) && _managedTypes.containsKey(type));
+    }
+
+    /**
+     * @return true if the request was handed to the management thread, which then becomes responsible for the
+     * disposal of the message
+     */
+    private boolean executeRequest(final InternalMessage message,
+                                   final MessageConverter<ServerMessage, InternalMessage> converter)
+    {
+        final AccessControlContext context = AccessController.getContext();
+        _outstandingRequests.incrementAndGet();
+        try
+        {
+            _requestExecutor.execute(() ->
+                                     {
+                                         try
+                                         {
+                                             AccessController.doPrivileged((PrivilegedAction<Void>) () ->
+                                             {
+                                                 processExecutedRequest(message);
+                                                 return null;
+                                             }, context);
+                                         }
+                                         finally
+                                         {
+                                             converter.dispose(message);
+                                             _outstandingRequests.decrementAndGet();
+                                         }
+                                     });
+            return true;
+        }
+        catch (RejectedExecutionException e)
+        {
+            _outstandingRequests.decrementAndGet();
+            LOGGER.debug("Refusing management request as {} requests are already outstanding",
+                         _requestExecutor.getQueue().size());
+            sendResponse(message, createFailureResponse(message,
+                                                        STATUS_CODE_SERVICE_UNAVAILABLE,
+                                                        "Too many outstanding management requests"));
+            return false;
+        }
+    }
+
+    private void processExecutedRequest(final InternalMessage message)
+    {
+        try
+        {
+            processRequest(message);
+        }
+        catch (RuntimeException e)
+        {
+            LOGGER.warn("Unexpected failure processing management request", e);
+            sendResponse(message, createFailureResponse(message,
+                                                        STATUS_CODE_INTERNAL_ERROR,
+                                                        "Unexpected failure processing request: {0}",
+                                                        e.getMessage()));
+        }
+    }
+
+    private void doProcessRequest(InternalMessage message)
     {
         String id = (String) message.getMessageHeader().getHeader(IDENTITY_ATTRIBUTE);
         String type = (String) message.getMessageHeader().getHeader(TYPE_ATTRIBUTE);
@@ -397,17 +527,28 @@ class ManagementNode implements MessageSource, MessageDestination, BaseQueue
 
         final InternalMessage msg = converter.convert(message, _addressSpace);
 
+        boolean executing = false;
         try
         {
             if (action != null)
             {
                 action.performAction(new ConsumedMessageInstance(msg));
             }
-            processRequest(msg);
+            if (isReadOnlyRequest(msg) || _outstandingRequests.get() != 0)
+            {
+                executing = executeRequest(msg, converter);
+            }
+            else
+            {
+                processRequest(msg);
+            }
         }
         finally
         {
-            converter.dispose(msg);
+            if (!executing)
+            {
+                converter.dispose(msg);
+            }
         }
 
     }
@@ -418,6 +559,15 @@ class ManagementNode implements MessageSource, MessageDestination, BaseQueue
         return false;
     }
 
+    /**
+     * Stops the management thread.  Requests already handed to it are still processed, later requests are refused.
+     */
+    @Override
+    public void close()
+    {
+        _requestExecutor.shutdown();
+    }
+
     private interface StandardOperation
     {
         String getName();
@@ -1113,7 +1263,7 @@ class ManagementNode implements MessageSource, MessageDestination, BaseQueue
         {
             if(msg.getMessageBody() instanceof Map)
             {
-                result = performQuery(requestHeader.getHeaderMap(), (Map)(msg.getMessageBody()));
+                result = performQuery(requestHeader.getHeaderMap(), (Map)(msg.getMessageBody()), responseHeader);
             }
             else
             {
@@ -1125,13 +1275,19 @@ class ManagementNode implements MessageSource, MessageDestination, BaseQueue
             return createFailureResponse(msg, STATUS_CODE_NOT_IMPLEMENTED, "Unknown operation {}", operation);
         }
         responseHeader.setHeader(STATUS_CODE_HEADER, STATUS_CODE_OK);
+        if(QUERY.equals(operation))
+        {
+            responseHeader.setHeader(COUNT_HEADER, ((List<?>) result.get(RESULTS)).size());
+        }
 
         responseMessage = InternalMessage.createMapMessage(_addressSpace.getMessageStore(), responseHeader, result);
 
         return responseMessage;
     }
 
-    private Map<?, ?> performQuery(final Map<String, Object> headerMap, final Map messageBody)
+    private Map<?, ?> performQuery(final Map<String, Object> headerMap,
+                                   final Map messageBody,
+                                   final MutableMessageHeader responseHeader)
     {
         @SuppressWarnings("unchecked")
         List<Object> attributeNameObjects = (List<Object>)_managementInputConverter.convert(List.class, messageBody.get(ATTRIBUTE_NAMES));
@@ -1202,7 +1358,7 @@ class ManagementNode implements MessageSource, MessageDestination, BaseQueue
             }
             else
             {
-                count = Integer.parseInt(headerMap.get(OFFSET_HEADER).toString());
+                count = Integer.parseInt(headerMap.get(COUNT_HEADER).toString());
             }
             if(count >= 0)
             {
@@ -1210,27 +1366,23 @@ class ManagementNode implements MessageSource, MessageDestination, BaseQueue
                 {
                     objects = objects.subList(0, count);
                 }
-                else
-                {
-                    objects = Collections.emptyList();
-                }
             }
             else if(objects.size() + count > 0)
             {
                 objects = objects.subList(0, objects.size()+count);
             }
         }
+        if(objects.size() > _maximumQueryResults)
+        {
+            responseHeader.setHeader(TOTAL_COUNT_HEADER, objects.size());
+            objects = objects.subList(0, _maximumQueryResults);
+        }
+
         List<List<Object>> resultList = new ArrayList<>(objects.size());
 
         for(ConfiguredObject<?> object : objects)
         {
-            List<Object> attributes = new ArrayList<>(attributeNames.size());
-            Map<?,?> convertedObject = _managementOutputConverter.convertToOutput(object, true);
-            for(String attributeName : attributeNames)
-            {
-                attributes.add(convertedObject.get(attributeName));
-            }
-            resultList.add(attributes);
+            resultList.add(_managementOutputConverter.convertToOutput(object, true, attributeNames));
         }
         Map<Object, Object> result = new LinkedHashMap<>();
         result.put(ATTRIBUTE_NAMES, attributeNames);
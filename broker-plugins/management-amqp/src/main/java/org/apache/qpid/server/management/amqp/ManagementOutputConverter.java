@@ -50,35 +50,18 @@ class ManagementOutputConverter
         attributes.put(ManagementNode.TYPE_ATTRIBUTE, _managementNode.getAmqpName(object.getTypeClass()));
         attributes.put(ManagementNode.QPID_TYPE, object.getType());
 
-        if(object != _managementNode.getManagedObject() && !_managementNode.isSyntheticChildClass(object.getCategoryClass()))
+        final String parentAttributeName = getParentAttributeName(object);
+        if (parentAttributeName != null)
         {
-            Class<? extends ConfiguredObject> parentType = object.getModel().getParentType(object.getCategoryClass());
-
-            if (parentType != _managementNode.getManagedObject().getCategoryClass())
-            {
-                attributes.put(parentType.getSimpleName().toLowerCase(), object.getParent());
-            }
-
+            attributes.put(parentAttributeName, object.getParent());
         }
 
+        final Map<String, Object> actualAttributes = actuals ? object.getActualAttributes() : null;
         for(String name : object.getAttributeNames())
         {
             if(!ID_AND_TYPE.contains(name))
             {
-                ConfiguredObjectAttribute<?, ?> attribute = object.getModel()
-                                                                  .getTypeRegistry()
-                                                                  .getAttributeTypes(object.getClass())
-                                                                  .get(name);
-
-                Object value = actuals
-                        ? object.getActualAttributes().get(name)
-                        : object.getAttribute(name);
-
-                if (attribute.isSecureValue(value))
-                {
-                    value = object.getAttribute(name);
-                }
-
+                Object value = getAttributeValue(object, name, actualAttributes);
                 if (value != null)
                 {
                     attributes.put(name, value);
@@ -89,6 +72,89 @@ class ManagementOutputConverter
         return convertMapToOutput(attributes);
     }
 
+    /**
+     * Converts only the named attributes of the object, in the order given, without building the output map of all
+     * of its attributes.  Values which the object does not have are returned as null.
+     */
+    List<Object> convertToOutput(final ConfiguredObject<?> object,
+                                 final boolean actuals,
+                                 final List<String> attributeNames)
+    {
+        final Collection<String> objectAttributeNames = object.getAttributeNames();
+        final Map<String, Object> actualAttributes = actuals ? object.getActualAttributes() : null;
+        final String parentAttributeName = getParentAttributeName(object);
+
+        final List<Object> values = new ArrayList<>(attributeNames.size());
+        for (String name : attributeNames)
+        {
+            final Object value;
+            if (!ID_AND_TYPE.contains(name) && objectAttributeNames.contains(name))
+            {
+                value = getAttributeValue(object, name, actualAttributes);
+            }
+            else if (ManagementNode.IDENTITY_ATTRIBUTE.equals(name))
+            {
+                value = object.getId();
+            }
+            else if (ManagementNode.OBJECT_PATH.equals(name))
+            {
+                value = _managementNode.generatePath(object);
+            }
+            else if (ManagementNode.TYPE_ATTRIBUTE.equals(name))
+            {
+                value = _managementNode.getAmqpName(object.getTypeClass());
+            }
+            else if (ManagementNode.QPID_TYPE.equals(name))
+            {
+                value = object.getType();
+            }
+            else if (name.equals(parentAttributeName))
+            {
+                value = object.getParent();
+            }
+            else
+            {
+                value = null;
+            }
+            values.add(convertObjectToOutput(value));
+        }
+        return values;
+    }
+
+    private String getParentAttributeName(final ConfiguredObject<?> object)
+    {
+        if(object != _managementNode.getManagedObject() && !_managementNode.isSyntheticChildClass(object.getCategoryClass()))
+        {
+            Class<? extends ConfiguredObject> parentType = object.getModel().getParentType(object.getCategoryClass());
+
+            if (parentType != _managementNode.getManagedObject().getCategoryClass())
+            {
+                return parentType.getSimpleName().toLowerCase();
+            }
+        }
+        return null;
+    }
+
+    private Object getAttributeValue(final ConfiguredObject<?> object,
+                                     final String name,
+                                     final Map<String, Object> actualAttributes)
+    {
+        ConfiguredObjectAttribute<?, ?> attribute = object.getModel()
+                                                          .getTypeRegistry()
+                                                          .getAttributeTypes(object.getClass())
+                                                          .get(name);
+
+        Object value = actualAttributes != null
+                ? actualAttributes.get(name)
+                : object.getAttribute(name);
+
+        if (attribute.isSecureValue(value))
+        {
+            value = object.getAttribute(name);
+        }
+        return value;
+    }
+
     Object convertObjectToOutput(final Object value)
     {
         if(value == null)
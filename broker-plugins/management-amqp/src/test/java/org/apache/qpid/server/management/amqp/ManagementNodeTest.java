@@ -0,0 +1,264 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.management.amqp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.security.PrivilegedAction;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.security.auth.Subject;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.qpid.server.connection.ConnectionPrincipal;
+import org.apache.qpid.server.message.InstanceProperties;
+import org.apache.qpid.server.message.MessageDestination;
+import org.apache.qpid.server.message.MessageInstance;
+import org.apache.qpid.server.message.RoutingResult;
+import org.apache.qpid.server.message.ServerMessage;
+import org.apache.qpid.server.message.internal.InternalMessage;
+import org.apache.qpid.server.message.internal.InternalMessageHeader;
+import org.apache.qpid.server.model.BrokerTestHelper;
+import org.apache.qpid.server.model.ConfiguredObject;
+import org.apache.qpid.server.model.NamedAddressSpace;
+import org.apache.qpid.server.model.Queue;
+import org.apache.qpid.server.model.VirtualHost;
+import org.apache.qpid.server.store.MessageStore;
+import org.apache.qpid.server.store.TestMemoryMessageStore;
+import org.apache.qpid.server.txn.ServerTransaction;
+import org.apache.qpid.server.util.Action;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class ManagementNodeTest extends UnitTestBase
+{
+    private static final String QUEUE_TYPE = "org.apache.qpid.Queue";
+    private static final long TIMEOUT_MILLIS = 5000L;
+
+    private VirtualHost<?> _virtualHost;
+    private NamedAddressSpace _addressSpace;
+    private BlockingQueue<InternalMessage> _responses;
+    private volatile CountDownLatch _firstResponseBlocker;
+    private final AtomicBoolean _blockedFirstResponse = new AtomicBoolean();
+    private final CountDownLatch _firstResponseBlocked = new CountDownLatch(1);
+
+    @Before
+    public void setUp() throws Exception
+    {
+        _virtualHost = BrokerTestHelper.createVirtualHost(getTestName(), this);
+        for (int i = 0; i < 3; i++)
+        {
+            _virtualHost.createChild(Queue.class, Collections.singletonMap(Queue.NAME, "queue" + i));
+        }
+
+        _responses = new LinkedBlockingQueue<>();
+        final MessageStore messageStore = new TestMemoryMessageStore();
+        final MessageDestination responseDestination = mock(MessageDestination.class);
+        when(responseDestination.route(any(ServerMessage.class), any(String.class), any(InstanceProperties.class)))
+                .then(invocation -> new ResponseRoutingResult((InternalMessage) invocation.getArguments()[0]));
+
+        _addressSpace = mock(NamedAddressSpace.class);
+        when(_addressSpace.getMessageStore()).thenReturn(messageStore);
+        when(_addressSpace.getDefaultDestination()).thenReturn(responseDestination);
+    }
+
+    @Test
+    public void testQueryResultsNotLimitedByDefault() throws Exception
+    {
+        final ManagementNode node = new ManagementNode(_addressSpace, _virtualHost);
+        try
+        {
+            final String requestId = send(node, queryRequest());
+
+            final InternalMessage response = receiveResponse(requestId);
+            assertEquals("Unexpected status", ManagementNode.STATUS_CODE_OK, statusCode(response));
+            assertEquals("Unexpected count", 3, response.getMessageHeader().getHeader(ManagementNode.COUNT_HEADER));
+            assertEquals("Unexpected number of results", 3, ((List<?>) ((Map<?, ?>) response.getMessageBody()).get(ManagementNode.RESULTS)).size());
+            assertFalse("Total count unexpectedly reported",
+                        response.getMessageHeader().getHeaderNames().contains(ManagementNode.TOTAL_COUNT_HEADER));
+        }
+        finally
+        {
+            node.close();
+        }
+    }
+
+    @Test
+    public void testTruncatedQueryReportsTotalCount() throws Exception
+    {
+        _virtualHost.setContextVariable(ManagementNode.MANAGEMENT_MAXIMUM_QUERY_RESULTS, "2");
+        final ManagementNode node = new ManagementNode(_addressSpace, _virtualHost);
+        try
+        {
+            final String requestId = send(node, queryRequest());
+
+            final InternalMessage response = receiveResponse(requestId);
+            assertEquals("Unexpected status", ManagementNode.STATUS_CODE_OK, statusCode(response));
+            assertEquals("Unexpected count", 2, response.getMessageHeader().getHeader(ManagementNode.COUNT_HEADER));
+            assertEquals("Unexpected total count", 3, response.getMessageHeader().getHeader(ManagementNode.TOTAL_COUNT_HEADER));
+            assertEquals("Unexpected number of results", 2, ((List<?>) ((Map<?, ?>) response.getMessageBody()).get(ManagementNode.RESULTS)).size());
+        }
+        finally
+        {
+            node.close();
+        }
+    }
+
+    @Test
+    public void testOperationAfterOutstandingReadAnsweredInOrder() throws Exception
+    {
+        final ManagementNode node = new ManagementNode(_addressSpace, _virtualHost);
+        try
+        {
+            _firstResponseBlocker = new CountDownLatch(1);
+            final String readId = send(node, request("READ"));
+            assertTrue("READ response not sent",
+                       _firstResponseBlocked.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+            final String operationId = send(node, request("getStatistics"));
+            _firstResponseBlocker.countDown();
+
+            final InternalMessage readResponse = receiveResponse(readId);
+            assertEquals("Unexpected READ status", ManagementNode.STATUS_CODE_OK, statusCode(readResponse));
+            final InternalMessage operationResponse = receiveResponse(operationId);
+            assertEquals("Unexpected operation status", ManagementNode.STATUS_CODE_OK, statusCode(operationResponse));
+        }
+        finally
+        {
+            node.close();
+        }
+    }
+
+    @Test
+    public void testRequestsRefusedAfterClose() throws Exception
+    {
+        final ManagementNode node = new ManagementNode(_addressSpace, _virtualHost);
+        node.close();
+
+        final String requestId = send(node, queryRequest());
+
+        final InternalMessage response = receiveResponse(requestId);
+        assertEquals("Unexpected status", ManagementNode.STATUS_CODE_SERVICE_UNAVAILABLE, statusCode(response));
+    }
+
+    private InternalMessage queryRequest()
+    {
+        final Map<String, Object> headers = new HashMap<>();
+        headers.put(ManagementNode.IDENTITY_ATTRIBUTE, ManagementNode.SELF_NODE_NAME);
+        headers.put(ManagementNode.TYPE_ATTRIBUTE, ManagementNode.MANAGEMENT_TYPE);
+        headers.put(ManagementNode.OPERATION_HEADER, ManagementNode.QUERY);
+        headers.put(ManagementNode.ENTITY_TYPE_HEADER, QUEUE_TYPE);
+        return createRequest(headers, Collections.singletonMap(ManagementNode.ATTRIBUTE_NAMES,
+                                                               Collections.singletonList(ConfiguredObject.NAME)));
+    }
+
+    private InternalMessage request(final String operation)
+    {
+        final Map<String, Object> headers = new HashMap<>();
+        headers.put(ManagementNode.IDENTITY_ATTRIBUTE,
+                    _virtualHost.getChildByName(Queue.class, "queue0").getId().toString());
+        headers.put(ManagementNode.TYPE_ATTRIBUTE, QUEUE_TYPE);
+        headers.put(ManagementNode.OPERATION_HEADER, operation);
+        return createRequest(headers, Collections.emptyMap());
+    }
+
+    private InternalMessage createRequest(final Map<String, Object> headers, final Map<String, ?> body)
+    {
+        final InternalMessageHeader header = new InternalMessageHeader(headers, null, 0L, null, null,
+                                                                       UUID.randomUUID().toString(), null, null,
+                                                                       (byte) 4, System.currentTimeMillis(), 0L,
+                                                                       null, "response", System.currentTimeMillis());
+        return InternalMessage.createMapMessage(_addressSpace.getMessageStore(), header, body);
+    }
+
+    private String send(final ManagementNode node, final InternalMessage request)
+    {
+        final Subject subject = new Subject(false,
+                                            Collections.singleton(mock(ConnectionPrincipal.class)),
+                                            Collections.emptySet(),
+                                            Collections.emptySet());
+        Subject.doAs(subject, (PrivilegedAction<Void>) () ->
+        {
+            node.enqueue(request, null, null);
+            return null;
+        });
+        return request.getMessageHeader().getMessageId();
+    }
+
+    private InternalMessage receiveResponse(final String requestId) throws InterruptedException
+    {
+        final InternalMessage response = _responses.poll(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        assertTrue("No response received for request " + requestId, response != null);
+        assertEquals("Response received out of order", requestId, response.getMessageHeader().getCorrelationId());
+        return response;
+    }
+
+    private int statusCode(final InternalMessage response)
+    {
+        return ((Number) response.getMessageHeader().getHeader(ManagementNode.STATUS_CODE_HEADER)).intValue();
+    }
+
+    /** Collects the response when it is sent, holding back the first response while a blocker is set */
+    private class ResponseRoutingResult extends RoutingResult<InternalMessage>
+    {
+        private final InternalMessage _response;
+
+        ResponseRoutingResult(final InternalMessage response)
+        {
+            super(response);
+            _response = response;
+        }
+
+        @Override
+        public int send(final ServerTransaction txn, final Action<? super MessageInstance> postEnqueueAction)
+        {
+            final CountDownLatch blocker = _firstResponseBlocker;
+            if (blocker != null && _blockedFirstResponse.compareAndSet(false, true))
+            {
+                _firstResponseBlocked.countDown();
+                try
+                {
+                    blocker.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            _responses.add(_response);
+            return 1;
+        }
+    }
+}
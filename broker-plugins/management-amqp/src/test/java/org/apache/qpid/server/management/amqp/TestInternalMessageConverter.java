@@ -0,0 +1,61 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.management.amqp;
+
+import org.apache.qpid.server.message.internal.InternalMessage;
+import org.apache.qpid.server.model.NamedAddressSpace;
+import org.apache.qpid.server.plugin.MessageConverter;
+import org.apache.qpid.server.plugin.PluggableService;
+
+@SuppressWarnings("unused")
+@PluggableService
+public class TestInternalMessageConverter implements MessageConverter<InternalMessage, InternalMessage>
+{
+    @Override
+    public Class<InternalMessage> getInputClass()
+    {
+        return InternalMessage.class;
+    }
+
+    @Override
+    public Class<InternalMessage> getOutputClass()
+    {
+        return InternalMessage.class;
+    }
+
+    @Override
+    public InternalMessage convert(final InternalMessage message, final NamedAddressSpace addressSpace)
+    {
+        return message;
+    }
+
+    @Override
+    public void dispose(final InternalMessage message)
+    {
+
+    }
+
+    @Override
+    public String getType()
+    {
+        return "Internal to Internal";
+    }
+}
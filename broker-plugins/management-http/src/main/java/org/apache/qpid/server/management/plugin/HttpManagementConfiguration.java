@@ -85,6 +85,13 @@ public interface HttpManagementConfiguration<X extends HttpManagementConfigurati
     @ManagedContextDefault( name = SASL_EXCHANGE_EXPIRY_CONTEXT_NAME)
     long DEFAULT_SASL_EXCHANGE_EXPIRY = 60000L;
 
+    String QUERY_PARALLEL_FILTER_THRESHOLD_CONTEXT_NAME = "qpid.httpManagement.query.parallelFilterThreshold";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault( name = QUERY_PARALLEL_FILTER_THRESHOLD_CONTEXT_NAME,
+            description = "The number of objects at or above which the where clause of a query is evaluated in parallel"
+                          + " (zero disables parallel evaluation)")
+    int DEFAULT_QUERY_PARALLEL_FILTER_THRESHOLD = 10000;
+
     AuthenticationProvider getAuthenticationProvider(HttpServletRequest request);
     Port<?> getPort(HttpServletRequest request);
 }
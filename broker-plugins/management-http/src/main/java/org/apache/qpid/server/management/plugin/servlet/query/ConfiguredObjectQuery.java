@@ -20,12 +20,19 @@
  */
 package org.apache.qpid.server.management.plugin.servlet.query;
 
+import java.security.AccessController;
+import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import javax.security.auth.Subject;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -43,6 +50,8 @@ public final class ConfiguredObjectQuery
     private static final String[] STANDARD_FIELDS = new String[]{ConfiguredObject.ID, ConfiguredObject.NAME};
     public static final int DEFAULT_LIMIT = -1;
     public static final int DEFAULT_OFFSET = 0;
+    public static final int DEFAULT_PARALLEL_FILTER_THRESHOLD = 0;
+    private static final int PARALLEL_FILTER_CHUNK_SIZE = 1024;
 
     private final ConfiguredObjectExpressionFactory _expressionFactory = new ConfiguredObjectExpressionFactory();
 
@@ -77,16 +86,37 @@ public final class ConfiguredObjectQuery
                                  String orderByClause,
                                  String limitClause,
                                  String offsetClause)
+    {
+        this(objects, selectClause, whereClause, orderByClause, limitClause, offsetClause,
+             DEFAULT_PARALLEL_FILTER_THRESHOLD);
+    }
+
+    /**
+     * @param parallelFilterThreshold the number of objects at or above which the where clause is evaluated in
+     *                                parallel on the common fork-join pool, or zero to always evaluate it on the
+     *                                calling thread
+     */
+    public ConfiguredObjectQuery(List<ConfiguredObject<?>> objects,
+                                 String selectClause,
+                                 String whereClause,
+                                 String orderByClause,
+                                 String limitClause,
+                                 String offsetClause,
+                                 int parallelFilterThreshold)
     {
         int limit = toInt(limitClause, DEFAULT_LIMIT);
         int offset = toInt(offsetClause, DEFAULT_OFFSET);
 
         HeadersAndValueExpressions headersAndValueExpressions = parseSelectClause(selectClause);
 
-        List<ConfiguredObject<?>> filteredObjects = whereClause == null ? objects : filterObjects(objects, whereClause);
+        List<ConfiguredObject<?>> filteredObjects = whereClause == null
+                ? objects
+                : filterObjects(objects, whereClause, parallelFilterThreshold);
         List<ConfiguredObject<?>> orderedObjects = orderByClause == null ? filteredObjects : orderObjects(filteredObjects,
                                                                                                           orderByClause,
-                                                                                                          headersAndValueExpressions);
+                                                                                                          headersAndValueExpressions,
+                                                                                                          limit,
+                                                                                                          offset);
         List<ConfiguredObject<?>> limitedOrderedObjects = applyLimitAndOffset(orderedObjects, limit, offset);
 
         _headers = headersAndValueExpressions.getHeaders();
@@ -192,9 +222,10 @@ public final class ConfiguredObjectQuery
                 };
     }
 
-    private List<ConfiguredObject<?>> filterObjects(final List<ConfiguredObject<?>> objects, final String whereClause)
+    private List<ConfiguredObject<?>> filterObjects(final List<ConfiguredObject<?>> objects,
+                                                    final String whereClause,
+                                                    final int parallelFilterThreshold)
     {
-        List<ConfiguredObject<?>> filteredObjects = new ArrayList<>();
         ConfiguredObjectFilterParser parser = new ConfiguredObjectFilterParser();
         parser.setConfiguredObjectExpressionFactory(_expressionFactory);
         try
@@ -202,28 +233,83 @@ public final class ConfiguredObjectQuery
             final BooleanExpression<ConfiguredObject> expression =
                     parser.parseWhere(whereClause);
 
+            if (parallelFilterThreshold > 0 && objects.size() >= parallelFilterThreshold)
+            {
+                final Subject subject = Subject.getSubject(AccessController.getContext());
+                return ForkJoinPool.commonPool().invoke(new FilterTask(objects, expression, subject));
+            }
+            else
+            {
+                return filterObjects(objects, expression);
+            }
+        }
+        catch (ParseException | TokenMgrError e)
+        {
+            throw new SelectorParsingException("Unable to parse where clause", e);
+        }
+    }
 
-            for (ConfiguredObject<?> object : objects)
+    private static List<ConfiguredObject<?>> filterObjects(final List<ConfiguredObject<?>> objects,
+                                                           final BooleanExpression<ConfiguredObject> expression)
+    {
+        List<ConfiguredObject<?>> filteredObjects = new ArrayList<>();
+        for (ConfiguredObject<?> object : objects)
+        {
+            try
             {
-                try
+                if (expression.matches(object))
                 {
-                    if (expression.matches(object))
-                    {
-                        filteredObjects.add(object);
-                    }
-                }
-                catch (RuntimeException e)
-                {
-                    throw new EvaluationException("Error while evaluating object against where clause", e);
+                    filteredObjects.add(object);
                 }
             }
+            catch (RuntimeException e)
+            {
+                throw new EvaluationException("Error while evaluating object against where clause", e);
+            }
+        }
+        return filteredObjects;
+    }
+
+    /**
+     * Filters a list of objects by splitting it into chunks which are evaluated on the fork-join pool.  The chunks
+     * are evaluated under the subject of the requesting thread and joined in order so that the result is the same
+     * as that of a sequential evaluation.
+     */
+    private static final class FilterTask extends RecursiveTask<List<ConfiguredObject<?>>>
+    {
+        private final List<ConfiguredObject<?>> _objects;
+        private final BooleanExpression<ConfiguredObject> _expression;
+        private final Subject _subject;
 
+        private FilterTask(final List<ConfiguredObject<?>> objects,
+                           final BooleanExpression<ConfiguredObject> expression,
+                           final Subject subject)
+        {
+            _objects = objects;
+            _expression = expression;
+            _subject = subject;
         }
-        catch (ParseException | TokenMgrError e)
+
+        @Override
+        protected List<ConfiguredObject<?>> compute()
         {
-            throw new SelectorParsingException("Unable to parse where clause", e);
+            final int size = _objects.size();
+            if (size <= PARALLEL_FILTER_CHUNK_SIZE)
+            {
+                final PrivilegedAction<List<ConfiguredObject<?>>> action = () -> filterObjects(_objects, _expression);
+                return _subject == null ? action.run() : Subject.doAs(_subject, action);
+            }
+            else
+            {
+                final int middle = size / 2;
+                final FilterTask head = new FilterTask(_objects.subList(0, middle), _expression, _subject);
+                final FilterTask tail = new FilterTask(_objects.subList(middle, size), _expression, _subject);
+                tail.fork();
+                final List<ConfiguredObject<?>> filteredObjects = head.compute();
+                filteredObjects.addAll(tail.join());
+                return filteredObjects;
+            }
         }
-        return filteredObjects;
     }
 
     private List<List<Object>> evaluateResults(final List<ConfiguredObject<?>> filteredObjects, List<Expression> valueExpressions)
@@ -261,7 +347,12 @@ public final class ConfiguredObjectQuery
     }
 
 
-    class OrderByComparator implements Comparator<Object>
+    /**
+     * Compares objects by the values of the order by expressions, evaluated once for each object by
+     * {@link #createSortKey(ConfiguredObject, int)} rather than on every comparison.  Keys which compare equal are
+     * ordered by their position in the unordered list so that the order is stable.
+     */
+    class OrderByComparator implements Comparator<SortKey>
     {
         private final List<OrderByExpression> _orderByExpressions;
 
@@ -289,8 +380,18 @@ public final class ConfiguredObjectQuery
             }
         }
 
+        SortKey createSortKey(final ConfiguredObject<?> object, final int position)
+        {
+            final Object[] values = new Object[_orderByExpressions.size()];
+            for (int i = 0; i < values.length; i++)
+            {
+                values[i] = _orderByExpressions.get(i).evaluate(object);
+            }
+            return new SortKey(object, values, position);
+        }
+
         @Override
-        public int compare(final Object o1, final Object o2)
+        public int compare(final SortKey o1, final SortKey o2)
         {
             int index = 0;
             int comparisonResult = 0;
@@ -298,8 +399,8 @@ public final class ConfiguredObjectQuery
             {
                 try
                 {
-                    Comparable left = (Comparable) orderByExpression.evaluate(o1);
-                    Comparable right = (Comparable) orderByExpression.evaluate(o2);
+                    Comparable left = (Comparable) o1.getValue(index);
+                    Comparable right = (Comparable) o2.getValue(index);
                     if (left == null && right != null)
                     {
                         comparisonResult = -1;
@@ -328,22 +429,104 @@ public final class ConfiguredObjectQuery
                     throw new EvaluationException(String.format("The orderBy expression at position '%d' is unsupported", index), e);
                 }
             }
-            return comparisonResult;
+            return Integer.compare(o1.getPosition(), o2.getPosition());
+        }
+    }
+
+    private static final class SortKey
+    {
+        private final ConfiguredObject<?> _object;
+        private final Object[] _values;
+        private final int _position;
+
+        private SortKey(final ConfiguredObject<?> object, final Object[] values, final int position)
+        {
+            _object = object;
+            _values = values;
+            _position = position;
+        }
+
+        ConfiguredObject<?> getObject()
+        {
+            return _object;
+        }
+
+        Object getValue(final int index)
+        {
+            return _values[index];
+        }
+
+        int getPosition()
+        {
+            return _position;
         }
     }
 
     private List<ConfiguredObject<?>> orderObjects(final List<ConfiguredObject<?>> unorderedResults,
                                                    final String orderByClause,
-                                                   final HeadersAndValueExpressions headersAndValue)
+                                                   final HeadersAndValueExpressions headersAndValue,
+                                                   final int limit,
+                                                   final int offset)
     {
         List<OrderByExpression> orderByExpressions = parseOrderByClause(orderByClause, headersAndValue);
-        List<ConfiguredObject<?>> orderedObjects = new ArrayList<>(unorderedResults.size());
-        orderedObjects.addAll(unorderedResults);
-        Comparator<Object> comparator = new OrderByComparator(orderByExpressions, headersAndValue.getValueExpressions());
-        Collections.sort(orderedObjects, comparator);
+        OrderByComparator comparator = new OrderByComparator(orderByExpressions, headersAndValue.getValueExpressions());
+
+        final List<SortKey> sortKeys;
+        final int size = unorderedResults.size();
+        if (limit >= 0 && offset >= 0 && (long) offset + limit < size)
+        {
+            sortKeys = selectFirst(unorderedResults, comparator, offset + limit);
+        }
+        else
+        {
+            sortKeys = new ArrayList<>(size);
+            int position = 0;
+            for (ConfiguredObject<?> object : unorderedResults)
+            {
+                sortKeys.add(comparator.createSortKey(object, position++));
+            }
+        }
+        Collections.sort(sortKeys, comparator);
+
+        List<ConfiguredObject<?>> orderedObjects = new ArrayList<>(sortKeys.size());
+        for (SortKey sortKey : sortKeys)
+        {
+            orderedObjects.add(sortKey.getObject());
+        }
         return orderedObjects;
     }
 
+    /**
+     * Selects the first {@code count} objects in the order of the comparator using a bounded heap, so that a
+     * query for the first page of a large result set need not sort every matching object.  The returned keys
+     * are unordered.
+     */
+    private List<SortKey> selectFirst(final List<ConfiguredObject<?>> unorderedResults,
+                                      final OrderByComparator comparator,
+                                      final int count)
+    {
+        if (count == 0)
+        {
+            return new ArrayList<>();
+        }
+        final PriorityQueue<SortKey> heap = new PriorityQueue<>(count, comparator.reversed());
+        int position = 0;
+        for (ConfiguredObject<?> object : unorderedResults)
+        {
+            final SortKey sortKey = comparator.createSortKey(object, position++);
+            if (heap.size() < count)
+            {
+                heap.add(sortKey);
+            }
+            else if (comparator.compare(sortKey, heap.peek()) < 0)
+            {
+                heap.poll();
+                heap.add(sortKey);
+            }
+        }
+        return new ArrayList<>(heap);
+    }
+
     private List<OrderByExpression> parseOrderByClause(final String orderByClause,
                                                        final HeadersAndValueExpressions headersAndValue)
     {
@@ -20,6 +20,8 @@
  */
 package org.apache.qpid.server.management.plugin.servlet.rest;
 
+import static org.apache.qpid.server.management.plugin.HttpManagementConfiguration.QUERY_PARALLEL_FILTER_THRESHOLD_CONTEXT_NAME;
+
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.nio.charset.StandardCharsets;
@@ -90,7 +92,8 @@ public abstract class QueryServlet<X extends ConfiguredObject<?>> extends Abstra
                                                                             request.getParameter("where"),
                                                                             request.getParameter("orderBy"),
                                                                             request.getParameter("limit"),
-                                                                            request.getParameter("offset"));
+                                                                            request.getParameter("offset"),
+                                                                            getParallelFilterThreshold());
 
 
                     String attachmentFilename = request.getParameter(CONTENT_DISPOSITION_ATTACHMENT_FILENAME_PARAM);
@@ -159,6 +162,12 @@ public abstract class QueryServlet<X extends ConfiguredObject<?>> extends Abstra
         }
     }
 
+    private int getParallelFilterThreshold()
+    {
+        return getManagementConfiguration().getContextValue(Integer.class,
+                                                            QUERY_PARALLEL_FILTER_THRESHOLD_CONTEXT_NAME);
+    }
+
     abstract protected X getParent(final HttpServletRequest request, final ConfiguredObject<?> managedObject);
 
     abstract protected Class<? extends ConfiguredObject> getSupportedCategory(final String categoryName,
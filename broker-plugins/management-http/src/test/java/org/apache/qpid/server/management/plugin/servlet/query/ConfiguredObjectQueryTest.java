@@ -773,6 +773,86 @@ public class ConfiguredObjectQueryTest extends UnitTestBase
         assertQueryResults(new Object[][]{{"test-0"},{"test-1"},{"test-2"}}, _query.getResults());
     }
 
+    @Test
+    public void testLimitAndOffsetOfOrderedResultsMatchFullOrdering()
+    {
+        final int numberOfTestObjects = 50;
+        for (int i = 0; i < numberOfTestObjects; i++)
+        {
+            final String name = String.format("test-%02d", i);
+            final int depth = (i * 7) % 10;
+            ConfiguredObject object = createCO(new HashMap<String, Object>()
+            {{
+                put("name", name);
+                put("depth", depth);
+            }});
+            _objects.add(object);
+        }
+
+        final List<List<Object>> allResults =
+                new ConfiguredObjectQuery(_objects, "name, depth", null, "depth DESC").getResults();
+        assertEquals("Unexpected number of results", (long) numberOfTestObjects, (long) allResults.size());
+
+        for (int offset : new int[]{0, 3, 17, 45})
+        {
+            _query = new ConfiguredObjectQuery(_objects,
+                                               "name, depth",
+                                               null,
+                                               "depth DESC",
+                                               "10",
+                                               String.valueOf(offset));
+            assertEquals("Unexpected results for offset " + offset,
+                         allResults.subList(offset, Math.min(numberOfTestObjects, offset + 10)),
+                         _query.getResults());
+            assertEquals("Unexpected total number of rows",
+                         (long) numberOfTestObjects,
+                         (long) _query.getTotalNumberOfRows());
+        }
+
+        _query = new ConfiguredObjectQuery(_objects, "name, depth", null, "depth DESC", "0", "0");
+        assertQueryResults(new Object[0][2], _query.getResults());
+    }
+
+    @Test
+    public void testParallelWhereClauseKeepsOrderOfObjects()
+    {
+        final int numberOfTestObjects = 5000;
+        final List<Object> expectedNames = new ArrayList<>();
+        for (int i = 0; i < numberOfTestObjects; i++)
+        {
+            final String name = "test-" + i;
+            final int number = i;
+            ConfiguredObject object = createCO(new HashMap<String, Object>()
+            {{
+                put("name", name);
+                put(NUMBER_ATTR, number);
+            }});
+            _objects.add(object);
+            if (i % 3 == 0)
+            {
+                expectedNames.add(name);
+            }
+        }
+
+        _query = new ConfiguredObjectQuery(_objects,
+                                           "name",
+                                           String.format("%s %% 3 = 0", NUMBER_ATTR),
+                                           null,
+                                           null,
+                                           null,
+                                           1);
+
+        final List<Object> names = new ArrayList<>();
+        for (List<Object> row : _query.getResults())
+        {
+            names.add(row.get(0));
+        }
+        assertEquals("Unexpected results", expectedNames, names);
+        assertEquals("Unexpected total number of rows",
+                     (long) expectedNames.size(),
+                     (long) _query.getTotalNumberOfRows());
+    }
+
     private void assertQueryResults(final Object[][] expectedAttributes,
                                     final List<List<Object>> results)
     {
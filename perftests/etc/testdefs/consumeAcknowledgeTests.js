@@ -0,0 +1,100 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+/*
+ * Consume/acknowledge tests exercising the broker's unacknowledged message tracking.
+ *
+ * Consumers use client acknowledgement with the default (large) prefetch and acknowledge every
+ * _batchSize messages, which AMQP 0-9-1 clients send as a single basic.ack with multiple=true.
+ * Run the broker with GC logging or an allocation profiler to compare allocation per message.
+ */
+
+var ACKNOWLEDGE_MODE_AUTO_ACKNOWLEDGE = 1;
+var ACKNOWLEDGE_MODE_CLIENT_ACKNOWLEDGE = 2;
+var DELIVERY_MODE_TRANSIENT = 1;
+
+var messageSize = 256;
+var maximumDuration = 30000;
+var numberOfParticipantPairs = 4;
+
+function createTest(name, ackBatchSize)
+{
+    var test = {
+        "_name": name,
+        "_queues": [],
+        "_clients": []
+    };
+
+    for (var i = 0; i < numberOfParticipantPairs; i++)
+    {
+        var destination = "consumeAcknowledgeQueue_" + i;
+        test._queues.push({
+            "_name": destination,
+            "_durable": false
+        });
+
+        test._clients.push({
+            "_name": "producingClient_" + i,
+            "_connections": [{
+                "_name": "producingConnection_" + i,
+                "_factory": "connectionfactory",
+                "_sessions": [{
+                    "_sessionName": "producingSession_" + i,
+                    "_acknowledgeMode": ACKNOWLEDGE_MODE_AUTO_ACKNOWLEDGE,
+                    "_producers": [{
+                        "_name": "Producer_" + i,
+                        "_destinationName": destination,
+                        "_messageSize": messageSize,
+                        "_deliveryMode": DELIVERY_MODE_TRANSIENT,
+                        "_maximumDuration": maximumDuration
+                    }]
+                }]
+            }]
+        });
+        test._clients.push({
+            "_name": "consumingClient_" + i,
+            "_connections": [{
+                "_name": "consumingConnection_" + i,
+                "_factory": "connectionfactory",
+                "_sessions": [{
+                    "_sessionName": "consumingSession_" + i,
+                    "_acknowledgeMode": ACKNOWLEDGE_MODE_CLIENT_ACKNOWLEDGE,
+                    "_consumers": [{
+                        "_name": "Consumer_" + i,
+                        "_destinationName": destination,
+                        "_batchSize": ackBatchSize,
+                        "_maximumDuration": maximumDuration
+                    }]
+                }]
+            }]
+        });
+    }
+
+    return test;
+}
+
+var jsonObject = {
+    _tests: [
+        createTest("consume_acknowledge_single", 1),
+        createTest("consume_acknowledge_multiple_100", 100),
+        createTest("consume_acknowledge_multiple_1000", 1000)
+    ]
+};
@@ -0,0 +1,102 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+/*
+ * Delivery-rate tests for small AMQP 0-8/0-9/0-9-1 messages consumed by one or more consumers of a queue, exercising
+ * the broker's encoding of basic.deliver frames and content headers.
+ *
+ * Stands in for an encode micro-benchmark.  Run the clients with a 0-9-1 protocol selected and compare the consume
+ * rate together with the broker's allocation rate, for example from the JVM's GC logging or a profiler attached to
+ * the broker.
+ */
+
+var ACKNOWLEDGE_MODE_AUTO_ACKNOWLEDGE = 1;
+var DELIVERY_MODE_TRANSIENT = 1;
+
+var messageSize = 64;
+var maximumDuration = 30000;
+
+function createTest(name, numberOfConsumers)
+{
+    var destination = "deliverEncodeQueue";
+    var consumers = [];
+    for (var i = 0; i < numberOfConsumers; i++)
+    {
+        consumers.push({
+            "_name": "Consumer_" + i,
+            "_destinationName": destination,
+            "_maximumDuration": maximumDuration
+        });
+    }
+
+    return {
+        "_name": name,
+        "_queues": [{
+            "_name": destination,
+            "_durable": false
+        }],
+        "_clients": [{
+            "_name": "producingClient",
+            "_messageProviders": [{
+                "_name": "headerProvider",
+                "_messageProperties": {
+                    "application_header": "header_value"
+                }
+            }],
+            "_connections": [{
+                "_name": "producingConnection",
+                "_factory": "connectionfactory",
+                "_sessions": [{
+                    "_sessionName": "producingSession",
+                    "_acknowledgeMode": ACKNOWLEDGE_MODE_AUTO_ACKNOWLEDGE,
+                    "_producers": [{
+                        "_name": "Producer",
+                        "_destinationName": destination,
+                        "_messageSize": messageSize,
+                        "_deliveryMode": DELIVERY_MODE_TRANSIENT,
+                        "_messageProviderName": "headerProvider",
+                        "_maximumDuration": maximumDuration
+                    }]
+                }]
+            }]
+        }, {
+            "_name": "consumingClient",
+            "_connections": [{
+                "_name": "consumingConnection",
+                "_factory": "connectionfactory",
+                "_sessions": [{
+                    "_sessionName": "consumingSession",
+                    "_acknowledgeMode": ACKNOWLEDGE_MODE_AUTO_ACKNOWLEDGE,
+                    "_consumers": consumers
+                }]
+            }]
+        }]
+    };
+}
+
+var jsonObject = {
+    _tests: []
+};
+
+[1, 4, 16].forEach(function (numberOfConsumers)
+{
+    jsonObject._tests.push(createTest("deliver_encode_" + numberOfConsumers + "_consumers", numberOfConsumers));
+});
@@ -0,0 +1,124 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+/*
+ * Message group load against queues with 10000 message groups.
+ *
+ * Producers publish messages spread cyclically over 10000 groups, using the "group" header, while several consumers
+ * drain the queue.  Each consumer holds the groups it owns until it has acknowledged their messages, so consumers
+ * repeatedly meet entries of groups owned by others.  Compare the consume rate and broker CPU of shared groups and
+ * standard groups.  Requires the queues to be created over the REST API
+ * (-Dqpid.disttest.queue.creator.class=org.apache.qpid.disttest.jms.QpidRestAPIQueueCreator) so that the message
+ * group attributes are applied.
+ */
+
+var ACKNOWLEDGE_MODE_CLIENT_ACKNOWLEDGE = 2;
+var ACKNOWLEDGE_MODE_AUTO_ACKNOWLEDGE = 1;
+var DELIVERY_MODE_TRANSIENT = 1;
+
+var messageSize = 256;
+var maximumDuration = 30000;
+var numberOfGroups = 10000;
+var numberOfProducers = 2;
+var numberOfConsumers = 8;
+var batchSize = 100;
+
+function createTest(messageGroupType)
+{
+    var destination = "messageGroupQueue_" + messageGroupType;
+    var test = {
+        "_name": "message_group_" + messageGroupType + "_" + numberOfGroups + "_groups",
+        "_queues": [{
+            "_name": destination,
+            "_durable": false,
+            "_attributes": {
+                "messageGroupType": messageGroupType,
+                "messageGroupKeyOverride": "group"
+            }
+        }],
+        "_clients": []
+    };
+
+    for (var p = 0; p < numberOfProducers; p++)
+    {
+        test._clients.push({
+            "_name": "producingClient_" + p,
+            "_messageProviders": [{
+                "_name": "groupProvider_" + p,
+                "_messageProperties": {
+                    "group": {
+                        "@def": "range",
+                        "_lower": 0,
+                        "_upper": numberOfGroups - 1,
+                        "_type": "int",
+                        "_cyclic": true
+                    }
+                }
+            }],
+            "_connections": [{
+                "_name": "producingConnection_" + p,
+                "_factory": "connectionfactory",
+                "_sessions": [{
+                    "_sessionName": "producingSession_" + p,
+                    "_acknowledgeMode": ACKNOWLEDGE_MODE_AUTO_ACKNOWLEDGE,
+                    "_producers": [{
+                        "_name": "Producer_" + p,
+                        "_destinationName": destination,
+                        "_messageSize": messageSize,
+                        "_deliveryMode": DELIVERY_MODE_TRANSIENT,
+                        "_messageProviderName": "groupProvider_" + p,
+                        "_maximumDuration": maximumDuration
+                    }]
+                }]
+            }]
+        });
+    }
+
+    for (var c = 0; c < numberOfConsumers; c++)
+    {
+        test._clients.push({
+            "_name": "consumingClient_" + c,
+            "_connections": [{
+                "_name": "consumingConnection_" + c,
+                "_factory": "connectionfactory",
+                "_sessions": [{
+                    "_sessionName": "consumingSession_" + c,
+                    "_acknowledgeMode": ACKNOWLEDGE_MODE_CLIENT_ACKNOWLEDGE,
+                    "_consumers": [{
+                        "_name": "Consumer_" + c,
+                        "_destinationName": destination,
+                        "_batchSize": batchSize,
+                        "_maximumDuration": maximumDuration
+                    }]
+                }]
+            }]
+        });
+    }
+
+    return test;
+}
+
+var jsonObject = {
+    _tests: [
+        createTest("SHARED_GROUPS"),
+        createTest("STANDARD")
+    ]
+};
@@ -0,0 +1,108 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+/*
+ * Mixed-priority load against priority queues with 10, 100 and 255 priority levels.
+ *
+ * Producers publish concurrently at JMS priorities 0, 4 and 9 while several consumers drain the queue, so that the
+ * occupied priority levels are sparse and consumers repeatedly move between them.  Compare the consume rate and
+ * broker CPU across the three level counts.  Requires the queues to be created over the REST API
+ * (-Dqpid.disttest.queue.creator.class=org.apache.qpid.disttest.jms.QpidRestAPIQueueCreator) so that the
+ * priorities attribute is applied.
+ */
+
+var ACKNOWLEDGE_MODE_AUTO_ACKNOWLEDGE = 1;
+var DELIVERY_MODE_TRANSIENT = 1;
+
+var messageSize = 256;
+var maximumDuration = 30000;
+var numberOfConsumers = 4;
+var producerPriorities = [0, 4, 9];
+
+function createTest(priorities)
+{
+    var destination = "priorityQueue_" + priorities;
+    var test = {
+        "_name": "priority_queue_" + priorities + "_levels",
+        "_queues": [{
+            "_name": destination,
+            "_durable": false,
+            "_attributes": {
+                "priorities": priorities
+            }
+        }],
+        "_clients": []
+    };
+
+    for (var p = 0; p < producerPriorities.length; p++)
+    {
+        var priority = producerPriorities[p];
+        test._clients.push({
+            "_name": "producingClient_" + priority,
+            "_connections": [{
+                "_name": "producingConnection_" + priority,
+                "_factory": "connectionfactory",
+                "_sessions": [{
+                    "_sessionName": "producingSession_" + priority,
+                    "_acknowledgeMode": ACKNOWLEDGE_MODE_AUTO_ACKNOWLEDGE,
+                    "_producers": [{
+                        "_name": "Producer_" + priority,
+                        "_destinationName": destination,
+                        "_messageSize": messageSize,
+                        "_deliveryMode": DELIVERY_MODE_TRANSIENT,
+                        "_priority": priority,
+                        "_maximumDuration": maximumDuration
+                    }]
+                }]
+            }]
+        });
+    }
+
+    for (var c = 0; c < numberOfConsumers; c++)
+    {
+        test._clients.push({
+            "_name": "consumingClient_" + c,
+            "_connections": [{
+                "_name": "consumingConnection_" + c,
+                "_factory": "connectionfactory",
+                "_sessions": [{
+                    "_sessionName": "consumingSession_" + c,
+                    "_acknowledgeMode": ACKNOWLEDGE_MODE_AUTO_ACKNOWLEDGE,
+                    "_consumers": [{
+                        "_name": "Consumer_" + c,
+                        "_destinationName": destination,
+                        "_maximumDuration": maximumDuration
+                    }]
+                }]
+            }]
+        });
+    }
+
+    return test;
+}
+
+var jsonObject = {
+    _tests: [
+        createTest(10),
+        createTest(100),
+        createTest(255)
+    ]
+};
@@ -0,0 +1,109 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+/*
+ * Publish-rate tests exercising AMQP 0-8/0-9/0-9-1 frame decoding of short strings: exchange names, routing keys,
+ * content header properties and application header keys which repeat from message to message.
+ *
+ * Stands in for a decode micro-benchmark.  Compare the publish rate and broker allocation rate with the short
+ * string intern cache enabled (the default) and disabled (-Dqpid.amqp_0_8.short_string_intern_cache_size=0).
+ */
+
+var ACKNOWLEDGE_MODE_AUTO_ACKNOWLEDGE = 1;
+var DELIVERY_MODE_TRANSIENT = 1;
+
+var messageSize = 64;
+var maximumDuration = 30000;
+var numberOfParticipantPairs = 4;
+
+function createTest(name, numberOfHeaders)
+{
+    var test = {
+        "_name": name,
+        "_queues": [],
+        "_clients": []
+    };
+
+    var messageProperties = {};
+    for (var h = 0; h < numberOfHeaders; h++)
+    {
+        messageProperties["application_header_" + h] = "header_value_" + h;
+    }
+
+    for (var i = 0; i < numberOfParticipantPairs; i++)
+    {
+        var destination = "shortStringDecodeQueue_" + i;
+        test._queues.push({
+            "_name": destination,
+            "_durable": false
+        });
+
+        test._clients.push({
+            "_name": "producingClient_" + i,
+            "_messageProviders": [{
+                "_name": "headerProvider_" + i,
+                "_messageProperties": messageProperties
+            }],
+            "_connections": [{
+                "_name": "producingConnection_" + i,
+                "_factory": "connectionfactory",
+                "_sessions": [{
+                    "_sessionName": "producingSession_" + i,
+                    "_acknowledgeMode": ACKNOWLEDGE_MODE_AUTO_ACKNOWLEDGE,
+                    "_producers": [{
+                        "_name": "Producer_" + i,
+                        "_destinationName": destination,
+                        "_messageSize": messageSize,
+                        "_deliveryMode": DELIVERY_MODE_TRANSIENT,
+                        "_messageProviderName": "headerProvider_" + i,
+                        "_maximumDuration": maximumDuration
+                    }]
+                }]
+            }]
+        });
+        test._clients.push({
+            "_name": "consumingClient_" + i,
+            "_connections": [{
+                "_name": "consumingConnection_" + i,
+                "_factory": "connectionfactory",
+                "_sessions": [{
+                    "_sessionName": "consumingSession_" + i,
+                    "_acknowledgeMode": ACKNOWLEDGE_MODE_AUTO_ACKNOWLEDGE,
+                    "_consumers": [{
+                        "_name": "Consumer_" + i,
+                        "_destinationName": destination,
+                        "_maximumDuration": maximumDuration
+                    }]
+                }]
+            }]
+        });
+    }
+
+    return test;
+}
+
+var jsonObject = {
+    _tests: [
+        createTest("short_string_decode_no_headers", 0),
+        createTest("short_string_decode_8_headers", 8),
+        createTest("short_string_decode_32_headers", 32)
+    ]
+};
@@ -0,0 +1,89 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+/*
+ * Throughput tests for AMQP 0-10 message transfers of 1 KB to 1 MB, exercising the broker's assembly of transfer
+ * commands from frames and the fragmentation of outbound transfers into frames.
+ *
+ * Stands in for an allocation and throughput benchmark of the 0-10 transfer path.  Run the clients with the 0-10
+ * protocol selected (-Dqpid.amqp.version=0-10) and compare the message rate together with the broker's allocation
+ * rate and direct memory use, for example from the JVM's GC logging or a profiler attached to the broker.
+ */
+
+var ACKNOWLEDGE_MODE_AUTO_ACKNOWLEDGE = 1;
+var DELIVERY_MODE_TRANSIENT = 1;
+
+var maximumDuration = 30000;
+var kilobyte = 1024;
+
+function createTest(name, messageSize)
+{
+    var destination = "transfer0_10Queue";
+    return {
+        "_name": name,
+        "_queues": [{
+            "_name": destination,
+            "_durable": false
+        }],
+        "_clients": [{
+            "_name": "producingClient",
+            "_connections": [{
+                "_name": "producingConnection",
+                "_factory": "connectionfactory",
+                "_sessions": [{
+                    "_sessionName": "producingSession",
+                    "_acknowledgeMode": ACKNOWLEDGE_MODE_AUTO_ACKNOWLEDGE,
+                    "_producers": [{
+                        "_name": "Producer",
+                        "_destinationName": destination,
+                        "_messageSize": messageSize,
+                        "_deliveryMode": DELIVERY_MODE_TRANSIENT,
+                        "_maximumDuration": maximumDuration
+                    }]
+                }]
+            }]
+        }, {
+            "_name": "consumingClient",
+            "_connections": [{
+                "_name": "consumingConnection",
+                "_factory": "connectionfactory",
+                "_sessions": [{
+                    "_sessionName": "consumingSession",
+                    "_acknowledgeMode": ACKNOWLEDGE_MODE_AUTO_ACKNOWLEDGE,
+                    "_consumers": [{
+                        "_name": "Consumer",
+                        "_destinationName": destination,
+                        "_maximumDuration": maximumDuration
+                    }]
+                }]
+            }]
+        }]
+    };
+}
+
+var jsonObject = {
+    _tests: []
+};
+
+[1, 16, 64, 256, 1024].forEach(function (size)
+{
+    jsonObject._tests.push(createTest("transfer_0_10_" + size + "KB", size * kilobyte));
+});
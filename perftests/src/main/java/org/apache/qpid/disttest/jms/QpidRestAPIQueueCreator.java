@@ -98,7 +98,7 @@ public class QpidRestAPIQueueCreator implements QueueCreator
         for (QueueConfig queueConfig : configs)
         {
             final String queueName = queueConfig.getName();
-            managementCreateQueue(queueName, context);
+            managementCreateQueue(queueName, queueConfig.getAttributes(), context);
         }
     }
 
@@ -268,11 +268,22 @@ public class QpidRestAPIQueueCreator implements QueueCreator
         }
     }
 
-    private void managementCreateQueue(final String name, final HttpClientContext context)
+    private void managementCreateQueue(final String name,
+                                       final Map<String, Object> attributes,
+                                       final HttpClientContext context)
     {
         HttpPut put = new HttpPut(String.format(_queueApiUrl, _virtualhostnode, _virtualhost, name));
 
-        StringEntity input = new StringEntity("{}", StandardCharsets.UTF_8);
+        final String body;
+        try
+        {
+            body = attributes == null ? "{}" : new ObjectMapper().writeValueAsString(attributes);
+        }
+        catch (IOException e)
+        {
+            throw new RuntimeException(e);
+        }
+        StringEntity input = new StringEntity(body, StandardCharsets.UTF_8);
         input.setContentType("application/json");
         put.setEntity(input);
 
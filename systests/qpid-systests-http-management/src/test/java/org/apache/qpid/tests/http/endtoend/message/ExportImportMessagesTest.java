@@ -20,13 +20,16 @@
 package org.apache.qpid.tests.http.endtoend.message;
 
 import static javax.servlet.http.HttpServletResponse.SC_OK;
+import static org.apache.qpid.server.management.plugin.servlet.rest.AbstractServlet.SC_UNPROCESSABLE_ENTITY;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assume.assumeThat;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -85,6 +88,39 @@ public class ExportImportMessagesTest extends HttpTestBase
         verifyMessagesOnQueue(sentMessage);
     }
 
+    @Test
+    public void exportImportResumedAfterFailure() throws Exception
+    {
+        assumeThat(getBrokerAdmin().supportsRestart(), is(true));
+
+        getBrokerAdmin().createQueue(TEST_QUEUE);
+
+        final TextMessage sentMessage = putMessageOnQueue();
+
+        changeVirtualHostState("STOPPED");
+
+        byte[] extractedBytes = getHelper().getBytes("virtualhost/exportMessageStore?format=v2.0");
+
+        changeVirtualHostState("ACTIVE");
+
+        getBrokerAdmin().deleteQueue(TEST_QUEUE);
+        getBrokerAdmin().createQueue(TEST_QUEUE);
+
+        changeVirtualHostState("STOPPED");
+
+        byte[] truncatedBytes = Arrays.copyOf(extractedBytes, extractedBytes.length - 1);
+        Map<String, Object> importArgs = new HashMap<>();
+        importArgs.put("source", DataUrlUtils.getDataUrlForBytes(truncatedBytes));
+        getHelper().submitRequest("virtualhost/importMessageStore", "POST", importArgs, SC_UNPROCESSABLE_ENTITY);
+
+        importArgs.put("source", DataUrlUtils.getDataUrlForBytes(extractedBytes));
+        importArgs.put("resume", true);
+        getHelper().postJson("virtualhost/importMessageStore", importArgs, new TypeReference<Void>() {}, SC_OK);
+
+        changeVirtualHostState("ACTIVE");
+        verifyMessagesOnQueue(sentMessage);
+    }
+
     private void changeVirtualHostState(final String desiredState) throws Exception
     {
         Map<String, Object> attributes = Collections.singletonMap(VirtualHost.DESIRED_STATE, desiredState);
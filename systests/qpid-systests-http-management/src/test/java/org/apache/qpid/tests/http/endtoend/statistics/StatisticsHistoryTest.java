@@ -0,0 +1,102 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.tests.http.endtoend.statistics;
+
+import static javax.servlet.http.HttpServletResponse.SC_OK;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.Assert.assertThat;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.jms.Connection;
+import javax.jms.Session;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.junit.Test;
+
+import org.apache.qpid.server.model.Broker;
+import org.apache.qpid.server.model.ConfiguredObject;
+import org.apache.qpid.server.stats.StatisticsTimeSeries;
+import org.apache.qpid.systests.Utils;
+import org.apache.qpid.tests.http.HttpRequestConfig;
+import org.apache.qpid.tests.http.HttpTestBase;
+
+@HttpRequestConfig()
+public class StatisticsHistoryTest extends HttpTestBase
+{
+    private static final TypeReference<LinkedHashMap<String, Object>> MAP_TYPE_REF =
+            new TypeReference<LinkedHashMap<String, Object>>()
+            {
+            };
+    private static final long TIMEOUT_IN_MS = 10000;
+    private static final String QUEUE_NAME = "queue";
+
+    @Test
+    public void queueStatisticsHistory() throws Exception
+    {
+        getBrokerAdmin().createQueue(QUEUE_NAME);
+
+        final Map<String, String> context = new HashMap<>();
+        context.put(Broker.STATISTICS_TIME_SERIES_SAMPLING_PERIOD, "1");
+        context.put("qpid.queue.statisticsTimeSeries", "queueDepthMessages, totalEnqueuedMessages");
+        getHelper().submitRequest("virtualhost", "POST", Collections.singletonMap(ConfiguredObject.CONTEXT, context), SC_OK);
+
+        Connection connection = getConnection();
+        try
+        {
+            Session session = connection.createSession(true, Session.SESSION_TRANSACTED);
+            Utils.sendMessages(session, session.createQueue(QUEUE_NAME), 1);
+        }
+        finally
+        {
+            connection.close();
+        }
+
+        final long from = System.currentTimeMillis() - TIMEOUT_IN_MS;
+        final long timeout = System.currentTimeMillis() + TIMEOUT_IN_MS;
+        List<?> queueDepths = null;
+        Map<String, Object> history;
+        do
+        {
+            Thread.sleep(500);
+            history = getHelper().getJson(String.format("queue/%s/getStatisticsHistory?from=%d", QUEUE_NAME, from),
+                                          MAP_TYPE_REF,
+                                          SC_OK);
+            final Map<?, ?> values = (Map<?, ?>) history.get(StatisticsTimeSeries.VALUES);
+            if (values != null)
+            {
+                queueDepths = (List<?>) values.get("queueDepthMessages");
+            }
+        }
+        while ((queueDepths == null || !queueDepths.contains(1)) && System.currentTimeMillis() < timeout);
+
+        assertThat("Queue depth not sampled", queueDepths, is(notNullValue()));
+        assertThat("Enqueued message not sampled", (List<Object>) queueDepths, hasItem(1));
+        final Map<?, ?> rates = (Map<?, ?>) history.get(StatisticsTimeSeries.RATES);
+        assertThat("Rates of cumulative statistic not found", rates.get("totalEnqueuedMessages"), is(notNullValue()));
+    }
+}